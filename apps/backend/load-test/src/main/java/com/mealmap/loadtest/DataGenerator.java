@@ -0,0 +1,311 @@
+package com.mealmap.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Data Generator
+ *
+ * Bulk-loads synthetic users, households, ingredients, recipes, planner weeks and pantry items
+ * with batched JDBC inserts. Every user gets the same password ({@value LoadTestSettings#PASSWORD})
+ * so the driver can log in as any of them. Runs against the schema created by the backend
+ * (Flyway on SQL Server, Hibernate on the h2 profile), so start the backend once first.
+ */
+public class DataGenerator {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final String[] UNITS = {"g", "kg", "ml", "l", "piece", "pack"};
+    private static final String[] SLOTS = {"breakfast", "lunch", "dinner"};
+    private static final String[][] CATEGORIES = {
+            {"11111111-1111-1111-1111-111111111111", "Dairy & Eggs"},
+            {"22222222-2222-2222-2222-222222222222", "Meat & Fish"},
+            {"33333333-3333-3333-3333-333333333333", "Fruits & Vegetables"},
+            {"44444444-4444-4444-4444-444444444444", "Bakery"},
+            {"55555555-5555-5555-5555-555555555555", "Pantry Staples"},
+            {"66666666-6666-6666-6666-666666666666", "Snacks & Sweets"},
+            {"77777777-7777-7777-7777-777777777777", "Beverages"},
+            {"88888888-8888-8888-8888-888888888888", "Frozen Foods"},
+            {"99999999-9999-9999-9999-999999999999", "Other"}
+    };
+
+    private final LoadTestSettings settings;
+    private final Random random = new Random(42);
+    private final Timestamp now = Timestamp.from(Instant.now());
+
+    DataGenerator(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        try (Connection connection = DriverManager.getConnection(
+                settings.jdbcUrl(), settings.jdbcUser(), settings.jdbcPassword())) {
+            connection.setAutoCommit(false);
+            new DataGenerator(settings).generate(connection);
+        }
+    }
+
+    void generate(Connection connection) throws SQLException {
+        long started = System.nanoTime();
+        ensureCategories(connection);
+
+        int users = settings.users();
+        List<UUID> userIds = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            userIds.add(UUID.randomUUID());
+        }
+
+        // Group consecutive users into households; the first member administers it
+        List<UUID> householdIds = new ArrayList<>();
+        UUID[] householdOf = new UUID[users];
+        if (settings.householdSize() > 1) {
+            for (int i = 0; i + settings.householdSize() <= users; i += settings.householdSize() * 2) {
+                UUID householdId = UUID.randomUUID();
+                householdIds.add(householdId);
+                for (int member = i; member < i + settings.householdSize(); member++) {
+                    householdOf[member] = householdId;
+                }
+            }
+        }
+
+        insertHouseholds(connection, householdIds, userIds, householdOf);
+        insertUsers(connection, userIds, householdOf);
+        List<List<UUID>> ingredientsByUser = insertIngredients(connection, userIds);
+        List<List<UUID>> recipesByUser = insertRecipes(connection, userIds, ingredientsByUser);
+        insertRecipeIngredientTotals(connection);
+        insertPlannerWeeks(connection, userIds, recipesByUser);
+        insertPantryItems(connection, userIds, ingredientsByUser);
+
+        System.out.printf("Generated %d users and %d households in %d ms%n",
+                users, householdIds.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void ensureCategories(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM categories")) {
+            rs.next();
+            if (rs.getInt(1) > 0) {
+                return;
+            }
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO categories (id, name, sort_order) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                insert.setString(1, CATEGORIES[i][0]);
+                insert.setString(2, CATEGORIES[i][1]);
+                insert.setInt(3, i + 1);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private void insertHouseholds(Connection connection, List<UUID> householdIds, List<UUID> userIds,
+                                  UUID[] householdOf) throws SQLException {
+        try (Batch batch = new Batch(connection,
+                "INSERT INTO households (id, name, admin_id, created_at) VALUES (?, ?, ?, ?)")) {
+            int next = 0;
+            for (int i = 0; i < householdOf.length && next < householdIds.size(); i++) {
+                if (householdOf[i] != null && householdOf[i].equals(householdIds.get(next))) {
+                    batch.add(householdIds.get(next).toString(), "Load test household " + next,
+                            userIds.get(i).toString(), now);
+                    next++;
+                }
+            }
+        }
+    }
+
+    private void insertUsers(Connection connection, List<UUID> userIds, UUID[] householdOf) throws SQLException {
+        // One hash for everyone: hashing per user would dominate generation time
+        String passwordHash = BCrypt.hashpw(LoadTestSettings.PASSWORD, BCrypt.gensalt(10));
+        try (Batch users = new Batch(connection,
+                "INSERT INTO users (id, email, password_hash, display_name, mfa_enabled, email_verified, "
+                        + "household_id, theme_preference, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < userIds.size(); i++) {
+                users.add(userIds.get(i).toString(), LoadTestSettings.email(i), passwordHash, "Load Test " + i,
+                        false, true, householdOf[i] != null ? householdOf[i].toString() : null, "system", now);
+            }
+        }
+        try (Batch profiles = new Batch(connection, "INSERT INTO profiles (user_id, role) VALUES (?, ?)");
+             Batch slots = new Batch(connection,
+                     "INSERT INTO profile_meal_slots (user_id, meal_slot) VALUES (?, ?)")) {
+            for (int i = 0; i < userIds.size(); i++) {
+                String userId = userIds.get(i).toString();
+                profiles.add(userId, householdOf[i] != null ? "household" : "personal");
+                for (String slot : SLOTS) {
+                    slots.add(userId, slot);
+                }
+            }
+        }
+    }
+
+    private List<List<UUID>> insertIngredients(Connection connection, List<UUID> userIds) throws SQLException {
+        List<List<UUID>> byUser = new ArrayList<>(userIds.size());
+        try (Batch batch = new Batch(connection,
+                "INSERT INTO ingredients (id, owner_user_id, name, category_id, default_unit, package_amount, "
+                        + "package_unit, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (UUID userId : userIds) {
+                List<UUID> ingredients = new ArrayList<>(settings.ingredientsPerUser());
+                for (int i = 0; i < settings.ingredientsPerUser(); i++) {
+                    UUID id = UUID.randomUUID();
+                    String unit = UNITS[random.nextInt(UNITS.length)];
+                    batch.add(id.toString(), userId.toString(), "Ingredient " + i,
+                            CATEGORIES[random.nextInt(CATEGORIES.length)][0], unit,
+                            BigDecimal.valueOf(1 + random.nextInt(1000)), unit, now, now);
+                    ingredients.add(id);
+                }
+                byUser.add(ingredients);
+            }
+        }
+        return byUser;
+    }
+
+    private List<List<UUID>> insertRecipes(Connection connection, List<UUID> userIds,
+                                           List<List<UUID>> ingredientsByUser) throws SQLException {
+        List<List<UUID>> byUser = new ArrayList<>(userIds.size());
+        try (Batch recipes = new Batch(connection,
+                "INSERT INTO recipes (id, owner_user_id, name, created_at, updated_at) VALUES (?, ?, ?, ?, ?)");
+             Batch items = new Batch(connection,
+                     "INSERT INTO recipe_items (id, recipe_id, ingredient_id, quantity_amount, quantity_unit) "
+                             + "VALUES (?, ?, ?, ?, ?)")) {
+            for (int u = 0; u < userIds.size(); u++) {
+                List<UUID> ingredients = ingredientsByUser.get(u);
+                List<UUID> userRecipes = new ArrayList<>(settings.recipesPerUser());
+                for (int r = 0; r < settings.recipesPerUser(); r++) {
+                    UUID recipeId = UUID.randomUUID();
+                    recipes.add(recipeId.toString(), userIds.get(u).toString(), "Recipe " + r, now, now);
+                    for (int i = 0; i < settings.itemsPerRecipe() && !ingredients.isEmpty(); i++) {
+                        items.add(UUID.randomUUID().toString(), recipeId.toString(),
+                                ingredients.get(random.nextInt(ingredients.size())).toString(),
+                                BigDecimal.valueOf(1 + random.nextInt(500)), UNITS[random.nextInt(UNITS.length)]);
+                    }
+                    userRecipes.add(recipeId);
+                }
+                byUser.add(userRecipes);
+            }
+        }
+        return byUser;
+    }
+
+    // The application maintains these rows on every recipe write; generated recipes bypass it
+    private void insertRecipeIngredientTotals(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO recipe_ingredient_totals "
+                    + "(recipe_id, ingredient_id, base_unit, amount, category_id) "
+                    + "SELECT ri.recipe_id, ri.ingredient_id, f.base_unit, SUM(ri.quantity_amount * f.factor), "
+                    + "i.category_id "
+                    + "FROM recipe_items ri "
+                    + "JOIN unit_conversion_factors f ON f.unit = ri.quantity_unit "
+                    + "JOIN ingredients i ON i.id = ri.ingredient_id "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM recipe_ingredient_totals t WHERE t.recipe_id = ri.recipe_id) "
+                    + "GROUP BY ri.recipe_id, ri.ingredient_id, f.base_unit, i.category_id");
+        }
+        connection.commit();
+    }
+
+    private void insertPlannerWeeks(Connection connection, List<UUID> userIds,
+                                    List<List<UUID>> recipesByUser) throws SQLException {
+        LocalDate currentMonday = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        try (Batch weeks = new Batch(connection,
+                "INSERT INTO planner_weeks (id, start_date, user_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?)");
+             Batch items = new Batch(connection,
+                     "INSERT INTO planner_items (id, date, slot, recipe_id, portions, added_by_user_id, "
+                             + "planner_week_id) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int u = 0; u < userIds.size(); u++) {
+                String userId = userIds.get(u).toString();
+                List<UUID> recipes = recipesByUser.get(u);
+                for (int w = 0; w < settings.weeksPerUser(); w++) {
+                    UUID weekId = UUID.randomUUID();
+                    LocalDate start = currentMonday.minusWeeks(w);
+                    weeks.add(weekId.toString(), start, userId, now, now);
+                    for (int day = 0; day < 7 && !recipes.isEmpty(); day++) {
+                        for (String slot : SLOTS) {
+                            items.add(UUID.randomUUID().toString(), start.plusDays(day), slot,
+                                    recipes.get(random.nextInt(recipes.size())).toString(),
+                                    1 + random.nextInt(4), userId, weekId.toString());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void insertPantryItems(Connection connection, List<UUID> userIds,
+                                   List<List<UUID>> ingredientsByUser) throws SQLException {
+        try (Batch batch = new Batch(connection,
+                "INSERT INTO pantry_items (id, ingredient_id, quantity_amount, quantity_unit, user_id, "
+                        + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int u = 0; u < userIds.size(); u++) {
+                List<UUID> ingredients = ingredientsByUser.get(u);
+                for (int i = 0; i < settings.pantryItemsPerUser() && i < ingredients.size(); i++) {
+                    batch.add(UUID.randomUUID().toString(), ingredients.get(i).toString(),
+                            BigDecimal.valueOf(1 + random.nextInt(200)), UNITS[random.nextInt(UNITS.length)],
+                            userIds.get(u).toString(), now, now);
+                }
+            }
+        }
+    }
+
+    /**
+     * Prepared statement that flushes every {@link #BATCH_SIZE} rows and commits on close
+     */
+    private static final class Batch implements AutoCloseable {
+
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private final String table;
+        private int pending;
+        private int total;
+
+        Batch(Connection connection, String sql) throws SQLException {
+            this.connection = connection;
+            this.statement = connection.prepareStatement(sql);
+            this.table = sql.split("\\s+")[2];
+        }
+
+        void add(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null) {
+                    statement.setNull(i + 1, Types.VARCHAR);
+                } else {
+                    statement.setObject(i + 1, values[i]);
+                }
+            }
+            statement.addBatch();
+            total++;
+            if (++pending == BATCH_SIZE) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try (statement) {
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+                connection.commit();
+            }
+            System.out.printf("  %-20s %,d rows%n", table, total);
+        }
+    }
+}
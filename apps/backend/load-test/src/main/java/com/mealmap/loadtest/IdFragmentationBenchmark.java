@@ -0,0 +1,123 @@
+package com.mealmap.loadtest;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Id Fragmentation Benchmark
+ *
+ * Inserts the same rows into two scratch tables shaped like {@code planner_items}, one keyed by
+ * random v4 UUIDs and one by the backend's time-ordered UUIDs, in JDBC batches committed like
+ * Hibernate flushes them. Reports insert throughput, then fragmentation, page count and page
+ * fullness of each clustered primary key from {@code sys.dm_db_index_physical_stats}, so it
+ * needs SQL Server. The scratch tables are dropped afterwards.
+ */
+public class IdFragmentationBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    private final LoadTestSettings settings;
+
+    IdFragmentationBenchmark(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        try (Connection connection = DriverManager.getConnection(
+                settings.jdbcUrl(), settings.jdbcUser(), settings.jdbcPassword())) {
+            connection.setAutoCommit(false);
+            new IdFragmentationBenchmark(settings).run(connection);
+        }
+    }
+
+    void run(Connection connection) throws SQLException {
+        System.out.printf("Inserting %,d rows per generator in batches of %d%n", settings.idBenchmarkRows(), BATCH_SIZE);
+        System.out.printf("%-14s %10s %14s %10s %12s%n", "generator", "rows/s", "fragmentation", "pages", "page full");
+        measure(connection, "random", UUID::randomUUID);
+        measure(connection, "time-ordered", TimeOrderedIds::next);
+    }
+
+    private void measure(Connection connection, String generator, Supplier<UUID> ids) throws SQLException {
+        String table = "bench_ids_" + generator.replace('-', '_');
+        execute(connection, "DROP TABLE IF EXISTS " + table);
+        execute(connection, "CREATE TABLE " + table + " ("
+                + "id UNIQUEIDENTIFIER NOT NULL PRIMARY KEY, "
+                + "planner_week_id UNIQUEIDENTIFIER NOT NULL, "
+                + "date DATE NOT NULL, "
+                + "slot VARCHAR(20) NOT NULL, "
+                + "portions INT NOT NULL)");
+        try {
+            long started = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table
+                    + " (id, planner_week_id, date, slot, portions) VALUES (?, ?, ?, ?, ?)")) {
+                UUID weekId = ids.get();
+                for (int row = 1; row <= settings.idBenchmarkRows(); row++) {
+                    if (row % 21 == 0) {
+                        weekId = ids.get();
+                    }
+                    insert.setString(1, ids.get().toString());
+                    insert.setString(2, weekId.toString());
+                    insert.setDate(3, Date.valueOf("2024-01-01"));
+                    insert.setString(4, "dinner");
+                    insert.setInt(5, ThreadLocalRandom.current().nextInt(1, 5));
+                    insert.addBatch();
+                    if (row % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            try (PreparedStatement stats = connection.prepareStatement(
+                    "SELECT avg_fragmentation_in_percent, page_count, avg_page_space_used_in_percent "
+                            + "FROM sys.dm_db_index_physical_stats(DB_ID(), OBJECT_ID(?), 1, NULL, 'SAMPLED') "
+                            + "WHERE index_level = 0")) {
+                stats.setString(1, table);
+                try (ResultSet rs = stats.executeQuery()) {
+                    rs.next();
+                    System.out.printf("%-14s %10.0f %13.1f%% %10d %11.1f%%%n", generator,
+                            settings.idBenchmarkRows() / seconds, rs.getDouble(1), rs.getLong(2), rs.getDouble(3));
+                }
+            }
+        } finally {
+            execute(connection, "DROP TABLE IF EXISTS " + table);
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+        connection.commit();
+    }
+
+    /**
+     * Same layout as the backend's {@code TimeOrderedUuidGenerator}: millisecond timestamp in the
+     * last group, a counter in the fourth, random bits with version 8 in front
+     */
+    static final class TimeOrderedIds {
+
+        private static final AtomicLong LAST = new AtomicLong();
+
+        static UUID next() {
+            long candidate = System.currentTimeMillis() << 14;
+            long state = LAST.updateAndGet(last -> Math.max(last + 1, candidate));
+            long leastSigBits = (0b10L << 62) | ((state & 0x3FFF) << 48) | ((state >>> 14) & 0xFFFF_FFFF_FFFFL);
+            long mostSigBits = (ThreadLocalRandom.current().nextLong() & ~0xF000L) | 0x8000L;
+            return new UUID(mostSigBits, leastSigBits);
+        }
+    }
+}
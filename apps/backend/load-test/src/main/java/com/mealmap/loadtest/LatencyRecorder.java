@@ -0,0 +1,71 @@
+package com.mealmap.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Collects per-endpoint latencies and prints throughput and percentiles
+ */
+class LatencyRecorder {
+
+    private final Map<String, Samples> samplesByEndpoint = new ConcurrentSkipListMap<>();
+
+    void record(String endpoint, long nanos, boolean success) {
+        samplesByEndpoint.computeIfAbsent(endpoint, key -> new Samples()).add(nanos, success);
+    }
+
+    void print(PrintStream out, Duration elapsed) {
+        double seconds = elapsed.toMillis() / 1000.0;
+        out.printf("%-32s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        samplesByEndpoint.forEach((endpoint, samples) -> {
+            long[] sorted = samples.sorted();
+            out.printf("%-32s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    endpoint, sorted.length, samples.errors(), sorted.length / seconds,
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.95)),
+                    millis(percentile(sorted, 0.99)), millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+        });
+    }
+
+    static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Samples {
+
+        private long[] values = new long[1024];
+        private int size;
+        private int errors;
+
+        synchronized void add(long nanos, boolean success) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized int errors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.mealmap.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load Test Runner
+ *
+ * Closed-loop driver: each virtual user (one virtual thread) repeatedly logs in, loads the
+ * dashboard and its planner weeks, edits a week, computes the grocery list and checks off an
+ * item, until the configured duration elapses. Virtual users start evenly over the ramp-up and
+ * log in as the generated users round-robin. Prints requests, errors, throughput and
+ * p50/p95/p99 latency per endpoint at the end.
+ */
+public class LoadTestRunner {
+
+    private final LoadTestSettings settings;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    LoadTestRunner(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        new LoadTestRunner(LoadTestSettings.fromSystemProperties()).run();
+    }
+
+    void run() throws InterruptedException {
+        System.out.printf("Running %d virtual users against %s for %s%n",
+                settings.concurrency(), settings.baseUrl(), settings.duration());
+        long started = System.nanoTime();
+        long deadline = started + settings.duration().toNanos();
+        long rampStep = settings.rampUp().toNanos() / Math.max(1, settings.concurrency());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int vu = 0; vu < settings.concurrency(); vu++) {
+                int userIndex = vu % settings.users();
+                long startAt = started + rampStep * vu;
+                executor.submit(() -> {
+                    sleepUntil(startAt);
+                    virtualUser(userIndex, deadline);
+                    return null;
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(settings.duration().toSeconds() + 60, TimeUnit.SECONDS);
+        }
+
+        recorder.print(System.out, Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private void virtualUser(int userIndex, long deadline) {
+        MealMapClient client = new MealMapClient(httpClient, settings.baseUrl(), recorder);
+        for (int iteration = 0; System.nanoTime() < deadline; iteration++) {
+            if (!client.isAuthenticated() || iteration % settings.loginEvery() == 0) {
+                client.login(LoadTestSettings.email(userIndex), LoadTestSettings.PASSWORD);
+                if (!client.isAuthenticated()) {
+                    pause();
+                    continue;
+                }
+            }
+            iterate(client);
+        }
+    }
+
+    private void iterate(MealMapClient client) {
+        client.get("GET /dashboard/stats", "/dashboard/stats");
+
+        JsonNode weeks = client.get("GET /planner/weeks", "/planner/weeks?limit=4");
+        if (weeks == null || weeks.path("data").isEmpty()) {
+            return;
+        }
+        JsonNode week = weeks.path("data").get(ThreadLocalRandom.current().nextInt(weeks.path("data").size()));
+        String weekId = week.path("id").asText();
+        client.get("GET /planner/weeks/{id}", "/planner/weeks/" + weekId);
+
+        client.patch("PATCH /planner/weeks/{id}", "/planner/weeks/" + weekId, editedWeek(week));
+
+        ObjectNode compute = MealMapClient.mapper().createObjectNode()
+                .put("planWeekId", weekId)
+                .put("trips", 2);
+        JsonNode groceryList = client.post("POST /grocery/compute", "/grocery/compute", compute);
+        if (groceryList == null) {
+            return;
+        }
+        client.patch("PATCH /grocery/lists/{id}", "/grocery/lists/" + groceryList.path("id").asText(),
+                checkedOff(groceryList));
+    }
+
+    /**
+     * Same items with the first entry's portions changed, as the planner UI sends on edit
+     */
+    private static JsonNode editedWeek(JsonNode week) {
+        ArrayNode items = MealMapClient.mapper().createArrayNode();
+        for (JsonNode item : week.path("items")) {
+            ObjectNode edited = items.addObject()
+                    .put("date", item.path("date").asText())
+                    .put("slot", item.path("slot").asText())
+                    .put("portions", item.path("portions").asInt(1));
+            if (item.hasNonNull("recipeId")) {
+                edited.put("recipeId", item.path("recipeId").asText());
+            }
+        }
+        if (!items.isEmpty()) {
+            ObjectNode first = (ObjectNode) items.get(0);
+            first.put("portions", first.path("portions").asInt() % 4 + 1);
+        }
+        ObjectNode request = MealMapClient.mapper().createObjectNode();
+        request.set("items", items);
+        return request;
+    }
+
+    /**
+     * Toggles the first line of the first trip
+     */
+    private static JsonNode checkedOff(JsonNode groceryList) {
+        ArrayNode trips = MealMapClient.mapper().createArrayNode();
+        for (JsonNode trip : groceryList.path("trips")) {
+            ObjectNode update = trips.addObject().put("tripIndex", trip.path("tripIndex").asInt());
+            ArrayNode items = update.putArray("items");
+            for (JsonNode item : trip.path("items")) {
+                items.add(item.deepCopy());
+            }
+        }
+        if (!trips.isEmpty() && !trips.get(0).path("items").isEmpty()) {
+            ObjectNode first = (ObjectNode) trips.get(0).path("items").get(0);
+            first.put("checked", !first.path("checked").asBoolean());
+        }
+        ObjectNode request = MealMapClient.mapper().createObjectNode();
+        request.set("trips", trips);
+        return request;
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.mealmap.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Settings shared by the generator and the driver, read from {@code loadtest.*} system
+ * properties (the Gradle tasks forward {@code -P} project properties of the same name).
+ */
+record LoadTestSettings(
+        String jdbcUrl,
+        String jdbcUser,
+        String jdbcPassword,
+        String baseUrl,
+        int users,
+        int ingredientsPerUser,
+        int recipesPerUser,
+        int itemsPerRecipe,
+        int weeksPerUser,
+        int pantryItemsPerUser,
+        int householdSize,
+        int concurrency,
+        Duration duration,
+        Duration rampUp,
+        int loginEvery,
+        int saveRepetitions,
+        int itemsPerSave,
+        int idBenchmarkRows) {
+
+    static final String PASSWORD = "LoadTest123!";
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                string("jdbcUrl", "jdbc:sqlserver://localhost:1433;databaseName=mealmap;encrypt=true;"
+                        + "trustServerCertificate=true"),
+                string("jdbcUser", "sa"),
+                string("jdbcPassword", System.getenv().getOrDefault("DB_PASSWORD", "")),
+                string("baseUrl", "http://localhost:8080/v1"),
+                integer("users", 1_000),
+                integer("ingredientsPerUser", 40),
+                integer("recipesPerUser", 25),
+                integer("itemsPerRecipe", 8),
+                integer("weeksPerUser", 8),
+                integer("pantryItemsPerUser", 20),
+                integer("householdSize", 3),
+                integer("concurrency", 50),
+                Duration.parse(string("duration", "PT2M")),
+                Duration.parse(string("rampUp", "PT10S")),
+                integer("loginEvery", 25),
+                integer("saveRepetitions", 5),
+                integer("itemsPerSave", 20),
+                integer("idBenchmarkRows", 200_000));
+    }
+
+    static String email(int userIndex) {
+        return "loadtest-" + userIndex + "@mealmap.test";
+    }
+
+    private static String string(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    private static int integer(String name, int defaultValue) {
+        return Integer.parseInt(string(name, String.valueOf(defaultValue)));
+    }
+}
@@ -0,0 +1,109 @@
+package com.mealmap.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Thin JSON-over-HTTP client for one virtual user. Every call is timed under a fixed endpoint
+ * label (route template, not the concrete URL) so results aggregate per endpoint.
+ */
+class MealMapClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+    private String accessToken;
+    private int lastStatementCount = -1;
+
+    MealMapClient(HttpClient httpClient, String baseUrl, LatencyRecorder recorder) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+    }
+
+    void login(String email, String password) {
+        JsonNode response = send("POST /auth/login", "POST", "/auth/login",
+                MAPPER.createObjectNode().put("email", email).put("password", password));
+        accessToken = response != null ? response.path("accessToken").asText(null) : null;
+    }
+
+    boolean isAuthenticated() {
+        return accessToken != null;
+    }
+
+    JsonNode get(String label, String path) {
+        return send(label, "GET", path, null);
+    }
+
+    JsonNode post(String label, String path, JsonNode body) {
+        return send(label, "POST", path, body);
+    }
+
+    JsonNode patch(String label, String path, JsonNode body) {
+        return send(label, "PATCH", path, body);
+    }
+
+    JsonNode delete(String label, String path) {
+        return send(label, "DELETE", path, null);
+    }
+
+    /**
+     * {@code X-SQL-Statement-Count} of the last response, or -1 when the backend doesn't send it
+     * ({@code app.sql-metrics.enabled} is off, as in the loadtest profile)
+     */
+    int lastStatementCount() {
+        return lastStatementCount;
+    }
+
+    static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    /**
+     * Returns the parsed body of a 2xx response, or null after recording the failure
+     */
+    private JsonNode send(String label, String method, String path, JsonNode body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (accessToken != null) {
+            request.header("Authorization", "Bearer " + accessToken);
+        }
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(body.toString()));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            boolean success = response.statusCode() / 100 == 2;
+            recorder.record(label, System.nanoTime() - started, success);
+            lastStatementCount = response.headers().firstValue("X-SQL-Statement-Count")
+                    .map(Integer::parseInt)
+                    .orElse(-1);
+            if (response.statusCode() == 401) {
+                accessToken = null;
+            }
+            return success && !response.body().isEmpty() ? MAPPER.readTree(response.body()) : null;
+        } catch (IOException e) {
+            lastStatementCount = -1;
+            recorder.record(label, System.nanoTime() - started, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.mealmap.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.http.HttpClient;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Write Batching Benchmark
+ *
+ * Saves each aggregate with a cascaded collection (recipe items, template items, planner items,
+ * grocery trips and their items) as the first generated user, once as a create and once as an
+ * edit of every child row, and reports how many statements each save sent. Counts come from the
+ * backend's {@code X-SQL-Statement-Count} header, where a JDBC batch is one statement, so the
+ * backend must run without the loadtest profile. Run it once against a backend started with
+ * {@code JPA_BATCH_SIZE=1} and once with the default to compare single-row and batched writes.
+ */
+public class WriteBatchingBenchmark {
+
+    private static final String[] SLOTS = {"breakfast", "lunch", "dinner", "snackAM", "snackPM"};
+
+    private final LoadTestSettings settings;
+    private final MealMapClient client;
+    private final Map<String, List<Integer>> statementsBySave = new LinkedHashMap<>();
+
+    WriteBatchingBenchmark(LoadTestSettings settings) {
+        this.settings = settings;
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.client = new MealMapClient(httpClient, settings.baseUrl(), new LatencyRecorder());
+    }
+
+    public static void main(String[] args) {
+        new WriteBatchingBenchmark(LoadTestSettings.fromSystemProperties()).run();
+    }
+
+    void run() {
+        client.login(LoadTestSettings.email(0), LoadTestSettings.PASSWORD);
+        if (!client.isAuthenticated()) {
+            throw new IllegalStateException("Login failed for " + LoadTestSettings.email(0) + "; run generateData first");
+        }
+        JsonNode ingredients = client.get("GET /ingredients", "/ingredients?limit=" + settings.itemsPerSave());
+        if (ingredients == null || ingredients.path("data").isEmpty()) {
+            throw new IllegalStateException("No ingredients visible to " + LoadTestSettings.email(0));
+        }
+        List<String> ingredientIds = new ArrayList<>();
+        ingredients.path("data").forEach(ingredient -> ingredientIds.add(ingredient.path("id").asText()));
+
+        System.out.printf("Saving each aggregate %d times with %d child rows against %s%n",
+                settings.saveRepetitions(), settings.itemsPerSave(), settings.baseUrl());
+        for (int repetition = 0; repetition < settings.saveRepetitions(); repetition++) {
+            saveAggregates(ingredientIds);
+        }
+        print();
+    }
+
+    private void saveAggregates(List<String> ingredientIds) {
+        JsonNode recipe = measure("recipe create", client.post("POST /recipes", "/recipes",
+                withItems("Batching benchmark recipe", recipeItems(ingredientIds, 1))));
+        if (recipe == null) {
+            return;
+        }
+        String recipeId = recipe.path("id").asText();
+        measure("recipe update", client.patch("PATCH /recipes/{id}", "/recipes/" + recipeId,
+                withItems(null, recipeItems(ingredientIds, 2))));
+
+        JsonNode template = measure("template create", client.post("POST /templates", "/templates",
+                withItems("Batching benchmark template", recipeItems(ingredientIds, 1))));
+        if (template != null) {
+            String templateId = template.path("id").asText();
+            measure("template update", client.patch("PATCH /templates/{id}", "/templates/" + templateId,
+                    withItems(null, recipeItems(ingredientIds, 2))));
+            client.delete("DELETE /templates/{id}", "/templates/" + templateId);
+        }
+
+        ObjectNode createWeek = MealMapClient.mapper().createObjectNode()
+                .put("startDate", unusedMonday().toString());
+        createWeek.set("items", plannerItems(LocalDate.parse(createWeek.path("startDate").asText()), recipeId));
+        JsonNode week = measure("planner week create", client.post("POST /planner/weeks", "/planner/weeks", createWeek));
+        if (week != null) {
+            String weekId = week.path("id").asText();
+            ObjectNode updateWeek = MealMapClient.mapper().createObjectNode();
+            updateWeek.set("items", morePortions(week.path("items")));
+            measure("planner week update", client.patch("PATCH /planner/weeks/{id}", "/planner/weeks/" + weekId, updateWeek));
+
+            JsonNode groceryList = measure("grocery list compute", client.post("POST /grocery/compute", "/grocery/compute",
+                    MealMapClient.mapper().createObjectNode().put("planWeekId", weekId).put("trips", 2)));
+            if (groceryList != null) {
+                measure("grocery list update", client.patch("PATCH /grocery/lists/{id}",
+                        "/grocery/lists/" + groceryList.path("id").asText(), allChecked(groceryList)));
+            }
+            // Cascades to the grocery list in the database
+            client.delete("DELETE /planner/weeks/{id}", "/planner/weeks/" + weekId);
+        }
+        client.delete("DELETE /recipes/{id}", "/recipes/" + recipeId);
+    }
+
+    private JsonNode measure(String save, JsonNode response) {
+        if (response != null && client.lastStatementCount() >= 0) {
+            statementsBySave.computeIfAbsent(save, key -> new ArrayList<>()).add(client.lastStatementCount());
+        }
+        return response;
+    }
+
+    private void print() {
+        if (statementsBySave.isEmpty()) {
+            System.out.println("No statement counts received; enable app.sql-metrics.enabled on the backend");
+            return;
+        }
+        System.out.printf("%-24s %6s %6s %6s %6s%n", "save", "saves", "min", "median", "max");
+        statementsBySave.forEach((save, counts) -> {
+            long[] sorted = counts.stream().mapToLong(Integer::longValue).sorted().toArray();
+            System.out.printf("%-24s %6d %6d %6d %6d%n", save, sorted.length,
+                    sorted[0], LatencyRecorder.percentile(sorted, 0.50), sorted[sorted.length - 1]);
+        });
+    }
+
+    private static ObjectNode withItems(String name, ArrayNode items) {
+        ObjectNode request = MealMapClient.mapper().createObjectNode();
+        if (name != null) {
+            request.put("name", name);
+        }
+        request.set("items", items);
+        return request;
+    }
+
+    /**
+     * One row per ingredient; the amount changes between calls so an update touches every row
+     */
+    private static ArrayNode recipeItems(List<String> ingredientIds, int amount) {
+        ArrayNode items = MealMapClient.mapper().createArrayNode();
+        for (String ingredientId : ingredientIds) {
+            ObjectNode item = items.addObject().put("ingredientId", ingredientId);
+            item.putObject("quantity").put("amount", amount * 100).put("unit", "g");
+        }
+        return items;
+    }
+
+    private ArrayNode plannerItems(LocalDate monday, String recipeId) {
+        ArrayNode items = MealMapClient.mapper().createArrayNode();
+        for (int i = 0; i < settings.itemsPerSave(); i++) {
+            items.addObject()
+                    .put("date", monday.plusDays(i % 7).toString())
+                    .put("slot", SLOTS[i / 7 % SLOTS.length])
+                    .put("recipeId", recipeId)
+                    .put("portions", 1);
+        }
+        return items;
+    }
+
+    /**
+     * The saved items with their ids and one more portion each, so the update edits every row in place
+     */
+    private static ArrayNode morePortions(JsonNode saved) {
+        ArrayNode items = MealMapClient.mapper().createArrayNode();
+        for (JsonNode item : saved) {
+            items.addObject()
+                    .put("id", item.path("id").asText())
+                    .put("date", item.path("date").asText())
+                    .put("slot", item.path("slot").asText())
+                    .put("recipeId", item.path("recipeId").asText())
+                    .put("portions", item.path("portions").asInt(1) + 1);
+        }
+        return items;
+    }
+
+    private static JsonNode allChecked(JsonNode groceryList) {
+        ArrayNode trips = MealMapClient.mapper().createArrayNode();
+        for (JsonNode trip : groceryList.path("trips")) {
+            ObjectNode update = trips.addObject().put("tripIndex", trip.path("tripIndex").asInt());
+            ArrayNode items = update.putArray("items");
+            for (JsonNode item : trip.path("items")) {
+                items.add(((ObjectNode) item.deepCopy()).put("checked", true));
+            }
+        }
+        ObjectNode request = MealMapClient.mapper().createObjectNode()
+                .put("version", groceryList.path("version").asLong());
+        request.set("trips", trips);
+        return request;
+    }
+
+    /**
+     * A Monday far past the generated weeks, so repeated runs don't collide
+     */
+    private static LocalDate unusedMonday() {
+        return LocalDate.now()
+                .with(TemporalAdjusters.next(DayOfWeek.MONDAY))
+                .plusWeeks(520 + ThreadLocalRandom.current().nextInt(50_000));
+    }
+}
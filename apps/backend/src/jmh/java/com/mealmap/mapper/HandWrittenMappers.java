@@ -0,0 +1,141 @@
+package com.mealmap.mapper;
+
+import com.mealmap.model.dto.grocery.GroceryItemDto;
+import com.mealmap.model.dto.grocery.GroceryListDto;
+import com.mealmap.model.dto.grocery.GroceryTripDto;
+import com.mealmap.model.dto.planner.PlannerItemDto;
+import com.mealmap.model.dto.planner.PlannerWeekDto;
+import com.mealmap.model.dto.recipe.RecipeItemDto;
+import com.mealmap.model.dto.recipe.RecipeTemplateDto;
+import com.mealmap.model.embedded.GroceryItem;
+import com.mealmap.model.entity.GroceryList;
+import com.mealmap.model.entity.GroceryTrip;
+import com.mealmap.model.entity.Ingredient;
+import com.mealmap.model.entity.PlannerItem;
+import com.mealmap.model.entity.PlannerWeek;
+import com.mealmap.model.entity.RecipeTemplate;
+import com.mealmap.model.entity.RecipeTemplatePreference;
+import com.mealmap.model.entity.Tag;
+import com.mealmap.model.enums.TagKind;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The mappers as they were written by hand before MapStruct, kept as the benchmark baseline.
+ * The grocery mapper resolved each item's ingredient on its own; here that lookup is a map
+ * standing in for a persistence context that already holds every ingredient, the cheapest
+ * case the repository call could have had.
+ */
+final class HandWrittenMappers {
+
+    private HandWrittenMappers() {
+    }
+
+    static PlannerWeekDto toDto(PlannerWeek plannerWeek) {
+        return PlannerWeekDto.builder()
+                .id(plannerWeek.getId())
+                .startDate(plannerWeek.getStartDate())
+                .userId(plannerWeek.getUser() != null ? plannerWeek.getUser().getId() : null)
+                .householdId(plannerWeek.getHousehold() != null ? plannerWeek.getHousehold().getId() : null)
+                .items(plannerWeek.getItems().stream()
+                        .map(HandWrittenMappers::toItemDto)
+                        .collect(Collectors.toList()))
+                .createdAt(plannerWeek.getCreatedAt())
+                .updatedAt(plannerWeek.getUpdatedAt())
+                .version(plannerWeek.getVersion())
+                .build();
+    }
+
+    static PlannerItemDto toItemDto(PlannerItem item) {
+        return PlannerItemDto.builder()
+                .id(item.getId())
+                .date(item.getDate())
+                .slot(item.getSlot())
+                .recipeId(item.getRecipe() != null ? item.getRecipe().getId() : null)
+                .recipeName(item.getRecipe() != null ? item.getRecipe().getName() : null)
+                .portions(item.getPortions())
+                .addedByUserId(item.getAddedByUser().getId())
+                .build();
+    }
+
+    static GroceryListDto toDto(GroceryList groceryList, Map<UUID, Ingredient> ingredients) {
+        Function<UUID, Optional<Ingredient>> findById = id -> Optional.ofNullable(ingredients.get(id));
+        GroceryListDto dto = new GroceryListDto();
+        dto.setId(groceryList.getId());
+        dto.setPlanWeekId(groceryList.getPlannerWeek().getId());
+        dto.setCreatedAt(groceryList.getCreatedAt());
+        dto.setUpdatedAt(groceryList.getUpdatedAt());
+        dto.setVersion(groceryList.getVersion());
+        dto.setTrips(groceryList.getTrips().stream()
+                .map(trip -> toTripDto(trip, findById))
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
+    private static GroceryTripDto toTripDto(GroceryTrip trip, Function<UUID, Optional<Ingredient>> findById) {
+        GroceryTripDto dto = new GroceryTripDto();
+        dto.setTripIndex(trip.getTripIndex());
+        GroceryTripDto.DateRangeDto dateRangeDto = new GroceryTripDto.DateRangeDto();
+        dateRangeDto.setFrom(trip.getDateRange().getFrom());
+        dateRangeDto.setTo(trip.getDateRange().getTo());
+        dto.setDateRange(dateRangeDto);
+        dto.setItems(trip.getItems().stream()
+                .map(item -> toItemDto(item, findById))
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
+    private static GroceryItemDto toItemDto(GroceryItem item, Function<UUID, Optional<Ingredient>> findById) {
+        GroceryItemDto dto = new GroceryItemDto();
+        dto.setIngredientId(item.getIngredientId());
+        dto.setCategoryId(item.getCategoryId());
+        dto.setNeeded(item.getNeeded());
+        dto.setAfterPantry(item.getAfterPantry());
+        dto.setChecked(item.isChecked());
+        findById.apply(item.getIngredientId()).ifPresent(ingredient -> {
+            dto.setIngredientName(ingredient.getName());
+            if (ingredient.getCategory() != null) {
+                dto.setCategoryName(ingredient.getCategory().getName());
+            }
+        });
+        return dto;
+    }
+
+    static RecipeTemplateDto toDto(RecipeTemplate template, RecipeTemplatePreference pref) {
+        List<RecipeItemDto> items = template.getItems().stream()
+                .map(item -> RecipeItemDto.builder()
+                        .ingredientId(item.getIngredientId())
+                        .quantity(item.getQuantity())
+                        .packageNote(item.getPackageNote())
+                        .build())
+                .toList();
+
+        return RecipeTemplateDto.builder()
+                .id(template.getId())
+                .name(template.getName())
+                .description(template.getDescription())
+                .tags(tagNames(template, TagKind.general))
+                .dietaryTags(tagNames(template, TagKind.dietary))
+                .source(template.getSource())
+                .ownerUserId(template.getOwnerUserId())
+                .favorite(pref != null && pref.isFavorite())
+                .hidden(pref != null && pref.isHidden())
+                .immutable(template.isImmutable())
+                .items(items)
+                .createdAt(template.getCreatedAt())
+                .updatedAt(template.getUpdatedAt())
+                .build();
+    }
+
+    private static List<String> tagNames(RecipeTemplate template, TagKind kind) {
+        return template.getTags().stream()
+                .filter(tag -> tag.getKind() == kind)
+                .map(Tag::getName)
+                .toList();
+    }
+}
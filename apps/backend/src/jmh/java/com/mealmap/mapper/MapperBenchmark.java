@@ -0,0 +1,194 @@
+package com.mealmap.mapper;
+
+import com.mealmap.model.dto.grocery.GroceryListDto;
+import com.mealmap.model.dto.planner.PlannerWeekDto;
+import com.mealmap.model.dto.recipe.RecipeTemplateDto;
+import com.mealmap.model.embedded.GroceryItem;
+import com.mealmap.model.embedded.Quantity;
+import com.mealmap.model.entity.Category;
+import com.mealmap.model.entity.GroceryList;
+import com.mealmap.model.entity.GroceryTrip;
+import com.mealmap.model.entity.Ingredient;
+import com.mealmap.model.entity.PlannerItem;
+import com.mealmap.model.entity.PlannerWeek;
+import com.mealmap.model.entity.Recipe;
+import com.mealmap.model.entity.RecipeTemplate;
+import com.mealmap.model.entity.RecipeTemplateItem;
+import com.mealmap.model.entity.RecipeTemplatePreference;
+import com.mealmap.model.entity.Tag;
+import com.mealmap.model.entity.User;
+import com.mealmap.model.enums.MealSlot;
+import com.mealmap.model.enums.RecipeTemplateSource;
+import com.mealmap.model.enums.TagKind;
+import com.mealmap.model.enums.Unit;
+import com.mealmap.repository.projection.IngredientName;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated mappers against the hand-written ones they replaced, on a full planner week, a
+ * grocery list and a page of templates. The generated grocery path includes building its
+ * lookup from the name rows one query returns. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+
+    @Param({"20", "100"})
+    public int itemsPerCollection;
+
+    private final PlannerMapper plannerMapper = Mappers.getMapper(PlannerMapper.class);
+    private final GroceryMapper groceryMapper = Mappers.getMapper(GroceryMapper.class);
+    private final RecipeTemplateMapper templateMapper = Mappers.getMapper(RecipeTemplateMapper.class);
+
+    private PlannerWeek plannerWeek;
+    private GroceryList groceryList;
+    private Map<UUID, Ingredient> ingredients;
+    private List<IngredientName> ingredientNames;
+    private List<RecipeTemplate> templates;
+    private Map<UUID, RecipeTemplatePreference> preferences;
+
+    private record Name(UUID getId, String getName, String getCategoryName) implements IngredientName {
+    }
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        Category category = new Category();
+        category.setId(UUID.randomUUID());
+        category.setName("Produce");
+
+        ingredients = new HashMap<>();
+        ingredientNames = new ArrayList<>();
+        for (int i = 0; i < itemsPerCollection; i++) {
+            Ingredient ingredient = new Ingredient();
+            ingredient.setId(UUID.randomUUID());
+            ingredient.setName("Ingredient " + i);
+            ingredient.setCategory(category);
+            ingredients.put(ingredient.getId(), ingredient);
+            ingredientNames.add(new Name(ingredient.getId(), ingredient.getName(), category.getName()));
+        }
+        List<UUID> ingredientIds = new ArrayList<>(ingredients.keySet());
+
+        Recipe recipe = new Recipe();
+        recipe.setId(UUID.randomUUID());
+        recipe.setName("Benchmark recipe");
+        plannerWeek = new PlannerWeek();
+        plannerWeek.setId(UUID.randomUUID());
+        plannerWeek.setStartDate(LocalDate.of(2024, 1, 1));
+        plannerWeek.setUser(user);
+        plannerWeek.setVersion(1L);
+        plannerWeek.setCreatedAt(Instant.now());
+        plannerWeek.setUpdatedAt(Instant.now());
+        MealSlot[] slots = MealSlot.values();
+        for (int i = 0; i < itemsPerCollection; i++) {
+            PlannerItem item = new PlannerItem();
+            item.setId(UUID.randomUUID());
+            item.setDate(plannerWeek.getStartDate().plusDays(i % 7));
+            item.setSlot(slots[i % slots.length]);
+            item.setRecipe(recipe);
+            item.setPortions(2);
+            item.setAddedByUser(user);
+            item.setPlannerWeek(plannerWeek);
+            plannerWeek.getItems().add(item);
+        }
+
+        groceryList = new GroceryList();
+        groceryList.setId(UUID.randomUUID());
+        groceryList.setPlannerWeek(plannerWeek);
+        groceryList.setVersion(1L);
+        groceryList.setTrips(new ArrayList<>());
+        for (int tripIndex = 0; tripIndex < 2; tripIndex++) {
+            GroceryTrip trip = new GroceryTrip();
+            trip.setTripIndex(tripIndex);
+            trip.setDateRange(new GroceryTrip.DateRange(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 7)));
+            for (UUID ingredientId : ingredientIds) {
+                Quantity needed = new Quantity(BigDecimal.valueOf(250), Unit.g);
+                trip.getItems().add(new GroceryItem(ingredientId, category.getId(), needed, needed, false));
+            }
+            groceryList.getTrips().add(trip);
+        }
+
+        List<Tag> tags = List.of(
+                Tag.builder().kind(TagKind.general).name("quick").build(),
+                Tag.builder().kind(TagKind.general).name("weeknight").build(),
+                Tag.builder().kind(TagKind.general).name("family").build(),
+                Tag.builder().kind(TagKind.dietary).name("vegetarian").build());
+        templates = new ArrayList<>();
+        preferences = new HashMap<>();
+        for (int t = 0; t < 20; t++) {
+            RecipeTemplate template = new RecipeTemplate();
+            template.setId(UUID.randomUUID());
+            template.setName("Template " + t);
+            template.setTags(tags);
+            template.setSource(RecipeTemplateSource.global);
+            template.setItems(new ArrayList<>());
+            for (UUID ingredientId : ingredientIds) {
+                RecipeTemplateItem item = new RecipeTemplateItem();
+                item.setIngredientId(ingredientId);
+                item.setQuantity(new Quantity(BigDecimal.ONE, Unit.piece));
+                template.getItems().add(item);
+            }
+            templates.add(template);
+            if (t % 3 == 0) {
+                preferences.put(template.getId(), RecipeTemplatePreference.builder()
+                        .templateId(template.getId())
+                        .favorite(true)
+                        .build());
+            }
+        }
+    }
+
+    @Benchmark
+    public PlannerWeekDto plannerWeekHandWritten() {
+        return HandWrittenMappers.toDto(plannerWeek);
+    }
+
+    @Benchmark
+    public PlannerWeekDto plannerWeekGenerated() {
+        return plannerMapper.toDto(plannerWeek);
+    }
+
+    @Benchmark
+    public GroceryListDto groceryListHandWritten() {
+        return HandWrittenMappers.toDto(groceryList, ingredients);
+    }
+
+    @Benchmark
+    public GroceryListDto groceryListGenerated() {
+        return groceryMapper.toDto(groceryList, GroceryLookup.of(ingredientNames));
+    }
+
+    @Benchmark
+    public List<RecipeTemplateDto> templatePageHandWritten() {
+        List<RecipeTemplateDto> page = new ArrayList<>(templates.size());
+        for (RecipeTemplate template : templates) {
+            page.add(HandWrittenMappers.toDto(template, preferences.get(template.getId())));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<RecipeTemplateDto> templatePageGenerated() {
+        return templateMapper.toDtos(templates, TemplatePreferences.of(preferences));
+    }
+}
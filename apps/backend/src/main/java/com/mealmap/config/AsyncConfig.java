@@ -7,7 +7,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
  * Async Configuration
  * 
  * Enables asynchronous method execution for @Async annotated methods.
- * Used primarily for email sending to prevent blocking HTTP requests.
+ * Email delivery no longer relies on this; it goes through the outbox dispatcher.
  */
 @Configuration
 @EnableAsync
@@ -0,0 +1,42 @@
+package com.mealmap.config;
+
+import com.mealmap.exception.FeatureUnavailableException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * H2 Profile Configuration
+ * 
+ * Some writes are single native statements in SQL Server's dialect (MERGE ... WITH (HOLDLOCK)
+ * with OUTPUT $action, OPENJSON, server-side time-ordered UUIDs) that H2 cannot run. Rather than
+ * failing halfway through with a SQL error, their endpoints answer 501 on this profile: grocery
+ * compute, planner week copy and rotation, and week generation.
+ */
+@Configuration
+@Profile("h2")
+public class H2ProfileConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlServerOnlyInterceptor())
+                .addPathPatterns(
+                        "/grocery/compute",
+                        "/planner/weeks/{id}/copy",
+                        "/planner/weeks/{id}/rotation",
+                        "/planner/weeks/{id}/generate");
+    }
+
+    private static final class SqlServerOnlyInterceptor implements HandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            throw new FeatureUnavailableException(
+                    "This endpoint needs SQL Server and is not available on the h2 profile");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.mealmap.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration
+ * 
+ * Enables @Scheduled background jobs such as the email outbox dispatcher.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,23 +2,32 @@ package com.mealmap.config;
 
 import com.mealmap.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.List;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -28,6 +37,42 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
 
+    private static final String ACTUATOR_ROLE = "ACTUATOR";
+
+    @Value("${app.security.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.management.username:}")
+    private String managementUsername;
+
+    @Value("${app.management.password:}")
+    private String managementPassword;
+
+    /**
+     * Beyond health and info, actuator endpoints (metrics, scrapes, recordings) are for operators
+     * and scrapers, not for app users: since anyone can register, they take HTTP Basic credentials
+     * of the configured management account instead of a user's JWT. Without that account
+     * configured they cannot be reached at all.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/**")
+            .csrf(csrf -> csrf.disable())
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                .anyRequest().hasRole(ACTUATOR_ROLE)
+            )
+            .sessionManagement(session -> session
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            )
+            .httpBasic(Customizer.withDefaults())
+            .authenticationManager(new ProviderManager(actuatorAuthenticationProvider()));
+
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -37,7 +82,6 @@ public class SecurityConfig {
                 .requestMatchers("/auth/**", "/v1/auth/**").permitAll()
                 .requestMatchers("/categories", "/v1/categories").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/v3/**").permitAll()
-                .requestMatchers(HttpMethod.GET, "/actuator/**").permitAll()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
@@ -57,6 +101,19 @@ public class SecurityConfig {
         return authProvider;
     }
 
+    private AuthenticationProvider actuatorAuthenticationProvider() {
+        List<UserDetails> accounts = managementUsername.isBlank() || managementPassword.isBlank()
+                ? List.of()
+                : List.of(User.withUsername(managementUsername)
+                        .password(passwordEncoder().encode(managementPassword))
+                        .roles(ACTUATOR_ROLE)
+                        .build());
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(new InMemoryUserDetailsManager(accounts));
+        provider.setPasswordEncoder(passwordEncoder());
+        return provider;
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
@@ -64,6 +121,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // Existing hashes with a lower cost are upgraded on the next successful login
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 }
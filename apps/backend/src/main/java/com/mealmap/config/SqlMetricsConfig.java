@@ -0,0 +1,31 @@
+package com.mealmap.config;
+
+import com.mealmap.observability.sql.SqlStatementMetricsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * SQL Metrics Configuration
+ * 
+ * Registers the per-request SQL statement filter ahead of the security chain, so statements
+ * issued while authenticating are counted too. Disabled in production via app.sql-metrics.enabled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql-metrics.enabled", havingValue = "true")
+public class SqlMetricsConfig {
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.sql-metrics.repeat-warn-threshold:10}") int repeatWarnThreshold) {
+        FilterRegistrationBean<SqlStatementMetricsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementMetricsFilter(meterRegistry, repeatWarnThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,45 @@
+package com.mealmap.config;
+
+import com.mealmap.observability.tracing.EndpointSampler;
+import com.mealmap.observability.tracing.EndpointSamplingFilter;
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Tracing Configuration
+ * 
+ * Per-endpoint head sampling and an optional logging exporter for local runs. OTLP export is
+ * switched on by setting management.otlp.tracing.endpoint (MANAGEMENT_OTLP_TRACING_ENDPOINT).
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public Sampler endpointSampler(
+            @Value("${app.tracing.sampling.rules:}") String rules,
+            @Value("${management.tracing.sampling.probability:0.1}") double defaultProbability) {
+        return Sampler.parentBased(new EndpointSampler(rules, defaultProbability));
+    }
+
+    @Bean
+    public FilterRegistrationBean<EndpointSamplingFilter> endpointSamplingFilter() {
+        FilterRegistrationBean<EndpointSamplingFilter> registration =
+                new FilterRegistrationBean<>(new EndpointSamplingFilter());
+        // Ahead of the server observation filter (HIGHEST_PRECEDENCE + 1) that opens the root span
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.tracing.exporter", havingValue = "logging")
+    public SpanExporter loggingSpanExporter() {
+        return LoggingSpanExporter.create();
+    }
+}
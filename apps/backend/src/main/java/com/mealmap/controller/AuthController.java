@@ -4,6 +4,7 @@ import com.mealmap.dto.UserDto;
 import com.mealmap.dto.auth.LoginRequest;
 import com.mealmap.dto.auth.LoginResponse;
 import com.mealmap.dto.auth.RegisterRequest;
+import com.mealmap.security.ClientAddressResolver;
 import com.mealmap.security.JwtService;
 import com.mealmap.service.AuthService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,16 +22,19 @@ public class AuthController {
     
     private final AuthService authService;
     private final JwtService jwtService;
+    private final ClientAddressResolver clientAddressResolver;
     
     @PostMapping("/register")
-    public ResponseEntity<UserDto> register(@Valid @RequestBody RegisterRequest request) {
-        UserDto user = authService.register(request);
+    public ResponseEntity<UserDto> register(@Valid @RequestBody RegisterRequest request,
+                                            HttpServletRequest httpRequest) {
+        UserDto user = authService.register(request, clientAddressResolver.resolve(httpRequest));
         return ResponseEntity.status(HttpStatus.CREATED).body(user);
     }
     
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
-        LoginResponse response = authService.login(request);
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request,
+                                               HttpServletRequest httpRequest) {
+        LoginResponse response = authService.login(request, clientAddressResolver.resolve(httpRequest));
         return ResponseEntity.ok(response);
     }
     
@@ -1,8 +1,14 @@
 package com.mealmap.controller;
 
+import com.mealmap.model.dto.planner.CopyPlannerWeekRequest;
+import com.mealmap.model.dto.planner.CreatePlannerItemRequest;
 import com.mealmap.model.dto.planner.CreatePlannerWeekRequest;
+import com.mealmap.model.dto.planner.CreateRotationRequest;
+import com.mealmap.model.dto.planner.GeneratePlannerWeekRequest;
+import com.mealmap.model.dto.planner.PlannerItemDto;
 import com.mealmap.model.dto.planner.PlannerWeekDto;
 import com.mealmap.model.dto.planner.PlannerWeekPageResponse;
+import com.mealmap.model.dto.planner.UpdatePlannerItemRequest;
 import com.mealmap.model.dto.planner.UpdatePlannerWeekRequest;
 import com.mealmap.service.PlannerService;
 import jakarta.validation.Valid;
@@ -13,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -57,4 +64,51 @@ public class PlannerController {
         plannerService.deletePlannerWeek(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/{id}/copy")
+    public ResponseEntity<PlannerWeekDto> copyPlannerWeek(
+            @PathVariable UUID id,
+            @Valid @RequestBody CopyPlannerWeekRequest request) {
+        PlannerWeekDto plannerWeek = plannerService.copyPlannerWeek(id, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(plannerWeek);
+    }
+
+    @PostMapping("/{id}/rotation")
+    public ResponseEntity<List<PlannerWeekDto>> createRotation(
+            @PathVariable UUID id,
+            @Valid @RequestBody CreateRotationRequest request) {
+        List<PlannerWeekDto> plannerWeeks = plannerService.createRotation(id, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(plannerWeeks);
+    }
+
+    @PostMapping("/{id}/generate")
+    public ResponseEntity<PlannerWeekDto> generatePlannerWeek(
+            @PathVariable UUID id,
+            @Valid @RequestBody GeneratePlannerWeekRequest request) {
+        PlannerWeekDto plannerWeek = plannerService.generateWeek(id, request);
+        return ResponseEntity.ok(plannerWeek);
+    }
+
+    @PostMapping("/{weekId}/items")
+    public ResponseEntity<PlannerItemDto> addPlannerItem(
+            @PathVariable UUID weekId,
+            @Valid @RequestBody CreatePlannerItemRequest request) {
+        PlannerItemDto item = plannerService.addPlannerItem(weekId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(item);
+    }
+
+    @PatchMapping("/{weekId}/items/{itemId}")
+    public ResponseEntity<PlannerItemDto> updatePlannerItem(
+            @PathVariable UUID weekId,
+            @PathVariable UUID itemId,
+            @Valid @RequestBody UpdatePlannerItemRequest request) {
+        PlannerItemDto item = plannerService.updatePlannerItem(weekId, itemId, request);
+        return ResponseEntity.ok(item);
+    }
+
+    @DeleteMapping("/{weekId}/items/{itemId}")
+    public ResponseEntity<Void> deletePlannerItem(@PathVariable UUID weekId, @PathVariable UUID itemId) {
+        plannerService.deletePlannerItem(weekId, itemId);
+        return ResponseEntity.noContent().build();
+    }
 }
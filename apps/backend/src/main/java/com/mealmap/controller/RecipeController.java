@@ -3,6 +3,8 @@ package com.mealmap.controller;
 import com.mealmap.model.dto.recipe.CreateRecipeRequest;
 import com.mealmap.model.dto.recipe.RecipeDto;
 import com.mealmap.model.dto.recipe.RecipePageResponse;
+import com.mealmap.model.dto.recipe.RecipeSuggestionDto;
+import com.mealmap.model.dto.recipe.SimilarRecipeDto;
 import com.mealmap.model.dto.recipe.UpdateRecipeRequest;
 import com.mealmap.service.RecipeService;
 import jakarta.validation.Valid;
@@ -11,6 +13,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -29,6 +32,19 @@ public class RecipeController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/suggestions")
+    public ResponseEntity<List<RecipeSuggestionDto>> getSuggestions(
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(recipeService.getSuggestions(limit));
+    }
+
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<SimilarRecipeDto>> getSimilarRecipes(
+            @PathVariable UUID id,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(recipeService.getSimilarRecipes(id, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<RecipeDto> getRecipeById(@PathVariable UUID id) {
         RecipeDto recipe = recipeService.getRecipeById(id);
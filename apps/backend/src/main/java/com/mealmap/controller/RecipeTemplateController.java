@@ -22,6 +22,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -35,8 +36,10 @@ public class RecipeTemplateController {
     public ResponseEntity<RecipeTemplatePageResponse> getTemplates(
             @RequestParam(name = "limit", required = false) Integer limit,
             @RequestParam(name = "cursor", required = false) String cursor,
-            @RequestParam(name = "q", required = false) String query) {
-        RecipeTemplatePageResponse response = recipeTemplateService.getTemplates(limit, cursor, query);
+            @RequestParam(name = "q", required = false) String query,
+            @RequestParam(name = "tag", required = false) List<String> tags,
+            @RequestParam(name = "dietary", required = false) List<String> dietaryTags) {
+        RecipeTemplatePageResponse response = recipeTemplateService.getTemplates(limit, cursor, query, tags, dietaryTags);
         return ResponseEntity.ok(response);
     }
 
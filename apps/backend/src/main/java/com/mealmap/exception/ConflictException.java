@@ -0,0 +1,22 @@
+package com.mealmap.exception;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Exception thrown when an edit made against an older version conflicts with changes
+ * written since
+ */
+@Getter
+public class ConflictException extends RuntimeException {
+
+    private final long currentVersion;
+    private final List<String> conflicts;
+
+    public ConflictException(String message, long currentVersion, List<String> conflicts) {
+        super(message);
+        this.currentVersion = currentVersion;
+        this.conflicts = conflicts;
+    }
+}
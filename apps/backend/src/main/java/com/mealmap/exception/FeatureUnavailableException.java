@@ -0,0 +1,11 @@
+package com.mealmap.exception;
+
+/**
+ * Exception thrown when an endpoint cannot run on the database of the active profile
+ */
+public class FeatureUnavailableException extends RuntimeException {
+
+    public FeatureUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -1,8 +1,11 @@
 package com.mealmap.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -71,6 +74,54 @@ public class GlobalExceptionHandler {
         return problemDetail;
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ProblemDetail> handleTooManyRequestsException(TooManyRequestsException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.TOO_MANY_REQUESTS,
+                ex.getMessage()
+        );
+        problemDetail.setTitle("Too Many Requests");
+        problemDetail.setType(URI.create("https://api.mealmap.app/problems/too-many-requests"));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(problemDetail);
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ProblemDetail handleConflictException(ConflictException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.CONFLICT,
+                ex.getMessage()
+        );
+        problemDetail.setTitle("Conflict");
+        problemDetail.setType(URI.create("https://api.mealmap.app/problems/conflict"));
+        problemDetail.setProperty("currentVersion", ex.getCurrentVersion());
+        problemDetail.setProperty("conflicts", ex.getConflicts());
+        return problemDetail;
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.CONFLICT,
+                "The resource was modified concurrently, reload it and try again"
+        );
+        problemDetail.setTitle("Conflict");
+        problemDetail.setType(URI.create("https://api.mealmap.app/problems/conflict"));
+        return problemDetail;
+    }
+
+    @ExceptionHandler(FeatureUnavailableException.class)
+    public ProblemDetail handleFeatureUnavailableException(FeatureUnavailableException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.NOT_IMPLEMENTED,
+                ex.getMessage()
+        );
+        problemDetail.setTitle("Not Implemented");
+        problemDetail.setType(URI.create("https://api.mealmap.app/problems/not-implemented"));
+        return problemDetail;
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ProblemDetail handleValidationException(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
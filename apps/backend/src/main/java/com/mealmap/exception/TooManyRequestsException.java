@@ -0,0 +1,17 @@
+package com.mealmap.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when a request is rejected by admission control or rate limiting
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
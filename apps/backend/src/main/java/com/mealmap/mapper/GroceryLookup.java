@@ -0,0 +1,51 @@
+package com.mealmap.mapper;
+
+import com.mealmap.model.embedded.GroceryItem;
+import com.mealmap.model.entity.GroceryList;
+import com.mealmap.model.entity.GroceryTrip;
+import com.mealmap.repository.projection.IngredientName;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Ingredient and category names for the items of one grocery list, keyed by ingredient id.
+ */
+public final class GroceryLookup {
+
+    private final Map<UUID, IngredientName> names;
+
+    private GroceryLookup(Map<UUID, IngredientName> names) {
+        this.names = names;
+    }
+
+    public static GroceryLookup of(Collection<? extends IngredientName> names) {
+        Map<UUID, IngredientName> byId = HashMap.newHashMap(names.size());
+        names.forEach(name -> byId.put(name.getId(), name));
+        return new GroceryLookup(byId);
+    }
+
+    public static Set<UUID> ingredientIds(GroceryList groceryList) {
+        Set<UUID> ids = new HashSet<>();
+        for (GroceryTrip trip : groceryList.getTrips()) {
+            for (GroceryItem item : trip.getItems()) {
+                ids.add(item.getIngredientId());
+            }
+        }
+        return ids;
+    }
+
+    public String ingredientName(UUID ingredientId) {
+        IngredientName name = names.get(ingredientId);
+        return name != null ? name.getName() : null;
+    }
+
+    public String categoryName(UUID ingredientId) {
+        IngredientName name = names.get(ingredientId);
+        return name != null ? name.getCategoryName() : null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.mealmap.mapper;
+
+import com.mealmap.model.dto.ingredient.IngredientDto;
+import com.mealmap.model.embedded.PackageSize;
+import com.mealmap.model.entity.Ingredient;
+import com.mealmap.model.enums.Unit;
+import com.mealmap.repository.projection.IngredientSummary;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+import java.math.BigDecimal;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface IngredientMapper {
+
+    @Mapping(target = "categoryId", source = "category.id")
+    IngredientDto toDto(Ingredient ingredient);
+
+    @Mapping(target = "packageSize",
+            expression = "java(packageSize(ingredient.getPackageAmount(), ingredient.getPackageUnit()))")
+    IngredientDto toDto(IngredientSummary ingredient);
+
+    /**
+     * No package size, like the embeddable reads back when both columns are null
+     */
+    default PackageSize packageSize(BigDecimal amount, Unit unit) {
+        return amount != null || unit != null ? new PackageSize(amount, unit) : null;
+    }
+}
@@ -2,27 +2,23 @@ package com.mealmap.mapper;
 
 import com.mealmap.model.dto.pantry.PantryItemDto;
 import com.mealmap.model.entity.PantryItem;
-import org.springframework.stereotype.Component;
+import com.mealmap.repository.projection.PantryItemSummary;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
 
-@Component
-public class PantryMapper {
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface PantryMapper {
 
-    public PantryItemDto toDto(PantryItem pantryItem) {
-        if (pantryItem == null) {
-            return null;
-        }
+    @Mapping(target = "ingredientId", source = "ingredient.id")
+    @Mapping(target = "ingredientName", source = "ingredient.name")
+    @Mapping(target = "categoryId", source = "ingredient.category.id")
+    @Mapping(target = "categoryName", source = "ingredient.category.name")
+    @Mapping(target = "userId", source = "user.id")
+    @Mapping(target = "householdId", source = "household.id")
+    PantryItemDto toDto(PantryItem pantryItem);
 
-        return PantryItemDto.builder()
-                .id(pantryItem.getId())
-                .ingredientId(pantryItem.getIngredient().getId())
-                .ingredientName(pantryItem.getIngredient().getName())
-                .categoryId(pantryItem.getIngredient().getCategory().getId())
-                .categoryName(pantryItem.getIngredient().getCategory().getName())
-                .quantity(pantryItem.getQuantity())
-                .userId(pantryItem.getUser() != null ? pantryItem.getUser().getId() : null)
-                .householdId(pantryItem.getHousehold() != null ? pantryItem.getHousehold().getId() : null)
-                .createdAt(pantryItem.getCreatedAt())
-                .updatedAt(pantryItem.getUpdatedAt())
-                .build();
-    }
+    @Mapping(target = "quantity.amount", source = "quantityAmount")
+    @Mapping(target = "quantity.unit", source = "quantityUnit")
+    PantryItemDto toDto(PantryItemSummary summary);
 }
@@ -0,0 +1,41 @@
+package com.mealmap.mapper;
+
+import com.mealmap.model.dto.recipe.RecipeDto;
+import com.mealmap.model.dto.recipe.RecipeItemDto;
+import com.mealmap.model.dto.recipe.RecipeSuggestionDto;
+import com.mealmap.model.dto.recipe.SimilarRecipeDto;
+import com.mealmap.model.entity.Recipe;
+import com.mealmap.model.entity.RecipeItem;
+import com.mealmap.repository.projection.RecipeItemRow;
+import com.mealmap.repository.projection.RecipeSummary;
+import com.mealmap.service.RecipeSimilarityIndex;
+import com.mealmap.service.RecipeSuggestionIndex;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+import java.util.List;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface RecipeMapper {
+
+    @Mapping(target = "possibleDuplicates", ignore = true)
+    RecipeDto toDto(Recipe recipe);
+
+    /**
+     * List views read recipes and their items in separate queries; the caller groups the items
+     */
+    @Mapping(target = "items", source = "items")
+    @Mapping(target = "possibleDuplicates", ignore = true)
+    RecipeDto toDto(RecipeSummary recipe, List<RecipeItemDto> items);
+
+    RecipeItemDto toItemDto(RecipeItem item);
+
+    @Mapping(target = "quantity.amount", source = "amount")
+    @Mapping(target = "quantity.unit", source = "unit")
+    RecipeItemDto toItemDto(RecipeItemRow row);
+
+    RecipeSuggestionDto toSuggestionDto(RecipeSuggestionIndex.Suggestion suggestion);
+
+    SimilarRecipeDto toSimilarDto(RecipeSimilarityIndex.Match match);
+}
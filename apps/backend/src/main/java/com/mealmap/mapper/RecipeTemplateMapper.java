@@ -0,0 +1,53 @@
+package com.mealmap.mapper;
+
+import com.mealmap.model.dto.recipe.RecipeItemDto;
+import com.mealmap.model.dto.recipe.RecipeTemplateDto;
+import com.mealmap.model.entity.RecipeTemplate;
+import com.mealmap.model.entity.RecipeTemplateItem;
+import com.mealmap.model.entity.Tag;
+import com.mealmap.model.enums.TagKind;
+import org.mapstruct.Context;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.Named;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface RecipeTemplateMapper {
+
+    @Mapping(target = "tags", source = "tags", qualifiedByName = "generalTags")
+    @Mapping(target = "dietaryTags", source = "tags", qualifiedByName = "dietaryTags")
+    @Mapping(target = "favorite", expression = "java(preferences.isFavorite(template.getId()))")
+    @Mapping(target = "hidden", expression = "java(preferences.isHidden(template.getId()))")
+    RecipeTemplateDto toDto(RecipeTemplate template, @Context TemplatePreferences preferences);
+
+    List<RecipeTemplateDto> toDtos(List<RecipeTemplate> templates, @Context TemplatePreferences preferences);
+
+    RecipeItemDto toItemDto(RecipeTemplateItem item);
+
+    @Named("generalTags")
+    default List<String> generalTags(List<Tag> tags) {
+        return tagNames(tags, TagKind.general);
+    }
+
+    @Named("dietaryTags")
+    default List<String> dietaryTags(List<Tag> tags) {
+        return tagNames(tags, TagKind.dietary);
+    }
+
+    private static List<String> tagNames(List<Tag> tags, TagKind kind) {
+        if (tags == null) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>(tags.size());
+        for (Tag tag : tags) {
+            if (tag.getKind() == kind) {
+                names.add(tag.getName());
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,43 @@
+package com.mealmap.mapper;
+
+import com.mealmap.model.entity.RecipeTemplatePreference;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The current user's favorite and hidden flags, keyed by template id. Templates without a
+ * preference row are neither.
+ */
+public final class TemplatePreferences {
+
+    private static final TemplatePreferences NONE = new TemplatePreferences(Map.of());
+
+    private final Map<UUID, RecipeTemplatePreference> byTemplateId;
+
+    private TemplatePreferences(Map<UUID, RecipeTemplatePreference> byTemplateId) {
+        this.byTemplateId = byTemplateId;
+    }
+
+    public static TemplatePreferences of(Map<UUID, RecipeTemplatePreference> byTemplateId) {
+        return new TemplatePreferences(byTemplateId);
+    }
+
+    public static TemplatePreferences of(RecipeTemplatePreference preference) {
+        return preference != null ? new TemplatePreferences(Map.of(preference.getTemplateId(), preference)) : NONE;
+    }
+
+    public static TemplatePreferences none() {
+        return NONE;
+    }
+
+    public boolean isFavorite(UUID templateId) {
+        RecipeTemplatePreference preference = byTemplateId.get(templateId);
+        return preference != null && preference.isFavorite();
+    }
+
+    public boolean isHidden(UUID templateId) {
+        RecipeTemplatePreference preference = byTemplateId.get(templateId);
+        return preference != null && preference.isHidden();
+    }
+}
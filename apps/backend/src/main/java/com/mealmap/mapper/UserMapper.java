@@ -2,34 +2,22 @@ package com.mealmap.mapper;
 
 import com.mealmap.dto.UserDto;
 import com.mealmap.model.entity.User;
-import org.springframework.stereotype.Component;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
 
 /**
  * Mapper for converting between User entities and UserDto
  */
-@Component
-public class UserMapper {
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface UserMapper {
 
     /**
      * Convert User entity to UserDto
-     * 
+     *
      * @param user User entity
      * @return UserDto
      */
-    public UserDto toDto(User user) {
-        if (user == null) {
-            return null;
-        }
-
-        return UserDto.builder()
-                .id(user.getId())
-                .email(user.getEmail())
-                .displayName(user.getDisplayName())
-                .avatarUrl(user.getAvatarUrl())
-                .createdAt(user.getCreatedAt())
-                .householdId(user.getHousehold() != null ? user.getHousehold().getId() : null)
-                .mfaEnabled(user.getMfaEnabled())
-                .emailVerified(user.getEmailVerified())
-                .build();
-    }
+    @Mapping(target = "householdId", source = "household.id")
+    UserDto toDto(User user);
 }
@@ -14,4 +14,5 @@ public class GroceryListDto {
     private List<GroceryTripDto> trips = new ArrayList<>();
     private Instant createdAt;
     private Instant updatedAt;
+    private Long version;
 }
@@ -8,6 +8,9 @@ import java.util.List;
 
 @Data
 public class UpdateGroceryListRequest {
+    // Optional; the list version the client last saw, used to merge concurrent check-offs
+    private Long version;
+    
     @NotNull
     @Valid
     private List<TripUpdate> trips;
@@ -0,0 +1,12 @@
+package com.mealmap.model.dto.planner;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class CopyPlannerWeekRequest {
+    @NotNull(message = "Target start date is required")
+    private LocalDate targetStartDate; // Monday of the week to create
+}
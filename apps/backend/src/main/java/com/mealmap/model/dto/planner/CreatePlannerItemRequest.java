@@ -10,6 +10,9 @@ import java.util.UUID;
 
 @Data
 public class CreatePlannerItemRequest {
+    // Set when updating a week to keep an existing item; ignored when creating
+    private UUID id;
+
     @NotNull(message = "Date is required")
     private LocalDate date;
 
@@ -0,0 +1,25 @@
+package com.mealmap.model.dto.planner;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class CreateRotationRequest {
+    // Length of the pattern: the source week and the weeks following it
+    @NotNull
+    @Min(value = 1, message = "A rotation spans at least one week")
+    @Max(value = 8, message = "A rotation spans at most 8 weeks")
+    private Integer cycleWeeks = 1;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate; // Monday of the first generated week
+
+    @NotNull
+    @Min(value = 1, message = "At least one week must be generated")
+    @Max(value = 52, message = "At most 52 weeks can be generated at once")
+    private Integer weeks;
+}
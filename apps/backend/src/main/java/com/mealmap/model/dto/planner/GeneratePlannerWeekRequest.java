@@ -0,0 +1,25 @@
+package com.mealmap.model.dto.planner;
+
+import com.mealmap.model.enums.MealSlot;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class GeneratePlannerWeekRequest {
+    // Slots to fill on every day; the meal slots of the user's profile when empty
+    private List<MealSlot> slots;
+
+    // Only templates carrying all of these are planned; recipes have no tags
+    private List<String> dietaryTags;
+
+    private boolean includeTemplates = true;
+
+    @NotNull
+    @Min(value = 1, message = "Portions must be at least 1")
+    @Max(value = 20, message = "Portions must be at most 20")
+    private Integer portions = 1;
+}
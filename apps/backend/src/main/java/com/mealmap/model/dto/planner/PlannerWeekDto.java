@@ -22,4 +22,5 @@ public class PlannerWeekDto {
     private List<PlannerItemDto> items;
     private Instant createdAt;
     private Instant updatedAt;
+    private Long version;
 }
@@ -0,0 +1,21 @@
+package com.mealmap.model.dto.planner;
+
+import com.mealmap.model.enums.MealSlot;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+public class UpdatePlannerItemRequest {
+    // Fields left null are not changed
+    private LocalDate date;
+
+    private MealSlot slot;
+
+    private UUID recipeId;
+
+    @Min(value = 1, message = "Portions must be at least 1")
+    private Integer portions;
+}
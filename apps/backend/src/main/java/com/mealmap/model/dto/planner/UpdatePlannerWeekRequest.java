@@ -7,6 +7,9 @@ import java.util.List;
 
 @Data
 public class UpdatePlannerWeekRequest {
+    // Version the client edited; when it is outdated the edit is merged with the changes since
+    private Long version;
+
     @Valid
     private List<CreatePlannerItemRequest> items;
 }
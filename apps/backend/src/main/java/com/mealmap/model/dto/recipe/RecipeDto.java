@@ -21,4 +21,6 @@ public class RecipeDto {
     private List<RecipeItemDto> items;
     private Instant createdAt;
     private Instant updatedAt;
+    // Set on create and duplicate only: the user's recipes this one may well be a copy of
+    private List<SimilarRecipeDto> possibleDuplicates;
 }
@@ -0,0 +1,25 @@
+package com.mealmap.model.dto.recipe;
+
+import com.mealmap.model.enums.SuggestionSource;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeSuggestionDto {
+    private UUID id;
+    private SuggestionSource source;
+    private String name;
+    private double coverage;
+    private int matchedIngredients;
+    private int totalIngredients;
+    private List<UUID> missingIngredientIds;
+    private List<UUID> insufficientIngredientIds;
+}
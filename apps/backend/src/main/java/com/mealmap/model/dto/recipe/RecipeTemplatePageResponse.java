@@ -14,4 +14,5 @@ import java.util.List;
 public class RecipeTemplatePageResponse {
     private List<RecipeTemplateDto> data;
     private String nextCursor;
+    private TemplateFacetsDto facets;
 }
@@ -0,0 +1,18 @@
+package com.mealmap.model.dto.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarRecipeDto {
+    private UUID id;
+    private String name;
+    private double similarity; // shared ingredients over all ingredients of the two recipes
+}
@@ -0,0 +1,20 @@
+package com.mealmap.model.dto.recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Number of matching templates per tag, across all pages and counting the active filters.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TemplateFacetsDto {
+    private Map<String, Integer> tags;
+    private Map<String, Integer> dietaryTags;
+}
@@ -0,0 +1,52 @@
+package com.mealmap.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Snapshot of an aggregate (planner week, grocery list) as it was at one version, stored as JSON.
+ */
+@Entity
+@Table(name = "aggregate_revisions")
+@IdClass(AggregateRevision.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AggregateRevision {
+
+    @Id
+    @Column(name = "aggregate_type", length = 50)
+    private String aggregateType;
+
+    @Id
+    @Column(name = "aggregate_id")
+    private UUID aggregateId;
+
+    @Id
+    private Long version;
+
+    @Column(nullable = false, columnDefinition = "NVARCHAR(MAX)")
+    private String state;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String aggregateType;
+        private UUID aggregateId;
+        private Long version;
+    }
+}
@@ -1,5 +1,6 @@
 package com.mealmap.model.entity;
 
+import com.mealmap.model.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,14 +15,15 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "grocery_lists")
+@Table(name = "grocery_lists",
+        uniqueConstraints = @UniqueConstraint(name = "uq_grocery_lists_plan_week", columnNames = "plan_week_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class GroceryList {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -48,4 +50,12 @@ public class GroceryList {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private Instant updatedAt;
+    
+    @Version
+    private Long version;
+    
+    // Trip items are an element collection; touch the root so checking an item bumps the version
+    public void markModified() {
+        this.updatedAt = Instant.now();
+    }
 }
@@ -2,6 +2,7 @@ package com.mealmap.model.entity;
 
 import com.mealmap.model.enums.Unit;
 import com.mealmap.model.embedded.PackageSize;
+import com.mealmap.model.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -22,7 +23,7 @@ import java.util.UUID;
 public class Ingredient {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false)
@@ -1,6 +1,7 @@
 package com.mealmap.model.entity;
 
 import com.mealmap.model.embedded.Quantity;
+import com.mealmap.model.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -19,7 +20,7 @@ import java.util.UUID;
 public class PantryItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,5 +1,6 @@
 package com.mealmap.model.entity;
 
+import com.mealmap.model.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -21,7 +22,7 @@ import java.util.UUID;
 public class PlannerWeek {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false)
@@ -47,6 +48,14 @@ public class PlannerWeek {
     @Column(nullable = false)
     private Instant updatedAt;
 
+    @Version
+    private Long version;
+
+    // Dirties the week itself, so a change that only touches items still bumps the version
+    public void markModified() {
+        this.updatedAt = Instant.now();
+    }
+
     // Helper method to add item
     public void addItem(PlannerItem item) {
         items.add(item);
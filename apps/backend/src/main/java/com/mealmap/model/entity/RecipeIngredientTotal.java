@@ -0,0 +1,52 @@
+package com.mealmap.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Read-only row of {@code recipe_ingredient_totals}: one ingredient of a recipe, summed and
+ * normalized to its base unit. Maintained by {@link com.mealmap.repository.RecipeIngredientTotalRepository#refresh}.
+ */
+@Entity
+@Immutable
+@Table(name = "recipe_ingredient_totals")
+@IdClass(RecipeIngredientTotal.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeIngredientTotal {
+
+    @Id
+    @Column(name = "recipe_id")
+    private UUID recipeId;
+
+    @Id
+    @Column(name = "ingredient_id")
+    private UUID ingredientId;
+
+    @Id
+    @Column(name = "base_unit", length = 20)
+    private String baseUnit;
+
+    @Column(nullable = false, precision = 18, scale = 6)
+    private BigDecimal amount;
+
+    @Column(name = "category_id", nullable = false)
+    private UUID categoryId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID recipeId;
+        private UUID ingredientId;
+        private String baseUnit;
+    }
+}
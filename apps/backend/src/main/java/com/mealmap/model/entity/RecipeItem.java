@@ -1,6 +1,7 @@
 package com.mealmap.model.entity;
 
 import com.mealmap.model.embedded.Quantity;
+import com.mealmap.model.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,7 +19,7 @@ import java.util.UUID;
 public class RecipeItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @ManyToOne
@@ -1,11 +1,13 @@
 package com.mealmap.model.entity;
 
 import com.mealmap.model.enums.RecipeTemplateSource;
+import com.mealmap.model.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -23,7 +25,7 @@ import java.util.UUID;
 public class RecipeTemplate {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false)
@@ -32,11 +34,15 @@ public class RecipeTemplate {
     @Column(length = 2000)
     private String description;
 
-    @Column(name = "tags", columnDefinition = "NVARCHAR(MAX)")
-    private String tags;
-
-    @Column(name = "dietary_tags", columnDefinition = "NVARCHAR(MAX)")
-    private String dietaryTags;
+    // General and dietary tags in entry order; the mapper splits them by kind
+    @ManyToMany
+    @JoinTable(name = "recipe_template_tags",
+            joinColumns = @JoinColumn(name = "template_id"),
+            inverseJoinColumns = @JoinColumn(name = "tag_id"))
+    @OrderColumn(name = "position")
+    @BatchSize(size = 50)
+    @Builder.Default
+    private List<Tag> tags = new ArrayList<>();
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -47,7 +53,9 @@ public class RecipeTemplate {
     @Column(nullable = false)
     private boolean immutable;
 
+    // Template pages load without a fetch join, so a page's items come in one batch
     @OneToMany(mappedBy = "template", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     @Builder.Default
     private List<RecipeTemplateItem> items = new ArrayList<>();
 
@@ -0,0 +1,35 @@
+package com.mealmap.model.entity;
+
+import com.mealmap.model.enums.TagKind;
+import com.mealmap.model.id.TimeOrderedUuid;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * One distinct template tag; names are stored trimmed and lower-case.
+ */
+@Entity
+@Table(name = "tags",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"kind", "name"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tag {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TagKind kind;
+
+    @Column(nullable = false, length = 60)
+    private String name;
+}
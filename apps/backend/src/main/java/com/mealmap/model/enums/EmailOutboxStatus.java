@@ -0,0 +1,8 @@
+package com.mealmap.model.enums;
+
+public enum EmailOutboxStatus {
+    pending,
+    sending,
+    sent,
+    failed
+}
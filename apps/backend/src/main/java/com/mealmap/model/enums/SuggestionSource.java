@@ -0,0 +1,6 @@
+package com.mealmap.model.enums;
+
+public enum SuggestionSource {
+    recipe,
+    template
+}
@@ -0,0 +1,18 @@
+package com.mealmap.model.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an id as generated by {@link TimeOrderedUuidGenerator}: ids created later sort later in
+ * SQL Server's UNIQUEIDENTIFIER order, so inserts append to the clustered primary key.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedUuid {
+}
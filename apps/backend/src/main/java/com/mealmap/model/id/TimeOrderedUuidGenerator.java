@@ -0,0 +1,68 @@
+package com.mealmap.model.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs laid out for SQL Server.
+ *
+ * Carries what UUIDv7 carries (48-bit Unix millisecond timestamp, a counter for ids created in
+ * the same millisecond, random bits) but not in v7's byte positions: SQL Server compares a
+ * UNIQUEIDENTIFIER starting from its last six bytes, then bytes 8-9, and only then the first
+ * eight. So the timestamp fills the last group, the counter the fourth (after the RFC variant
+ * bits), and the first three groups are random apart from the version nibble, which is 8
+ * (custom layout). The sequence never goes backwards within a JVM, even if the clock does; a
+ * counter overflow borrows the next millisecond.
+ *
+ * Ids are assigned before the insert, so JDBC batching is unaffected.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    /**
+     * T-SQL counterpart for rows that native statements insert: the same millisecond timestamp in
+     * the last six bytes, with the first ten taken from NEWID(). Rows written by one statement share
+     * a timestamp and are unordered among themselves, but still land at the end of the index.
+     */
+    public static final String SQL_SERVER_EXPRESSION = "CAST(CAST(NEWID() AS BINARY(10)) + "
+            + "CAST(DATEDIFF_BIG(millisecond, '1970-01-01', SYSUTCDATETIME()) AS BINARY(6)) AS UNIQUEIDENTIFIER)";
+
+    private static final int COUNTER_BITS = 14;
+    private static final long TIMESTAMP_MASK = 0xFFFF_FFFF_FFFFL;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Last issued (timestamp << COUNTER_BITS | counter), shared by every entity type
+    private static final AtomicLong LAST = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long nowMillis) {
+        long candidate = nowMillis << COUNTER_BITS;
+        long state = LAST.updateAndGet(last -> Math.max(last + 1, candidate));
+        long timestamp = (state >>> COUNTER_BITS) & TIMESTAMP_MASK;
+        long counter = state & ((1L << COUNTER_BITS) - 1);
+
+        long mostSigBits = (RANDOM.nextLong() & ~0xF000L) | 0x8000L;
+        long leastSigBits = (0b10L << 62) | (counter << 48) | timestamp;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
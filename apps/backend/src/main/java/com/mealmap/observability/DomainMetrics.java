@@ -0,0 +1,97 @@
+package com.mealmap.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Domain Metrics
+ *
+ * Size distributions for the work each service call processes: planner items per week,
+ * grocery lines per list, templates per page and items per recipe, plus how versioned edits
+ * were merged (the conflict rate). Call timings come from
+ * {@link ServiceObservationAspect}; these summaries explain why one call took longer than another.
+ */
+@Component
+public class DomainMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary groceryLines;
+    private final DistributionSummary groceryRecipes;
+    private final Counter groceryListsCreated;
+    private final Counter groceryListsRecomputed;
+
+    public DomainMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.groceryLines = summary("mealmap.grocery.list.lines", "Grocery lines produced per computed list")
+                .register(meterRegistry);
+        this.groceryRecipes = summary("mealmap.grocery.list.recipes", "Planned recipes aggregated per computed list")
+                .register(meterRegistry);
+        this.groceryListsCreated = Counter.builder("mealmap.grocery.list.computed")
+                .description("Grocery lists computed")
+                .tag("result", "created")
+                .register(meterRegistry);
+        this.groceryListsRecomputed = Counter.builder("mealmap.grocery.list.computed")
+                .description("Grocery lists computed")
+                .tag("result", "recomputed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param operation one of {@code read}, {@code create}, {@code update}
+     */
+    public void plannerWeekItems(String operation, int items) {
+        summary("mealmap.planner.week.items", "Planner items per week handled by a call")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(items);
+    }
+
+    public void groceryListComputed(boolean created, int recipes, int lines) {
+        (created ? groceryListsCreated : groceryListsRecomputed).increment();
+        groceryRecipes.record(recipes);
+        groceryLines.record(lines);
+    }
+
+    public void templatePage(boolean filtered, int templates) {
+        summary("mealmap.templates.page.size", "Templates returned per page")
+                .tag("query", String.valueOf(filtered))
+                .register(meterRegistry)
+                .record(templates);
+    }
+
+    /**
+     * @param operation one of {@code create}, {@code update}, {@code duplicate}
+     */
+    public void recipeItems(String operation, int items) {
+        summary("mealmap.recipe.items", "Ingredient lines per recipe written")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(items);
+    }
+
+    /**
+     * @param aggregate {@code planner_week} or {@code grocery_list}
+     * @param outcome   {@code current} (edit made against the latest version), {@code merged}
+     *                  (three-way merged with newer changes) or {@code conflict}
+     */
+    public void mergeOutcome(String aggregate, String outcome) {
+        Counter.builder("mealmap.merge.outcome")
+                .description("Versioned edits by how they were applied")
+                .tag("aggregate", aggregate)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static DistributionSummary.Builder summary(String name, String description) {
+        // Counts are small; bounding the histogram keeps the Prometheus bucket count modest
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("items")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(500.0);
+    }
+}
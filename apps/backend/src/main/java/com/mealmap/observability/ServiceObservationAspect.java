@@ -0,0 +1,77 @@
+package com.mealmap.observability;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Service Observation Aspect
+ *
+ * Wraps every public method of the {@code @Service} beans in {@code com.mealmap.service} in a
+ * {@code mealmap.service} observation, and every Spring Data repository call in a
+ * {@code mealmap.repository} observation. With the default handlers this yields a timer (and
+ * its call count) per class/method/outcome and, when tracing is on, one span per call. Tags are
+ * kept to names known at compile time so the series count stays bounded.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceObservationAspect {
+
+    static final String OBSERVATION_NAME = "mealmap.service";
+    static final String REPOSITORY_OBSERVATION_NAME = "mealmap.repository";
+
+    private final ObservationRegistry observationRegistry;
+
+    @Around("within(com.mealmap.service..*) "
+            + "&& @within(org.springframework.stereotype.Service) "
+            + "&& execution(public * *(..))")
+    public Object observe(ProceedingJoinPoint joinPoint) throws Throwable {
+        return observe(joinPoint, OBSERVATION_NAME, joinPoint.getSignature().getDeclaringType().getSimpleName());
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object observeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return observe(joinPoint, REPOSITORY_OBSERVATION_NAME, repositoryName(joinPoint));
+    }
+
+    private Object observe(ProceedingJoinPoint joinPoint, String name, String className) throws Throwable {
+        String methodName = joinPoint.getSignature().getName();
+        Observation observation = Observation.createNotStarted(name, observationRegistry)
+                .contextualName(className + "." + methodName)
+                .lowCardinalityKeyValue("class", className)
+                .lowCardinalityKeyValue("method", methodName)
+                .start();
+
+        try (Observation.Scope scope = observation.openScope()) {
+            Object result = joinPoint.proceed();
+            observation.lowCardinalityKeyValue("outcome", "success");
+            return result;
+        } catch (Throwable e) {
+            observation.lowCardinalityKeyValue("outcome", "error");
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    /**
+     * Inherited methods such as findById are declared on CrudRepository, so the application
+     * interface is looked up on the proxy instead of taken from the signature.
+     */
+    private static String repositoryName(ProceedingJoinPoint joinPoint) {
+        for (Class<?> type : ClassUtils.getAllInterfaces(joinPoint.getThis())) {
+            if (Repository.class.isAssignableFrom(type) && type.getName().startsWith("com.mealmap.")) {
+                return type.getSimpleName();
+            }
+        }
+        return joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+}
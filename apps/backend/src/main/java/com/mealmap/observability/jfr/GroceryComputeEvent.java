@@ -0,0 +1,35 @@
+package com.mealmap.observability.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.mealmap.GroceryCompute")
+@Label("Grocery Compute")
+@Category({"MealMap", "Grocery"})
+@Description("Computation of a grocery list from a planner week")
+@StackTrace(false)
+public class GroceryComputeEvent extends Event {
+
+    @Label("Plan Week Id")
+    public String planWeekId;
+
+    @Label("Planner Items")
+    public int plannerItems;
+
+    @Label("Recipes")
+    public int recipes;
+
+    @Label("Grocery Lines")
+    public int lines;
+
+    @Label("Trips")
+    public int trips;
+
+    @Label("Recomputed")
+    @Description("True when an existing list for the week was rebuilt")
+    public boolean recomputed;
+}
@@ -0,0 +1,153 @@
+package com.mealmap.observability.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JFR Recording Endpoint
+ * 
+ * On-demand flight recordings through actuator, bounded in duration and size:
+ * POST /actuator/jfr starts one ({"durationSeconds": 60, "settings": "profile"}),
+ * GET /actuator/jfr reports its state, GET /actuator/jfr/dump downloads the data so far,
+ * and DELETE /actuator/jfr discards it. The MealMap domain events are always enabled
+ * in these recordings; they cost a single flag check when no recording is running.
+ */
+@Component
+@Endpoint(id = "jfr")
+@Slf4j
+public class JfrRecordingEndpoint {
+
+    static final List<Class<? extends Event>> DOMAIN_EVENTS = List.of(
+            GroceryComputeEvent.class,
+            PlannerWeekWriteEvent.class,
+            TemplatePageLoadEvent.class,
+            JwtValidationEvent.class);
+
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    private final Duration maxDuration;
+    private final DataSize maxSize;
+
+    private Recording recording;
+    private Path lastDump;
+
+    public JfrRecordingEndpoint(
+            @Value("${app.jfr.max-duration:PT5M}") Duration maxDuration,
+            @Value("${app.jfr.max-size:100MB}") DataSize maxSize) {
+        this.maxDuration = maxDuration;
+        this.maxSize = maxSize;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+        } else {
+            status.put("state", recording.getState().name());
+            status.put("startTime", recording.getStartTime());
+            status.put("duration", recording.getDuration());
+            status.put("maxSizeBytes", recording.getMaxSize());
+        }
+        status.put("maxDuration", maxDuration);
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable Long durationSeconds, @Nullable String settings) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new InvalidEndpointRequestException("A recording is already running", "Recording already running");
+        }
+        String settingsName = settings != null ? settings : "default";
+        if (!SETTINGS.contains(settingsName)) {
+            throw new InvalidEndpointRequestException("Unknown settings: " + settingsName, "Invalid settings");
+        }
+        Duration duration = durationSeconds != null && durationSeconds > 0
+                ? Duration.ofSeconds(durationSeconds)
+                : maxDuration;
+        if (duration.compareTo(maxDuration) > 0) {
+            duration = maxDuration;
+        }
+
+        discard();
+        try {
+            Recording started = new Recording(Configuration.getConfiguration(settingsName));
+            DOMAIN_EVENTS.forEach(event -> started.enable(event).withoutThreshold());
+            started.setName("mealmap-on-demand");
+            started.setToDisk(true);
+            started.setDuration(duration);
+            started.setMaxSize(maxSize.toBytes());
+            started.start();
+            recording = started;
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Could not load JFR settings " + settingsName, e);
+        }
+        log.info("Started JFR recording for {} with '{}' settings", duration, settingsName);
+        return status();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized Resource dump(@Selector String name) {
+        if (!"dump".equals(name) || recording == null) {
+            return null;
+        }
+        try {
+            Path target = Files.createTempFile("mealmap-", ".jfr");
+            recording.dump(target);
+            deleteLastDump();
+            lastDump = target;
+            return new FileSystemResource(target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not dump JFR recording", e);
+        }
+    }
+
+    @DeleteOperation
+    @PreDestroy
+    public synchronized void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        deleteLastDump();
+    }
+
+    private void deleteLastDump() {
+        if (lastDump == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(lastDump);
+        } catch (IOException e) {
+            log.warn("Could not delete JFR dump {}", lastDump, e);
+        }
+        lastDump = null;
+    }
+}
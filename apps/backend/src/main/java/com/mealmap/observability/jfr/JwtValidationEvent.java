@@ -0,0 +1,20 @@
+package com.mealmap.observability.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.mealmap.JwtValidation")
+@Label("JWT Validation")
+@Category({"MealMap", "Security"})
+@Description("Bearer token check in the JWT filter, including the user lookup")
+@StackTrace(false)
+public class JwtValidationEvent extends Event {
+
+    @Label("Outcome")
+    @Description("authenticated, revoked, invalid, expired or skipped")
+    public String outcome;
+}
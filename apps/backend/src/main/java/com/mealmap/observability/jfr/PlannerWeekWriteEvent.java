@@ -0,0 +1,25 @@
+package com.mealmap.observability.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.mealmap.PlannerWeekWrite")
+@Label("Planner Week Write")
+@Category({"MealMap", "Planner"})
+@Description("Creation or update of a planner week, or a change to one of its items")
+@StackTrace(false)
+public class PlannerWeekWriteEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Plan Week Id")
+    public String planWeekId;
+
+    @Label("Items")
+    public int items;
+}
@@ -0,0 +1,28 @@
+package com.mealmap.observability.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.mealmap.TemplatePageLoad")
+@Label("Template Page Load")
+@Category({"MealMap", "Templates"})
+@Description("Load of one page of recipe templates with the caller's preferences")
+@StackTrace(false)
+public class TemplatePageLoadEvent extends Event {
+
+    @Label("Page")
+    public int page;
+
+    @Label("Page Size")
+    public int pageSize;
+
+    @Label("Templates Returned")
+    public int templates;
+
+    @Label("Filtered By Query")
+    public boolean filtered;
+}
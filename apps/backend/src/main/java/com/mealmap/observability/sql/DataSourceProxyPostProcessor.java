@@ -0,0 +1,50 @@
+package com.mealmap.observability.sql;
+
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import net.ttddyy.observation.tracing.DataSourceObservationListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a datasource-proxy so every statement issued by
+ * Hibernate, Flyway or JdbcTemplate passes through {@link SqlStatementCountingListener},
+ * and connection, query and result-set activity is reported as observations (JDBC spans).
+ */
+@Component
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<ObservationRegistry> observationRegistry;
+
+    public DataSourceProxyPostProcessor(ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            // The registry is resolved lazily; post-processors are created before it exists
+            DataSourceObservationListener observationListener = new DataSourceObservationListener(
+                    () -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+            return builder(dataSource, beanName)
+                    .listener(observationListener)
+                    .methodListener(observationListener)
+                    .build();
+        }
+        return bean;
+    }
+
+    public static DataSource wrap(DataSource dataSource, String name) {
+        return builder(dataSource, name).build();
+    }
+
+    private static ProxyDataSourceBuilder builder(DataSource dataSource, String name) {
+        return ProxyDataSourceBuilder.create(dataSource)
+                .name(name)
+                .listener(new SqlStatementCountingListener());
+    }
+}
@@ -0,0 +1,85 @@
+package com.mealmap.observability.sql;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * SQL Statement Counter
+ *
+ * Thread-bound tally of the JDBC statements executed while a {@link Tally} is open. The
+ * datasource proxy reports every execution here; when no tally is open on the current thread
+ * the report is a no-op, so the proxy costs next to nothing outside of measured requests.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Tally> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * Opens a tally on the current thread. Close it (try-with-resources) to restore whatever
+     * tally was open before, so measured blocks can nest.
+     */
+    public static Tally start() {
+        Tally tally = new Tally(CURRENT.get());
+        CURRENT.set(tally);
+        return tally;
+    }
+
+    public static Optional<Tally> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    static void record(String sql, long elapsedMillis) {
+        Tally tally = CURRENT.get();
+        while (tally != null) {
+            tally.add(sql, elapsedMillis);
+            tally = tally.parent;
+        }
+    }
+
+    public static final class Tally implements AutoCloseable {
+
+        private final Tally parent;
+        private final Map<String, Integer> executionsBySql = new HashMap<>();
+        private int statements;
+        private long elapsedMillis;
+
+        private Tally(Tally parent) {
+            this.parent = parent;
+        }
+
+        private void add(String sql, long elapsed) {
+            statements++;
+            elapsedMillis += elapsed;
+            executionsBySql.merge(sql, 1, Integer::sum);
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * The statement text executed most often in this tally, with its count. A high count for
+         * a single-row select is the usual signature of an N+1 lazy load or per-item lookup.
+         */
+        public Optional<Map.Entry<String, Integer>> mostRepeated() {
+            return executionsBySql.entrySet().stream().max(Map.Entry.comparingByValue());
+        }
+
+        @Override
+        public void close() {
+            if (parent != null) {
+                CURRENT.set(parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
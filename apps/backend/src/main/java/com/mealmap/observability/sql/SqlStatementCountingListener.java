@@ -0,0 +1,27 @@
+package com.mealmap.observability.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Reports each JDBC execution to {@link SqlStatementCounter}. A batch counts as one statement,
+ * since it is one round trip to the database.
+ */
+public class SqlStatementCountingListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (SqlStatementCounter.current().isEmpty()) {
+            return;
+        }
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        SqlStatementCounter.record(sql, execInfo.getElapsedTime());
+    }
+}
@@ -0,0 +1,84 @@
+package com.mealmap.observability.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * SQL Statement Metrics Filter
+ *
+ * Counts the statements and JDBC time spent on each HTTP request and reports them as
+ * {@code X-SQL-Statement-Count} / {@code X-SQL-Time-Ms} response headers and as metrics tagged
+ * with the matched route. Logs a warning when a request runs the same statement repeatedly,
+ * which is how N+1 lookups show up. Only registered outside production.
+ */
+@Slf4j
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENT_COUNT_HEADER = "X-SQL-Statement-Count";
+    public static final String ELAPSED_HEADER = "X-SQL-Time-Ms";
+
+    private final MeterRegistry meterRegistry;
+    private final int repeatWarnThreshold;
+
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry, int repeatWarnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.repeatWarnThreshold = repeatWarnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        // Buffer the body so the headers can still be written once the handler has finished
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try (SqlStatementCounter.Tally tally = SqlStatementCounter.start()) {
+            try {
+                filterChain.doFilter(request, wrapper);
+            } finally {
+                report(request, wrapper, tally);
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, HttpServletResponse response, SqlStatementCounter.Tally tally) {
+        response.setHeader(STATEMENT_COUNT_HEADER, String.valueOf(tally.getStatements()));
+        response.setHeader(ELAPSED_HEADER, String.valueOf(tally.getElapsedMillis()));
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("mealmap.http.sql.statements")
+                .description("JDBC statements executed per HTTP request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(tally.getStatements());
+        Timer.builder("mealmap.http.sql.time")
+                .description("JDBC time spent per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(Duration.ofMillis(tally.getElapsedMillis()));
+
+        tally.mostRepeated()
+                .filter(entry -> entry.getValue() >= repeatWarnThreshold)
+                .ifPresent(entry -> log.warn("Possible N+1 on {} {}: statement ran {} times: {}",
+                        request.getMethod(), uri, entry.getValue(), entry.getKey()));
+    }
+}
@@ -0,0 +1,91 @@
+package com.mealmap.observability.tracing;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Endpoint Sampler
+ *
+ * Head-based sampler whose ratio depends on the request path. Root spans are created by the
+ * HTTP observation filter before the route is known, so {@link EndpointSamplingFilter} binds
+ * the path to the thread first and this sampler reads it from there. Rules are
+ * "pattern=ratio" pairs separated by commas, matched in order against the path below the
+ * context path; the first match wins, otherwise the default ratio applies. Child spans follow
+ * their parent's decision when wrapped in {@link Sampler#parentBased(Sampler)}.
+ */
+public class EndpointSampler implements Sampler {
+
+    private static final ThreadLocal<String> CURRENT_PATH = new ThreadLocal<>();
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Rule> rules;
+    private final Sampler defaultSampler;
+    private final String description;
+
+    record Rule(String pattern, Sampler sampler) {
+    }
+
+    public EndpointSampler(String rules, double defaultRatio) {
+        this.rules = parse(rules);
+        this.defaultSampler = Sampler.traceIdRatioBased(defaultRatio);
+        this.description = "EndpointSampler{rules=" + rules + ", default=" + defaultRatio + "}";
+    }
+
+    static void bindPath(String path) {
+        CURRENT_PATH.set(path);
+    }
+
+    static void clearPath() {
+        CURRENT_PATH.remove();
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        return samplerFor(CURRENT_PATH.get())
+                .shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+    }
+
+    Sampler samplerFor(String path) {
+        if (path != null) {
+            for (Rule rule : rules) {
+                if (pathMatcher.match(rule.pattern(), path)) {
+                    return rule.sampler();
+                }
+            }
+        }
+        return defaultSampler;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    private static List<Rule> parse(String rules) {
+        List<Rule> parsed = new ArrayList<>();
+        if (rules == null || rules.isBlank()) {
+            return parsed;
+        }
+        for (String entry : rules.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid sampling rule '" + entry + "', expected pattern=ratio");
+            }
+            double ratio = Double.parseDouble(parts[1].trim());
+            if (ratio < 0.0 || ratio > 1.0) {
+                throw new IllegalArgumentException("Sampling ratio must be between 0 and 1: " + entry);
+            }
+            parsed.add(new Rule(parts[0].trim(), Sampler.traceIdRatioBased(ratio)));
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,32 @@
+package com.mealmap.observability.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the request path for {@link EndpointSampler}. Must run before the HTTP server
+ * observation filter, which starts the root span.
+ */
+public class EndpointSamplingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        EndpointSampler.bindPath(path);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            EndpointSampler.clearPath();
+        }
+    }
+}
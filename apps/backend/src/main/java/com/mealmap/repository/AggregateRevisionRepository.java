@@ -0,0 +1,28 @@
+package com.mealmap.repository;
+
+import com.mealmap.model.entity.AggregateRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface AggregateRevisionRepository extends JpaRepository<AggregateRevision, AggregateRevision.Key> {
+
+    Optional<AggregateRevision> findByAggregateTypeAndAggregateIdAndVersion(String aggregateType, UUID aggregateId,
+                                                                            Long version);
+
+    // Ids are assigned, so save() would issue a SELECT before every insert
+    @Modifying
+    @Query(value = "INSERT INTO aggregate_revisions (aggregate_type, aggregate_id, version, state) " +
+           "VALUES (:aggregateType, :aggregateId, :version, :state)", nativeQuery = true)
+    void insert(String aggregateType, UUID aggregateId, long version, String state);
+
+    @Modifying
+    @Query("DELETE FROM AggregateRevision r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(Instant cutoff);
+}
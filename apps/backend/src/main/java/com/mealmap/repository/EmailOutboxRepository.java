@@ -0,0 +1,36 @@
+package com.mealmap.repository;
+
+import com.mealmap.model.entity.EmailOutboxMessage;
+import com.mealmap.model.enums.EmailOutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, UUID> {
+
+    /**
+     * Locks the next due messages, skipping rows another dispatcher already holds
+     * (rendered as UPDLOCK, ROWLOCK, READPAST on SQL Server). Messages stuck in
+     * "sending" past their lease are picked up again.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM EmailOutboxMessage m " +
+           "WHERE (m.status = :pending AND m.nextAttemptAt <= :now) " +
+           "OR (m.status = :sending AND m.lockedUntil < :now) " +
+           "ORDER BY m.nextAttemptAt ASC")
+    List<EmailOutboxMessage> findDueForUpdate(EmailOutboxStatus pending,
+                                              EmailOutboxStatus sending,
+                                              Instant now,
+                                              Pageable pageable);
+}
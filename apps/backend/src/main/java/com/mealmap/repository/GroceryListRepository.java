@@ -1,10 +1,14 @@
 package com.mealmap.repository;
 
 import com.mealmap.model.entity.GroceryList;
+import com.mealmap.model.id.TimeOrderedUuidGenerator;
+import com.mealmap.repository.projection.GroceryListUpsert;
+import com.mealmap.repository.projection.IngredientRequirement;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,9 +20,51 @@ public interface GroceryListRepository extends JpaRepository<GroceryList, UUID>
            "WHERE gl.id = :id")
     Optional<GroceryList> findByIdWithPlannerWeek(UUID id);
     
-    @Query("SELECT gl FROM GroceryList gl " +
-           "WHERE gl.plannerWeek.id = :planWeekId " +
-           "AND (gl.user.id = :userId OR gl.household.id IN " +
-           "(SELECT h.id FROM Household h JOIN h.members m WHERE m.id = :userId))")
-    Optional<GroceryList> findByPlanWeekIdAndUserId(UUID planWeekId, UUID userId);
+    /**
+     * Creates the grocery list of a planner week, owned like the week, or claims the existing
+     * one by bumping its version. HOLDLOCK keeps the key range locked between the match and
+     * the insert, so concurrent calls for the same week can neither both insert nor interleave.
+     */
+    @Query(value = "MERGE grocery_lists WITH (HOLDLOCK) AS target " +
+           "USING (SELECT w.id, w.user_id, w.household_id FROM planner_weeks w WHERE w.id = :planWeekId) AS source " +
+           "ON target.plan_week_id = source.id " +
+           "WHEN MATCHED THEN UPDATE SET version = target.version + 1 " +
+           "WHEN NOT MATCHED THEN INSERT (id, plan_week_id, user_id, household_id, created_at, version) " +
+           "VALUES (" + TimeOrderedUuidGenerator.SQL_SERVER_EXPRESSION + ", source.id, source.user_id, source.household_id, GETUTCDATE(), 0) " +
+           "OUTPUT inserted.id AS id, $action AS action;",
+           nativeQuery = true)
+    GroceryListUpsert upsertForPlanWeek(UUID planWeekId);
+    
+    /**
+     * Ingredient totals for a planner week (pre-normalized recipe totals x portions)
+     * with the pantry stock of the week's owner (the user of a personal week, the household of
+     * a household week) subtracted, in one query. The list is shared per week, so it does not
+     * depend on which member computes it.
+     * A unit without a conversion factor counts as its own base unit, so no line is dropped.
+     */
+    @Query(value = "WITH needed AS (" +
+           "  SELECT t.ingredient_id, t.base_unit, MAX(t.category_id) AS category_id, " +
+           "  SUM(t.amount * pi.portions) AS amount " +
+           "  FROM planner_items pi " +
+           "  JOIN recipe_ingredient_totals t ON t.recipe_id = pi.recipe_id " +
+           "  WHERE pi.planner_week_id = :planWeekId " +
+           "  GROUP BY t.ingredient_id, t.base_unit" +
+           "), pantry AS (" +
+           "  SELECT p.ingredient_id, COALESCE(f.base_unit, p.quantity_unit) AS base_unit, SUM(p.quantity_amount * COALESCE(f.factor, 1)) AS amount " +
+           "  FROM pantry_items p " +
+           "  JOIN planner_weeks w ON w.id = :planWeekId " +
+           "  LEFT JOIN unit_conversion_factors f ON f.unit = p.quantity_unit " +
+           "  WHERE p.ingredient_id IN (SELECT ingredient_id FROM needed) " +
+           "  AND (p.user_id = w.user_id OR p.household_id = w.household_id) " +
+           "  GROUP BY p.ingredient_id, COALESCE(f.base_unit, p.quantity_unit)" +
+           ") " +
+           "SELECT n.ingredient_id AS ingredientId, n.category_id AS categoryId, n.base_unit AS baseUnit, " +
+           "n.amount AS neededAmount, " +
+           "CASE WHEN n.amount > COALESCE(p.amount, 0) THEN n.amount - COALESCE(p.amount, 0) ELSE 0 END " +
+           "AS afterPantryAmount " +
+           "FROM needed n " +
+           "LEFT JOIN pantry p ON p.ingredient_id = n.ingredient_id AND p.base_unit = n.base_unit " +
+           "ORDER BY n.category_id, n.ingredient_id",
+           nativeQuery = true)
+    List<IngredientRequirement> aggregateRequirements(UUID planWeekId);
 }
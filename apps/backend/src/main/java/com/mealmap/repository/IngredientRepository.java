@@ -1,11 +1,15 @@
 package com.mealmap.repository;
 
 import com.mealmap.model.entity.Ingredient;
+import com.mealmap.repository.projection.IngredientName;
+import com.mealmap.repository.projection.IngredientSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.UUID;
 import java.util.List;
 
@@ -14,10 +18,33 @@ public interface IngredientRepository extends JpaRepository<Ingredient, UUID> {
     Page<Ingredient> findByOwnerUserId(UUID ownerUserId, Pageable pageable);
     Page<Ingredient> findByOwnerUserIdAndNameContainingIgnoreCase(UUID ownerUserId, String name, Pageable pageable);
     Page<Ingredient> findByOwnerUserIdAndCategoryId(UUID ownerUserId, UUID categoryId, Pageable pageable);
-    Page<Ingredient> findByOwnerUserIdIn(List<UUID> ownerUserIds, Pageable pageable);
-    Page<Ingredient> findByOwnerUserIdInAndNameContainingIgnoreCase(List<UUID> ownerUserIds, String name, Pageable pageable);
-    Page<Ingredient> findByOwnerUserIdInAndCategoryId(List<UUID> ownerUserIds, UUID categoryId, Pageable pageable);
+
+    // List views read only the columns the DTO needs; the rows never enter the persistence context
+    String SUMMARY_SELECT = "SELECT i.id AS id, i.ownerUserId AS ownerUserId, i.name AS name, " +
+            "i.category.id AS categoryId, i.defaultUnit AS defaultUnit, " +
+            "i.packageSize.amount AS packageAmount, i.packageSize.unit AS packageUnit, " +
+            "i.notes AS notes, i.createdAt AS createdAt, i.updatedAt AS updatedAt " +
+            "FROM Ingredient i ";
+
+    @Query(SUMMARY_SELECT + "WHERE i.ownerUserId IN ?1")
+    Page<IngredientSummary> findByOwnerUserIdIn(List<UUID> ownerUserIds, Pageable pageable);
+
+    // Same matching as the derived ContainingIgnoreCase query, including escaping of % and _
+    @Query(SUMMARY_SELECT + "WHERE i.ownerUserId IN ?1 " +
+           "AND UPPER(i.name) LIKE UPPER(CONCAT('%', ?#{escape([1])}, '%')) ESCAPE ?#{escapeCharacter()}")
+    Page<IngredientSummary> findByOwnerUserIdInAndNameContainingIgnoreCase(List<UUID> ownerUserIds, String name,
+                                                                         Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE i.ownerUserId IN ?1 AND i.category.id = ?2")
+    Page<IngredientSummary> findByOwnerUserIdInAndCategoryId(List<UUID> ownerUserIds, UUID categoryId, Pageable pageable);
     
     long countByOwnerUserId(UUID ownerUserId);
     long countByOwnerUserIdIn(List<UUID> ownerUserIds);
+
+    @Query("SELECT i.id FROM Ingredient i WHERE i.id IN :ids AND i.ownerUserId IN :ownerUserIds")
+    List<UUID> findVisibleIds(Collection<UUID> ids, Collection<UUID> ownerUserIds);
+
+    @Query("SELECT i.id AS id, i.name AS name, c.name AS categoryName " +
+           "FROM Ingredient i LEFT JOIN i.category c WHERE i.id IN ?1")
+    List<IngredientName> findNamesByIdIn(Collection<UUID> ids);
 }
@@ -1,6 +1,9 @@
 package com.mealmap.repository;
 
 import com.mealmap.model.entity.PantryItem;
+import com.mealmap.repository.projection.PantryItemSummary;
+import com.mealmap.repository.projection.PantryStock;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,16 +15,24 @@ import java.util.UUID;
 @Repository
 public interface PantryItemRepository extends JpaRepository<PantryItem, UUID> {
 
-    @Query("SELECT p FROM PantryItem p " +
+    // The pantry screen reads rows with their ingredient and category names in one query
+    String SUMMARY_SELECT = "SELECT p.id AS id, i.id AS ingredientId, i.name AS ingredientName, " +
+            "c.id AS categoryId, c.name AS categoryName, " +
+            "p.quantity.amount AS quantityAmount, p.quantity.unit AS quantityUnit, " +
+            "p.user.id AS userId, p.household.id AS householdId, p.createdAt AS createdAt, p.updatedAt AS updatedAt " +
+            "FROM PantryItem p JOIN p.ingredient i JOIN i.category c ";
+
+    @Query(SUMMARY_SELECT +
            "WHERE p.user.id = :userId OR (p.household.id IS NOT NULL AND p.household.id IN :householdIds) " +
            "ORDER BY p.createdAt DESC")
-    List<PantryItem> findByUserOrHouseholds(
+    List<PantryItemSummary> findByUserOrHouseholds(
             @Param("userId") UUID userId,
-            @Param("householdIds") List<UUID> householdIds
+            @Param("householdIds") List<UUID> householdIds,
+            Pageable pageable
     );
 
-    @Query("SELECT p FROM PantryItem p WHERE p.user.id = :userId")
-    List<PantryItem> findByUserId(@Param("userId") UUID userId);
+    @Query(SUMMARY_SELECT + "WHERE p.user.id = :userId ORDER BY p.createdAt DESC")
+    List<PantryItemSummary> findByUserId(@Param("userId") UUID userId, Pageable pageable);
 
     @Query("SELECT p FROM PantryItem p WHERE p.household.id = :householdId")
     List<PantryItem> findByHouseholdId(@Param("householdId") UUID householdId);
@@ -35,4 +46,13 @@ public interface PantryItemRepository extends JpaRepository<PantryItem, UUID> {
             @Param("userId") UUID userId,
             @Param("householdIds") List<UUID> householdIds
     );
+
+    @Query(value = "SELECT p.ingredient_id AS ingredientId, COALESCE(f.base_unit, p.quantity_unit) AS baseUnit, " +
+           "SUM(p.quantity_amount * COALESCE(f.factor, 1)) AS amount " +
+           "FROM pantry_items p " +
+           "LEFT JOIN unit_conversion_factors f ON f.unit = p.quantity_unit " +
+           "WHERE p.user_id = :userId OR p.household_id = :householdId " +
+           "GROUP BY p.ingredient_id, COALESCE(f.base_unit, p.quantity_unit)",
+           nativeQuery = true)
+    List<PantryStock> aggregateStock(@Param("userId") UUID userId, @Param("householdId") UUID householdId);
 }
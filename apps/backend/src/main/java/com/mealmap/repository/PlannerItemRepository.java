@@ -1,11 +1,53 @@
 package com.mealmap.repository;
 
 import com.mealmap.model.entity.PlannerItem;
+import com.mealmap.model.id.TimeOrderedUuidGenerator;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PlannerItemRepository extends JpaRepository<PlannerItem, UUID> {
+    Optional<PlannerItem> findByIdAndPlannerWeekId(UUID id, UUID plannerWeekId);
+
+    /**
+     * Fills the given target weeks from a rotation pattern in one statement. The pattern is the
+     * source week and the {@code cycleWeeks - 1} weeks of the same owner that follow it; target
+     * week n (counted from {@code startDate}) receives the items of pattern week n mod cycleWeeks,
+     * shifted by the distance between the two weeks.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO planner_items (id, date, slot, recipe_id, portions, added_by_user_id, planner_week_id) " +
+           "SELECT " + TimeOrderedUuidGenerator.SQL_SERVER_EXPRESSION + ", DATEADD(day, DATEDIFF(day, pattern.start_date, target.start_date), item.date), " +
+           "       item.slot, item.recipe_id, item.portions, :addedByUserId, target.id " +
+           "FROM planner_weeks target " +
+           "JOIN planner_weeks src ON src.id = :sourceWeekId " +
+           "JOIN planner_weeks pattern " +
+           "  ON pattern.start_date = DATEADD(day, 7 * ((DATEDIFF(day, :startDate, target.start_date) / 7) % :cycleWeeks), src.start_date) " +
+           " AND (pattern.user_id = src.user_id OR pattern.household_id = src.household_id) " +
+           "JOIN planner_items item ON item.planner_week_id = pattern.id " +
+           "WHERE target.id IN (:targetWeekIds)",
+           nativeQuery = true)
+    int insertRotationItems(UUID sourceWeekId, LocalDate startDate, int cycleWeeks, Collection<UUID> targetWeekIds,
+                            UUID addedByUserId);
+
+    /**
+     * Adds generated items to a week in one statement however many there are. They are passed
+     * as a JSON array of {@code {date, slot, recipeId, portions}} objects, which also keeps the
+     * statement clear of the driver's parameter limit.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO planner_items (id, date, slot, recipe_id, portions, added_by_user_id, planner_week_id) " +
+           "SELECT " + TimeOrderedUuidGenerator.SQL_SERVER_EXPRESSION + ", item.date, item.slot, item.recipe_id, " +
+           "       item.portions, :addedByUserId, :plannerWeekId " +
+           "FROM OPENJSON(:items) WITH (date DATE '$.date', slot VARCHAR(20) '$.slot', " +
+           "                            recipe_id UNIQUEIDENTIFIER '$.recipeId', portions INT '$.portions') item",
+           nativeQuery = true)
+    int insertGeneratedItems(UUID plannerWeekId, UUID addedByUserId, String items);
 }
@@ -1,12 +1,15 @@
 package com.mealmap.repository;
 
 import com.mealmap.model.entity.PlannerWeek;
+import com.mealmap.model.id.TimeOrderedUuidGenerator;
+import com.mealmap.repository.projection.GeneratedWeek;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -53,4 +56,36 @@ public interface PlannerWeekRepository extends JpaRepository<PlannerWeek, UUID>
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate
     );
+
+    @Query("SELECT DISTINCT pw FROM PlannerWeek pw " +
+           "LEFT JOIN FETCH pw.items pi " +
+           "LEFT JOIN FETCH pi.recipe " +
+           "WHERE pw.id IN :ids " +
+           "ORDER BY pw.startDate")
+    List<PlannerWeek> findAllWithItemsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Creates {@code weeks} consecutive weeks from {@code startDate}, owned like the source
+     * week, in one statement. Weeks the owner already has are skipped and left untouched;
+     * the range lock on the existence check keeps two concurrent calls from both creating one.
+     */
+    @Query(value = "WITH offsets AS (" +
+           "    SELECT 0 AS k UNION ALL SELECT k + 1 FROM offsets WHERE k + 1 < :weeks" +
+           ") " +
+           "INSERT INTO planner_weeks (id, start_date, user_id, household_id, created_at, updated_at, version) " +
+           "OUTPUT inserted.id AS id, inserted.start_date AS startDate " +
+           "SELECT " + TimeOrderedUuidGenerator.SQL_SERVER_EXPRESSION + ", DATEADD(day, 7 * o.k, :startDate), src.user_id, src.household_id, " +
+           "       GETUTCDATE(), GETUTCDATE(), 0 " +
+           "FROM offsets o CROSS JOIN planner_weeks src " +
+           "WHERE src.id = :sourceWeekId " +
+           "AND NOT EXISTS (" +
+           "    SELECT 1 FROM planner_weeks existing WITH (UPDLOCK, HOLDLOCK) " +
+           "    WHERE existing.start_date = DATEADD(day, 7 * o.k, :startDate) " +
+           "    AND (existing.user_id = src.user_id OR existing.household_id = src.household_id))",
+           nativeQuery = true)
+    List<GeneratedWeek> insertRotationWeeks(
+            @Param("sourceWeekId") UUID sourceWeekId,
+            @Param("startDate") LocalDate startDate,
+            @Param("weeks") int weeks
+    );
 }
@@ -0,0 +1,11 @@
+package com.mealmap.repository;
+
+import com.mealmap.model.entity.Profile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ProfileRepository extends JpaRepository<Profile, UUID> {
+}
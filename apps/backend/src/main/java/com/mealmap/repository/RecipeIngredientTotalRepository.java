@@ -0,0 +1,50 @@
+package com.mealmap.repository;
+
+import com.mealmap.model.entity.RecipeIngredientTotal;
+import com.mealmap.repository.projection.SuggestionRequirementRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RecipeIngredientTotalRepository extends JpaRepository<RecipeIngredientTotal, RecipeIngredientTotal.Key> {
+
+    List<RecipeIngredientTotal> findByRecipeIdIn(Collection<UUID> recipeIds);
+
+    @Query(value = "SELECT r.id AS candidateId, r.name AS name, r.owner_user_id AS ownerUserId, " +
+           "t.ingredient_id AS ingredientId, t.base_unit AS baseUnit, t.amount AS amount " +
+           "FROM recipes r JOIN recipe_ingredient_totals t ON t.recipe_id = r.id " +
+           "ORDER BY r.id",
+           nativeQuery = true)
+    List<SuggestionRequirementRow> findAllSuggestionRows();
+
+    // Flushes first so freshly saved recipe items are visible to the insert below
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM recipe_ingredient_totals WHERE recipe_id = :recipeId", nativeQuery = true)
+    void deleteByRecipe(UUID recipeId);
+
+    @Modifying
+    @Query(value = "INSERT INTO recipe_ingredient_totals (recipe_id, ingredient_id, base_unit, amount, category_id) " +
+           "SELECT ri.recipe_id, ri.ingredient_id, COALESCE(f.base_unit, ri.quantity_unit), SUM(ri.quantity_amount * COALESCE(f.factor, 1)), i.category_id " +
+           "FROM recipe_items ri " +
+           "LEFT JOIN unit_conversion_factors f ON f.unit = ri.quantity_unit " +
+           "JOIN ingredients i ON i.id = ri.ingredient_id " +
+           "WHERE ri.recipe_id = :recipeId " +
+           "GROUP BY ri.recipe_id, ri.ingredient_id, COALESCE(f.base_unit, ri.quantity_unit), i.category_id",
+           nativeQuery = true)
+    int insertForRecipe(UUID recipeId);
+
+    /**
+     * Rebuilds the totals of one recipe from its current items. Must run inside the
+     * transaction that wrote the items.
+     */
+    default void refresh(UUID recipeId) {
+        deleteByRecipe(recipeId);
+        insertForRecipe(recipeId);
+    }
+}
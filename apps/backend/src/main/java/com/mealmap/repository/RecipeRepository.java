@@ -1,17 +1,63 @@
 package com.mealmap.repository;
 
 import com.mealmap.model.entity.Recipe;
+import com.mealmap.repository.projection.RecipeItemRow;
+import com.mealmap.repository.projection.RecipeSummary;
+import com.mealmap.repository.projection.TemplateCopy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, UUID> {
-    Page<Recipe> findByOwnerUserId(UUID ownerUserId, Pageable pageable);
-    Page<Recipe> findByOwnerUserIdAndNameContainingIgnoreCase(UUID ownerUserId, String name, Pageable pageable);
+    String SUMMARY_SELECT = "SELECT r.id AS id, r.name AS name, r.externalUrl AS externalUrl, r.notes AS notes, " +
+            "r.createdAt AS createdAt, r.updatedAt AS updatedAt FROM Recipe r ";
+    // Normalized amounts of recipe r and of template tpl, converted the same way
+    String RECIPE_TOTALS = "SELECT t.ingredient_id, t.base_unit, t.amount " +
+            "FROM recipe_ingredient_totals t WHERE t.recipe_id = r.id";
+    String TEMPLATE_TOTALS = "SELECT ti.ingredient_id, COALESCE(f.base_unit, ti.quantity_unit), " +
+            "SUM(ti.quantity_amount * COALESCE(f.factor, 1)) " +
+            "FROM recipe_template_items ti " +
+            "LEFT JOIN unit_conversion_factors f ON f.unit = ti.quantity_unit " +
+            "WHERE ti.template_id = tpl.id " +
+            "GROUP BY ti.ingredient_id, COALESCE(f.base_unit, ti.quantity_unit)";
+
+    @Query(SUMMARY_SELECT + "WHERE r.ownerUserId = ?1")
+    Page<RecipeSummary> findByOwnerUserId(UUID ownerUserId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE r.ownerUserId = ?1 " +
+           "AND UPPER(r.name) LIKE UPPER(CONCAT('%', ?#{escape([1])}, '%')) ESCAPE ?#{escapeCharacter()}")
+    Page<RecipeSummary> findByOwnerUserIdAndNameContainingIgnoreCase(UUID ownerUserId, String name, Pageable pageable);
+
+    /**
+     * Items of a page of recipes in one query, instead of initializing each recipe's collection
+     */
+    @Query("SELECT ri.recipe.id AS recipeId, ri.ingredientId AS ingredientId, ri.quantity.amount AS amount, " +
+           "ri.quantity.unit AS unit, ri.packageNote AS packageNote " +
+           "FROM RecipeItem ri WHERE ri.recipe.id IN ?1")
+    List<RecipeItemRow> findItemRowsByRecipeIdIn(Collection<UUID> recipeIds);
     
     long countByOwnerUserId(UUID ownerUserId);
+
+    /**
+     * The owner's recipes that are unchanged copies of the given templates: the template's name,
+     * and exactly its ingredients in the same amounts. Newest copy first.
+     */
+    @Query(value = "SELECT tpl.id AS templateId, r.id AS recipeId " +
+           "FROM recipe_templates tpl " +
+           "JOIN recipes r ON r.owner_user_id = :ownerUserId AND r.name = tpl.name " +
+           "WHERE tpl.id IN (:templateIds) " +
+           "AND NOT EXISTS (" + RECIPE_TOTALS + " EXCEPT " + TEMPLATE_TOTALS + ") " +
+           "AND NOT EXISTS (" + TEMPLATE_TOTALS + " EXCEPT " + RECIPE_TOTALS + ") " +
+           "ORDER BY r.created_at DESC, r.id",
+           nativeQuery = true)
+    List<TemplateCopy> findUnchangedCopies(@Param("ownerUserId") UUID ownerUserId,
+                                           @Param("templateIds") Collection<UUID> templateIds);
 }
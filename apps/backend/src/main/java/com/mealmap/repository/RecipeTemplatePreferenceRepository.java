@@ -2,6 +2,7 @@ package com.mealmap.repository;
 
 import com.mealmap.model.entity.RecipeTemplatePreference;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,6 +11,8 @@ import java.util.UUID;
 
 @Repository
 public interface RecipeTemplatePreferenceRepository extends JpaRepository<RecipeTemplatePreference, UUID> {
-    List<RecipeTemplatePreference> findByUserIdAndTemplateIdIn(UUID userId, List<UUID> templateIds);
     Optional<RecipeTemplatePreference> findByTemplateIdAndUserId(UUID templateId, UUID userId);
+
+    @Query("SELECT p FROM RecipeTemplatePreference p WHERE p.userId = ?1 AND (p.favorite = true OR p.hidden = true)")
+    List<RecipeTemplatePreference> findFlaggedByUserId(UUID userId);
 }
@@ -2,6 +2,8 @@ package com.mealmap.repository;
 
 import com.mealmap.model.entity.RecipeTemplate;
 import com.mealmap.model.enums.RecipeTemplateSource;
+import com.mealmap.repository.projection.SuggestionRequirementRow;
+import com.mealmap.repository.projection.TemplateTagRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -10,21 +12,31 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface RecipeTemplateRepository extends JpaRepository<RecipeTemplate, UUID> {
 
-    @EntityGraph(attributePaths = "items")
-    @Query("SELECT t FROM RecipeTemplate t WHERE (t.source = :globalSource OR t.ownerUserId = :ownerUserId)")
+    // Hidden templates are filtered and favorites ordered here, so every page holds exactly its
+    // size; items come in through @BatchSize since a fetch join would force in-memory paging
+    String VISIBLE_TO_USER = "FROM RecipeTemplate t " +
+            "LEFT JOIN RecipeTemplatePreference p ON p.templateId = t.id AND p.userId = :ownerUserId " +
+            "WHERE (t.source = :globalSource OR t.ownerUserId = :ownerUserId) " +
+            "AND (p.id IS NULL OR p.hidden = false) ";
+    String FAVORITES_FIRST = "ORDER BY CASE WHEN p.favorite = true THEN 0 ELSE 1 END, t.createdAt, t.id";
+    String NAME_MATCHES = "AND LOWER(t.name) LIKE LOWER(CONCAT('%', :name, '%')) ";
+
+    @Query(value = "SELECT t " + VISIBLE_TO_USER + FAVORITES_FIRST,
+            countQuery = "SELECT COUNT(t) " + VISIBLE_TO_USER)
     Page<RecipeTemplate> findVisibleTemplates(@Param("ownerUserId") UUID ownerUserId,
                                               @Param("globalSource") RecipeTemplateSource globalSource,
                                               Pageable pageable);
 
-    @EntityGraph(attributePaths = "items")
-    @Query("SELECT t FROM RecipeTemplate t WHERE (t.source = :globalSource OR t.ownerUserId = :ownerUserId) " +
-            "AND LOWER(t.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    @Query(value = "SELECT t " + VISIBLE_TO_USER + NAME_MATCHES + FAVORITES_FIRST,
+            countQuery = "SELECT COUNT(t) " + VISIBLE_TO_USER + NAME_MATCHES)
     Page<RecipeTemplate> findVisibleTemplatesByName(@Param("ownerUserId") UUID ownerUserId,
                                                     @Param("globalSource") RecipeTemplateSource globalSource,
                                                     @Param("name") String name,
@@ -32,4 +44,25 @@ public interface RecipeTemplateRepository extends JpaRepository<RecipeTemplate,
 
     @EntityGraph(attributePaths = "items")
     Optional<RecipeTemplate> findWithItemsById(UUID id);
+
+    @EntityGraph(attributePaths = "items")
+    List<RecipeTemplate> findWithItemsByIdIn(Collection<UUID> ids);
+
+    // Rows of one template are adjacent, templates in creation order
+    @Query("SELECT t.id AS templateId, t.name AS templateName, t.source AS source, t.ownerUserId AS ownerUserId, " +
+            "g.kind AS tagKind, g.name AS tagName " +
+            "FROM RecipeTemplate t LEFT JOIN t.tags g ORDER BY t.createdAt, t.id")
+    List<TemplateTagRow> findAllTagRows();
+
+    // Templates have no totals table, so their items are normalized here the way recipe totals are
+    @Query(value = "SELECT t.id AS candidateId, t.name AS name, t.owner_user_id AS ownerUserId, " +
+            "ti.ingredient_id AS ingredientId, COALESCE(f.base_unit, ti.quantity_unit) AS baseUnit, SUM(ti.quantity_amount * COALESCE(f.factor, 1)) AS amount " +
+            "FROM recipe_templates t " +
+            "JOIN recipe_template_items ti ON ti.template_id = t.id " +
+            "LEFT JOIN unit_conversion_factors f ON f.unit = ti.quantity_unit " +
+            "WHERE t.source = 'global' " +
+            "GROUP BY t.id, t.name, t.owner_user_id, ti.ingredient_id, COALESCE(f.base_unit, ti.quantity_unit) " +
+            "ORDER BY t.id",
+            nativeQuery = true)
+    List<SuggestionRequirementRow> findGlobalSuggestionRows();
 }
@@ -0,0 +1,15 @@
+package com.mealmap.repository;
+
+import com.mealmap.model.entity.Tag;
+import com.mealmap.model.enums.TagKind;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, UUID> {
+    List<Tag> findByKindAndNameIn(TagKind kind, Collection<String> names);
+}
@@ -0,0 +1,14 @@
+package com.mealmap.repository.projection;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A planner week created by {@code PlannerWeekRepository.insertRotationWeeks}.
+ */
+public interface GeneratedWeek {
+
+    UUID getId();
+
+    LocalDate getStartDate();
+}
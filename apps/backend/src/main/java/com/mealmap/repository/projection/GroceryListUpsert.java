@@ -0,0 +1,18 @@
+package com.mealmap.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Outcome of the grocery list upsert: the id of the list row and the MERGE action taken
+ * for it ({@code INSERT} or {@code UPDATE}).
+ */
+public interface GroceryListUpsert {
+
+    UUID getId();
+
+    String getAction();
+
+    default boolean isCreated() {
+        return "INSERT".equals(getAction());
+    }
+}
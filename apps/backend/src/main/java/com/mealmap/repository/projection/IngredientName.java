@@ -0,0 +1,15 @@
+package com.mealmap.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * An ingredient's display name and its category's, for views that only hold ingredient ids.
+ */
+public interface IngredientName {
+
+    UUID getId();
+
+    String getName();
+
+    String getCategoryName();
+}
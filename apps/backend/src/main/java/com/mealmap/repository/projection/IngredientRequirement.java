@@ -0,0 +1,21 @@
+package com.mealmap.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One aggregated grocery line: the total of an ingredient needed for a planner week in a
+ * single base unit, and what remains after subtracting pantry stock in that unit.
+ */
+public interface IngredientRequirement {
+
+    UUID getIngredientId();
+
+    UUID getCategoryId();
+
+    String getBaseUnit();
+
+    BigDecimal getNeededAmount();
+
+    BigDecimal getAfterPantryAmount();
+}
@@ -0,0 +1,34 @@
+package com.mealmap.repository.projection;
+
+import com.mealmap.model.enums.Unit;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An ingredient row for the ingredient list, read as plain columns: the category is its
+ * foreign key and the package size is flattened, so nothing is joined or hydrated.
+ */
+public interface IngredientSummary {
+
+    UUID getId();
+
+    UUID getOwnerUserId();
+
+    String getName();
+
+    UUID getCategoryId();
+
+    Unit getDefaultUnit();
+
+    BigDecimal getPackageAmount();
+
+    Unit getPackageUnit();
+
+    String getNotes();
+
+    Instant getCreatedAt();
+
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,36 @@
+package com.mealmap.repository.projection;
+
+import com.mealmap.model.enums.Unit;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A pantry row with its ingredient and category names, joined in the same query instead of
+ * loaded per row.
+ */
+public interface PantryItemSummary {
+
+    UUID getId();
+
+    UUID getIngredientId();
+
+    String getIngredientName();
+
+    UUID getCategoryId();
+
+    String getCategoryName();
+
+    BigDecimal getQuantityAmount();
+
+    Unit getQuantityUnit();
+
+    UUID getUserId();
+
+    UUID getHouseholdId();
+
+    Instant getCreatedAt();
+
+    Instant getUpdatedAt();
+}
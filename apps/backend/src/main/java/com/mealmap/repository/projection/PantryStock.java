@@ -0,0 +1,17 @@
+package com.mealmap.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Pantry stock of one ingredient in one base unit, summed over the user's and their
+ * household's pantry items.
+ */
+public interface PantryStock {
+
+    UUID getIngredientId();
+
+    String getBaseUnit();
+
+    BigDecimal getAmount();
+}
@@ -0,0 +1,22 @@
+package com.mealmap.repository.projection;
+
+import com.mealmap.model.enums.Unit;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One recipe item, keyed by its recipe so a page of recipes can be filled from one query.
+ */
+public interface RecipeItemRow {
+
+    UUID getRecipeId();
+
+    UUID getIngredientId();
+
+    BigDecimal getAmount();
+
+    Unit getUnit();
+
+    String getPackageNote();
+}
@@ -0,0 +1,23 @@
+package com.mealmap.repository.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The scalar columns of a recipe for the recipe list; items are read separately for the
+ * whole page as {@link RecipeItemRow}s.
+ */
+public interface RecipeSummary {
+
+    UUID getId();
+
+    String getName();
+
+    String getExternalUrl();
+
+    String getNotes();
+
+    Instant getCreatedAt();
+
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,23 @@
+package com.mealmap.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One ingredient a recipe or global template needs, summed in one base unit. Rows of the same
+ * candidate are adjacent, so the suggestion index can group them in a single pass.
+ */
+public interface SuggestionRequirementRow {
+
+    UUID getCandidateId();
+
+    String getName();
+
+    UUID getOwnerUserId();
+
+    UUID getIngredientId();
+
+    String getBaseUnit();
+
+    BigDecimal getAmount();
+}
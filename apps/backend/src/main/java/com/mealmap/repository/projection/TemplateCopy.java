@@ -0,0 +1,13 @@
+package com.mealmap.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * A recipe found by {@code RecipeRepository.findUnchangedCopies} as an unchanged copy of a template.
+ */
+public interface TemplateCopy {
+
+    UUID getTemplateId();
+
+    UUID getRecipeId();
+}
@@ -0,0 +1,25 @@
+package com.mealmap.repository.projection;
+
+import com.mealmap.model.enums.RecipeTemplateSource;
+import com.mealmap.model.enums.TagKind;
+
+import java.util.UUID;
+
+/**
+ * One template with one of its tags, or with null tag columns if it has none. Everything the
+ * tag index needs to decide visibility, name matches and tag matches without loading entities.
+ */
+public interface TemplateTagRow {
+
+    UUID getTemplateId();
+
+    String getTemplateName();
+
+    RecipeTemplateSource getSource();
+
+    UUID getOwnerUserId();
+
+    TagKind getTagKind();
+
+    String getTagName();
+}
@@ -0,0 +1,67 @@
+package com.mealmap.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Client Address Resolver
+ *
+ * The backend sits behind the frontend's nginx, so the socket address of a request is the
+ * proxy's. When the request comes from a trusted proxy, the X-Forwarded-For chain is walked
+ * from the right past every trusted hop, and the first address not trusted is the client.
+ * Requests from anywhere else keep their socket address, so a client cannot pick its own
+ * rate-limit bucket by sending the header itself.
+ */
+@Component
+public class ClientAddressResolver {
+
+    static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    // Only IP literals are matched; anything else in the header is never resolved as a host name
+    private static final Pattern IP_LITERAL = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}|[0-9A-Fa-f.]*:[0-9A-Fa-f:.]*");
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public ClientAddressResolver(
+            @Value("${app.security.trusted-proxies:127.0.0.0/8,::1,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16}")
+            List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        String forwardedFor = request.getHeader(FORWARDED_FOR);
+        if (forwardedFor == null || !isTrusted(address)) {
+            return address;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!IP_LITERAL.matcher(hop).matches()) {
+                // Whatever precedes a malformed hop cannot be trusted either
+                return address;
+            }
+            address = hop;
+            if (!isTrusted(hop)) {
+                return hop;
+            }
+        }
+        return address;
+    }
+
+    private boolean isTrusted(String address) {
+        if (address == null || !IP_LITERAL.matcher(address).matches()) {
+            return false;
+        }
+        return trustedProxies.stream().anyMatch(proxy -> proxy.matches(address));
+    }
+}
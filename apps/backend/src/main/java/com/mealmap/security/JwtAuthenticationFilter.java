@@ -1,11 +1,15 @@
 package com.mealmap.security;
 
+import com.mealmap.observability.jfr.JwtValidationEvent;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,11 +22,29 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final ObservationRegistry observationRegistry;
+
+    @Autowired
+    public JwtAuthenticationFilter(
+            JwtService jwtService,
+            UserDetailsService userDetailsService,
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        // Slice tests build this filter without the actuator observation setup
+        this(jwtService, userDetailsService, observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+
+    public JwtAuthenticationFilter(
+            JwtService jwtService,
+            UserDetailsService userDetailsService,
+            ObservationRegistry observationRegistry) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.observationRegistry = observationRegistry;
+    }
 
     @Override
     protected void doFilterInternal(
@@ -31,23 +53,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7).trim();
+        final String jwt = authHeader.substring(7).trim();
+
+        Observation observation = Observation.createNotStarted("mealmap.security.jwt", observationRegistry)
+                .contextualName("jwt validation")
+                .start();
+        JwtValidationEvent event = new JwtValidationEvent();
+        event.begin();
+        String outcome;
+        try (Observation.Scope scope = observation.openScope()) {
+            outcome = authenticate(jwt, request);
+        }
+        recordOutcome(event, observation, outcome);
+        
+        filterChain.doFilter(request, response);
+    }
 
+    /**
+     * Validate the token and populate the security context; returns the outcome for telemetry
+     */
+    private String authenticate(String jwt, HttpServletRequest request) {
         if (jwt.isEmpty() || jwtService.isTokenRevoked(jwt)) {
-            filterChain.doFilter(request, response);
-            return;
+            return "revoked";
         }
         
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            String userEmail = jwtService.extractUsername(jwt);
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
@@ -60,15 +97,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    return "authenticated";
                 }
+                return "invalid";
             }
+            return "skipped";
         } catch (ExpiredJwtException e) {
             // Token is expired, let the request proceed without authentication
             // This will trigger a 401 response from Spring Security
+            return "expired";
         } catch (Exception e) {
             // Any other JWT parsing errors, let the request proceed without authentication
+            return "invalid";
+        }
+    }
+
+    private void recordOutcome(JwtValidationEvent event, Observation observation, String outcome) {
+        observation.lowCardinalityKeyValue("outcome", outcome);
+        observation.stop();
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = outcome;
+            event.commit();
         }
-        
-        filterChain.doFilter(request, response);
     }
 }
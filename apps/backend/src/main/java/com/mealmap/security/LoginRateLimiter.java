@@ -0,0 +1,143 @@
+package com.mealmap.security;
+
+import com.mealmap.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket admission control for the credential endpoints.
+ * 
+ * Every attempt takes a token from the caller's IP bucket and, for logins, from the target
+ * account's bucket. Buckets refill continuously at the configured per-minute rate, so short
+ * bursts are absorbed while sustained guessing is cut off before any hashing work is done.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> accountBuckets = new ConcurrentHashMap<>();
+    private final int perIpPerMinute;
+    private final int perAccountPerMinute;
+    private final LongSupplier nanoClock;
+    private final Counter ipRejections;
+    private final Counter accountRejections;
+
+    @Autowired
+    public LoginRateLimiter(@Value("${api.rate-limit.auth-per-ip-per-min:10}") int perIpPerMinute,
+                            @Value("${api.rate-limit.auth-per-account-per-min:5}") int perAccountPerMinute,
+                            MeterRegistry meterRegistry) {
+        this(perIpPerMinute, perAccountPerMinute, meterRegistry, System::nanoTime);
+    }
+
+    LoginRateLimiter(int perIpPerMinute, int perAccountPerMinute, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.perIpPerMinute = perIpPerMinute;
+        this.perAccountPerMinute = perAccountPerMinute;
+        this.nanoClock = nanoClock;
+        this.ipRejections = Counter.builder("mealmap.auth.admission.rejected")
+                .tag("reason", "ip")
+                .register(meterRegistry);
+        this.accountRejections = Counter.builder("mealmap.auth.admission.rejected")
+                .tag("reason", "account")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admit a login attempt, charging both the client IP and the target account
+     */
+    public void acquireLogin(String clientIp, String email) {
+        acquireForIp(clientIp);
+        if (email != null && !tryConsume(accountBuckets, normalize(email), perAccountPerMinute)) {
+            accountRejections.increment();
+            throw new TooManyRequestsException(
+                    "Too many sign-in attempts for this account, please wait a moment",
+                    secondsPerToken(perAccountPerMinute));
+        }
+    }
+
+    /**
+     * Admit a credential request that is only limited per client IP (e.g. registration)
+     */
+    public void acquireForIp(String clientIp) {
+        if (clientIp != null && !tryConsume(ipBuckets, clientIp, perIpPerMinute)) {
+            ipRejections.increment();
+            throw new TooManyRequestsException(
+                    "Too many requests from this address, please wait a moment",
+                    secondsPerToken(perIpPerMinute));
+        }
+    }
+
+    /**
+     * Drop buckets that have refilled completely; they carry no state worth keeping
+     */
+    @Scheduled(fixedDelayString = "${api.rate-limit.bucket-eviction-interval:PT5M}")
+    public void evictIdleBuckets() {
+        long now = nanoClock.getAsLong();
+        ipBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        accountBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    int trackedBucketCount() {
+        return ipBuckets.size() + accountBuckets.size();
+    }
+
+    private boolean tryConsume(Map<String, TokenBucket> buckets, String key, int perMinute) {
+        long now = nanoClock.getAsLong();
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(perMinute, now)).tryConsume(now);
+    }
+
+    private static long secondsPerToken(int perMinute) {
+        return Math.max(1, (long) Math.ceil(60.0 / Math.max(1, perMinute)));
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int perMinute, long now) {
+            this.capacity = perMinute;
+            this.tokensPerNano = (double) perMinute / NANOS_PER_MINUTE;
+            this.tokens = perMinute;
+            this.lastRefill = now;
+        }
+
+        synchronized boolean tryConsume(long now) {
+            refill(now);
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            long elapsed = now - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+                lastRefill = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.mealmap.security;
+
+import com.mealmap.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt hashing on a small, bounded executor instead of request threads.
+ * 
+ * A login burst can otherwise occupy every Tomcat worker with ~100ms of CPU each and stall
+ * unrelated endpoints. When the queue is full, or a hash cannot start within the configured
+ * wait, the request is rejected with 429 right away rather than piling up.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter saturatedRejections;
+    private final Counter timedOutRejections;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.security.password-hashing.threads:2}") int threads,
+                          @Value("${app.security.password-hashing.queue-capacity:32}") int queueCapacity,
+                          @Value("${app.security.password-hashing.max-wait:PT2S}") Duration maxWait) {
+        this.passwordEncoder = passwordEncoder;
+        this.maxWait = maxWait;
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hash-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("mealmap.auth.password_hash")
+                .description("Time spent computing password hashes")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("mealmap.auth.password_hash")
+                .description("Time spent computing password hashes")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("mealmap.auth.password_hash.queue_wait")
+                .description("Time a hashing task waited for a free hashing thread")
+                .register(meterRegistry);
+        this.saturatedRejections = Counter.builder("mealmap.auth.admission.rejected")
+                .tag("reason", "saturated")
+                .register(meterRegistry);
+        this.timedOutRejections = Counter.builder("mealmap.auth.admission.rejected")
+                .tag("reason", "timeout")
+                .register(meterRegistry);
+        Gauge.builder("mealmap.auth.password_hash.queue", executor, e -> e.getQueue().size())
+                .description("Hashing tasks waiting for a thread")
+                .register(meterRegistry);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * True when the stored hash was produced with a lower cost factor than currently configured
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Timer timer, Supplier<T> work) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return timer.record(work);
+            });
+        } catch (RejectedExecutionException e) {
+            saturatedRejections.increment();
+            throw busy();
+        }
+
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOutRejections.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static TooManyRequestsException busy() {
+        return new TooManyRequestsException(
+                "Too many sign-in requests are being processed, please retry shortly",
+                RETRY_AFTER_SECONDS);
+    }
+}
@@ -206,18 +206,6 @@ public class AccountService {
         log.info("Account deleted for user: {}", userId);
     }
 
-    /**
-     * Update last login timestamp
-     */
-    @Transactional
-    public void updateLastLogin(UUID userId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        
-        user.setLastLoginAt(Instant.now());
-        userRepository.save(user);
-    }
-
     /**
      * Record terms acceptance
      */
@@ -7,6 +7,8 @@ import com.mealmap.dto.auth.RegisterRequest;
 import com.mealmap.model.entity.User;
 import com.mealmap.repository.UserRepository;
 import com.mealmap.security.JwtService;
+import com.mealmap.security.LoginRateLimiter;
+import com.mealmap.security.PasswordHasher;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -17,7 +19,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
@@ -31,10 +32,12 @@ import java.util.ArrayList;
 public class AuthService {
     
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final LoginRateLimiter loginRateLimiter;
     private final JwtService jwtService;
     private final AccountService accountService;
     private final EmailService emailService;
+    private final LastLoginRecorder lastLoginRecorder;
 
     @Value("${jwt.expiration}")
     private long accessTokenTtl;
@@ -45,14 +48,16 @@ public class AuthService {
     private static final String REFRESH_TOKEN_COOKIE = "refreshToken";
     
     @Transactional
-    public UserDto register(RegisterRequest request) {
+    public UserDto register(RegisterRequest request, String clientIp) {
+        loginRateLimiter.acquireForIp(clientIp);
+
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new IllegalArgumentException("User already exists");
         }
         
         User user = User.builder()
                 .email(request.getEmail())
-                .passwordHash(passwordEncoder.encode(request.getPassword()))
+                .passwordHash(passwordHasher.encode(request.getPassword()))
                 .displayName(request.getDisplayName())
                 .mfaEnabled(false)
                 .emailVerified(false)
@@ -70,17 +75,32 @@ public class AuthService {
         return mapToDto(savedUser);
     }
     
-    @Transactional
-    public LoginResponse login(LoginRequest request) {
+    /**
+     * Not transactional on purpose: the password check runs on the hashing pool and
+     * must not hold a database connection while it waits.
+     */
+    public LoginResponse login(LoginRequest request, String clientIp) {
+        loginRateLimiter.acquireLogin(clientIp, request.getEmail());
+
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new BadCredentialsException("Invalid credentials"));
         
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPasswordHash())) {
             throw new BadCredentialsException("Invalid credentials");
         }
+
+        // Re-hash with the configured cost factor while we still have the plain password. Only
+        // the hash column is written: saving the detached user would write back every column as
+        // read, moving lastLoginAt backwards and undoing concurrent profile changes
+        if (passwordHasher.upgradeEncoding(user.getPasswordHash())) {
+            String upgradedHash = passwordHasher.encode(request.getPassword());
+            if (userRepository.upgradePasswordHash(user.getId(), user.getPasswordHash(), upgradedHash) == 1) {
+                user.setPasswordHash(upgradedHash);
+            }
+        }
         
-        // Update last login timestamp
-        accountService.updateLastLogin(user.getId());
+        // Buffered and written in batches, see LastLoginRecorder
+        lastLoginRecorder.record(user.getId());
         
         UserDetails userDetails = new org.springframework.security.core.userdetails.User(
                 user.getEmail(),
@@ -0,0 +1,109 @@
+package com.mealmap.service;
+
+import com.mealmap.model.entity.EmailOutboxMessage;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Email Outbox Dispatcher
+ * 
+ * Polls the outbox and delivers due emails in batches. Each batch goes through a single
+ * JavaMailSender call, which opens one SMTP connection and sends every message over it
+ * instead of reconnecting per email.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxService outboxService;
+    private final JavaMailSender mailSender;
+    private final ObservationRegistry observationRegistry;
+
+    @Value("${app.email.from:noreply@mealmap.app}")
+    private String fromEmail;
+
+    @Scheduled(
+            initialDelayString = "${app.email.outbox.poll-interval:PT5S}",
+            fixedDelayString = "${app.email.outbox.poll-interval:PT5S}")
+    public void dispatchPending() {
+        List<EmailOutboxMessage> batch;
+        do {
+            batch = outboxService.claimBatch();
+            if (!batch.isEmpty()) {
+                deliver(batch);
+            }
+        } while (!batch.isEmpty());
+    }
+
+    /**
+     * Send one claimed batch and record per-message outcomes
+     */
+    void deliver(List<EmailOutboxMessage> batch) {
+        Map<SimpleMailMessage, UUID> idsByMessage = new IdentityHashMap<>();
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutboxMessage outboxMessage = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(fromEmail);
+            message.setTo(outboxMessage.getRecipient());
+            message.setSubject(outboxMessage.getSubject());
+            message.setText(outboxMessage.getBody());
+            messages[i] = message;
+            idsByMessage.put(message, outboxMessage.getId());
+        }
+
+        Map<UUID, String> failures = new HashMap<>();
+        try {
+            Observation.createNotStarted("mealmap.smtp.send", observationRegistry)
+                    .contextualName("smtp send")
+                    .highCardinalityKeyValue("messages", String.valueOf(messages.length))
+                    .observe(() -> mailSender.send(messages));
+        } catch (MailSendException e) {
+            // Partial failure: the sender reports exactly which messages were rejected
+            for (Map.Entry<Object, Exception> failed : e.getFailedMessages().entrySet()) {
+                UUID id = idsByMessage.get(failed.getKey());
+                if (id != null) {
+                    failures.put(id, failed.getValue().getMessage());
+                }
+            }
+            if (failures.isEmpty()) {
+                idsByMessage.values().forEach(id -> failures.put(id, e.getMessage()));
+            }
+        } catch (MailException e) {
+            // Connection or authentication problem: nothing in the batch went out
+            idsByMessage.values().forEach(id -> failures.put(id, e.getMessage()));
+        }
+
+        List<UUID> sent = new ArrayList<>(batch.size());
+        for (EmailOutboxMessage outboxMessage : batch) {
+            if (!failures.containsKey(outboxMessage.getId())) {
+                sent.add(outboxMessage.getId());
+            }
+        }
+
+        outboxService.recordResults(sent, failures);
+
+        if (failures.isEmpty()) {
+            log.info("Delivered {} outbox email(s)", sent.size());
+        } else {
+            log.warn("Delivered {} outbox email(s), {} failed and will be retried", sent.size(), failures.size());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.mealmap.service;
+
+import com.mealmap.model.entity.EmailOutboxMessage;
+import com.mealmap.model.enums.EmailOutboxStatus;
+import com.mealmap.repository.EmailOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Email Outbox Service
+ * 
+ * Persists outgoing emails in the email_outbox table and tracks their delivery state.
+ * Enqueueing joins the caller's transaction, so an email only becomes visible to the
+ * dispatcher once the account change that produced it has committed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository outboxRepository;
+
+    @Value("${app.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.initial-backoff:PT30S}")
+    private Duration initialBackoff;
+
+    @Value("${app.email.outbox.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    @Value("${app.email.outbox.lease:PT2M}")
+    private Duration lease;
+
+    /**
+     * Queue an email for delivery
+     * Must be called inside the transaction of the change that triggers the email
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String recipient, String subject, String body) {
+        EmailOutboxMessage message = EmailOutboxMessage.builder()
+                .recipient(recipient)
+                .subject(subject)
+                .body(body)
+                .nextAttemptAt(Instant.now())
+                .build();
+        outboxRepository.save(message);
+    }
+
+    /**
+     * Claim the next batch of due messages
+     * Claimed rows move to "sending" with a lease, so a crashed dispatcher's batch is retried
+     * once the lease runs out instead of being stuck forever.
+     */
+    @Transactional
+    public List<EmailOutboxMessage> claimBatch() {
+        Instant now = Instant.now();
+        List<EmailOutboxMessage> batch = outboxRepository.findDueForUpdate(
+                EmailOutboxStatus.pending,
+                EmailOutboxStatus.sending,
+                now,
+                PageRequest.of(0, batchSize));
+
+        Instant lockedUntil = now.plus(lease);
+        for (EmailOutboxMessage message : batch) {
+            message.setStatus(EmailOutboxStatus.sending);
+            message.setLockedUntil(lockedUntil);
+            message.setAttempts(message.getAttempts() + 1);
+        }
+        return outboxRepository.saveAll(batch);
+    }
+
+    /**
+     * Record the outcome of a delivery attempt
+     * 
+     * @param sentIds Messages accepted by the SMTP server
+     * @param failures Messages that failed, with the reason
+     */
+    @Transactional
+    public void recordResults(Collection<UUID> sentIds, Map<UUID, String> failures) {
+        Instant now = Instant.now();
+
+        for (EmailOutboxMessage message : outboxRepository.findAllById(sentIds)) {
+            message.setStatus(EmailOutboxStatus.sent);
+            message.setSentAt(now);
+            message.setLockedUntil(null);
+            message.setLastError(null);
+        }
+
+        for (EmailOutboxMessage message : outboxRepository.findAllById(failures.keySet())) {
+            message.setLockedUntil(null);
+            message.setLastError(truncate(failures.get(message.getId())));
+
+            if (message.getAttempts() >= maxAttempts) {
+                message.setStatus(EmailOutboxStatus.failed);
+                log.error("Giving up on email {} to {} after {} attempts",
+                        message.getId(), message.getRecipient(), message.getAttempts());
+            } else {
+                message.setStatus(EmailOutboxStatus.pending);
+                message.setNextAttemptAt(now.plus(backoffFor(message.getAttempts())));
+            }
+        }
+    }
+
+    /**
+     * Exponential backoff: initial, 2x, 4x, ... capped at the configured maximum
+     */
+    Duration backoffFor(int attempts) {
+        int exponent = Math.max(0, Math.min(attempts - 1, 20));
+        Duration backoff = initialBackoff.multipliedBy(1L << exponent);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -1,22 +1,33 @@
 package com.mealmap.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.mealmap.exception.ConflictException;
 import com.mealmap.exception.ResourceNotFoundException;
 import com.mealmap.exception.UnauthorizedException;
+import com.mealmap.mapper.GroceryLookup;
 import com.mealmap.mapper.GroceryMapper;
 import com.mealmap.model.dto.grocery.ComputeGroceryRequest;
+import com.mealmap.model.dto.grocery.GroceryItemDto;
 import com.mealmap.model.dto.grocery.GroceryListDto;
 import com.mealmap.model.dto.grocery.UpdateGroceryListRequest;
 import com.mealmap.model.embedded.GroceryItem;
 import com.mealmap.model.entity.GroceryTrip;
 import com.mealmap.model.embedded.Quantity;
 import com.mealmap.model.entity.*;
+import com.mealmap.model.enums.Unit;
+import com.mealmap.observability.DomainMetrics;
+import com.mealmap.observability.jfr.GroceryComputeEvent;
 import com.mealmap.repository.*;
+import com.mealmap.repository.projection.GroceryListUpsert;
+import com.mealmap.repository.projection.IngredientRequirement;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.*;
 
@@ -26,161 +37,154 @@ public class GroceryService {
     
     private final GroceryListRepository groceryListRepository;
     private final PlannerWeekRepository plannerWeekRepository;
-    private final PantryItemRepository pantryItemRepository;
-    private final RecipeRepository recipeRepository;
     private final UserRepository userRepository;
+    private final IngredientRepository ingredientRepository;
     private final GroceryMapper groceryMapper;
+    private final DomainMetrics domainMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final RevisionStore revisionStore;
     
-    @Transactional
+    // Revisions of a list hold the checked state of each line, keyed by lineKey()
+    private static final TypeReference<Map<String, Boolean>> CHECKED_STATES = new TypeReference<>() {
+    };
+    
+    private final SingleFlight<ComputeKey, GroceryListDto> computations = new SingleFlight<>();
+    
+    // Identical compute requests for a week share one computation, whoever sends them: the
+    // list is shared per week and computed against the week owner's stock, not the caller's
+    private record ComputeKey(UUID planWeekId, int trips, String splitRule,
+                              List<ComputeGroceryRequest.CustomSplit> customSplits) {
+        
+        static ComputeKey of(ComputeGroceryRequest request) {
+            return new ComputeKey(request.getPlanWeekId(), request.getTrips(), request.getSplitRule(),
+                request.getCustomSplits() != null ? List.copyOf(request.getCustomSplits()) : null);
+        }
+    }
+    
+    /**
+     * Computes (or recomputes) the grocery list of a planner week. Identical requests that arrive
+     * while one is in flight (household members opening the grocery screen together, double
+     * submits) are coalesced so the list is computed and written once and every caller receives
+     * that result. Pantry stock is the week owner's, so the list is the same whoever asks.
+     * Access is still checked for each caller.
+     */
     public GroceryListDto computeGroceryList(ComputeGroceryRequest request) {
         User currentUser = getCurrentUser();
+        transactionTemplate.execute(status -> findAccessiblePlannerWeek(request.getPlanWeekId(), currentUser));
         
-        // Fetch planner week
-        PlannerWeek plannerWeek = plannerWeekRepository.findById(request.getPlanWeekId())
-            .orElseThrow(() -> new ResourceNotFoundException("Planner week not found with id: " + request.getPlanWeekId()));
-        
-        // Check access
-        if (!hasAccessToPlannerWeek(plannerWeek, currentUser)) {
-            throw new UnauthorizedException("You don't have access to this planner week");
-        }
-        
-        // Check if grocery list already exists for this planner week
-        Optional<GroceryList> existingList = groceryListRepository.findByPlanWeekIdAndUserId(
-            request.getPlanWeekId(), currentUser.getId());
-        
-        if (existingList.isPresent()) {
-            // Update existing list
-            GroceryList groceryList = existingList.get();
-            groceryList.getTrips().clear();
-            List<GroceryTrip> trips = computeTrips(request, plannerWeek, currentUser);
-            trips.forEach(trip -> trip.setGroceryList(groceryList));
-            groceryList.getTrips().addAll(trips);
-            GroceryList saved = groceryListRepository.save(groceryList);
-            return groceryMapper.toDto(saved);
-        } else {
-            // Create new grocery list
-            GroceryList groceryList = GroceryList.builder()
-                .plannerWeek(plannerWeek)
-                .user(plannerWeek.getUser())
-                .household(plannerWeek.getHousehold())
-                .trips(new ArrayList<>())
-                .build();
-            
-            GroceryList saved = groceryListRepository.save(groceryList);
-            
-            // Now add trips with the grocery list reference
-            List<GroceryTrip> trips = computeTrips(request, plannerWeek, currentUser);
-            trips.forEach(trip -> trip.setGroceryList(saved));
-            saved.getTrips().addAll(trips);
-            GroceryList updated = groceryListRepository.save(saved);
-            
-            return groceryMapper.toDto(updated);
-        }
+        return computations.execute(ComputeKey.of(request),
+            () -> transactionTemplate.execute(status -> compute(request, currentUser)));
     }
     
-    private List<GroceryTrip> computeTrips(ComputeGroceryRequest request, PlannerWeek plannerWeek, User currentUser) {
-        // Step 1: Aggregate ingredients from all planner items
-        Map<UUID, IngredientAggregate> neededIngredients = aggregateIngredientsFromPlanner(plannerWeek);
-        
-        // Step 2: Subtract pantry items
-        subtractPantryItems(neededIngredients, currentUser, plannerWeek.getHousehold());
-        
-        // Step 3: Split into trips based on date ranges
-        return splitIntoTrips(request, plannerWeek, neededIngredients);
+    private GroceryListDto compute(ComputeGroceryRequest request, User currentUser) {
+        GroceryComputeEvent event = new GroceryComputeEvent();
+        event.begin();
+        PlannerWeek plannerWeek = findAccessiblePlannerWeek(request.getPlanWeekId(), currentUser);
+        
+        // One statement creates the list or claims the existing one; the row stays locked until
+        // commit, so recomputes of the same week from other nodes queue up instead of racing
+        GroceryListUpsert upsert = groceryListRepository.upsertForPlanWeek(plannerWeek.getId());
+        GroceryList groceryList = groceryListRepository.findById(upsert.getId())
+            .orElseThrow(() -> new ResourceNotFoundException("Grocery list not found with id: " + upsert.getId()));
+        
+        groceryList.getTrips().clear();
+        List<GroceryTrip> trips = computeTrips(request, plannerWeek);
+        trips.forEach(trip -> trip.setGroceryList(groceryList));
+        groceryList.getTrips().addAll(trips);
+        groceryListRepository.saveAndFlush(groceryList);
+        recordRevision(groceryList);
+        recordComputed(event, upsert.isCreated(), plannerWeek, trips);
+        return toDto(groceryList);
+    }
+    
+    // Names for every item on the list in one query rather than one lookup per item
+    private GroceryListDto toDto(GroceryList groceryList) {
+        Set<UUID> ingredientIds = GroceryLookup.ingredientIds(groceryList);
+        GroceryLookup lookup = ingredientIds.isEmpty()
+            ? GroceryLookup.of(List.of())
+            : GroceryLookup.of(ingredientRepository.findNamesByIdIn(ingredientIds));
+        return groceryMapper.toDto(groceryList, lookup);
     }
     
-    private Map<UUID, IngredientAggregate> aggregateIngredientsFromPlanner(PlannerWeek plannerWeek) {
-        Map<UUID, IngredientAggregate> aggregates = new HashMap<>();
+    private PlannerWeek findAccessiblePlannerWeek(UUID planWeekId, User currentUser) {
+        PlannerWeek plannerWeek = plannerWeekRepository.findById(planWeekId)
+            .orElseThrow(() -> new ResourceNotFoundException("Planner week not found with id: " + planWeekId));
         
-        for (PlannerItem plannerItem : plannerWeek.getItems()) {
-            if (plannerItem.getRecipe() != null) {
-                Recipe recipe = recipeRepository.findById(plannerItem.getRecipe().getId())
-                    .orElse(null);
-                
-                if (recipe != null && recipe.getItems() != null) {
-                    for (RecipeItem recipeItem : recipe.getItems()) {
-                        UUID ingredientId = recipeItem.getIngredientId();
-                        UUID categoryId = null; // We'll need to fetch this separately
-                        
-                        aggregates.putIfAbsent(ingredientId, new IngredientAggregate(ingredientId, categoryId));
-                        
-                        // Multiply quantity by portions
-                        BigDecimal portionMultiplier = BigDecimal.valueOf(plannerItem.getPortions());
-                        BigDecimal amount = recipeItem.getQuantity().getAmount().multiply(portionMultiplier);
-                        com.mealmap.model.enums.Unit unit = recipeItem.getQuantity().getUnit();
-                        
-                        aggregates.get(ingredientId).addQuantity(amount, unit);
-                    }
-                }
-            }
+        if (!hasAccessToPlannerWeek(plannerWeek, currentUser)) {
+            throw new UnauthorizedException("You don't have access to this planner week");
         }
-        
-        return aggregates;
+        return plannerWeek;
     }
     
-    private void subtractPantryItems(Map<UUID, IngredientAggregate> neededIngredients, User currentUser, Household household) {
-        // Fetch pantry items for user and household
-        List<PantryItem> pantryItems;
-        
-        if (household != null) {
-            List<UUID> householdIds = List.of(household.getId());
-            pantryItems = pantryItemRepository.findByUserOrHouseholds(currentUser.getId(), householdIds);
-        } else {
-            pantryItems = pantryItemRepository.findByUserId(currentUser.getId());
+    private void recordComputed(GroceryComputeEvent event, boolean created, PlannerWeek plannerWeek,
+                                List<GroceryTrip> trips) {
+        int recipes = (int) plannerWeek.getItems().stream()
+            .filter(item -> item.getRecipe() != null)
+            .count();
+        int lines = trips.stream().mapToInt(trip -> trip.getItems().size()).sum();
+        domainMetrics.groceryListComputed(created, recipes, lines);
+        
+        event.end();
+        if (event.shouldCommit()) {
+            event.planWeekId = String.valueOf(plannerWeek.getId());
+            event.plannerItems = plannerWeek.getItems().size();
+            event.recipes = recipes;
+            event.lines = lines;
+            event.trips = trips.size();
+            event.recomputed = !created;
+            event.commit();
         }
+    }
+    
+    private List<GroceryTrip> computeTrips(ComputeGroceryRequest request, PlannerWeek plannerWeek) {
+        // Aggregation, unit normalization and pantry subtraction all happen in the database;
+        // only one row per ingredient and base unit comes back
+        List<IngredientRequirement> requirements = groceryListRepository.aggregateRequirements(plannerWeek.getId());
         
-        for (PantryItem pantryItem : pantryItems) {
-            UUID ingredientId = pantryItem.getIngredient().getId();
-            if (neededIngredients.containsKey(ingredientId)) {
-                neededIngredients.get(ingredientId).subtractPantry(
-                    pantryItem.getQuantity().getAmount(),
-                    pantryItem.getQuantity().getUnit()
-                );
-            }
-        }
+        return splitIntoTrips(request, plannerWeek, requirements);
     }
     
     private List<GroceryTrip> splitIntoTrips(ComputeGroceryRequest request, PlannerWeek plannerWeek, 
-                                              Map<UUID, IngredientAggregate> neededIngredients) {
+                                              List<IngredientRequirement> requirements) {
         LocalDate weekStart = plannerWeek.getStartDate();
         LocalDate weekEnd = weekStart.plusDays(6);
         
         if ("custom".equals(request.getSplitRule()) && request.getCustomSplits() != null) {
-            return createCustomSplitTrips(request.getCustomSplits(), neededIngredients);
+            return createCustomSplitTrips(request.getCustomSplits(), requirements);
         }
         
-        return createDefaultSplitTrips(request.getTrips(), weekStart, weekEnd, neededIngredients);
+        return createDefaultSplitTrips(request.getTrips(), weekStart, weekEnd, requirements);
     }
     
     private List<GroceryTrip> createCustomSplitTrips(List<ComputeGroceryRequest.CustomSplit> customSplits,
-                                                      Map<UUID, IngredientAggregate> neededIngredients) {
+                                                      List<IngredientRequirement> requirements) {
         List<GroceryTrip> trips = new ArrayList<>();
         for (int i = 0; i < customSplits.size(); i++) {
             ComputeGroceryRequest.CustomSplit split = customSplits.get(i);
-            trips.add(createTrip(i, split.getFrom(), split.getTo(), neededIngredients));
+            trips.add(createTrip(i, split.getFrom(), split.getTo(), requirements));
         }
         return trips;
     }
     
     private List<GroceryTrip> createDefaultSplitTrips(int tripCount, LocalDate weekStart, LocalDate weekEnd,
-                                                       Map<UUID, IngredientAggregate> neededIngredients) {
+                                                       List<IngredientRequirement> requirements) {
         List<GroceryTrip> trips = new ArrayList<>();
         
         switch (tripCount) {
-            case 1 -> trips.add(createTrip(0, weekStart, weekEnd, neededIngredients));
+            case 1 -> trips.add(createTrip(0, weekStart, weekEnd, requirements));
             case 2 -> {
                 LocalDate midWeek = weekStart.plusDays(3);
-                trips.add(createTrip(0, weekStart, midWeek, neededIngredients));
-                trips.add(createTrip(1, midWeek.plusDays(1), weekEnd, neededIngredients));
+                trips.add(createTrip(0, weekStart, midWeek, requirements));
+                trips.add(createTrip(1, midWeek.plusDays(1), weekEnd, requirements));
             }
-            default -> trips.addAll(createEvenlySpacedTrips(tripCount, weekStart, weekEnd, neededIngredients));
+            default -> trips.addAll(createEvenlySpacedTrips(tripCount, weekStart, weekEnd, requirements));
         }
         
         return trips;
     }
     
     private List<GroceryTrip> createEvenlySpacedTrips(int tripCount, LocalDate weekStart, LocalDate weekEnd,
-                                                       Map<UUID, IngredientAggregate> neededIngredients) {
+                                                       List<IngredientRequirement> requirements) {
         List<GroceryTrip> trips = new ArrayList<>();
         int daysPerTrip = 7 / tripCount;
         
@@ -189,14 +193,14 @@ public class GroceryService {
             LocalDate tripEnd = (i == tripCount - 1) 
                 ? weekEnd 
                 : weekStart.plusDays((long) (i + 1) * daysPerTrip - 1);
-            trips.add(createTrip(i, tripStart, tripEnd, neededIngredients));
+            trips.add(createTrip(i, tripStart, tripEnd, requirements));
         }
         
         return trips;
     }
     
     private GroceryTrip createTrip(int index, LocalDate from, LocalDate to, 
-                                   Map<UUID, IngredientAggregate> neededIngredients) {
+                                   List<IngredientRequirement> requirements) {
         GroceryTrip trip = new GroceryTrip();
         trip.setTripIndex(index);
         
@@ -205,14 +209,15 @@ public class GroceryService {
         
         // For now, add all items to first trip (can be enhanced to split by date)
         if (index == 0) {
-            List<GroceryItem> items = neededIngredients.values().stream()
-                .filter(agg -> agg.getAfterPantry().getAmount().compareTo(BigDecimal.ZERO) > 0)
-                .map(agg -> {
+            List<GroceryItem> items = requirements.stream()
+                .filter(requirement -> requirement.getAfterPantryAmount().compareTo(BigDecimal.ZERO) > 0)
+                .map(requirement -> {
+                    Unit unit = Unit.valueOf(requirement.getBaseUnit());
                     GroceryItem item = new GroceryItem();
-                    item.setIngredientId(agg.getIngredientId());
-                    item.setCategoryId(agg.getCategoryId());
-                    item.setNeeded(agg.getNeeded());
-                    item.setAfterPantry(agg.getAfterPantry());
+                    item.setIngredientId(requirement.getIngredientId());
+                    item.setCategoryId(requirement.getCategoryId());
+                    item.setNeeded(quantity(requirement.getNeededAmount(), unit));
+                    item.setAfterPantry(quantity(requirement.getAfterPantryAmount(), unit));
                     item.setChecked(false);
                     return item;
                 })
@@ -225,8 +230,25 @@ public class GroceryService {
         return trip;
     }
     
-    @Transactional
+    private static Quantity quantity(BigDecimal amount, Unit unit) {
+        // Grocery amounts are stored with two decimals
+        return Quantity.builder()
+            .amount(amount.setScale(2, RoundingMode.HALF_UP))
+            .unit(unit)
+            .build();
+    }
+    
+    /**
+     * Updates the checked state of grocery lines. Without a version, lines are matched by
+     * position as before. With one, only the lines this client toggled since that version are
+     * applied and merged with what other household members checked off meanwhile; a line toggled
+     * by this client that a recompute has since removed is reported as a conflict.
+     */
     public GroceryListDto updateGroceryList(UUID id, UpdateGroceryListRequest request) {
+        return OptimisticRetry.execute(transactionTemplate, status -> applyListUpdate(id, request));
+    }
+    
+    private GroceryListDto applyListUpdate(UUID id, UpdateGroceryListRequest request) {
         User currentUser = getCurrentUser();
         
         GroceryList groceryList = groceryListRepository.findById(id)
@@ -237,7 +259,22 @@ public class GroceryService {
             throw new UnauthorizedException("You don't have access to this grocery list");
         }
         
-        // Update trips
+        if (request.getVersion() == null) {
+            applyByPosition(groceryList, request);
+        } else if (request.getVersion().equals(groceryList.getVersion())) {
+            applyChecked(groceryList, requestedStates(request));
+            domainMetrics.mergeOutcome(RevisionStore.GROCERY_LIST, "current");
+        } else {
+            mergeChecked(groceryList, request);
+        }
+        
+        groceryList.markModified();
+        groceryListRepository.saveAndFlush(groceryList);
+        recordRevision(groceryList);
+        return toDto(groceryList);
+    }
+    
+    private static void applyByPosition(GroceryList groceryList, UpdateGroceryListRequest request) {
         for (UpdateGroceryListRequest.TripUpdate tripUpdate : request.getTrips()) {
             if (tripUpdate.getTripIndex() < groceryList.getTrips().size()) {
                 GroceryTrip trip = groceryList.getTrips().get(tripUpdate.getTripIndex());
@@ -250,9 +287,76 @@ public class GroceryService {
                 }
             }
         }
+    }
+    
+    private void mergeChecked(GroceryList groceryList, UpdateGroceryListRequest request) {
+        long baseVersion = request.getVersion();
+        Map<String, Boolean> base = revisionStore.find(RevisionStore.GROCERY_LIST, groceryList.getId(), baseVersion,
+                CHECKED_STATES)
+            .orElseThrow(() -> {
+                domainMetrics.mergeOutcome(RevisionStore.GROCERY_LIST, "conflict");
+                return new ConflictException("Grocery list version " + baseVersion + " is no longer available, reload the list",
+                    groceryList.getVersion(), List.of());
+            });
+        Map<String, Boolean> theirs = checkedStates(groceryList);
+        
+        // Lines the request does not mention are left as they were in the base
+        Map<String, Boolean> ours = new HashMap<>(base);
+        requestedStates(request).forEach((key, checked) -> {
+            if (base.containsKey(key) || theirs.containsKey(key)) {
+                ours.put(key, checked);
+            }
+        });
         
-        GroceryList saved = groceryListRepository.save(groceryList);
-        return groceryMapper.toDto(saved);
+        ThreeWayMerge.Result<String, Boolean> result = ThreeWayMerge.merge(base, theirs, ours);
+        if (result.hasConflicts()) {
+            domainMetrics.mergeOutcome(RevisionStore.GROCERY_LIST, "conflict");
+            throw new ConflictException("Grocery list was recomputed since version " + baseVersion,
+                groceryList.getVersion(), List.copyOf(result.conflicts()));
+        }
+        domainMetrics.mergeOutcome(RevisionStore.GROCERY_LIST, "merged");
+        applyChecked(groceryList, result.merged());
+    }
+    
+    private static void applyChecked(GroceryList groceryList, Map<String, Boolean> states) {
+        for (GroceryTrip trip : groceryList.getTrips()) {
+            for (GroceryItem item : trip.getItems()) {
+                Boolean checked = states.get(lineKey(trip.getTripIndex(), item.getIngredientId(), item.getNeeded()));
+                if (checked != null) {
+                    item.setChecked(checked);
+                }
+            }
+        }
+    }
+    
+    private static Map<String, Boolean> requestedStates(UpdateGroceryListRequest request) {
+        Map<String, Boolean> states = new HashMap<>();
+        for (UpdateGroceryListRequest.TripUpdate tripUpdate : request.getTrips()) {
+            for (GroceryItemDto item : tripUpdate.getItems()) {
+                states.put(lineKey(tripUpdate.getTripIndex(), item.getIngredientId(), item.getNeeded()), item.isChecked());
+            }
+        }
+        return states;
+    }
+    
+    private static Map<String, Boolean> checkedStates(GroceryList groceryList) {
+        Map<String, Boolean> states = new HashMap<>();
+        for (GroceryTrip trip : groceryList.getTrips()) {
+            for (GroceryItem item : trip.getItems()) {
+                states.put(lineKey(trip.getTripIndex(), item.getIngredientId(), item.getNeeded()), item.isChecked());
+            }
+        }
+        return states;
+    }
+    
+    // A line is one ingredient in one base unit on one trip; that survives a recompute, positions do not
+    private static String lineKey(int tripIndex, UUID ingredientId, Quantity needed) {
+        return tripIndex + "/" + ingredientId + "/" + (needed != null ? needed.getUnit() : null);
+    }
+    
+    private void recordRevision(GroceryList groceryList) {
+        revisionStore.record(RevisionStore.GROCERY_LIST, groceryList.getId(), groceryList.getVersion(),
+            checkedStates(groceryList));
     }
     
     @Transactional(readOnly = true)
@@ -266,7 +370,7 @@ public class GroceryService {
             throw new UnauthorizedException("You don't have access to this grocery list");
         }
         
-        return groceryMapper.toDto(groceryList);
+        return toDto(groceryList);
     }
     
     private boolean hasAccessToPlannerWeek(PlannerWeek plannerWeek, User user) {
@@ -296,74 +400,4 @@ public class GroceryService {
         return userRepository.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("Current user not found"));
     }
-    
-    // Helper class for aggregating ingredients
-    private static class IngredientAggregate {
-        private final UUID ingredientId;
-        private final UUID categoryId;
-        private Quantity needed;
-        private Quantity afterPantry;
-        
-        public IngredientAggregate(UUID ingredientId, UUID categoryId) {
-            this.ingredientId = ingredientId;
-            this.categoryId = categoryId;
-            this.needed = Quantity.builder()
-                .amount(BigDecimal.ZERO)
-                .unit(com.mealmap.model.enums.Unit.g)
-                .build();
-            this.afterPantry = Quantity.builder()
-                .amount(BigDecimal.ZERO)
-                .unit(com.mealmap.model.enums.Unit.g)
-                .build();
-        }
-        
-        public void addQuantity(BigDecimal amount, com.mealmap.model.enums.Unit unit) {
-            // Simple aggregation - convert to base unit if needed
-            BigDecimal converted = convertToBaseUnit(amount, unit);
-            this.needed.setAmount(this.needed.getAmount().add(converted));
-            this.needed.setUnit(getBaseUnit(unit));
-            this.afterPantry = Quantity.builder()
-                .amount(this.needed.getAmount())
-                .unit(this.needed.getUnit())
-                .build();
-        }
-        
-        public void subtractPantry(BigDecimal amount, com.mealmap.model.enums.Unit unit) {
-            BigDecimal converted = convertToBaseUnit(amount, unit);
-            BigDecimal newAmount = this.afterPantry.getAmount().subtract(converted);
-            this.afterPantry.setAmount(newAmount.max(BigDecimal.ZERO)); // Don't go negative
-        }
-        
-        private BigDecimal convertToBaseUnit(BigDecimal amount, com.mealmap.model.enums.Unit unit) {
-            // Simple conversion: kg->g, l->ml
-            switch (unit) {
-                case kg:
-                    return amount.multiply(new BigDecimal("1000"));
-                case l:
-                    return amount.multiply(new BigDecimal("1000"));
-                default:
-                    return amount;
-            }
-        }
-        
-        private com.mealmap.model.enums.Unit getBaseUnit(com.mealmap.model.enums.Unit unit) {
-            switch (unit) {
-                case kg:
-                return com.mealmap.model.enums.Unit.kg;
-                case g:
-                    return com.mealmap.model.enums.Unit.g;
-                case l:
-                    return com.mealmap.model.enums.Unit.l;
-                case ml:
-                    return com.mealmap.model.enums.Unit.ml;
-                default:
-                    return unit;
-            }
-        }
-        
-        public UUID getIngredientId() { return ingredientId; }
-        public UUID getCategoryId() { return categoryId; }
-        public Quantity getNeeded() { return needed; }
-        public Quantity getAfterPantry() { return afterPantry; }
-    }
 }
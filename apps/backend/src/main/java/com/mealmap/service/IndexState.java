@@ -0,0 +1,114 @@
+package com.mealmap.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The mutable catalog of an in-memory index and the lock guarding it. Queries run under the
+ * read lock; changes and rebuilds take the write lock. Changes made inside a transaction are
+ * applied once it commits, so an index never shows a write that was rolled back. A change that
+ * lands while a rebuild is reading the database is replayed onto the rebuilt catalog, since the
+ * rows it read may predate the change.
+ */
+final class IndexState<C> {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private C catalog;
+    // Rebuilds between start and completion; guarded by the lock
+    private final List<Rebuild> rebuilds = new ArrayList<>();
+
+    IndexState(C catalog) {
+        this.catalog = catalog;
+    }
+
+    <T> T read(Function<C, T> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(catalog);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starts collecting the changes a rebuild has to replay. Close it without completing when
+     * loading fails, so the changes stop being collected.
+     */
+    Rebuild startRebuild() {
+        lock.writeLock().lock();
+        try {
+            Rebuild rebuild = new Rebuild();
+            rebuilds.add(rebuild);
+            return rebuild;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void writeAfterCommit(Consumer<C> change) {
+        afterCommit(() -> write(change));
+    }
+
+    private void write(Consumer<C> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(catalog);
+            rebuilds.forEach(rebuild -> rebuild.missed.add(change));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    final class Rebuild implements AutoCloseable {
+
+        private final List<Consumer<C>> missed = new ArrayList<>();
+
+        /**
+         * Replays the changes made since the rebuild started onto the rebuilt catalog and swaps
+         * it in. Changes are idempotent puts and removes, so one already in the loaded rows is
+         * harmless.
+         */
+        void complete(C rebuilt) {
+            lock.writeLock().lock();
+            try {
+                if (!rebuilds.remove(this)) {
+                    throw new IllegalStateException("Index rebuild already finished");
+                }
+                missed.forEach(change -> change.accept(rebuilt));
+                catalog = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void close() {
+            lock.writeLock().lock();
+            try {
+                rebuilds.remove(this);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
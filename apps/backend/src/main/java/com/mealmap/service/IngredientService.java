@@ -1,5 +1,6 @@
 package com.mealmap.service;
 
+import com.mealmap.mapper.IngredientMapper;
 import com.mealmap.model.dto.ingredient.CreateIngredientRequest;
 import com.mealmap.model.dto.ingredient.IngredientDto;
 import com.mealmap.model.dto.ingredient.IngredientPageResponse;
@@ -10,6 +11,7 @@ import com.mealmap.model.entity.User;
 import com.mealmap.repository.CategoryRepository;
 import com.mealmap.repository.IngredientRepository;
 import com.mealmap.repository.UserRepository;
+import com.mealmap.repository.projection.IngredientSummary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -32,6 +34,7 @@ public class IngredientService {
     private final IngredientRepository ingredientRepository;
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final IngredientMapper ingredientMapper;
 
     private static final UUID SYSTEM_TEMPLATE_USER_ID = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
 
@@ -41,7 +44,7 @@ public class IngredientService {
         Pageable pageable = PageRequest.of(0, limit != null ? limit : 20);
         List<UUID> ownerIds = List.of(currentUser.getId(), SYSTEM_TEMPLATE_USER_ID);
         
-        Page<Ingredient> page;
+        Page<IngredientSummary> page;
         if (query != null && !query.isBlank()) {
             page = ingredientRepository.findByOwnerUserIdInAndNameContainingIgnoreCase(
                 ownerIds, query, pageable);
@@ -53,7 +56,7 @@ public class IngredientService {
         }
 
         List<IngredientDto> data = page.getContent().stream()
-                .map(this::mapToDto)
+                .map(ingredientMapper::toDto)
                 .toList();
 
         String nextCursor = page.hasNext() ? 
@@ -76,7 +79,7 @@ public class IngredientService {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not authorized to access this ingredient");
         }
 
-        return mapToDto(ingredient);
+        return ingredientMapper.toDto(ingredient);
     }
 
     @Transactional
@@ -96,7 +99,7 @@ public class IngredientService {
                 .build();
 
         ingredient = ingredientRepository.save(ingredient);
-        return mapToDto(ingredient);
+        return ingredientMapper.toDto(ingredient);
     }
 
     @Transactional
@@ -128,7 +131,7 @@ public class IngredientService {
         }
 
         ingredient = ingredientRepository.save(ingredient);
-        return mapToDto(ingredient);
+        return ingredientMapper.toDto(ingredient);
     }
 
     @Transactional
@@ -144,19 +147,6 @@ public class IngredientService {
         ingredientRepository.delete(ingredient);
     }
 
-    private IngredientDto mapToDto(Ingredient ingredient) {
-        return IngredientDto.builder()
-                .id(ingredient.getId())
-                .ownerUserId(ingredient.getOwnerUserId())
-                .name(ingredient.getName())
-                .categoryId(ingredient.getCategory().getId())
-                .defaultUnit(ingredient.getDefaultUnit())
-                .packageSize(ingredient.getPackageSize())
-                .notes(ingredient.getNotes())
-                .createdAt(ingredient.getCreatedAt())
-                .updatedAt(ingredient.getUpdatedAt())
-                .build();
-    }
 
     private User getCurrentUser() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -0,0 +1,129 @@
+package com.mealmap.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last Login Recorder
+ * 
+ * Buffers last-login timestamps in memory and writes them in one set-based UPDATE every
+ * few seconds, so a login costs no write round trip of its own. Repeated logins by the same
+ * user within a flush window collapse into a single row. The buffer is also flushed on shutdown.
+ */
+@Service
+@Slf4j
+public class LastLoginRecorder {
+
+    // Two parameters per row keeps each statement well under SQL Server's 2100 parameter limit
+    static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<UUID, Instant> pending = new ConcurrentHashMap<>();
+    private final Timer flushTimer;
+    private final Counter flushedRows;
+    private final Counter failedRows;
+
+    public LastLoginRecorder(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushTimer = Timer.builder("mealmap.auth.last_login.flush")
+                .description("Time spent writing buffered last-login timestamps")
+                .register(meterRegistry);
+        this.flushedRows = Counter.builder("mealmap.auth.last_login.flushed")
+                .description("Last-login timestamps written to the database")
+                .register(meterRegistry);
+        this.failedRows = Counter.builder("mealmap.auth.last_login.flush.failures")
+                .description("Last-login timestamps re-queued after a failed flush")
+                .register(meterRegistry);
+        Gauge.builder("mealmap.auth.last_login.pending", pending, Map::size)
+                .description("Last-login timestamps waiting for the next flush")
+                .register(meterRegistry);
+    }
+
+    public void record(UUID userId) {
+        record(userId, Instant.now());
+    }
+
+    public void record(UUID userId, Instant loginAt) {
+        pending.merge(userId, loginAt, LastLoginRecorder::latest);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.auth.last-login.flush-interval:PT5S}",
+            fixedDelayString = "${app.auth.last-login.flush-interval:PT5S}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Instant> batch = drain();
+        try {
+            flushTimer.record(() -> write(batch));
+            flushedRows.increment(batch.size());
+        } catch (RuntimeException e) {
+            // Put the timestamps back so the next flush retries them
+            batch.forEach(this::record);
+            failedRows.increment(batch.size());
+            log.warn("Failed to flush {} last-login timestamp(s), will retry", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private Map<UUID, Instant> drain() {
+        Map<UUID, Instant> batch = new HashMap<>();
+        for (UUID userId : pending.keySet()) {
+            Instant loginAt = pending.remove(userId);
+            if (loginAt != null) {
+                batch.put(userId, loginAt);
+            }
+        }
+        return batch;
+    }
+
+    private void write(Map<UUID, Instant> batch) {
+        List<Map.Entry<UUID, Instant>> entries = new ArrayList<>(batch.entrySet());
+        for (int start = 0; start < entries.size(); start += MAX_ROWS_PER_STATEMENT) {
+            List<Map.Entry<UUID, Instant>> chunk =
+                    entries.subList(start, Math.min(start + MAX_ROWS_PER_STATEMENT, entries.size()));
+
+            StringJoiner values = new StringJoiner(", ");
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                values.add("(CAST(? AS UNIQUEIDENTIFIER), ?)");
+                args[i * 2] = chunk.get(i).getKey().toString();
+                args[i * 2 + 1] = Timestamp.from(chunk.get(i).getValue());
+            }
+
+            // Never move a timestamp backwards, e.g. when another instance flushed a newer login
+            String sql = "UPDATE u SET last_login_at = v.last_login_at " +
+                    "FROM users u " +
+                    "JOIN (VALUES " + values + ") AS v(id, last_login_at) ON u.id = v.id " +
+                    "WHERE u.last_login_at IS NULL OR u.last_login_at < v.last_login_at";
+            jdbcTemplate.update(sql, args);
+        }
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
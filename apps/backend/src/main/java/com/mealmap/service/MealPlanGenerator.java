@@ -0,0 +1,274 @@
+package com.mealmap.service;
+
+import com.mealmap.model.entity.RecipeTemplatePreference;
+import com.mealmap.model.entity.User;
+import com.mealmap.repository.PantryItemRepository;
+import com.mealmap.repository.RecipeTemplatePreferenceRepository;
+import com.mealmap.service.RecipeSuggestionIndex.MealVector;
+import com.mealmap.service.RecipeSuggestionIndex.PlanningSpace;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Meal Plan Generator
+ *
+ * Picks a meal for each open slot of a week so that the pantry gets used up, few ingredients
+ * have to be bought and no meal repeats without need. Meals and stock come from the
+ * {@link RecipeSuggestionIndex} as dense vectors, so trying a swap touches only the lines of
+ * the two meals involved.
+ *
+ * The search is simulated annealing from a greedy start, run as independent restarts with
+ * different seeds on a fork/join pool for the configured time budget; the best plan wins. More
+ * workers explore more of the space within the same wall-clock time, they do not cut it short.
+ */
+@Service
+@Slf4j
+public class MealPlanGenerator {
+
+    // A stocked line counts up to 1 when fully used; these are weighed against that
+    static final double MISSING_INGREDIENT_PENALTY = 0.1;
+    static final double REPEAT_PENALTY = 1.0;
+    private static final double START_TEMPERATURE = 0.5;
+
+    private final RecipeSuggestionIndex suggestionIndex;
+    private final TemplateTagIndex tagIndex;
+    private final RecipeTemplatePreferenceRepository preferenceRepository;
+    private final PantryItemRepository pantryItemRepository;
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final Duration timeBudget;
+
+    public MealPlanGenerator(RecipeSuggestionIndex suggestionIndex,
+                             TemplateTagIndex tagIndex,
+                             RecipeTemplatePreferenceRepository preferenceRepository,
+                             PantryItemRepository pantryItemRepository,
+                             @Value("${app.planner.generator.parallelism:0}") int parallelism,
+                             @Value("${app.planner.generator.time-budget:PT0.3S}") Duration timeBudget) {
+        this.suggestionIndex = suggestionIndex;
+        this.tagIndex = tagIndex;
+        this.preferenceRepository = preferenceRepository;
+        this.pantryItemRepository = pantryItemRepository;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.timeBudget = timeBudget;
+        this.pool = new ForkJoinPool(this.parallelism);
+    }
+
+    /**
+     * The chosen meals, one per requested slot in order ({@code null} where nothing could be
+     * planned), and the objective they reached.
+     */
+    public record Plan(List<MealVector> meals, double score) {
+    }
+
+    /**
+     * The meals to plan from, the user's recipes and the global templates they have not hidden,
+     * and the user's pantry stock. With dietary tags only templates carrying all of them take
+     * part, since recipes are not tagged. Reads the database; call it in a short transaction and
+     * run {@link #search} outside of it.
+     */
+    public PlanningSpace planningSpace(User user, Collection<String> dietaryTags, boolean includeTemplates) {
+        boolean dietary = dietaryTags != null && !dietaryTags.isEmpty();
+        List<UUID> templateIds = List.of();
+        if (includeTemplates || dietary) {
+            List<UUID> hiddenIds = preferenceRepository.findFlaggedByUserId(user.getId()).stream()
+                    .filter(RecipeTemplatePreference::isHidden)
+                    .map(RecipeTemplatePreference::getTemplateId)
+                    .toList();
+            templateIds = tagIndex.match(user.getId(), hiddenIds, List.of(), null, null, dietaryTags,
+                    0, Integer.MAX_VALUE).pageIds();
+        }
+        UUID householdId = user.getHousehold() != null ? user.getHousehold().getId() : null;
+        return suggestionIndex.planningSpace(user.getId(), !dietary, templateIds,
+                pantryItemRepository.aggregateStock(user.getId(), householdId));
+    }
+
+    /**
+     * Plans {@code slots} meals of {@code portions} each from the planning space. Takes the whole
+     * time budget and touches no database.
+     */
+    public Plan search(PlanningSpace space, int slots, int portions) {
+        if (space.meals().isEmpty() || slots == 0) {
+            return new Plan(new ArrayList<>(Collections.nCopies(slots, null)), 0);
+        }
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        long seed = System.nanoTime();
+        List<Callable<Plan>> restarts = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            long restartSeed = seed + i;
+            restarts.add(() -> new Search(space, slots, portions, new SplittableRandom(restartSeed)).run(deadline));
+        }
+
+        List<Plan> plans = new ArrayList<>(parallelism);
+        try {
+            for (Future<Plan> restart : pool.invokeAll(restarts)) {
+                plans.add(restart.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Meal plan generation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Meal plan generation failed", e.getCause());
+        }
+        Plan best = plans.stream().max(Comparator.comparingDouble(Plan::score)).orElseThrow();
+        log.debug("Planned {} slot(s) from {} meal(s) with {} restart(s), score {}",
+                slots, space.meals().size(), parallelism, best.score());
+        return best;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * One restart. Holds the total need per key of the current plan, and how many chosen lines
+     * ask for it, so the effect of swapping a slot's meal is the change on that meal's keys alone.
+     */
+    static final class Search {
+
+        private final List<MealVector> meals;
+        private final double[] stock;
+        private final double portions;
+        private final SplittableRandom random;
+        private final double[] need;
+        private final int[] lines;
+        private final int[] uses;
+        private final int[] assignment;
+        private double score;
+
+        Search(PlanningSpace space, int slots, int portions, SplittableRandom random) {
+            this.meals = space.meals();
+            this.stock = space.stock();
+            this.portions = portions;
+            this.random = random;
+            this.need = new double[stock.length];
+            this.lines = new int[stock.length];
+            this.uses = new int[meals.size()];
+            this.assignment = new int[slots];
+        }
+
+        Plan run(long deadline) {
+            start();
+            int[] best = assignment.clone();
+            double bestScore = score;
+            long started = System.nanoTime();
+            double span = Math.max(1, deadline - started);
+
+            double temperature = START_TEMPERATURE;
+            for (long step = 0; meals.size() > 1; step++) {
+                // Reading the clock on every step would cost more than the step itself
+                if ((step & 255) == 0) {
+                    long now = System.nanoTime();
+                    if (now >= deadline) {
+                        break;
+                    }
+                    temperature = START_TEMPERATURE * (1 - (now - started) / span);
+                }
+                int slot = random.nextInt(assignment.length);
+                int previous = assignment[slot];
+                int candidate = random.nextInt(meals.size());
+                if (candidate == previous) {
+                    continue;
+                }
+                double delta = replace(slot, candidate);
+                if (delta >= 0 || random.nextDouble() < Math.exp(delta / temperature)) {
+                    score += delta;
+                    if (score > bestScore) {
+                        bestScore = score;
+                        best = assignment.clone();
+                    }
+                } else {
+                    replace(slot, previous);
+                }
+            }
+
+            List<MealVector> chosen = new ArrayList<>(best.length);
+            for (int meal : best) {
+                chosen.add(meals.get(meal));
+            }
+            return new Plan(chosen, bestScore);
+        }
+
+        /**
+         * Fills the slots one by one with the best of a few randomly drawn meals.
+         */
+        private void start() {
+            Arrays.fill(assignment, -1);
+            int draws = Math.min(meals.size(), 8);
+            for (int slot = 0; slot < assignment.length; slot++) {
+                int bestMeal = random.nextInt(meals.size());
+                double bestDelta = Double.NEGATIVE_INFINITY;
+                for (int draw = 0; draw < draws; draw++) {
+                    int meal = random.nextInt(meals.size());
+                    double delta = replace(slot, meal);
+                    if (delta > bestDelta) {
+                        bestDelta = delta;
+                        bestMeal = meal;
+                    }
+                    replace(slot, -1);
+                }
+                score += replace(slot, bestMeal);
+            }
+        }
+
+        /**
+         * Puts {@code meal} (or nothing, for -1) into the slot and returns the change in score.
+         */
+        private double replace(int slot, int meal) {
+            double delta = 0;
+            int previous = assignment[slot];
+            if (previous >= 0) {
+                delta += add(previous, -1);
+            }
+            if (meal >= 0) {
+                delta += add(meal, 1);
+            }
+            assignment[slot] = meal;
+            return delta;
+        }
+
+        private double add(int meal, int sign) {
+            MealVector vector = meals.get(meal);
+            double delta = 0;
+            int[] keys = vector.keys();
+            double[] amounts = vector.amounts();
+            for (int line = 0; line < keys.length; line++) {
+                int key = keys[line];
+                delta -= value(key);
+                need[key] += sign * amounts[line] * portions;
+                lines[key] += sign;
+                delta += value(key);
+            }
+            int usesBefore = uses[meal];
+            uses[meal] += sign;
+            delta -= REPEAT_PENALTY * (Math.max(0, uses[meal] - 1) - Math.max(0, usesBefore - 1));
+            return delta;
+        }
+
+        // A key no chosen line asks for is worth nothing either way; one that is asked for but
+        // not stocked is a purchase, even for a line without an amount
+        private double value(int key) {
+            if (lines[key] == 0) {
+                return 0;
+            }
+            double onHand = stock[key];
+            return onHand > 0 ? Math.min(Math.max(need[key], 0), onHand) / onHand : -MISSING_INGREDIENT_PENALTY;
+        }
+    }
+}
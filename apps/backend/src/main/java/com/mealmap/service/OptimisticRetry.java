@@ -0,0 +1,33 @@
+package com.mealmap.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs a merging write in a fresh transaction and repeats it when another transaction committed
+ * the same aggregate in between. Each attempt re-reads the current state and merges again, so
+ * overlapping but compatible edits succeed without the client having to retry.
+ */
+@Slf4j
+final class OptimisticRetry {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private OptimisticRetry() {
+    }
+
+    static <T> T execute(TransactionTemplate transactionTemplate, TransactionCallback<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(action);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Concurrent write detected, merging again (attempt {} of {})", attempt + 1, MAX_ATTEMPTS);
+            }
+        }
+    }
+}
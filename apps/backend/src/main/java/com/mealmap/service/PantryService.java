@@ -13,8 +13,11 @@ import com.mealmap.model.entity.User;
 import com.mealmap.repository.IngredientRepository;
 import com.mealmap.repository.PantryItemRepository;
 import com.mealmap.repository.UserRepository;
+import com.mealmap.repository.projection.PantryItemSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -45,22 +48,21 @@ public class PantryService {
             householdIds.add(currentUser.getHousehold().getId());
         }
 
+        // The limit goes into the query instead of trimming the loaded list
+        Pageable pageable = limit != null && limit > 0 ? PageRequest.of(0, limit) : Pageable.unpaged();
+
         // Use appropriate query based on whether user has households
-        List<PantryItem> items;
+        List<PantryItemSummary> items;
         if (householdIds.isEmpty()) {
-            items = pantryItemRepository.findByUserId(currentUser.getId());
+            items = pantryItemRepository.findByUserId(currentUser.getId(), pageable);
         } else {
             items = pantryItemRepository.findByUserOrHouseholds(
                     currentUser.getId(),
-                    householdIds
+                    householdIds,
+                    pageable
             );
         }
 
-        // Apply limit if provided
-        if (limit != null && limit > 0 && items.size() > limit) {
-            items = items.subList(0, limit);
-        }
-
         List<PantryItemDto> dtos = items.stream()
                 .map(pantryMapper::toDto)
                 .toList();
@@ -1,22 +1,41 @@
 package com.mealmap.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mealmap.exception.ConflictException;
 import com.mealmap.exception.ResourceNotFoundException;
 import com.mealmap.exception.UnauthorizedException;
 import com.mealmap.mapper.PlannerMapper;
 import com.mealmap.model.dto.planner.*;
 import com.mealmap.model.entity.*;
+import com.mealmap.model.enums.MealSlot;
+import com.mealmap.model.enums.SuggestionSource;
+import com.mealmap.observability.DomainMetrics;
+import com.mealmap.observability.jfr.PlannerWeekWriteEvent;
 import com.mealmap.repository.*;
+import com.mealmap.repository.projection.GeneratedWeek;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +48,30 @@ public class PlannerService {
     private final UserRepository userRepository;
     private final RecipeRepository recipeRepository;
     private final PlannerMapper plannerMapper;
+    private final DomainMetrics domainMetrics;
+    private final RevisionStore revisionStore;
+    private final TransactionTemplate transactionTemplate;
+    private final ProfileRepository profileRepository;
+    private final MealPlanGenerator mealPlanGenerator;
+    private final RecipeTemplateService recipeTemplateService;
+    private final ObjectMapper objectMapper;
+
+    private static final TypeReference<Map<UUID, ItemState>> ITEM_STATES = new TypeReference<>() {
+    };
+
+    /**
+     * The mergeable part of a planner item, as stored in week revisions.
+     */
+    record ItemState(LocalDate date, MealSlot slot, UUID recipeId, Integer portions) {
+
+        static ItemState of(PlannerItem item) {
+            return new ItemState(item.getDate(), item.getSlot(), recipeIdOf(item), item.getPortions());
+        }
+
+        static ItemState of(CreatePlannerItemRequest request) {
+            return new ItemState(request.getDate(), request.getSlot(), request.getRecipeId(), request.getPortions());
+        }
+    }
 
     @Transactional(readOnly = true)
     public PlannerWeekPageResponse getPlannersWeeks(LocalDate from, LocalDate to, Integer limit, String cursor) {
@@ -73,11 +116,14 @@ public class PlannerService {
             throw new UnauthorizedException("You don't have access to this planner week");
         }
 
+        domainMetrics.plannerWeekItems("read", plannerWeek.getItems().size());
         return plannerMapper.toDto(plannerWeek);
     }
 
     @Transactional
     public PlannerWeekDto createPlannerWeek(CreatePlannerWeekRequest request) {
+        PlannerWeekWriteEvent event = new PlannerWeekWriteEvent();
+        event.begin();
         User currentUser = getCurrentUser();
 
         // Validate start date is a Monday
@@ -104,43 +150,458 @@ public class PlannerService {
 
         // Add items if provided
         if (request.getItems() != null && !request.getItems().isEmpty()) {
+            request.getItems().forEach(itemRequest -> requireDateInWeek(plannerWeek, itemRequest.getDate()));
+            Map<UUID, Recipe> recipes = loadRecipes(request.getItems());
             for (CreatePlannerItemRequest itemRequest : request.getItems()) {
-                PlannerItem item = createPlannerItem(itemRequest, currentUser, plannerWeek);
+                PlannerItem item = createPlannerItem(itemRequest, currentUser, plannerWeek, recipes);
                 plannerWeek.addItem(item);
             }
         }
 
         PlannerWeek savedWeek = plannerWeekRepository.save(plannerWeek);
+        recordRevision(savedWeek);
         log.info("Created planner week with id: {}", savedWeek.getId());
+        domainMetrics.plannerWeekItems("create", savedWeek.getItems().size());
+        commitWriteEvent(event, "create", savedWeek.getId(), savedWeek.getItems().size());
 
         return plannerMapper.toDto(savedWeek);
     }
 
-    @Transactional
+    /**
+     * Replaces the items of a week with the requested ones. Only the difference is written:
+     * requested items are matched to existing ones by id, then by identical date, slot and
+     * recipe, then by recipe alone (a meal moved to another day or slot). Matched items are
+     * updated in place when something changed, the rest are inserted or removed.
+     * <p>
+     * When the request carries a version older than the current one, the edit is three-way
+     * merged per item with whatever was written since (see {@link #mergeItems}) instead of
+     * overwriting it. A write that races another one is merged again rather than failed.
+     */
     public PlannerWeekDto updatePlannerWeek(UUID id, UpdatePlannerWeekRequest request) {
-        PlannerWeek plannerWeek = plannerWeekRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Planner week not found with id: " + id));
+        PlannerWeekWriteEvent event = new PlannerWeekWriteEvent();
+        event.begin();
+        PlannerWeekDto updatedWeek = OptimisticRetry.execute(transactionTemplate, status -> applyWeekUpdate(id, request));
+        commitWriteEvent(event, "update", id, updatedWeek.getItems() != null ? updatedWeek.getItems().size() : 0);
+        return updatedWeek;
+    }
 
+    private PlannerWeekDto applyWeekUpdate(UUID id, UpdatePlannerWeekRequest request) {
         User currentUser = getCurrentUser();
-        if (!hasAccessToPlannerWeek(plannerWeek, currentUser)) {
-            throw new UnauthorizedException("You don't have access to this planner week");
+        PlannerWeek plannerWeek = findAccessiblePlannerWeek(id, currentUser);
+
+        List<CreatePlannerItemRequest> requested = request.getItems() != null ? request.getItems() : List.of();
+        requested.forEach(itemRequest -> requireDateInWeek(plannerWeek, itemRequest.getDate()));
+        Map<UUID, Recipe> recipes = loadRecipes(requested);
+
+        ItemChanges changes;
+        if (request.getVersion() == null || request.getVersion().equals(plannerWeek.getVersion())) {
+            changes = replaceItems(plannerWeek, requested, currentUser, recipes);
+            if (request.getVersion() != null) {
+                domainMetrics.mergeOutcome(RevisionStore.PLANNER_WEEK, "current");
+            }
+        } else {
+            changes = mergeItems(plannerWeek, request.getVersion(), requested, currentUser, recipes);
         }
 
-        // Clear existing items
-        plannerWeek.getItems().clear();
+        if (changes.any()) {
+            touch(plannerWeek);
+        }
+        log.info("Updated planner week with id: {} ({} added, {} updated, {} removed)",
+                plannerWeek.getId(), changes.added(), changes.updated(), changes.removed());
+        domainMetrics.plannerWeekItems("update", plannerWeek.getItems().size());
 
-        // Add new items
-        if (request.getItems() != null) {
-            for (CreatePlannerItemRequest itemRequest : request.getItems()) {
-                PlannerItem item = createPlannerItem(itemRequest, currentUser, plannerWeek);
-                plannerWeek.addItem(item);
+        return plannerMapper.toDto(plannerWeek);
+    }
+
+    private ItemChanges replaceItems(PlannerWeek plannerWeek, List<CreatePlannerItemRequest> requested,
+                                     User currentUser, Map<UUID, Recipe> recipes) {
+        List<PlannerItem> unmatchedItems = new ArrayList<>(plannerWeek.getItems());
+        List<CreatePlannerItemRequest> unmatchedRequests = new ArrayList<>();
+        Map<CreatePlannerItemRequest, PlannerItem> matches = new IdentityHashMap<>();
+        for (CreatePlannerItemRequest itemRequest : requested) {
+            if (itemRequest.getId() == null) {
+                unmatchedRequests.add(itemRequest);
+                continue;
+            }
+            PlannerItem item = unmatchedItems.stream()
+                    .filter(candidate -> itemRequest.getId().equals(candidate.getId()))
+                    .findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException("Planner item not found with id: " + itemRequest.getId()));
+            unmatchedItems.remove(item);
+            matches.put(itemRequest, item);
+        }
+        match(unmatchedRequests, unmatchedItems, matches, (itemRequest, item) ->
+                itemRequest.getDate().equals(item.getDate())
+                        && itemRequest.getSlot() == item.getSlot()
+                        && Objects.equals(itemRequest.getRecipeId(), recipeIdOf(item)));
+        match(unmatchedRequests, unmatchedItems, matches, (itemRequest, item) ->
+                itemRequest.getRecipeId() != null && itemRequest.getRecipeId().equals(recipeIdOf(item)));
+
+        int updated = 0;
+        for (Map.Entry<CreatePlannerItemRequest, PlannerItem> match : matches.entrySet()) {
+            if (applyChanges(match.getValue(), ItemState.of(match.getKey()), recipes)) {
+                updated++;
+            }
+        }
+        unmatchedItems.forEach(plannerWeek::removeItem);
+        for (CreatePlannerItemRequest itemRequest : unmatchedRequests) {
+            plannerWeek.addItem(createPlannerItem(itemRequest, currentUser, plannerWeek, recipes));
+        }
+        return new ItemChanges(unmatchedRequests.size(), updated, unmatchedItems.size());
+    }
+
+    /**
+     * Merges an edit made against {@code baseVersion} into the current items. Requested items
+     * with an id are the client's version of that item and items of the base it no longer lists
+     * were deleted by it; items without an id are additions and never conflict. Per item, the
+     * side that changed it wins; an item changed differently on both sides (including edited on
+     * one side and deleted on the other) fails the whole edit with a {@link ConflictException}.
+     */
+    private ItemChanges mergeItems(PlannerWeek plannerWeek, long baseVersion, List<CreatePlannerItemRequest> requested,
+                                   User currentUser, Map<UUID, Recipe> recipes) {
+        Map<UUID, ItemState> base = revisionStore.find(RevisionStore.PLANNER_WEEK, plannerWeek.getId(), baseVersion, ITEM_STATES)
+                .orElseThrow(() -> {
+                    domainMetrics.mergeOutcome(RevisionStore.PLANNER_WEEK, "conflict");
+                    return new ConflictException("Planner week version " + baseVersion + " is no longer available, reload the week",
+                            plannerWeek.getVersion(), List.of());
+                });
+        Map<UUID, ItemState> theirs = itemStates(plannerWeek);
+
+        Map<UUID, ItemState> ours = new LinkedHashMap<>();
+        List<CreatePlannerItemRequest> additions = new ArrayList<>();
+        for (CreatePlannerItemRequest itemRequest : requested) {
+            if (itemRequest.getId() == null) {
+                additions.add(itemRequest);
+            } else if (base.containsKey(itemRequest.getId()) || theirs.containsKey(itemRequest.getId())) {
+                ours.put(itemRequest.getId(), ItemState.of(itemRequest));
+            } else {
+                throw new ResourceNotFoundException("Planner item not found with id: " + itemRequest.getId());
+            }
+        }
+
+        ThreeWayMerge.Result<UUID, ItemState> result = ThreeWayMerge.merge(base, theirs, ours);
+        if (result.hasConflicts()) {
+            domainMetrics.mergeOutcome(RevisionStore.PLANNER_WEEK, "conflict");
+            throw new ConflictException("Planner week changed since version " + baseVersion + " and the edits overlap",
+                    plannerWeek.getVersion(), result.conflicts().stream().map(UUID::toString).toList());
+        }
+        domainMetrics.mergeOutcome(RevisionStore.PLANNER_WEEK, "merged");
+
+        int updated = 0;
+        List<PlannerItem> removed = new ArrayList<>();
+        for (PlannerItem item : plannerWeek.getItems()) {
+            ItemState state = result.merged().get(item.getId());
+            if (state == null) {
+                removed.add(item);
+            } else if (applyChanges(item, state, recipes)) {
+                updated++;
+            }
+        }
+        removed.forEach(plannerWeek::removeItem);
+        for (CreatePlannerItemRequest itemRequest : additions) {
+            plannerWeek.addItem(createPlannerItem(itemRequest, currentUser, plannerWeek, recipes));
+        }
+        return new ItemChanges(additions.size(), updated, removed.size());
+    }
+
+    private record ItemChanges(int added, int updated, int removed) {
+
+        boolean any() {
+            return added + updated + removed > 0;
+        }
+    }
+
+    /**
+     * Adds one item without rewriting the week. Single-item operations never conflict with
+     * other edits, but they still bump the week version so clients holding the week see it changed.
+     */
+    public PlannerItemDto addPlannerItem(UUID weekId, CreatePlannerItemRequest request) {
+        PlannerWeekWriteEvent event = new PlannerWeekWriteEvent();
+        event.begin();
+        PlannerItemDto savedItem = OptimisticRetry.execute(transactionTemplate, status -> {
+            User currentUser = getCurrentUser();
+            PlannerWeek plannerWeek = findAccessiblePlannerWeek(weekId, currentUser);
+            requireDateInWeek(plannerWeek, request.getDate());
+
+            PlannerItem item = createPlannerItem(request, currentUser, plannerWeek, loadRecipes(List.of(request)));
+            plannerWeek.addItem(item);
+            PlannerItem saved = plannerItemRepository.save(item);
+            touch(plannerWeek);
+            log.info("Added planner item {} to week {}", saved.getId(), weekId);
+            return plannerMapper.toItemDto(saved);
+        });
+        commitWriteEvent(event, "item-create", weekId, 1);
+
+        return savedItem;
+    }
+
+    public PlannerItemDto updatePlannerItem(UUID weekId, UUID itemId, UpdatePlannerItemRequest request) {
+        PlannerWeekWriteEvent event = new PlannerWeekWriteEvent();
+        event.begin();
+        PlannerItemDto updatedItem = OptimisticRetry.execute(transactionTemplate,
+                status -> applyItemUpdate(weekId, itemId, request));
+        commitWriteEvent(event, "item-update", weekId, 1);
+        return updatedItem;
+    }
+
+    private PlannerItemDto applyItemUpdate(UUID weekId, UUID itemId, UpdatePlannerItemRequest request) {
+        User currentUser = getCurrentUser();
+        PlannerWeek plannerWeek = findAccessiblePlannerWeek(weekId, currentUser);
+        PlannerItem item = findPlannerItem(weekId, itemId);
+
+        if (request.getDate() != null) {
+            requireDateInWeek(plannerWeek, request.getDate());
+            item.setDate(request.getDate());
+        }
+        if (request.getSlot() != null) {
+            item.setSlot(request.getSlot());
+        }
+        if (request.getRecipeId() != null) {
+            item.setRecipe(recipeRepository.findById(request.getRecipeId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Recipe not found with id: " + request.getRecipeId())));
+        }
+        if (request.getPortions() != null) {
+            item.setPortions(request.getPortions());
+        }
+
+        PlannerItem savedItem = plannerItemRepository.save(item);
+        touch(plannerWeek);
+        return plannerMapper.toItemDto(savedItem);
+    }
+
+    public void deletePlannerItem(UUID weekId, UUID itemId) {
+        PlannerWeekWriteEvent event = new PlannerWeekWriteEvent();
+        event.begin();
+        OptimisticRetry.execute(transactionTemplate, status -> {
+            User currentUser = getCurrentUser();
+            PlannerWeek plannerWeek = findAccessiblePlannerWeek(weekId, currentUser);
+            PlannerItem item = findPlannerItem(weekId, itemId);
+
+            plannerWeek.removeItem(item);
+            plannerItemRepository.delete(item);
+            touch(plannerWeek);
+            log.info("Deleted planner item {} from week {}", itemId, weekId);
+            return null;
+        });
+        commitWriteEvent(event, "item-delete", weekId, 1);
+    }
+
+    /**
+     * Copies a week, items included, to the week starting on {@code targetStartDate}. A week
+     * that already starts there is a conflict; it is reported with its version and id so the
+     * client can open it instead.
+     */
+    @Transactional
+    public PlannerWeekDto copyPlannerWeek(UUID id, CopyPlannerWeekRequest request) {
+        List<PlannerWeekDto> copies = generateWeeks(id, 1, request.getTargetStartDate(), 1, "copy");
+        if (copies.isEmpty()) {
+            String message = "A planner week starting " + request.getTargetStartDate() + " already exists";
+            throw findSameOwnerWeek(id, request.getTargetStartDate())
+                    .map(existing -> new ConflictException(message, existing.getVersion(),
+                            List.of(existing.getId().toString())))
+                    .orElseGet(() -> new ConflictException(message, 0, List.of()));
+        }
+        return copies.get(0);
+    }
+
+    private Optional<PlannerWeek> findSameOwnerWeek(UUID sourceWeekId, LocalDate startDate) {
+        User currentUser = getCurrentUser();
+        PlannerWeek source = findAccessiblePlannerWeek(sourceWeekId, currentUser);
+        return plannerWeekRepository.findByUserOrHouseholdsAndDateRange(
+                        currentUser.getId(), householdIds(currentUser), startDate, startDate).stream()
+                .filter(week -> sameOwner(week, source))
+                .findFirst();
+    }
+
+    /**
+     * Repeats a rotation of {@code cycleWeeks} consecutive weeks, starting with this one, over
+     * the requested number of weeks. Weeks that already exist in the target range are kept as
+     * they are; only the created weeks are returned.
+     */
+    @Transactional
+    public List<PlannerWeekDto> createRotation(UUID id, CreateRotationRequest request) {
+        return generateWeeks(id, request.getCycleWeeks(), request.getStartDate(), request.getWeeks(), "rotation");
+    }
+
+    /**
+     * Weeks and their items are created with one INSERT ... SELECT each, the dates shifted in
+     * the database, so the cost does not grow with the number of items or weeks generated.
+     */
+    private List<PlannerWeekDto> generateWeeks(UUID sourceWeekId, int cycleWeeks, LocalDate startDate, int weeks,
+                                               String operation) {
+        PlannerWeekWriteEvent event = new PlannerWeekWriteEvent();
+        event.begin();
+        if (startDate.getDayOfWeek().getValue() != 1) {
+            throw new IllegalArgumentException("Start date must be a Monday");
+        }
+        User currentUser = getCurrentUser();
+        PlannerWeek source = findAccessiblePlannerWeek(sourceWeekId, currentUser);
+        requirePatternWeeks(source, cycleWeeks, currentUser);
+
+        List<GeneratedWeek> created = plannerWeekRepository.insertRotationWeeks(source.getId(), startDate, weeks);
+        if (created.isEmpty()) {
+            commitWriteEvent(event, operation, source.getId(), 0);
+            return List.of();
+        }
+        List<UUID> createdIds = created.stream().map(GeneratedWeek::getId).toList();
+        int items = plannerItemRepository.insertRotationItems(source.getId(), startDate, cycleWeeks, createdIds,
+                currentUser.getId());
+        log.info("Generated {} planner week(s) with {} item(s) from week {} ({} skipped as existing)",
+                created.size(), items, source.getId(), weeks - created.size());
+
+        List<PlannerWeek> createdWeeks = plannerWeekRepository.findAllWithItemsByIdIn(createdIds);
+        createdWeeks.forEach(this::recordRevision);
+        commitWriteEvent(event, operation, source.getId(), items);
+        return createdWeeks.stream()
+                .map(plannerMapper::toDto)
+                .toList();
+    }
+
+    private void requirePatternWeeks(PlannerWeek source, int cycleWeeks, User currentUser) {
+        if (cycleWeeks == 1) {
+            return;
+        }
+        LocalDate lastStart = source.getStartDate().plusWeeks(cycleWeeks - 1L);
+        Set<LocalDate> patternStarts = plannerWeekRepository.findByUserOrHouseholdsAndDateRange(
+                        currentUser.getId(), householdIds(currentUser), source.getStartDate(), lastStart).stream()
+                .filter(week -> sameOwner(week, source))
+                .map(PlannerWeek::getStartDate)
+                .collect(Collectors.toSet());
+        for (int n = 1; n < cycleWeeks; n++) {
+            LocalDate start = source.getStartDate().plusWeeks(n);
+            if (!patternStarts.contains(start)) {
+                throw new IllegalArgumentException("Rotation week starting " + start + " does not exist");
+            }
+        }
+    }
+
+    /**
+     * Fills the open slots of a week with generated meals. The slots to plan come from the
+     * request or else the user's profile; a date and slot that already hold an item keep it.
+     * Templates the generator picks are copied into recipes first, then every new item is
+     * written with one INSERT.
+     * <p>
+     * Not transactional on purpose: the open slots and the planning space are read in one short
+     * transaction, the search runs for its whole time budget without holding a connection, and
+     * the result is written in a second transaction, only if the week is still at the version
+     * it was planned against.
+     */
+    public PlannerWeekDto generateWeek(UUID id, GeneratePlannerWeekRequest request) {
+        PlannerWeekWriteEvent event = new PlannerWeekWriteEvent();
+        event.begin();
+        int portions = request.getPortions();
+        Generation generation = transactionTemplate.execute(status -> {
+            User currentUser = getCurrentUser();
+            PlannerWeek plannerWeek = findAccessiblePlannerWeek(id, currentUser);
+            List<ItemPosition> open = openPositions(plannerWeek, slotsToPlan(request, currentUser));
+            RecipeSuggestionIndex.PlanningSpace space = mealPlanGenerator.planningSpace(currentUser,
+                    request.getDietaryTags(), request.isIncludeTemplates());
+            return new Generation(currentUser, plannerWeek.getVersion(), open, space);
+        });
+        List<ItemPosition> open = generation.open();
+
+        MealPlanGenerator.Plan plan = mealPlanGenerator.search(generation.space(), open.size(), portions);
+
+        GenerationResult written = transactionTemplate.execute(status -> {
+            User currentUser = generation.user();
+            PlannerWeek plannerWeek = findAccessiblePlannerWeek(id, currentUser);
+            if (!Objects.equals(plannerWeek.getVersion(), generation.version())) {
+                throw new ConflictException("Planner week changed while its meals were being generated, try again",
+                        plannerWeek.getVersion(), List.of());
+            }
+            // Claims the version checked above before anything is written; a concurrent edit
+            // now either waits for this transaction or fails its own version check
+            plannerWeek.markModified();
+            plannerWeekRepository.saveAndFlush(plannerWeek);
+
+            Set<UUID> templateIds = plan.meals().stream()
+                    .filter(meal -> meal != null && meal.source() == SuggestionSource.template)
+                    .map(RecipeSuggestionIndex.MealVector::id)
+                    .collect(Collectors.toSet());
+            Map<UUID, Recipe> copies = templateIds.isEmpty()
+                    ? Map.of()
+                    : recipeTemplateService.copyToRecipes(templateIds, currentUser);
+
+            List<GeneratedItem> items = new ArrayList<>(open.size());
+            for (int i = 0; i < open.size(); i++) {
+                RecipeSuggestionIndex.MealVector meal = plan.meals().get(i);
+                if (meal == null) {
+                    continue;
+                }
+                Recipe copy = copies.get(meal.id());
+                if (meal.source() == SuggestionSource.recipe || copy != null) {
+                    UUID recipeId = copy != null ? copy.getId() : meal.id();
+                    items.add(new GeneratedItem(open.get(i).date(), open.get(i).slot(), recipeId, portions));
+                }
+            }
+            if (!items.isEmpty()) {
+                plannerItemRepository.insertGeneratedItems(id, currentUser.getId(), writeItems(items));
+            }
+
+            // The insert cleared the persistence context, so the week is read again with its new items
+            PlannerWeek generated = plannerWeekRepository.findAllWithItemsByIdIn(List.of(id)).get(0);
+            recordRevision(generated);
+            log.info("Generated {} planner item(s) for {} open slot(s) in week {} ({} template(s) copied, score {})",
+                    items.size(), open.size(), id, copies.size(), plan.score());
+            return new GenerationResult(plannerMapper.toDto(generated), items.size());
+        });
+        domainMetrics.plannerWeekItems("generate", written.items());
+        commitWriteEvent(event, "generate", id, written.items());
+        return written.week();
+    }
+
+    private static List<ItemPosition> openPositions(PlannerWeek plannerWeek, List<MealSlot> slots) {
+        Set<ItemPosition> taken = plannerWeek.getItems().stream()
+                .map(item -> new ItemPosition(item.getDate(), item.getSlot()))
+                .collect(Collectors.toSet());
+        List<ItemPosition> open = new ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            LocalDate date = plannerWeek.getStartDate().plusDays(day);
+            for (MealSlot slot : slots) {
+                ItemPosition position = new ItemPosition(date, slot);
+                if (!taken.contains(position)) {
+                    open.add(position);
+                }
             }
         }
+        return open;
+    }
+
+    // What the search needs, read before it starts
+    private record Generation(User user, Long version, List<ItemPosition> open,
+                              RecipeSuggestionIndex.PlanningSpace space) {
+    }
 
-        PlannerWeek updatedWeek = plannerWeekRepository.save(plannerWeek);
-        log.info("Updated planner week with id: {}", updatedWeek.getId());
+    private record GenerationResult(PlannerWeekDto week, int items) {
+    }
+
+    private record ItemPosition(LocalDate date, MealSlot slot) {
+    }
+
+    // One element of the JSON array insertGeneratedItems reads
+    record GeneratedItem(LocalDate date, MealSlot slot, UUID recipeId, int portions) {
+    }
+
+    private List<MealSlot> slotsToPlan(GeneratePlannerWeekRequest request, User currentUser) {
+        List<MealSlot> slots = request.getSlots();
+        if (slots == null || slots.isEmpty()) {
+            slots = profileRepository.findById(currentUser.getId())
+                    .map(Profile::getMealSlots)
+                    .orElse(List.of());
+        }
+        if (slots.isEmpty()) {
+            return List.of(MealSlot.dinner);
+        }
+        // Days are filled in slot order, whatever order they were given in
+        return slots.stream().distinct().sorted().toList();
+    }
 
-        return plannerMapper.toDto(updatedWeek);
+    private String writeItems(List<GeneratedItem> items) {
+        try {
+            return objectMapper.writeValueAsString(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize generated planner items", e);
+        }
     }
 
     @Transactional
@@ -157,23 +618,147 @@ public class PlannerService {
         log.info("Deleted planner week with id: {}", id);
     }
 
-    private PlannerItem createPlannerItem(CreatePlannerItemRequest request, User currentUser, PlannerWeek plannerWeek) {
-        PlannerItem item = PlannerItem.builder()
+    private PlannerItem createPlannerItem(CreatePlannerItemRequest request, User currentUser, PlannerWeek plannerWeek,
+                                          Map<UUID, Recipe> recipes) {
+        return PlannerItem.builder()
                 .date(request.getDate())
                 .slot(request.getSlot())
+                .recipe(request.getRecipeId() != null ? recipes.get(request.getRecipeId()) : null)
                 .portions(request.getPortions())
                 .addedByUser(currentUser)
                 .plannerWeek(plannerWeek)
                 .build();
+    }
 
-        // Set recipe if provided
-        if (request.getRecipeId() != null) {
-            Recipe recipe = recipeRepository.findById(request.getRecipeId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Recipe not found with id: " + request.getRecipeId()));
-            item.setRecipe(recipe);
+    /**
+     * Loads every recipe referenced by the given items with one IN query and fails if any
+     * of them does not exist.
+     */
+    private Map<UUID, Recipe> loadRecipes(List<CreatePlannerItemRequest> items) {
+        Set<UUID> recipeIds = items.stream()
+                .map(CreatePlannerItemRequest::getRecipeId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (recipeIds.isEmpty()) {
+            return Map.of();
         }
 
-        return item;
+        Map<UUID, Recipe> recipes = recipeRepository.findAllById(recipeIds).stream()
+                .collect(Collectors.toMap(Recipe::getId, Function.identity()));
+        for (UUID recipeId : recipeIds) {
+            if (!recipes.containsKey(recipeId)) {
+                throw new ResourceNotFoundException("Recipe not found with id: " + recipeId);
+            }
+        }
+        return recipes;
+    }
+
+    private static void match(List<CreatePlannerItemRequest> unmatchedRequests, List<PlannerItem> unmatchedItems,
+                              Map<CreatePlannerItemRequest, PlannerItem> matches,
+                              BiPredicate<CreatePlannerItemRequest, PlannerItem> sameItem) {
+        for (Iterator<CreatePlannerItemRequest> requests = unmatchedRequests.iterator(); requests.hasNext(); ) {
+            CreatePlannerItemRequest itemRequest = requests.next();
+            for (Iterator<PlannerItem> items = unmatchedItems.iterator(); items.hasNext(); ) {
+                PlannerItem item = items.next();
+                if (sameItem.test(itemRequest, item)) {
+                    matches.put(itemRequest, item);
+                    requests.remove();
+                    items.remove();
+                    break;
+                }
+            }
+        }
+    }
+
+    private static boolean applyChanges(PlannerItem item, ItemState state, Map<UUID, Recipe> recipes) {
+        boolean changed = false;
+        if (!state.date().equals(item.getDate())) {
+            item.setDate(state.date());
+            changed = true;
+        }
+        if (state.slot() != item.getSlot()) {
+            item.setSlot(state.slot());
+            changed = true;
+        }
+        if (!Objects.equals(state.recipeId(), recipeIdOf(item))) {
+            item.setRecipe(state.recipeId() != null ? recipes.get(state.recipeId()) : null);
+            changed = true;
+        }
+        if (!state.portions().equals(item.getPortions())) {
+            item.setPortions(state.portions());
+            changed = true;
+        }
+        return changed;
+    }
+
+    private static Map<UUID, ItemState> itemStates(PlannerWeek plannerWeek) {
+        Map<UUID, ItemState> states = new LinkedHashMap<>();
+        for (PlannerItem item : plannerWeek.getItems()) {
+            states.put(item.getId(), ItemState.of(item));
+        }
+        return states;
+    }
+
+    /**
+     * Bumps the week version (item changes alone do not) and stores the resulting revision.
+     */
+    private void touch(PlannerWeek plannerWeek) {
+        plannerWeek.markModified();
+        plannerWeekRepository.saveAndFlush(plannerWeek);
+        recordRevision(plannerWeek);
+    }
+
+    private void recordRevision(PlannerWeek plannerWeek) {
+        revisionStore.record(RevisionStore.PLANNER_WEEK, plannerWeek.getId(), plannerWeek.getVersion(),
+                itemStates(plannerWeek));
+    }
+
+    private static UUID recipeIdOf(PlannerItem item) {
+        // Reading the id does not initialize the lazy recipe proxy
+        return item.getRecipe() != null ? item.getRecipe().getId() : null;
+    }
+
+    private static void requireDateInWeek(PlannerWeek plannerWeek, LocalDate date) {
+        LocalDate start = plannerWeek.getStartDate();
+        if (date.isBefore(start) || date.isAfter(start.plusDays(6))) {
+            throw new IllegalArgumentException("Date " + date + " is outside the planner week starting " + start);
+        }
+    }
+
+    private PlannerWeek findAccessiblePlannerWeek(UUID id, User currentUser) {
+        PlannerWeek plannerWeek = plannerWeekRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Planner week not found with id: " + id));
+        if (!hasAccessToPlannerWeek(plannerWeek, currentUser)) {
+            throw new UnauthorizedException("You don't have access to this planner week");
+        }
+        return plannerWeek;
+    }
+
+    private PlannerItem findPlannerItem(UUID weekId, UUID itemId) {
+        return plannerItemRepository.findByIdAndPlannerWeekId(itemId, weekId)
+                .orElseThrow(() -> new ResourceNotFoundException("Planner item not found with id: " + itemId));
+    }
+
+    private void commitWriteEvent(PlannerWeekWriteEvent event, String operation, UUID planWeekId, int items) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.planWeekId = String.valueOf(planWeekId);
+            event.items = items;
+            event.commit();
+        }
+    }
+
+    private static List<UUID> householdIds(User user) {
+        return user.getHousehold() != null ? List.of(user.getHousehold().getId()) : List.of();
+    }
+
+    private static boolean sameOwner(PlannerWeek week, PlannerWeek other) {
+        if (week.getUser() != null) {
+            return other.getUser() != null && week.getUser().getId().equals(other.getUser().getId());
+        }
+        return week.getHousehold() != null && other.getHousehold() != null
+                && week.getHousehold().getId().equals(other.getHousehold().getId());
     }
 
     private boolean hasAccessToPlannerWeek(PlannerWeek plannerWeek, User user) {
@@ -1,11 +1,21 @@
 package com.mealmap.service;
 
+import com.mealmap.mapper.RecipeMapper;
 import com.mealmap.model.dto.recipe.*;
+import com.mealmap.model.embedded.Quantity;
 import com.mealmap.model.entity.Recipe;
+import com.mealmap.model.entity.RecipeIngredientTotal;
 import com.mealmap.model.entity.RecipeItem;
 import com.mealmap.model.entity.User;
+import com.mealmap.observability.DomainMetrics;
+import com.mealmap.repository.IngredientRepository;
+import com.mealmap.repository.PantryItemRepository;
+import com.mealmap.repository.RecipeIngredientTotalRepository;
 import com.mealmap.repository.RecipeRepository;
 import com.mealmap.repository.UserRepository;
+import com.mealmap.repository.projection.PantryStock;
+import com.mealmap.repository.projection.RecipeItemRow;
+import com.mealmap.repository.projection.RecipeSummary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -17,23 +27,42 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class RecipeService {
 
     private final RecipeRepository recipeRepository;
+    private final RecipeIngredientTotalRepository recipeIngredientTotalRepository;
+    private final IngredientRepository ingredientRepository;
     private final UserRepository userRepository;
+    private final PantryItemRepository pantryItemRepository;
+    private final RecipeSuggestionIndex suggestionIndex;
+    private final RecipeSimilarityIndex similarityIndex;
+    private final RecipeMapper recipeMapper;
+    private final DomainMetrics domainMetrics;
+
+    private static final UUID SYSTEM_TEMPLATE_USER_ID = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
 
     @Transactional(readOnly = true)
     public RecipePageResponse getRecipes(Integer limit, String cursor, String query) {
         User currentUser = getCurrentUser();
         Pageable pageable = PageRequest.of(0, limit != null ? limit : 20);
 
-        Page<Recipe> page;
+        Page<RecipeSummary> page;
         if (query != null && !query.isBlank()) {
             page = recipeRepository.findByOwnerUserIdAndNameContainingIgnoreCase(
                 currentUser.getId(), query, pageable);
@@ -41,8 +70,17 @@ public class RecipeService {
             page = recipeRepository.findByOwnerUserId(currentUser.getId(), pageable);
         }
 
+        Map<UUID, List<RecipeItemDto>> itemsByRecipe = new HashMap<>();
+        if (page.hasContent()) {
+            List<UUID> recipeIds = page.getContent().stream().map(RecipeSummary::getId).toList();
+            for (RecipeItemRow row : recipeRepository.findItemRowsByRecipeIdIn(recipeIds)) {
+                itemsByRecipe.computeIfAbsent(row.getRecipeId(), id -> new ArrayList<>())
+                        .add(recipeMapper.toItemDto(row));
+            }
+        }
+
         List<RecipeDto> data = page.getContent().stream()
-                .map(this::mapToDto)
+                .map(recipe -> recipeMapper.toDto(recipe, itemsByRecipe.getOrDefault(recipe.getId(), List.of())))
                 .toList();
 
         String nextCursor = page.hasNext() ?
@@ -64,12 +102,13 @@ public class RecipeService {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not authorized to access this recipe");
         }
 
-        return mapToDto(recipe);
+        return recipeMapper.toDto(recipe);
     }
 
     @Transactional
     public RecipeDto createRecipe(CreateRecipeRequest request) {
         User currentUser = getCurrentUser();
+        requireIngredients(request.getItems(), currentUser);
 
         Recipe recipe = Recipe.builder()
                 .ownerUserId(currentUser.getId())
@@ -81,17 +120,22 @@ public class RecipeService {
         // Create recipe items
         Recipe finalRecipe = recipe;
         List<RecipeItem> items = request.getItems().stream()
-                .map(itemDto -> RecipeItem.builder()
-                        .recipe(finalRecipe)
-                        .ingredientId(itemDto.getIngredientId())
-                        .quantity(itemDto.getQuantity())
-                        .packageNote(itemDto.getPackageNote())
-                        .build())
+                .map(itemDto -> newItem(finalRecipe, itemDto))
                 .toList();
 
         recipe.setItems(items);
         Recipe savedRecipe = recipeRepository.save(recipe);
-        return mapToDto(savedRecipe);
+        recipeIngredientTotalRepository.refresh(savedRecipe.getId());
+        index(savedRecipe);
+        domainMetrics.recipeItems("create", items.size());
+
+        RecipeDto dto = recipeMapper.toDto(savedRecipe);
+        List<UUID> ingredientIds = items.stream().map(RecipeItem::getIngredientId).toList();
+        dto.setPossibleDuplicates(similarityIndex.possibleDuplicates(currentUser.getId(), ingredientIds, savedRecipe.getId())
+                .stream()
+                .map(recipeMapper::toSimilarDto)
+                .toList());
+        return dto;
     }
 
     @Transactional
@@ -113,23 +157,107 @@ public class RecipeService {
         if (request.getNotes() != null) {
             recipe.setNotes(request.getNotes());
         }
+        boolean itemsChanged = false;
         if (request.getItems() != null) {
-            // Clear existing items and add new ones
-            recipe.getItems().clear();
-            Recipe finalRecipe = recipe;
-            List<RecipeItem> newItems = request.getItems().stream()
-                    .map(itemDto -> RecipeItem.builder()
-                            .recipe(finalRecipe)
-                            .ingredientId(itemDto.getIngredientId())
-                            .quantity(itemDto.getQuantity())
-                            .packageNote(itemDto.getPackageNote())
-                            .build())
-                    .toList();
-            recipe.getItems().addAll(newItems);
+            requireIngredients(request.getItems(), currentUser);
+            itemsChanged = replaceItems(recipe, request.getItems());
+            domainMetrics.recipeItems("update", request.getItems().size());
         }
 
         Recipe savedRecipe = recipeRepository.save(recipe);
-        return mapToDto(savedRecipe);
+        if (itemsChanged) {
+            recipeIngredientTotalRepository.refresh(savedRecipe.getId());
+        }
+        index(savedRecipe);
+        return recipeMapper.toDto(savedRecipe);
+    }
+
+    /**
+     * Brings the items of a recipe in line with the requested ones while keeping the rows
+     * that are already right. Requested items are matched to existing ones that are identical,
+     * then to remaining ones with the same ingredient (updated in place); existing items left
+     * over are deleted and requested ones left over are inserted. Returns whether anything changed.
+     */
+    private boolean replaceItems(Recipe recipe, List<RecipeItemDto> requested) {
+        List<RecipeItem> unmatchedItems = new ArrayList<>(recipe.getItems());
+        List<RecipeItemDto> unmatchedRequests = new ArrayList<>(requested);
+
+        match(unmatchedRequests, unmatchedItems, (itemDto, item) ->
+                Objects.equals(itemDto.getIngredientId(), item.getIngredientId())
+                        && sameQuantity(itemDto.getQuantity(), item.getQuantity())
+                        && Objects.equals(itemDto.getPackageNote(), item.getPackageNote()));
+        Map<RecipeItemDto, RecipeItem> changed = match(unmatchedRequests, unmatchedItems, (itemDto, item) ->
+                Objects.equals(itemDto.getIngredientId(), item.getIngredientId()));
+        changed.forEach((itemDto, item) -> {
+            item.setQuantity(itemDto.getQuantity());
+            item.setPackageNote(itemDto.getPackageNote());
+        });
+
+        recipe.getItems().removeAll(unmatchedItems);
+        unmatchedRequests.forEach(itemDto -> recipe.getItems().add(newItem(recipe, itemDto)));
+        return !changed.isEmpty() || !unmatchedItems.isEmpty() || !unmatchedRequests.isEmpty();
+    }
+
+    /**
+     * Pairs off requests and items accepted by {@code sameItem}, removing both from their lists.
+     */
+    private static Map<RecipeItemDto, RecipeItem> match(List<RecipeItemDto> unmatchedRequests,
+                                                        List<RecipeItem> unmatchedItems,
+                                                        BiPredicate<RecipeItemDto, RecipeItem> sameItem) {
+        Map<RecipeItemDto, RecipeItem> matches = new IdentityHashMap<>();
+        for (Iterator<RecipeItemDto> requests = unmatchedRequests.iterator(); requests.hasNext(); ) {
+            RecipeItemDto itemDto = requests.next();
+            for (Iterator<RecipeItem> items = unmatchedItems.iterator(); items.hasNext(); ) {
+                RecipeItem item = items.next();
+                if (sameItem.test(itemDto, item)) {
+                    matches.put(itemDto, item);
+                    requests.remove();
+                    items.remove();
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static boolean sameQuantity(Quantity requested, Quantity current) {
+        if (requested == null || current == null) {
+            return requested == current;
+        }
+        // 0.5 and 0.50 are the same amount
+        return requested.getUnit() == current.getUnit()
+                && (requested.getAmount() == null
+                        ? current.getAmount() == null
+                        : current.getAmount() != null && requested.getAmount().compareTo(current.getAmount()) == 0);
+    }
+
+    private static RecipeItem newItem(Recipe recipe, RecipeItemDto itemDto) {
+        return RecipeItem.builder()
+                .recipe(recipe)
+                .ingredientId(itemDto.getIngredientId())
+                .quantity(itemDto.getQuantity())
+                .packageNote(itemDto.getPackageNote())
+                .build();
+    }
+
+    /**
+     * Checks with one IN query that every referenced ingredient exists and is visible to the
+     * user (their own or a shared template ingredient), instead of failing later on the foreign key.
+     */
+    private void requireIngredients(List<RecipeItemDto> items, User currentUser) {
+        Set<UUID> ingredientIds = items.stream()
+                .map(RecipeItemDto::getIngredientId)
+                .collect(Collectors.toSet());
+        if (ingredientIds.isEmpty()) {
+            return;
+        }
+
+        Set<UUID> missing = new HashSet<>(ingredientIds);
+        missing.removeAll(ingredientRepository.findVisibleIds(ingredientIds,
+                List.of(currentUser.getId(), SYSTEM_TEMPLATE_USER_ID)));
+        if (!missing.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ingredient not found: " + missing);
+        }
     }
 
     @Transactional
@@ -143,28 +271,53 @@ public class RecipeService {
         }
 
         recipeRepository.delete(recipe);
+        suggestionIndex.removeRecipe(id);
+        similarityIndex.removeRecipe(id);
     }
 
-    private RecipeDto mapToDto(Recipe recipe) {
-        List<RecipeItemDto> items = recipe.getItems().stream()
-                .map(item -> RecipeItemDto.builder()
-                        .ingredientId(item.getIngredientId())
-                        .quantity(item.getQuantity())
-                        .packageNote(item.getPackageNote())
-                        .build())
+    /**
+     * Recipes and global templates to cook from the user's and their household's pantry,
+     * scored by the suggestion index against stock summed per base unit in one query.
+     */
+    @Transactional(readOnly = true)
+    public List<RecipeSuggestionDto> getSuggestions(Integer limit) {
+        User currentUser = getCurrentUser();
+        UUID householdId = currentUser.getHousehold() != null ? currentUser.getHousehold().getId() : null;
+        List<PantryStock> pantry = pantryItemRepository.aggregateStock(currentUser.getId(), householdId);
+        return suggestionIndex.suggest(currentUser.getId(), pantry, limit != null ? limit : 10).stream()
+                .map(recipeMapper::toSuggestionDto)
                 .toList();
+    }
 
-        return RecipeDto.builder()
-                .id(recipe.getId())
-                .name(recipe.getName())
-                .externalUrl(recipe.getExternalUrl())
-            .notes(recipe.getNotes())
-                .items(items)
-                .createdAt(recipe.getCreatedAt())
-                .updatedAt(recipe.getUpdatedAt())
-                .build();
+    /**
+     * The user's other recipes sharing most of this one's ingredients, found through the
+     * similarity index rather than by comparing against each of them.
+     */
+    @Transactional(readOnly = true)
+    public List<SimilarRecipeDto> getSimilarRecipes(UUID id, Integer limit) {
+        User currentUser = getCurrentUser();
+        Recipe recipe = recipeRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Recipe not found"));
+
+        if (!recipe.getOwnerUserId().equals(currentUser.getId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not authorized to access this recipe");
+        }
+
+        List<UUID> ingredientIds = recipe.getItems().stream().map(RecipeItem::getIngredientId).toList();
+        return similarityIndex.similar(currentUser.getId(), ingredientIds, id, RecipeSimilarityIndex.SIMILAR,
+                        limit != null ? limit : 10).stream()
+                .map(recipeMapper::toSimilarDto)
+                .toList();
     }
 
+    // The totals were just refreshed in this transaction; renames need the indexes too
+    private void index(Recipe recipe) {
+        List<RecipeIngredientTotal> totals = recipeIngredientTotalRepository.findByRecipeIdIn(List.of(recipe.getId()));
+        suggestionIndex.putRecipe(recipe, totals);
+        similarityIndex.putRecipe(recipe, totals);
+    }
+
+
     private User getCurrentUser() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String email;
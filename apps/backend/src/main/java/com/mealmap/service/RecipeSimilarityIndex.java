@@ -0,0 +1,261 @@
+package com.mealmap.service;
+
+import com.mealmap.model.entity.Recipe;
+import com.mealmap.model.entity.RecipeIngredientTotal;
+import com.mealmap.repository.projection.SuggestionRequirementRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Recipe Similarity Index
+ *
+ * Finds a user's recipes whose ingredients overlap a given set, measured as Jaccard similarity
+ * (ingredients in both over ingredients in either), without comparing against each recipe.
+ * Every recipe keeps a MinHash signature of its ingredient set, the minimum of each of
+ * {@value #SIGNATURE_LENGTH} hash functions over its ingredients; any one entry agrees between
+ * two sets with a probability equal to their similarity. Signatures are cut into
+ * {@value #BANDS} bands of {@value #ROWS} entries and a recipe is bucketed under each band
+ * (locality-sensitive hashing), so a query only looks at the recipes sharing a bucket with it:
+ * sets half alike meet in some bucket about two times in three, sets 0.8 alike practically
+ * always. The similarity of those candidates is then computed exactly from their sets.
+ *
+ * Recipe writes made on this node are applied once their transaction commits. The periodic
+ * rebuild of the {@link RecipeSuggestionIndex} rebuilds this index too, picking up writes from
+ * other nodes.
+ */
+@Service
+@Slf4j
+public class RecipeSimilarityIndex {
+
+    static final int SIGNATURE_LENGTH = 64;
+    static final int ROWS = 4;
+    static final int BANDS = SIGNATURE_LENGTH / ROWS;
+
+    // Bands of four rows find recipes less alike than SIMILAR only now and then
+    public static final double SIMILAR = 0.5;
+    public static final double POSSIBLE_DUPLICATE = 0.8;
+    private static final int MAX_POSSIBLE_DUPLICATES = 5;
+
+    // Fixed seeds so signatures do not depend on the node or the restart
+    private static final long[] SEEDS = new SplittableRandom(0x5EED_CAFEL).longs(SIGNATURE_LENGTH).toArray();
+
+    // Most similar first, then by name
+    static final Comparator<Match> RANKING = Comparator
+            .comparingDouble(Match::similarity).reversed()
+            .thenComparing(Match::name, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Match::id);
+
+    private final IndexState<Catalog> state = new IndexState<>(new Catalog());
+
+    /**
+     * A recipe of the user and its exact Jaccard similarity to the queried ingredients.
+     */
+    public record Match(UUID id, String name, double similarity) {
+    }
+
+    /**
+     * A rebuild from rows read by the {@link RecipeSuggestionIndex} rebuild. Writes made after it
+     * starts are replayed onto the rebuilt index, so start it before the rows are read.
+     */
+    final class Rebuild implements AutoCloseable {
+
+        private final IndexState<Catalog>.Rebuild rebuild = state.startRebuild();
+
+        /**
+         * Replaces the index with the recipes of the given rows, one row per ingredient and base
+         * unit with the rows of a recipe adjacent.
+         */
+        void complete(List<SuggestionRequirementRow> recipeRows) {
+            Catalog rebuilt = new Catalog();
+            SuggestionRequirementRow first = null;
+            Set<UUID> ingredientIds = new HashSet<>();
+            for (SuggestionRequirementRow row : recipeRows) {
+                if (first != null && !first.getCandidateId().equals(row.getCandidateId())) {
+                    rebuilt.put(first.getCandidateId(), first.getName(), first.getOwnerUserId(), ingredientIds);
+                    ingredientIds = new HashSet<>();
+                }
+                if (ingredientIds.isEmpty()) {
+                    first = row;
+                }
+                ingredientIds.add(row.getIngredientId());
+            }
+            if (first != null) {
+                rebuilt.put(first.getCandidateId(), first.getName(), first.getOwnerUserId(), ingredientIds);
+            }
+
+            rebuild.complete(rebuilt);
+            log.debug("Indexed ingredient signatures of {} recipe(s)", rebuilt.recipes.size());
+        }
+
+        @Override
+        public void close() {
+            rebuild.close();
+        }
+    }
+
+    Rebuild startRebuild() {
+        return new Rebuild();
+    }
+
+    /**
+     * Indexes a created or updated recipe from its freshly refreshed totals once the current
+     * transaction commits.
+     */
+    public void putRecipe(Recipe recipe, List<RecipeIngredientTotal> totals) {
+        UUID id = recipe.getId();
+        String name = recipe.getName();
+        UUID ownerUserId = recipe.getOwnerUserId();
+        Set<UUID> ingredientIds = new HashSet<>();
+        totals.forEach(total -> ingredientIds.add(total.getIngredientId()));
+        state.writeAfterCommit(current -> current.put(id, name, ownerUserId, ingredientIds));
+    }
+
+    public void removeRecipe(UUID recipeId) {
+        state.writeAfterCommit(current -> current.remove(recipeId));
+    }
+
+    /**
+     * The user's recipes, other than {@code excludeId}, that are at least {@code minSimilarity}
+     * alike to the ingredient set, most similar first and at most {@code limit} of them.
+     */
+    public List<Match> similar(UUID userId, Collection<UUID> ingredientIds, UUID excludeId,
+                               double minSimilarity, int limit) {
+        Set<UUID> query = new HashSet<>(ingredientIds);
+        return state.read(current -> current.similar(userId, query, excludeId, minSimilarity, limit));
+    }
+
+    /**
+     * Recipes of the user so alike to the ingredient set that one is likely a copy of the other.
+     */
+    public List<Match> possibleDuplicates(UUID userId, Collection<UUID> ingredientIds, UUID excludeId) {
+        return similar(userId, ingredientIds, excludeId, POSSIBLE_DUPLICATE, MAX_POSSIBLE_DUPLICATES);
+    }
+
+    static long[] signature(Collection<UUID> ingredientIds) {
+        long[] signature = new long[SIGNATURE_LENGTH];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (UUID ingredientId : ingredientIds) {
+            long base = mix(ingredientId.getMostSignificantBits()) ^ ingredientId.getLeastSignificantBits();
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                signature[i] = Math.min(signature[i], mix(base ^ SEEDS[i]));
+            }
+        }
+        return signature;
+    }
+
+    // One key per band; recipes whose signatures agree on all rows of a band share its bucket
+    static long[] bandKeys(long[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long key = band;
+            for (int row = 0; row < ROWS; row++) {
+                key = mix(key + signature[band * ROWS + row]);
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    // SplitMix64 finalizer: spreads every input bit over the whole output
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    static double jaccard(Set<UUID> a, Set<UUID> b) {
+        Set<UUID> smaller = a.size() <= b.size() ? a : b;
+        Set<UUID> larger = smaller == a ? b : a;
+        int shared = 0;
+        for (UUID id : smaller) {
+            if (larger.contains(id)) {
+                shared++;
+            }
+        }
+        int union = a.size() + b.size() - shared;
+        return union == 0 ? 0 : (double) shared / union;
+    }
+
+    /**
+     * Mutable index state, guarded by the {@link IndexState} lock. Buckets are kept per owner, so a query never
+     * meets the recipes of other users.
+     */
+    static final class Catalog {
+
+        private final Map<UUID, Entry> recipes = new HashMap<>();
+        private final Map<Bucket, List<UUID>> buckets = new HashMap<>();
+
+        private record Entry(UUID ownerUserId, String name, Set<UUID> ingredientIds, long[] bandKeys) {
+        }
+
+        private record Bucket(UUID ownerUserId, int band, long key) {
+        }
+
+        void put(UUID id, String name, UUID ownerUserId, Set<UUID> ingredientIds) {
+            remove(id);
+            // Without ingredients there is nothing to be alike in
+            if (ownerUserId == null || ingredientIds.isEmpty()) {
+                return;
+            }
+            long[] bandKeys = bandKeys(signature(ingredientIds));
+            recipes.put(id, new Entry(ownerUserId, name, ingredientIds, bandKeys));
+            for (int band = 0; band < BANDS; band++) {
+                buckets.computeIfAbsent(new Bucket(ownerUserId, band, bandKeys[band]), bucket -> new ArrayList<>(1))
+                        .add(id);
+            }
+        }
+
+        void remove(UUID id) {
+            Entry entry = recipes.remove(id);
+            if (entry == null) {
+                return;
+            }
+            for (int band = 0; band < BANDS; band++) {
+                Bucket bucket = new Bucket(entry.ownerUserId(), band, entry.bandKeys()[band]);
+                List<UUID> ids = buckets.get(bucket);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        buckets.remove(bucket);
+                    }
+                }
+            }
+        }
+
+        List<Match> similar(UUID userId, Set<UUID> ingredientIds, UUID excludeId, double minSimilarity, int limit) {
+            if (ingredientIds.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+            long[] bandKeys = bandKeys(signature(ingredientIds));
+            Set<UUID> candidates = new LinkedHashSet<>();
+            for (int band = 0; band < BANDS; band++) {
+                candidates.addAll(buckets.getOrDefault(new Bucket(userId, band, bandKeys[band]), List.of()));
+            }
+            candidates.remove(excludeId);
+
+            List<Match> matches = new ArrayList<>();
+            for (UUID candidate : candidates) {
+                Entry entry = recipes.get(candidate);
+                double similarity = jaccard(ingredientIds, entry.ingredientIds());
+                if (similarity >= minSimilarity) {
+                    matches.add(new Match(candidate, entry.name(), similarity));
+                }
+            }
+            matches.sort(RANKING);
+            return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+        }
+    }
+}
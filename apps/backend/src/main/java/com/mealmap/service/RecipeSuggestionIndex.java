@@ -0,0 +1,374 @@
+package com.mealmap.service;
+
+import com.mealmap.model.entity.Recipe;
+import com.mealmap.model.entity.RecipeIngredientTotal;
+import com.mealmap.model.enums.SuggestionSource;
+import com.mealmap.model.enums.Unit;
+import com.mealmap.repository.RecipeIngredientTotalRepository;
+import com.mealmap.repository.RecipeTemplateRepository;
+import com.mealmap.repository.projection.PantryStock;
+import com.mealmap.repository.projection.SuggestionRequirementRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Recipe Suggestion Index
+ *
+ * "What can I cook with what I have": every user recipe and global template is held as a bitset
+ * of its ingredients plus the amounts it needs in base units, next to an inverted index from
+ * each ingredient to the candidates using it. A query ORs the inverted bitsets of the pantry's
+ * ingredients to find the candidates worth scoring, so its cost follows what the pantry reaches
+ * rather than the size of the catalog, and no recipe or pantry entity is loaded.
+ *
+ * Recipe writes made on this node are applied once their transaction commits. The periodic
+ * rebuild picks up template changes and writes from other nodes, and rebuilds the
+ * {@link RecipeSimilarityIndex} from the same recipe rows.
+ */
+@Service
+@Slf4j
+public class RecipeSuggestionIndex {
+
+    // Best first: most of the recipe covered, then most ingredients on hand, then the shorter recipe
+    static final Comparator<Suggestion> RANKING = Comparator
+            .comparingDouble(Suggestion::coverage).reversed()
+            .thenComparing(Comparator.comparingInt(Suggestion::matchedIngredients).reversed())
+            .thenComparingInt(Suggestion::totalIngredients)
+            .thenComparing(Suggestion::name, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Suggestion::id);
+
+    private final RecipeIngredientTotalRepository totalRepository;
+    private final RecipeTemplateRepository templateRepository;
+    private final RecipeSimilarityIndex similarityIndex;
+    private final IndexState<Catalog> state = new IndexState<>(new Catalog());
+
+    public RecipeSuggestionIndex(RecipeIngredientTotalRepository totalRepository,
+                                 RecipeTemplateRepository templateRepository,
+                                 RecipeSimilarityIndex similarityIndex) {
+        this.totalRepository = totalRepository;
+        this.templateRepository = templateRepository;
+        this.similarityIndex = similarityIndex;
+    }
+
+    /**
+     * One scored recipe or template.
+     *
+     * @param coverage                  mean over its ingredient lines of the share of the needed
+     *                                  amount the pantry holds in the same base unit, each capped at 1
+     * @param missingIngredientIds      ingredients the pantry does not hold at all
+     * @param insufficientIngredientIds ingredients the pantry holds, but not enough of in the needed unit
+     */
+    public record Suggestion(UUID id, SuggestionSource source, String name, double coverage,
+                             int matchedIngredients, int totalIngredients,
+                             List<UUID> missingIngredientIds, List<UUID> insufficientIngredientIds) {
+    }
+
+    /**
+     * A recipe or template as dense requirement keys (ingredient position x base unit) with the
+     * amount needed under each, for callers that add and remove whole meals many times over.
+     */
+    public record MealVector(UUID id, SuggestionSource source, String name, int[] keys, double[] amounts) {
+    }
+
+    /**
+     * Meals and pantry stock over one key space; {@code stock[key]} is the amount on hand.
+     */
+    public record PlanningSpace(List<MealVector> meals, double[] stock) {
+    }
+
+    /**
+     * An ingredient a candidate needs, in one base unit.
+     */
+    record Line(UUID ingredientId, Unit baseUnit, double amount) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${app.recipes.suggestion-index-refresh:PT5M}",
+            fixedDelayString = "${app.recipes.suggestion-index-refresh:PT5M}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        // Both rebuilds start before the rows are read, so neither loses a write made meanwhile
+        try (IndexState<Catalog>.Rebuild rebuild = state.startRebuild();
+             RecipeSimilarityIndex.Rebuild similarityRebuild = similarityIndex.startRebuild()) {
+            // One scan of the recipe totals feeds the similarity index too
+            List<SuggestionRequirementRow> recipeRows = totalRepository.findAllSuggestionRows();
+            Catalog rebuilt = new Catalog();
+            load(rebuilt, SuggestionSource.recipe, recipeRows);
+            load(rebuilt, SuggestionSource.template, templateRepository.findGlobalSuggestionRows());
+
+            rebuild.complete(rebuilt);
+            log.debug("Indexed ingredients of {} recipe(s) and template(s)", rebuilt.ordinals.size());
+            similarityRebuild.complete(recipeRows);
+        }
+    }
+
+    /**
+     * Indexes a created or updated recipe from its freshly refreshed totals once the current
+     * transaction commits.
+     */
+    public void putRecipe(Recipe recipe, List<RecipeIngredientTotal> totals) {
+        UUID id = recipe.getId();
+        String name = recipe.getName();
+        UUID ownerUserId = recipe.getOwnerUserId();
+        List<Line> lines = totals.stream()
+                .map(total -> new Line(total.getIngredientId(), Unit.valueOf(total.getBaseUnit()), amount(total.getAmount())))
+                .toList();
+        state.writeAfterCommit(current -> current.put(id, SuggestionSource.recipe, name, ownerUserId, lines));
+    }
+
+    public void removeRecipe(UUID recipeId) {
+        state.writeAfterCommit(current -> current.remove(recipeId));
+    }
+
+    /**
+     * The user's own recipes and the global templates that share at least one ingredient with
+     * the pantry, best {@link #RANKING ranked} first, at most {@code limit} of them.
+     */
+    public List<Suggestion> suggest(UUID userId, Collection<? extends PantryStock> pantry, int limit) {
+        return state.read(current -> current.suggest(userId, pantry, limit));
+    }
+
+    /**
+     * The user's recipes (when {@code includeRecipes}) and those of {@code templateIds} that are
+     * indexed global templates, each with at least one ingredient, as vectors next to the pantry.
+     */
+    public PlanningSpace planningSpace(UUID userId, boolean includeRecipes, Collection<UUID> templateIds,
+                                       Collection<? extends PantryStock> pantry) {
+        return state.read(current -> current.planningSpace(userId, includeRecipes, templateIds, pantry));
+    }
+
+    private static void load(Catalog catalog, SuggestionSource source, List<SuggestionRequirementRow> rows) {
+        SuggestionRequirementRow first = null;
+        List<Line> lines = new ArrayList<>();
+        for (SuggestionRequirementRow row : rows) {
+            if (first != null && !first.getCandidateId().equals(row.getCandidateId())) {
+                catalog.put(first.getCandidateId(), source, first.getName(), first.getOwnerUserId(), lines);
+                lines = new ArrayList<>();
+            }
+            if (lines.isEmpty()) {
+                first = row;
+            }
+            lines.add(new Line(row.getIngredientId(), Unit.valueOf(row.getBaseUnit()), amount(row.getAmount())));
+        }
+        if (first != null) {
+            catalog.put(first.getCandidateId(), source, first.getName(), first.getOwnerUserId(), lines);
+        }
+    }
+
+    // A line without an amount only asks for the ingredient to be on hand
+    private static double amount(BigDecimal amount) {
+        return amount != null ? amount.doubleValue() : 0;
+    }
+
+    /**
+     * Mutable index state, guarded by the {@link IndexState} lock. Candidate and ingredient positions are assigned
+     * in the order they are first seen and are never reused before the next rebuild.
+     */
+    static final class Catalog {
+
+        private final List<Candidate> candidates = new ArrayList<>();
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        private final List<UUID> ingredientIds = new ArrayList<>();
+        private final Map<UUID, Integer> ingredientOrdinals = new HashMap<>();
+        private final List<BitSet> byIngredient = new ArrayList<>();
+        private final BitSet global = new BitSet();
+        private final Map<UUID, BitSet> byOwner = new HashMap<>();
+
+        /**
+         * Lines are held in parallel arrays so scoring walks primitives, not objects.
+         */
+        private record Candidate(UUID id, SuggestionSource source, String name, BitSet ingredients,
+                                 int[] lineIngredients, Unit[] lineUnits, double[] lineAmounts) {
+        }
+
+        void put(UUID id, SuggestionSource source, String name, UUID ownerUserId, List<Line> lines) {
+            Integer existing = ordinals.get(id);
+            int ordinal;
+            if (existing == null) {
+                ordinal = candidates.size();
+                candidates.add(null);
+                ordinals.put(id, ordinal);
+            } else {
+                ordinal = existing;
+                clear(ordinal);
+            }
+
+            BitSet ingredients = new BitSet();
+            int[] lineIngredients = new int[lines.size()];
+            Unit[] lineUnits = new Unit[lines.size()];
+            double[] lineAmounts = new double[lines.size()];
+            for (int i = 0; i < lines.size(); i++) {
+                Line line = lines.get(i);
+                int ingredient = ingredientOrdinal(line.ingredientId());
+                ingredients.set(ingredient);
+                byIngredient.get(ingredient).set(ordinal);
+                lineIngredients[i] = ingredient;
+                lineUnits[i] = line.baseUnit();
+                lineAmounts[i] = line.amount();
+            }
+            candidates.set(ordinal, new Candidate(id, source, name, ingredients, lineIngredients, lineUnits, lineAmounts));
+
+            if (source == SuggestionSource.template) {
+                global.set(ordinal);
+            } else if (ownerUserId != null) {
+                byOwner.computeIfAbsent(ownerUserId, owner -> new BitSet()).set(ordinal);
+            }
+        }
+
+        void remove(UUID id) {
+            Integer ordinal = ordinals.get(id);
+            if (ordinal != null) {
+                clear(ordinal);
+            }
+        }
+
+        private void clear(int ordinal) {
+            Candidate candidate = candidates.get(ordinal);
+            if (candidate == null) {
+                return;
+            }
+            BitSet ingredients = candidate.ingredients();
+            for (int i = ingredients.nextSetBit(0); i >= 0; i = ingredients.nextSetBit(i + 1)) {
+                byIngredient.get(i).clear(ordinal);
+            }
+            global.clear(ordinal);
+            byOwner.values().forEach(bits -> bits.clear(ordinal));
+            candidates.set(ordinal, null);
+        }
+
+        private int ingredientOrdinal(UUID ingredientId) {
+            return ingredientOrdinals.computeIfAbsent(ingredientId, id -> {
+                ingredientIds.add(id);
+                byIngredient.add(new BitSet());
+                return ingredientIds.size() - 1;
+            });
+        }
+
+        List<Suggestion> suggest(UUID userId, Collection<? extends PantryStock> pantry, int limit) {
+            // Stock per ingredient position, one slot per base unit
+            Map<Integer, double[]> stock = new HashMap<>();
+            BitSet stocked = new BitSet();
+            for (PantryStock row : pantry) {
+                Integer ingredient = ingredientOrdinals.get(row.getIngredientId());
+                if (ingredient == null) {
+                    continue;
+                }
+                stocked.set(ingredient);
+                double[] held = stock.computeIfAbsent(ingredient, i -> new double[Unit.values().length]);
+                held[Unit.valueOf(row.getBaseUnit()).ordinal()] += amount(row.getAmount());
+            }
+
+            BitSet reachable = new BitSet();
+            for (int i = stocked.nextSetBit(0); i >= 0; i = stocked.nextSetBit(i + 1)) {
+                reachable.or(byIngredient.get(i));
+            }
+            BitSet visible = (BitSet) global.clone();
+            BitSet owned = byOwner.get(userId);
+            if (owned != null) {
+                visible.or(owned);
+            }
+            reachable.and(visible);
+
+            // Keeps the best `limit` seen so far; the head is the worst of them
+            PriorityQueue<Suggestion> best = new PriorityQueue<>(RANKING.reversed());
+            for (int c = reachable.nextSetBit(0); c >= 0 && limit > 0; c = reachable.nextSetBit(c + 1)) {
+                best.add(score(candidates.get(c), stocked, stock));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            List<Suggestion> ranked = new ArrayList<>(best);
+            ranked.sort(RANKING);
+            return ranked;
+        }
+
+        PlanningSpace planningSpace(UUID userId, boolean includeRecipes, Collection<UUID> templateIds,
+                                    Collection<? extends PantryStock> pantry) {
+            int units = Unit.values().length;
+            BitSet chosen = new BitSet();
+            BitSet owned = byOwner.get(userId);
+            if (includeRecipes && owned != null) {
+                chosen.or(owned);
+            }
+            for (UUID templateId : templateIds) {
+                Integer ordinal = ordinals.get(templateId);
+                if (ordinal != null && global.get(ordinal)) {
+                    chosen.set(ordinal);
+                }
+            }
+
+            List<MealVector> meals = new ArrayList<>(chosen.cardinality());
+            for (int c = chosen.nextSetBit(0); c >= 0; c = chosen.nextSetBit(c + 1)) {
+                Candidate candidate = candidates.get(c);
+                int[] lineIngredients = candidate.lineIngredients();
+                if (lineIngredients.length == 0) {
+                    continue;
+                }
+                int[] keys = new int[lineIngredients.length];
+                for (int line = 0; line < keys.length; line++) {
+                    keys[line] = lineIngredients[line] * units + candidate.lineUnits()[line].ordinal();
+                }
+                meals.add(new MealVector(candidate.id(), candidate.source(), candidate.name(), keys,
+                        candidate.lineAmounts().clone()));
+            }
+
+            double[] stock = new double[ingredientIds.size() * units];
+            for (PantryStock row : pantry) {
+                Integer ingredient = ingredientOrdinals.get(row.getIngredientId());
+                if (ingredient != null) {
+                    stock[ingredient * units + Unit.valueOf(row.getBaseUnit()).ordinal()] += amount(row.getAmount());
+                }
+            }
+            return new PlanningSpace(meals, stock);
+        }
+
+        private Suggestion score(Candidate candidate, BitSet stocked, Map<Integer, double[]> stock) {
+            int[] lineIngredients = candidate.lineIngredients();
+            double covered = 0;
+            BitSet insufficient = new BitSet();
+            for (int line = 0; line < lineIngredients.length; line++) {
+                double[] held = stock.get(lineIngredients[line]);
+                if (held == null) {
+                    continue;
+                }
+                double need = candidate.lineAmounts()[line];
+                double have = held[candidate.lineUnits()[line].ordinal()];
+                double share = need > 0 ? Math.min(1, have / need) : 1;
+                covered += share;
+                if (share < 1) {
+                    insufficient.set(lineIngredients[line]);
+                }
+            }
+
+            BitSet missing = (BitSet) candidate.ingredients().clone();
+            missing.andNot(stocked);
+            int total = candidate.ingredients().cardinality();
+            return new Suggestion(candidate.id(), candidate.source(), candidate.name(),
+                    lineIngredients.length > 0 ? covered / lineIngredients.length : 0,
+                    total - missing.cardinality(), total, ids(missing), ids(insufficient));
+        }
+
+        private List<UUID> ids(BitSet ingredients) {
+            List<UUID> ids = new ArrayList<>(ingredients.cardinality());
+            for (int i = ingredients.nextSetBit(0); i >= 0; i = ingredients.nextSetBit(i + 1)) {
+                ids.add(ingredientIds.get(i));
+            }
+            return ids;
+        }
+    }
+}
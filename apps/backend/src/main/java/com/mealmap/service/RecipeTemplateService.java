@@ -1,5 +1,8 @@
 package com.mealmap.service;
 
+import com.mealmap.mapper.RecipeMapper;
+import com.mealmap.mapper.RecipeTemplateMapper;
+import com.mealmap.mapper.TemplatePreferences;
 import com.mealmap.model.dto.recipe.CreateRecipeTemplateRequest;
 import com.mealmap.model.dto.recipe.RecipeDto;
 import com.mealmap.model.dto.recipe.RecipeItemDto;
@@ -7,17 +10,25 @@ import com.mealmap.model.dto.recipe.RecipeTemplateDuplicateRequest;
 import com.mealmap.model.dto.recipe.RecipeTemplateDto;
 import com.mealmap.model.dto.recipe.RecipeTemplatePageResponse;
 import com.mealmap.model.dto.recipe.RecipeTemplatePreferencesRequest;
+import com.mealmap.model.dto.recipe.TemplateFacetsDto;
 import com.mealmap.model.dto.recipe.UpdateRecipeTemplateRequest;
 import com.mealmap.model.entity.Recipe;
+import com.mealmap.model.entity.RecipeIngredientTotal;
 import com.mealmap.model.entity.RecipeItem;
 import com.mealmap.model.entity.RecipeTemplate;
 import com.mealmap.model.entity.RecipeTemplateItem;
 import com.mealmap.model.entity.RecipeTemplatePreference;
+import com.mealmap.model.entity.Tag;
 import com.mealmap.model.entity.User;
 import com.mealmap.model.enums.RecipeTemplateSource;
+import com.mealmap.model.enums.TagKind;
+import com.mealmap.observability.DomainMetrics;
+import com.mealmap.observability.jfr.TemplatePageLoadEvent;
+import com.mealmap.repository.RecipeIngredientTotalRepository;
 import com.mealmap.repository.RecipeRepository;
 import com.mealmap.repository.RecipeTemplatePreferenceRepository;
 import com.mealmap.repository.RecipeTemplateRepository;
+import com.mealmap.repository.TagRepository;
 import com.mealmap.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -31,12 +42,18 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -46,34 +63,72 @@ public class RecipeTemplateService {
     private final RecipeTemplateRepository templateRepository;
     private final RecipeTemplatePreferenceRepository preferenceRepository;
     private final RecipeRepository recipeRepository;
+    private final RecipeIngredientTotalRepository recipeIngredientTotalRepository;
     private final UserRepository userRepository;
+    private final TagRepository tagRepository;
+    private final TemplateTagIndex tagIndex;
+    private final RecipeSuggestionIndex suggestionIndex;
+    private final RecipeSimilarityIndex similarityIndex;
+    private final RecipeTemplateMapper templateMapper;
+    private final RecipeMapper recipeMapper;
+    private final DomainMetrics domainMetrics;
 
     @Transactional(readOnly = true)
-    public RecipeTemplatePageResponse getTemplates(Integer limit, String cursor, String query) {
+    public RecipeTemplatePageResponse getTemplates(Integer limit, String cursor, String query,
+                                                   List<String> tags, List<String> dietaryTags) {
+        TemplatePageLoadEvent event = new TemplatePageLoadEvent();
+        event.begin();
         User currentUser = getCurrentUser();
         Pageable pageable = PageRequest.of(decodeCursor(cursor), limit != null ? limit : 20);
+        boolean named = query != null && !query.isBlank();
+        boolean tagged = (tags != null && !tags.isEmpty()) || (dietaryTags != null && !dietaryTags.isEmpty());
 
-        Page<RecipeTemplate> page;
-        if (query != null && !query.isBlank()) {
-            page = templateRepository.findVisibleTemplatesByName(currentUser.getId(), RecipeTemplateSource.global, query, pageable);
+        // A user flags few templates, so all of their flags are loaded once and serve both paths
+        Map<UUID, RecipeTemplatePreference> flagged = preferenceRepository.findFlaggedByUserId(currentUser.getId()).stream()
+                .collect(Collectors.toMap(RecipeTemplatePreference::getTemplateId, pref -> pref));
+        List<UUID> hiddenIds = idsWhere(flagged, RecipeTemplatePreference::isHidden);
+        List<UUID> favoriteIds = idsWhere(flagged, RecipeTemplatePreference::isFavorite);
+
+        // Facet counts always come from the tag index; with a tag filter, so does the page
+        TemplateTagIndex.Matches matches = tagIndex.match(currentUser.getId(), hiddenIds, favoriteIds,
+                query, tags, dietaryTags, (int) pageable.getOffset(), pageable.getPageSize());
+
+        List<RecipeTemplate> templates;
+        boolean hasNext;
+        if (tagged) {
+            templates = findAccessibleInOrder(matches.pageIds(), currentUser);
+            hasNext = matches.hasNext();
         } else {
-            page = templateRepository.findVisibleTemplates(currentUser.getId(), RecipeTemplateSource.global, pageable);
+            Page<RecipeTemplate> page = named
+                    ? templateRepository.findVisibleTemplatesByName(currentUser.getId(), RecipeTemplateSource.global, query, pageable)
+                    : templateRepository.findVisibleTemplates(currentUser.getId(), RecipeTemplateSource.global, pageable);
+            templates = page.getContent();
+            hasNext = page.hasNext();
         }
 
-        Map<UUID, RecipeTemplatePreference> preferences = loadPreferences(currentUser.getId(), page.getContent());
+        List<RecipeTemplateDto> data = templateMapper.toDtos(templates, TemplatePreferences.of(flagged));
+        domainMetrics.templatePage(named || tagged, data.size());
 
-        List<RecipeTemplateDto> data = page.getContent().stream()
-                .filter(template -> !isHidden(template.getId(), preferences))
-                .map(template -> mapToDto(template, preferences.get(template.getId())))
-                .toList();
+        event.end();
+        if (event.shouldCommit()) {
+            event.page = pageable.getPageNumber();
+            event.pageSize = pageable.getPageSize();
+            event.templates = data.size();
+            event.filtered = named || tagged;
+            event.commit();
+        }
 
-        String nextCursor = page.hasNext()
-                ? Base64.getEncoder().encodeToString(String.valueOf(page.getNumber() + 1).getBytes())
+        String nextCursor = hasNext
+                ? Base64.getEncoder().encodeToString(String.valueOf(pageable.getPageNumber() + 1).getBytes())
                 : null;
 
         return RecipeTemplatePageResponse.builder()
                 .data(data)
                 .nextCursor(nextCursor)
+                .facets(TemplateFacetsDto.builder()
+                        .tags(matches.tagCounts())
+                        .dietaryTags(matches.dietaryCounts())
+                        .build())
                 .build();
     }
 
@@ -86,7 +141,7 @@ public class RecipeTemplateService {
 
         RecipeTemplatePreference pref = preferenceRepository.findByTemplateIdAndUserId(id, currentUser.getId())
                 .orElse(null);
-        return mapToDto(template, pref);
+        return templateMapper.toDto(template, TemplatePreferences.of(pref));
     }
 
     @Transactional
@@ -96,8 +151,7 @@ public class RecipeTemplateService {
         RecipeTemplate template = RecipeTemplate.builder()
                 .name(request.getName())
                 .description(request.getDescription())
-                .tags(joinTags(request.getTags()))
-                .dietaryTags(joinTags(request.getDietaryTags()))
+                .tags(resolveTags(request.getTags(), request.getDietaryTags()))
                 .source(RecipeTemplateSource.user)
                 .ownerUserId(currentUser.getId())
                 .immutable(false)
@@ -117,7 +171,8 @@ public class RecipeTemplateService {
         template.setItems(items);
 
         RecipeTemplate saved = templateRepository.save(template);
-        return mapToDto(saved, null);
+        tagIndex.put(saved);
+        return templateMapper.toDto(saved, TemplatePreferences.none());
     }
 
     @Transactional
@@ -134,11 +189,11 @@ public class RecipeTemplateService {
         if (request.getDescription() != null) {
             template.setDescription(request.getDescription());
         }
-        if (request.getTags() != null) {
-            template.setTags(joinTags(request.getTags()));
-        }
-        if (request.getDietaryTags() != null) {
-            template.setDietaryTags(joinTags(request.getDietaryTags()));
+        if (request.getTags() != null || request.getDietaryTags() != null) {
+            // A new list replaces the link rows as a whole instead of shifting positions in place
+            template.setTags(resolveTags(
+                    request.getTags() != null ? request.getTags() : tagNames(template, TagKind.general),
+                    request.getDietaryTags() != null ? request.getDietaryTags() : tagNames(template, TagKind.dietary)));
         }
         if (request.getItems() != null) {
             template.getItems().clear();
@@ -154,9 +209,10 @@ public class RecipeTemplateService {
         }
 
         RecipeTemplate saved = templateRepository.save(template);
+        tagIndex.put(saved);
         RecipeTemplatePreference pref = preferenceRepository.findByTemplateIdAndUserId(id, currentUser.getId())
                 .orElse(null);
-        return mapToDto(saved, pref);
+        return templateMapper.toDto(saved, TemplatePreferences.of(pref));
     }
 
     @Transactional
@@ -167,6 +223,7 @@ public class RecipeTemplateService {
 
         ensureCanModify(template, currentUser);
         templateRepository.delete(template);
+        tagIndex.remove(id);
     }
 
     @Transactional
@@ -193,7 +250,7 @@ public class RecipeTemplateService {
         pref.setUpdatedAt(Instant.now());
 
         preferenceRepository.save(pref);
-        return mapToDto(template, pref);
+        return templateMapper.toDto(template, TemplatePreferences.of(pref));
     }
 
     @Transactional
@@ -203,11 +260,66 @@ public class RecipeTemplateService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Template not found"));
         ensureAccessible(template, currentUser);
 
+        String name = request.getName() != null && !request.getName().isBlank() ? request.getName() : template.getName();
+        Recipe saved = saveAsRecipe(template, currentUser, name, request.getExternalUrl(), request.getNotes());
+        domainMetrics.recipeItems("duplicate", saved.getItems().size());
+
+        // Duplicating a template again is the usual way near copies pile up
+        RecipeDto dto = recipeMapper.toDto(saved);
+        dto.setPossibleDuplicates(similarityIndex.possibleDuplicates(currentUser.getId(), ingredientIds(template), saved.getId())
+                .stream()
+                .map(recipeMapper::toSimilarDto)
+                .toList());
+        return dto;
+    }
+
+    /**
+     * Copies the templates the meal plan generator picked into recipes of the user, since planner
+     * items can only point at recipes. A template copied before, whose copy still has its name,
+     * ingredients and amounts, is planned as that recipe again instead of being copied once more,
+     * so generating week after week does not fill the user's recipes with copies.
+     * Returns the recipes by template id; ids of templates that are gone or not accessible to
+     * the user are left out.
+     */
+    @Transactional
+    public Map<UUID, Recipe> copyToRecipes(Collection<UUID> templateIds, User owner) {
+        List<RecipeTemplate> templates = templateRepository.findWithItemsByIdIn(templateIds).stream()
+                .filter(template -> template.getSource() == RecipeTemplateSource.global
+                        || owner.getId().equals(template.getOwnerUserId()))
+                .toList();
+        // Newest copy first, so the first one found per template is kept
+        Map<UUID, UUID> earlierCopyIds = new HashMap<>();
+        if (!templates.isEmpty()) {
+            // Generations of two weeks at once would otherwise both miss the earlier copy and
+            // copy the template twice; the second now waits and finds the first one's copy
+            userRepository.lockById(owner.getId());
+            recipeRepository.findUnchangedCopies(owner.getId(), templates.stream().map(RecipeTemplate::getId).toList())
+                    .forEach(copy -> earlierCopyIds.putIfAbsent(copy.getTemplateId(), copy.getRecipeId()));
+        }
+        Map<UUID, Recipe> earlierCopies = earlierCopyIds.isEmpty()
+                ? Map.of()
+                : recipeRepository.findAllById(earlierCopyIds.values()).stream()
+                        .collect(Collectors.toMap(Recipe::getId, recipe -> recipe));
+
+        Map<UUID, Recipe> recipes = new LinkedHashMap<>();
+        for (RecipeTemplate template : templates) {
+            UUID earlierCopyId = earlierCopyIds.get(template.getId());
+            Recipe recipe = earlierCopyId != null ? earlierCopies.get(earlierCopyId) : null;
+            if (recipe == null) {
+                recipe = saveAsRecipe(template, owner, template.getName(), null, null);
+                domainMetrics.recipeItems("plan", recipe.getItems().size());
+            }
+            recipes.put(template.getId(), recipe);
+        }
+        return recipes;
+    }
+
+    private Recipe saveAsRecipe(RecipeTemplate template, User owner, String name, String externalUrl, String notes) {
         Recipe recipe = Recipe.builder()
-                .ownerUserId(currentUser.getId())
-                .name(request.getName() != null && !request.getName().isBlank() ? request.getName() : template.getName())
-            .externalUrl(request.getExternalUrl())
-            .notes(request.getNotes())
+                .ownerUserId(owner.getId())
+                .name(name)
+                .externalUrl(externalUrl)
+                .notes(notes)
                 .build();
 
         List<RecipeItem> items = template.getItems().stream()
@@ -221,87 +333,79 @@ public class RecipeTemplateService {
         recipe.setItems(items);
 
         Recipe saved = recipeRepository.save(recipe);
-        return mapToRecipeDto(saved);
-    }
-
-    private Map<UUID, RecipeTemplatePreference> loadPreferences(UUID userId, List<RecipeTemplate> templates) {
-        if (templates.isEmpty()) {
-            return Collections.emptyMap();
-        }
-        List<UUID> ids = templates.stream().map(RecipeTemplate::getId).toList();
-        return preferenceRepository.findByUserIdAndTemplateIdIn(userId, ids).stream()
-                .collect(Collectors.toMap(RecipeTemplatePreference::getTemplateId, pref -> pref));
+        recipeIngredientTotalRepository.refresh(saved.getId());
+        List<RecipeIngredientTotal> totals = recipeIngredientTotalRepository.findByRecipeIdIn(List.of(saved.getId()));
+        suggestionIndex.putRecipe(saved, totals);
+        similarityIndex.putRecipe(saved, totals);
+        return saved;
     }
 
-    private boolean isHidden(UUID templateId, Map<UUID, RecipeTemplatePreference> preferences) {
-        RecipeTemplatePreference pref = preferences.get(templateId);
-        return pref != null && pref.isHidden();
+    private static List<UUID> ingredientIds(RecipeTemplate template) {
+        return template.getItems().stream().map(RecipeTemplateItem::getIngredientId).toList();
     }
 
-    private RecipeTemplateDto mapToDto(RecipeTemplate template, RecipeTemplatePreference pref) {
-        List<RecipeItemDto> items = template.getItems().stream()
-                .map(item -> RecipeItemDto.builder()
-                        .ingredientId(item.getIngredientId())
-                        .quantity(item.getQuantity())
-                        .packageNote(item.getPackageNote())
-                        .build())
+    private static List<UUID> idsWhere(Map<UUID, RecipeTemplatePreference> preferences,
+                                       Predicate<RecipeTemplatePreference> flag) {
+        return preferences.values().stream()
+                .filter(flag)
+                .map(RecipeTemplatePreference::getTemplateId)
                 .toList();
-
-        return RecipeTemplateDto.builder()
-                .id(template.getId())
-                .name(template.getName())
-                .description(template.getDescription())
-                .tags(splitTags(template.getTags()))
-                .dietaryTags(splitTags(template.getDietaryTags()))
-                .source(template.getSource())
-                .ownerUserId(template.getOwnerUserId())
-                .favorite(pref != null && pref.isFavorite())
-                .hidden(pref != null && pref.isHidden())
-                .immutable(template.isImmutable())
-                .items(items)
-                .createdAt(template.getCreatedAt())
-                .updatedAt(template.getUpdatedAt())
-                .build();
     }
 
-    private RecipeDto mapToRecipeDto(Recipe recipe) {
-        List<RecipeItemDto> items = recipe.getItems().stream()
-                .map(item -> RecipeItemDto.builder()
-                        .ingredientId(item.getIngredientId())
-                        .quantity(item.getQuantity())
-                        .packageNote(item.getPackageNote())
-                        .build())
-                .toList();
-
-        return RecipeDto.builder()
-                .id(recipe.getId())
-                .name(recipe.getName())
-                .externalUrl(recipe.getExternalUrl())
-            .notes(recipe.getNotes())
-                .items(items)
-                .createdAt(recipe.getCreatedAt())
-                .updatedAt(recipe.getUpdatedAt())
-                .build();
+    private List<Tag> resolveTags(List<String> tags, List<String> dietaryTags) {
+        List<Tag> resolved = new ArrayList<>(resolveTags(TagKind.general, tags));
+        resolved.addAll(resolveTags(TagKind.dietary, dietaryTags));
+        return resolved;
     }
 
-    private List<String> splitTags(String value) {
-        if (value == null || value.isBlank()) {
+    // Existing tags are reused; names not seen before get a new row
+    private List<Tag> resolveTags(TagKind kind, List<String> names) {
+        if (names == null || names.isEmpty()) {
+            return List.of();
+        }
+        Set<String> normalized = names.stream()
+                .map(TemplateTagIndex::normalize)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (normalized.isEmpty()) {
             return List.of();
         }
-        return Arrays.stream(value.split(","))
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
+
+        Map<String, Tag> existing = tagRepository.findByKindAndNameIn(kind, normalized).stream()
+                .collect(Collectors.toMap(Tag::getName, tag -> tag));
+        List<Tag> resolved = new ArrayList<>(normalized.size());
+        List<Tag> created = new ArrayList<>();
+        for (String name : normalized) {
+            Tag tag = existing.get(name);
+            if (tag == null) {
+                tag = Tag.builder().kind(kind).name(name).build();
+                created.add(tag);
+            }
+            resolved.add(tag);
+        }
+        tagRepository.saveAll(created);
+        return resolved;
+    }
+
+    private static List<String> tagNames(RecipeTemplate template, TagKind kind) {
+        return template.getTags().stream()
+                .filter(tag -> tag.getKind() == kind)
+                .map(Tag::getName)
                 .toList();
     }
 
-    private String joinTags(List<String> tags) {
-        if (tags == null || tags.isEmpty()) {
-            return null;
+    private List<RecipeTemplate> findAccessibleInOrder(List<UUID> ids, User currentUser) {
+        if (ids.isEmpty()) {
+            return List.of();
         }
-        return tags.stream()
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .collect(Collectors.joining(","));
+        Map<UUID, RecipeTemplate> byId = templateRepository.findWithItemsByIdIn(ids).stream()
+                .filter(template -> template.getSource() == RecipeTemplateSource.global
+                        || currentUser.getId().equals(template.getOwnerUserId()))
+                .collect(Collectors.toMap(RecipeTemplate::getId, template -> template));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     private void ensureAccessible(RecipeTemplate template, User currentUser) {
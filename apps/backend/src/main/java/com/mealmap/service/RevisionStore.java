@@ -0,0 +1,83 @@
+package com.mealmap.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mealmap.repository.AggregateRevisionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Revision Store
+ * 
+ * Keeps a JSON snapshot of an aggregate for every version written, so an edit made against an
+ * older version can be three-way merged with whatever was written since. Snapshots are only
+ * needed while clients may still hold that version and are purged after a retention period;
+ * an edit whose base has been purged is reported as a conflict.
+ */
+@Service
+@Slf4j
+public class RevisionStore {
+
+    public static final String PLANNER_WEEK = "planner_week";
+    public static final String GROCERY_LIST = "grocery_list";
+
+    private final AggregateRevisionRepository revisionRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+
+    public RevisionStore(AggregateRevisionRepository revisionRepository, ObjectMapper objectMapper,
+                         @Value("${app.concurrency.revision-retention:P7D}") Duration retention) {
+        this.revisionRepository = revisionRepository;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+    }
+
+    /**
+     * Stores the state of an aggregate at a version. Must run in the transaction that wrote
+     * that version.
+     */
+    public void record(String aggregateType, UUID aggregateId, long version, Object state) {
+        revisionRepository.insert(aggregateType, aggregateId, version, write(state));
+    }
+
+    public <T> Optional<T> find(String aggregateType, UUID aggregateId, long version, TypeReference<T> stateType) {
+        return revisionRepository.findByAggregateTypeAndAggregateIdAndVersion(aggregateType, aggregateId, version)
+                .map(revision -> read(revision.getState(), stateType));
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.concurrency.revision-purge-interval:PT1H}",
+            fixedDelayString = "${app.concurrency.revision-purge-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = revisionRepository.deleteCreatedBefore(Instant.now().minus(retention));
+        if (purged > 0) {
+            log.debug("Purged {} aggregate revision(s) older than {}", purged, retention);
+        }
+    }
+
+    private String write(Object state) {
+        try {
+            return objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize aggregate revision", e);
+        }
+    }
+
+    private <T> T read(String state, TypeReference<T> stateType) {
+        try {
+            return objectMapper.readValue(state, stateType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read aggregate revision", e);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.mealmap.service;
+
+import com.mealmap.model.entity.RecipeTemplate;
+import com.mealmap.model.entity.Tag;
+import com.mealmap.model.enums.RecipeTemplateSource;
+import com.mealmap.model.enums.TagKind;
+import com.mealmap.repository.RecipeTemplateRepository;
+import com.mealmap.repository.projection.TemplateTagRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Template Tag Index
+ *
+ * Bitmaps over the template catalog: one per tag, one for global templates and one per owner.
+ * Each template owns a bit position, so "vegan AND quick among what this user can see" is a
+ * handful of word-wise ANDs instead of a scan of recipe_template_tags, and a facet count is the
+ * cardinality of the matches ANDed with that tag's bitmap.
+ *
+ * Writes made on this node are applied once their transaction commits. A periodic rebuild picks
+ * up writes from other nodes and reclaims the positions of deleted templates. Matches only decide
+ * which ids to load; the templates themselves are still read from the database.
+ */
+@Service
+@Slf4j
+public class TemplateTagIndex {
+
+    private final RecipeTemplateRepository templateRepository;
+    private final IndexState<Catalog> state = new IndexState<>(new Catalog());
+
+    public TemplateTagIndex(RecipeTemplateRepository templateRepository) {
+        this.templateRepository = templateRepository;
+    }
+
+    /**
+     * Templates matching every requested tag, visible to the user and not hidden by them, with
+     * their favorites first and otherwise in index order, which is creation order like the
+     * untagged listing; {@code offset} and {@code limit} select one page of their ids.
+     *
+     * @param total        number of matching templates
+     * @param tagCounts    general tags among the matches, most frequent first
+     * @param dietaryCounts dietary tags among the matches, most frequent first
+     */
+    public record Matches(List<UUID> pageIds, int total, boolean hasNext,
+                          Map<String, Integer> tagCounts, Map<String, Integer> dietaryCounts) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${app.templates.tag-index-refresh:PT5M}",
+            fixedDelayString = "${app.templates.tag-index-refresh:PT5M}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try (IndexState<Catalog>.Rebuild rebuild = state.startRebuild()) {
+            Catalog rebuilt = new Catalog();
+            UUID current = null;
+            int ordinal = -1;
+            for (TemplateTagRow row : templateRepository.findAllTagRows()) {
+                if (!row.getTemplateId().equals(current)) {
+                    current = row.getTemplateId();
+                    ordinal = rebuilt.put(current, row.getTemplateName(), row.getSource(), row.getOwnerUserId());
+                }
+                if (row.getTagKind() != null) {
+                    rebuilt.tag(ordinal, row.getTagKind(), row.getTagName());
+                }
+            }
+
+            rebuild.complete(rebuilt);
+            log.debug("Indexed tags of {} template(s)", rebuilt.ids.size());
+        }
+    }
+
+    /**
+     * Indexes a created or updated template once the current transaction commits.
+     */
+    public void put(RecipeTemplate template) {
+        UUID id = template.getId();
+        String name = template.getName();
+        RecipeTemplateSource source = template.getSource();
+        UUID ownerUserId = template.getOwnerUserId();
+        List<Tag> tags = List.copyOf(template.getTags());
+        state.writeAfterCommit(current -> {
+            int ordinal = current.put(id, name, source, ownerUserId);
+            tags.forEach(tag -> current.tag(ordinal, tag.getKind(), tag.getName()));
+        });
+    }
+
+    public void remove(UUID templateId) {
+        state.writeAfterCommit(current -> current.remove(templateId));
+    }
+
+    public Matches match(UUID userId, Collection<UUID> hiddenIds, Collection<UUID> favoriteIds, String nameQuery,
+                         Collection<String> tags, Collection<String> dietaryTags, int offset, int limit) {
+        return state.read(current -> current.match(userId, hiddenIds, favoriteIds, nameQuery, tags, dietaryTags,
+                offset, limit));
+    }
+
+    static String normalize(String tag) {
+        return tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Mutable index state, guarded by the {@link IndexState} lock. Positions are assigned in the order templates
+     * are first seen and are never reused before the next rebuild.
+     */
+    static final class Catalog {
+
+        private final List<UUID> ids = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        private final BitSet global = new BitSet();
+        private final Map<UUID, BitSet> byOwner = new HashMap<>();
+        private final Map<TagKind, Map<String, BitSet>> byTag = new EnumMap<>(TagKind.class);
+
+        int put(UUID id, String name, RecipeTemplateSource source, UUID ownerUserId) {
+            Integer existing = ordinals.get(id);
+            int ordinal;
+            if (existing == null) {
+                ordinal = ids.size();
+                ids.add(id);
+                names.add(null);
+                ordinals.put(id, ordinal);
+            } else {
+                ordinal = existing;
+                clear(ordinal);
+            }
+            names.set(ordinal, name != null ? name.toLowerCase(Locale.ROOT) : "");
+            if (source == RecipeTemplateSource.global) {
+                global.set(ordinal);
+            }
+            if (ownerUserId != null) {
+                byOwner.computeIfAbsent(ownerUserId, owner -> new BitSet()).set(ordinal);
+            }
+            return ordinal;
+        }
+
+        void tag(int ordinal, TagKind kind, String name) {
+            byTag.computeIfAbsent(kind, k -> new HashMap<>())
+                    .computeIfAbsent(normalize(name), n -> new BitSet())
+                    .set(ordinal);
+        }
+
+        void remove(UUID id) {
+            Integer ordinal = ordinals.get(id);
+            if (ordinal != null) {
+                clear(ordinal);
+            }
+        }
+
+        private void clear(int ordinal) {
+            global.clear(ordinal);
+            byOwner.values().forEach(bits -> bits.clear(ordinal));
+            byTag.values().forEach(tags -> tags.values().forEach(bits -> bits.clear(ordinal)));
+        }
+
+        Matches match(UUID userId, Collection<UUID> hiddenIds, Collection<UUID> favoriteIds, String nameQuery,
+                      Collection<String> tags, Collection<String> dietaryTags, int offset, int limit) {
+            BitSet matches = (BitSet) global.clone();
+            BitSet owned = byOwner.get(userId);
+            if (owned != null) {
+                matches.or(owned);
+            }
+            matches.andNot(bits(hiddenIds));
+            require(matches, TagKind.general, tags);
+            require(matches, TagKind.dietary, dietaryTags);
+            if (nameQuery != null && !nameQuery.isBlank()) {
+                String needle = nameQuery.trim().toLowerCase(Locale.ROOT);
+                for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                    if (!names.get(i).contains(needle)) {
+                        matches.clear(i);
+                    }
+                }
+            }
+
+            BitSet favorites = bits(favoriteIds);
+            favorites.and(matches);
+            BitSet others = (BitSet) matches.clone();
+            others.andNot(favorites);
+
+            int total = matches.cardinality();
+            List<UUID> pageIds = new ArrayList<>(Math.max(0, Math.min(limit, total - offset)));
+            int skip = offset;
+            for (BitSet group : List.of(favorites, others)) {
+                for (int i = group.nextSetBit(0); i >= 0 && pageIds.size() < limit; i = group.nextSetBit(i + 1)) {
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        pageIds.add(ids.get(i));
+                    }
+                }
+            }
+            return new Matches(pageIds, total, total > offset + limit,
+                    counts(matches, TagKind.general), counts(matches, TagKind.dietary));
+        }
+
+        private BitSet bits(Collection<UUID> templateIds) {
+            BitSet bits = new BitSet();
+            for (UUID templateId : templateIds) {
+                Integer ordinal = ordinals.get(templateId);
+                if (ordinal != null) {
+                    bits.set(ordinal);
+                }
+            }
+            return bits;
+        }
+
+        private void require(BitSet matches, TagKind kind, Collection<String> required) {
+            if (required == null) {
+                return;
+            }
+            Map<String, BitSet> tags = byTag.getOrDefault(kind, Map.of());
+            for (String tag : required) {
+                BitSet tagged = tags.get(normalize(tag));
+                if (tagged == null) {
+                    matches.clear();
+                    return;
+                }
+                matches.and(tagged);
+            }
+        }
+
+        private Map<String, Integer> counts(BitSet matches, TagKind kind) {
+            List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+            byTag.getOrDefault(kind, Map.of()).forEach((tag, tagged) -> {
+                BitSet both = (BitSet) tagged.clone();
+                both.and(matches);
+                int count = both.cardinality();
+                if (count > 0) {
+                    counts.add(Map.entry(tag, count));
+                }
+            });
+            counts.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Integer> ordered = new LinkedHashMap<>();
+            counts.forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+            return ordered;
+        }
+    }
+}
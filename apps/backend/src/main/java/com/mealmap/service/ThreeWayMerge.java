@@ -0,0 +1,61 @@
+package com.mealmap.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Three-Way Merge
+ * 
+ * Merges two concurrent edits of a keyed collection against the version both started from.
+ * A missing key means the entry does not exist (never added or deleted). Per key, a change
+ * made on only one side wins, identical changes on both sides agree, and different changes
+ * on both sides are a conflict; conflicting keys keep their current ("theirs") value.
+ */
+final class ThreeWayMerge {
+
+    private ThreeWayMerge() {
+    }
+
+    record Result<K, V>(Map<K, V> merged, Set<K> conflicts) {
+
+        boolean hasConflicts() {
+            return !conflicts.isEmpty();
+        }
+    }
+
+    /**
+     * @param base   the state both edits started from
+     * @param theirs the state as written since (the current state)
+     * @param ours   the state the incoming edit wants
+     */
+    static <K, V> Result<K, V> merge(Map<K, V> base, Map<K, V> theirs, Map<K, V> ours) {
+        Set<K> keys = new LinkedHashSet<>(theirs.keySet());
+        keys.addAll(base.keySet());
+        keys.addAll(ours.keySet());
+
+        Map<K, V> merged = new HashMap<>();
+        Set<K> conflicts = new LinkedHashSet<>();
+        for (K key : keys) {
+            V baseValue = base.get(key);
+            V theirValue = theirs.get(key);
+            V ourValue = ours.get(key);
+
+            V result;
+            if (Objects.equals(ourValue, theirValue) || Objects.equals(ourValue, baseValue)) {
+                result = theirValue;
+            } else if (Objects.equals(theirValue, baseValue)) {
+                result = ourValue;
+            } else {
+                conflicts.add(key);
+                result = theirValue;
+            }
+            if (result != null) {
+                merged.put(key, result);
+            }
+        }
+        return new Result<>(merged, conflicts);
+    }
+}
@@ -0,0 +1,24 @@
+-- h2 profile: Hibernate creates the entity tables, but the unit conversion factors are plain
+-- reference data from V12, so they are created and seeded here on every start. Keep in sync with V12.
+
+CREATE TABLE IF NOT EXISTS unit_conversion_factors (
+    unit NVARCHAR(20) NOT NULL,
+    base_unit NVARCHAR(20) NOT NULL,
+    factor DECIMAL(18, 6) NOT NULL,
+
+    CONSTRAINT pk_unit_conversion_factors PRIMARY KEY (unit),
+    CONSTRAINT chk_unit_conversion_factors_factor CHECK (factor > 0)
+);
+
+DELETE FROM unit_conversion_factors;
+
+INSERT INTO unit_conversion_factors (unit, base_unit, factor) VALUES
+    ('g', 'g', 1),
+    ('kg', 'g', 1000),
+    ('ml', 'ml', 1),
+    ('l', 'ml', 1000),
+    ('piece', 'piece', 1),
+    ('pc', 'piece', 1),
+    ('pack', 'pack', 1),
+    ('clove', 'clove', 1),
+    ('head', 'head', 1);
@@ -0,0 +1,22 @@
+-- V11: Add transactional email outbox
+-- Emails are written here in the same transaction as the account change that triggers them
+-- and delivered in batches by a background dispatcher with retry and backoff
+
+CREATE TABLE email_outbox (
+    id UNIQUEIDENTIFIER PRIMARY KEY DEFAULT NEWID(),
+    recipient NVARCHAR(255) NOT NULL,
+    subject NVARCHAR(255) NOT NULL,
+    body NVARCHAR(MAX) NOT NULL,
+    status NVARCHAR(20) NOT NULL DEFAULT 'pending',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME2 NOT NULL DEFAULT GETUTCDATE(),
+    locked_until DATETIME2 NULL,
+    last_error NVARCHAR(1000) NULL,
+    created_at DATETIME2 NOT NULL DEFAULT GETUTCDATE(),
+    sent_at DATETIME2 NULL,
+
+    CONSTRAINT chk_email_outbox_status CHECK (status IN ('pending', 'sending', 'sent', 'failed'))
+);
+
+-- Dispatcher polls pending rows ordered by their next attempt time
+CREATE NONCLUSTERED INDEX idx_email_outbox_status_next_attempt ON email_outbox(status, next_attempt_at);
@@ -0,0 +1,23 @@
+-- V12: Add unit conversion factors
+-- Maps every quantity unit to the base unit it is aggregated in, so grocery totals
+-- can be normalized and summed in a single set-based query
+
+CREATE TABLE unit_conversion_factors (
+    unit NVARCHAR(20) NOT NULL,
+    base_unit NVARCHAR(20) NOT NULL,
+    factor DECIMAL(18, 6) NOT NULL,
+
+    CONSTRAINT pk_unit_conversion_factors PRIMARY KEY (unit),
+    CONSTRAINT chk_unit_conversion_factors_factor CHECK (factor > 0)
+);
+
+INSERT INTO unit_conversion_factors (unit, base_unit, factor) VALUES
+    ('g', 'g', 1),
+    ('kg', 'g', 1000),
+    ('ml', 'ml', 1),
+    ('l', 'ml', 1000),
+    ('piece', 'piece', 1),
+    ('pc', 'piece', 1),
+    ('pack', 'pack', 1),
+    ('clove', 'clove', 1),
+    ('head', 'head', 1);
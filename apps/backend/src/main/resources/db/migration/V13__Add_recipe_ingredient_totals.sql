@@ -0,0 +1,25 @@
+-- V13: Add recipe ingredient totals
+-- Per-recipe ingredient amounts already normalized to their base unit. Rows are rewritten
+-- whenever a recipe's items are written, so readers never repeat the unit conversion
+
+CREATE TABLE recipe_ingredient_totals (
+    recipe_id UNIQUEIDENTIFIER NOT NULL,
+    ingredient_id UNIQUEIDENTIFIER NOT NULL,
+    base_unit NVARCHAR(20) NOT NULL,
+    amount DECIMAL(18, 6) NOT NULL,
+    category_id UNIQUEIDENTIFIER NOT NULL,
+
+    CONSTRAINT pk_recipe_ingredient_totals PRIMARY KEY (recipe_id, ingredient_id, base_unit),
+    CONSTRAINT fk_recipe_ingredient_totals_recipe FOREIGN KEY (recipe_id) REFERENCES recipes(id) ON DELETE CASCADE,
+    CONSTRAINT fk_recipe_ingredient_totals_ingredient FOREIGN KEY (ingredient_id) REFERENCES ingredients(id)
+);
+
+CREATE NONCLUSTERED INDEX idx_recipe_ingredient_totals_ingredient ON recipe_ingredient_totals(ingredient_id);
+
+-- Backfill existing recipes
+INSERT INTO recipe_ingredient_totals (recipe_id, ingredient_id, base_unit, amount, category_id)
+SELECT ri.recipe_id, ri.ingredient_id, COALESCE(f.base_unit, ri.quantity_unit), SUM(ri.quantity_amount * COALESCE(f.factor, 1)), i.category_id
+FROM recipe_items ri
+LEFT JOIN unit_conversion_factors f ON f.unit = ri.quantity_unit
+JOIN ingredients i ON i.id = ri.ingredient_id
+GROUP BY ri.recipe_id, ri.ingredient_id, COALESCE(f.base_unit, ri.quantity_unit), i.category_id;
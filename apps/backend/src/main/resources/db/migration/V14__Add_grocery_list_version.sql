@@ -0,0 +1,4 @@
+-- V14: Add grocery list version
+-- Optimistic locking column, so concurrent recomputes of the same list cannot both persist
+
+ALTER TABLE grocery_lists ADD version BIGINT NOT NULL CONSTRAINT df_grocery_lists_version DEFAULT 0;
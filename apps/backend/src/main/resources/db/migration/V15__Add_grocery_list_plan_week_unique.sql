@@ -0,0 +1,18 @@
+-- V15: Make grocery lists unique per planner week
+-- A planner week has exactly one owner (user or household) and one grocery list. Concurrent
+-- computes could insert duplicates; keep the most recently updated one before enforcing it
+
+WITH ranked AS (
+    SELECT id,
+           ROW_NUMBER() OVER (
+               PARTITION BY plan_week_id
+               ORDER BY COALESCE(updated_at, created_at) DESC, created_at DESC, id
+           ) AS rn
+    FROM grocery_lists
+)
+DELETE FROM grocery_lists WHERE id IN (SELECT id FROM ranked WHERE rn > 1);
+
+ALTER TABLE grocery_lists ADD CONSTRAINT uq_grocery_lists_plan_week UNIQUE (plan_week_id);
+
+-- The unique constraint's index replaces the plain lookup index from V5
+DROP INDEX idx_grocery_lists_plan_week ON grocery_lists;
@@ -0,0 +1,19 @@
+-- V16: Add planner week version and aggregate revisions
+-- Planner weeks get an optimistic locking column like grocery lists. Every write also stores a
+-- JSON snapshot of the aggregate per version, the common base for three-way merging edits that
+-- were made against an older version
+
+ALTER TABLE planner_weeks ADD version BIGINT NOT NULL CONSTRAINT df_planner_weeks_version DEFAULT 0;
+
+CREATE TABLE aggregate_revisions (
+    aggregate_type NVARCHAR(50) NOT NULL,
+    aggregate_id UNIQUEIDENTIFIER NOT NULL,
+    version BIGINT NOT NULL,
+    state NVARCHAR(MAX) NOT NULL,
+    created_at DATETIME2 NOT NULL DEFAULT GETUTCDATE(),
+
+    CONSTRAINT pk_aggregate_revisions PRIMARY KEY (aggregate_type, aggregate_id, version)
+);
+
+-- Expired snapshots are purged by age
+CREATE NONCLUSTERED INDEX idx_aggregate_revisions_created_at ON aggregate_revisions(created_at);
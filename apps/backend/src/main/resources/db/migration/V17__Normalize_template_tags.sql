@@ -0,0 +1,60 @@
+-- V17: Normalize template tags
+-- Tags and dietary tags move out of the comma-joined columns on recipe_templates into one row
+-- per distinct tag and one link row per template and tag, so templates can be filtered by tag.
+-- Names are stored trimmed and lower-case; position keeps the order the tags were entered in
+
+CREATE TABLE tags (
+    id UNIQUEIDENTIFIER PRIMARY KEY DEFAULT NEWID(),
+    kind NVARCHAR(20) NOT NULL,
+    name NVARCHAR(60) NOT NULL,
+
+    CONSTRAINT uq_tags_kind_name UNIQUE (kind, name)
+);
+
+CREATE TABLE recipe_template_tags (
+    template_id UNIQUEIDENTIFIER NOT NULL,
+    tag_id UNIQUEIDENTIFIER NOT NULL,
+    position INT NOT NULL,
+
+    CONSTRAINT pk_recipe_template_tags PRIMARY KEY (template_id, tag_id),
+    CONSTRAINT fk_recipe_template_tags_template FOREIGN KEY (template_id) REFERENCES recipe_templates(id) ON DELETE CASCADE,
+    CONSTRAINT fk_recipe_template_tags_tag FOREIGN KEY (tag_id) REFERENCES tags(id)
+);
+
+CREATE NONCLUSTERED INDEX idx_recipe_template_tags_tag ON recipe_template_tags(tag_id);
+
+-- Split the CSV columns; OPENJSON's [key] is the position within the column
+WITH split AS (
+    SELECT t.id AS template_id, 'general' AS kind, 0 AS kind_order, CAST(j.[key] AS INT) AS ordinal,
+           LOWER(LEFT(LTRIM(RTRIM(j.value)), 60)) AS name
+    FROM recipe_templates t
+    CROSS APPLY OPENJSON(N'["' + REPLACE(STRING_ESCAPE(t.tags, 'json'), ',', '","') + N'"]') j
+    WHERE t.tags IS NOT NULL
+    UNION ALL
+    SELECT t.id, 'dietary', 1, CAST(j.[key] AS INT),
+           LOWER(LEFT(LTRIM(RTRIM(j.value)), 60))
+    FROM recipe_templates t
+    CROSS APPLY OPENJSON(N'["' + REPLACE(STRING_ESCAPE(t.dietary_tags, 'json'), ',', '","') + N'"]') j
+    WHERE t.dietary_tags IS NOT NULL
+)
+SELECT template_id, kind, kind_order, ordinal, name
+INTO #template_tag_split
+FROM split
+WHERE name <> '';
+
+INSERT INTO tags (kind, name)
+SELECT DISTINCT kind, name FROM #template_tag_split;
+
+-- Tags repeated within one template keep their first position
+INSERT INTO recipe_template_tags (template_id, tag_id, position)
+SELECT template_id, tag_id, ROW_NUMBER() OVER (PARTITION BY template_id ORDER BY sort_key) - 1
+FROM (
+    SELECT s.template_id, g.id AS tag_id, MIN(s.kind_order * 100000 + s.ordinal) AS sort_key
+    FROM #template_tag_split s
+    JOIN tags g ON g.kind = s.kind AND g.name = s.name
+    GROUP BY s.template_id, g.id
+) linked;
+
+DROP TABLE #template_tag_split;
+
+ALTER TABLE recipe_templates DROP COLUMN tags, dietary_tags;
@@ -2,6 +2,7 @@ package com.mealmap.config;
 
 import com.mealmap.security.JwtAuthenticationFilter;
 import com.mealmap.security.JwtService;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
@@ -26,6 +27,6 @@ public class TestSecurityConfig {
     @Bean
     @Primary
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtService(), null);
+        return new JwtAuthenticationFilter(jwtService(), null, ObservationRegistry.NOOP);
     }
 }
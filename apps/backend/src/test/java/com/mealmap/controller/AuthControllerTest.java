@@ -5,15 +5,21 @@ import com.mealmap.dto.UserDto;
 import com.mealmap.dto.auth.LoginRequest;
 import com.mealmap.dto.auth.LoginResponse;
 import com.mealmap.dto.auth.RegisterRequest;
+import com.mealmap.exception.TooManyRequestsException;
+import com.mealmap.security.ClientAddressResolver;
+import com.mealmap.security.LoginRateLimiter;
 import com.mealmap.service.AuthService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -30,6 +36,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration.class
     }
 )
+@Import(ClientAddressResolver.class)
 @DisplayName("Authentication Controller API Endpoint Tests")
 @SuppressWarnings("null")
 class AuthControllerTest {
@@ -85,7 +92,7 @@ class AuthControllerTest {
     @DisplayName("Should successfully register new user account and return 201 Created with user profile data")
     void shouldSuccessfullyRegisterNewUserAccountAndReturn201CreatedWithUserProfileData() throws Exception {
         // Given - valid registration request with email, password, and display name
-        when(authService.register(any(RegisterRequest.class))).thenReturn(userDto);
+        when(authService.register(any(RegisterRequest.class), any())).thenReturn(userDto);
 
         // When - POST request is made to registration endpoint
         // Then - new user is created and profile data is returned with 201 status
@@ -121,7 +128,7 @@ class AuthControllerTest {
     @DisplayName("Should authenticate user and return 200 OK with JWT access token when valid credentials are provided")
     void shouldAuthenticateUserAndReturn200OkWithJwtAccessTokenWhenValidCredentialsProvided() throws Exception {
         // Given - valid email and password credentials
-        when(authService.login(any(LoginRequest.class))).thenReturn(loginResponse);
+        when(authService.login(any(LoginRequest.class), any())).thenReturn(loginResponse);
 
         // When - POST request is made to login endpoint
         // Then - user is authenticated and JWT token is issued with user data
@@ -138,6 +145,40 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.user.email").value("test@example.com"));
     }
 
+    @Test
+    @DisplayName("Should return 429 Too Many Requests with Retry-After when login admission is refused")
+    void shouldReturn429WithRetryAfterWhenLoginAdmissionRefused() throws Exception {
+        // Given - admission control rejects the attempt
+        when(authService.login(any(LoginRequest.class), any()))
+                .thenThrow(new TooManyRequestsException("Too many sign-in attempts", 6));
+
+        // When - POST request is made to login endpoint
+        // Then - request is rejected quickly with a retry hint
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "6"))
+                .andExpect(jsonPath("$.title").value("Too Many Requests"));
+    }
+
+    @Test
+    @DisplayName("Should rate-limit clients behind the proxy by their forwarded address rather than the proxy's")
+    void shouldKeepSeparateRateLimitBucketsForForwardedClients() throws Exception {
+        // Given - one attempt per IP and minute, charged to whatever address the controller resolved
+        LoginRateLimiter rateLimiter = new LoginRateLimiter(1, 10, new SimpleMeterRegistry());
+        when(authService.login(any(LoginRequest.class), any())).thenAnswer(invocation -> {
+            rateLimiter.acquireForIp(invocation.getArgument(1));
+            return loginResponse;
+        });
+
+        // When - two clients log in through the same proxy, then the first one again
+        // Then - each client has its own bucket
+        mockMvc.perform(loginThroughProxy("203.0.113.7")).andExpect(status().isOk());
+        mockMvc.perform(loginThroughProxy("203.0.113.8")).andExpect(status().isOk());
+        mockMvc.perform(loginThroughProxy("203.0.113.7")).andExpect(status().isTooManyRequests());
+    }
+
     @Test
     @DisplayName("Should reject login attempt and return 400 Bad Request when email format is invalid or password is missing")
     void shouldRejectLoginAttemptAndReturn400BadRequestWhenEmailFormatInvalidOrPasswordMissing() throws Exception {
@@ -172,4 +213,15 @@ class AuthControllerTest {
         mockMvc.perform(post("/auth/refresh"))
                 .andExpect(status().isNoContent());
     }
+
+    private MockHttpServletRequestBuilder loginThroughProxy(String clientAddress) throws Exception {
+        return post("/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr("172.18.0.3");
+                    return request;
+                })
+                .header("X-Forwarded-For", clientAddress)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest));
+    }
 }
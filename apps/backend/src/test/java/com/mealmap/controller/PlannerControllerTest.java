@@ -2,6 +2,7 @@ package com.mealmap.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mealmap.exception.ConflictException;
 import com.mealmap.model.dto.planner.*;
 import com.mealmap.model.entity.User;
 import com.mealmap.model.enums.MealSlot;
@@ -21,6 +22,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -207,6 +209,179 @@ public class PlannerControllerTest {
         verify(plannerService).deletePlannerWeek(weekId);
     }
 
+    @Test
+    @WithMockUser
+    @DisplayName("Should copy a planner week to another week")
+    void shouldCopyPlannerWeek_WhenValidRequestIsProvided() throws Exception {
+        // Arrange
+        UUID weekId = plannerWeekDto.getId();
+        CopyPlannerWeekRequest request = new CopyPlannerWeekRequest();
+        request.setTargetStartDate(LocalDate.of(2024, 1, 8));
+        when(plannerService.copyPlannerWeek(eq(weekId), any(CopyPlannerWeekRequest.class))).thenReturn(plannerWeekDto);
+
+        // Act & Assert
+        mockMvc.perform(post("/planner/weeks/{id}/copy", weekId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .with(csrf()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(weekId.toString()));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should answer 409 Conflict when the target week of a copy already exists")
+    void shouldReturnConflict_WhenCopyTargetWeekExists() throws Exception {
+        // Arrange
+        UUID weekId = plannerWeekDto.getId();
+        UUID existingId = UUID.randomUUID();
+        CopyPlannerWeekRequest request = new CopyPlannerWeekRequest();
+        request.setTargetStartDate(LocalDate.of(2024, 1, 8));
+        when(plannerService.copyPlannerWeek(eq(weekId), any(CopyPlannerWeekRequest.class)))
+                .thenThrow(new ConflictException("A planner week starting 2024-01-08 already exists", 3,
+                        List.of(existingId.toString())));
+
+        // Act & Assert
+        mockMvc.perform(post("/planner/weeks/{id}/copy", weekId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .with(csrf()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.currentVersion").value(3))
+                .andExpect(jsonPath("$.conflicts[0]").value(existingId.toString()));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should generate the weeks of a rotation")
+    void shouldCreateRotation_WhenValidRequestIsProvided() throws Exception {
+        // Arrange
+        UUID weekId = plannerWeekDto.getId();
+        CreateRotationRequest request = new CreateRotationRequest();
+        request.setCycleWeeks(2);
+        request.setStartDate(LocalDate.of(2024, 1, 15));
+        request.setWeeks(13);
+        when(plannerService.createRotation(eq(weekId), any(CreateRotationRequest.class)))
+                .thenReturn(List.of(plannerWeekDto));
+
+        // Act & Assert
+        mockMvc.perform(post("/planner/weeks/{id}/rotation", weekId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .with(csrf()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].id").value(weekId.toString()));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should return Bad Request when a rotation asks for too many weeks")
+    void shouldReturnBadRequest_WhenRotationIsTooLong() throws Exception {
+        // Arrange
+        CreateRotationRequest request = new CreateRotationRequest();
+        request.setStartDate(LocalDate.of(2024, 1, 15));
+        request.setWeeks(53);
+
+        // Act & Assert
+        mockMvc.perform(post("/planner/weeks/{id}/rotation", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .with(csrf()))
+                .andExpect(status().isBadRequest());
+        verify(plannerService, never()).createRotation(any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should fill a week with generated meals")
+    void shouldGeneratePlannerWeek_WhenValidRequestIsProvided() throws Exception {
+        // Arrange
+        UUID weekId = plannerWeekDto.getId();
+        GeneratePlannerWeekRequest request = new GeneratePlannerWeekRequest();
+        request.setSlots(List.of(MealSlot.lunch, MealSlot.dinner));
+        request.setPortions(2);
+        when(plannerService.generateWeek(eq(weekId), any(GeneratePlannerWeekRequest.class))).thenReturn(plannerWeekDto);
+
+        // Act & Assert
+        mockMvc.perform(post("/planner/weeks/{id}/generate", weekId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(weekId.toString()));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should add a planner item when valid request is provided")
+    void shouldAddPlannerItem_WhenValidRequestIsProvided() throws Exception {
+        // Arrange
+        UUID weekId = plannerWeekDto.getId();
+        PlannerItemDto itemDto = plannerWeekDto.getItems().get(0);
+        when(plannerService.addPlannerItem(eq(weekId), any(CreatePlannerItemRequest.class))).thenReturn(itemDto);
+
+        // Act & Assert
+        mockMvc.perform(post("/planner/weeks/{weekId}/items", weekId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest.getItems().get(0)))
+                        .with(csrf()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(itemDto.getId().toString()));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should update a planner item when valid request is provided")
+    void shouldUpdatePlannerItem_WhenValidRequestIsProvided() throws Exception {
+        // Arrange
+        UUID weekId = plannerWeekDto.getId();
+        PlannerItemDto itemDto = plannerWeekDto.getItems().get(0);
+        UpdatePlannerItemRequest request = new UpdatePlannerItemRequest();
+        request.setSlot(MealSlot.dinner);
+        when(plannerService.updatePlannerItem(eq(weekId), eq(itemDto.getId()), any(UpdatePlannerItemRequest.class)))
+                .thenReturn(itemDto);
+
+        // Act & Assert
+        mockMvc.perform(patch("/planner/weeks/{weekId}/items/{itemId}", weekId, itemDto.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(itemDto.getId().toString()));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should return Bad Request when item portions are invalid")
+    void shouldReturnBadRequest_WhenItemPortionsAreInvalid() throws Exception {
+        // Arrange
+        UpdatePlannerItemRequest request = new UpdatePlannerItemRequest();
+        request.setPortions(0);
+
+        // Act & Assert
+        mockMvc.perform(patch("/planner/weeks/{weekId}/items/{itemId}", UUID.randomUUID(), UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .with(csrf()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should delete a planner item when it exists")
+    void shouldDeletePlannerItem_WhenItemExists() throws Exception {
+        // Arrange
+        UUID weekId = plannerWeekDto.getId();
+        UUID itemId = UUID.randomUUID();
+
+        // Act & Assert
+        mockMvc.perform(delete("/planner/weeks/{weekId}/items/{itemId}", weekId, itemId)
+                        .with(csrf()))
+                .andExpect(status().isNoContent());
+
+        verify(plannerService).deletePlannerItem(weekId, itemId);
+    }
+
     @Test
     @WithMockUser
     @DisplayName("Should filter planner weeks by date range")
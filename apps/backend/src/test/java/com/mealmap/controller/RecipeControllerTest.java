@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mealmap.model.dto.recipe.*;
 import com.mealmap.model.embedded.Quantity;
 import com.mealmap.model.entity.User;
+import com.mealmap.model.enums.SuggestionSource;
 import com.mealmap.model.enums.Unit;
 import com.mealmap.service.RecipeService;
 import org.junit.jupiter.api.BeforeEach;
@@ -142,6 +143,50 @@ public class RecipeControllerTest {
         verify(recipeService).getRecipes(eq(20), any(), eq(query));
     }
 
+    @Test
+    @DisplayName("Should return pantry suggestions without treating the path as a recipe ID")
+    void shouldReturnSuggestions_WhenSuggestionsAreRequested() throws Exception {
+        // Arrange
+        RecipeSuggestionDto suggestion = RecipeSuggestionDto.builder()
+                .id(recipeDto.getId())
+                .source(SuggestionSource.recipe)
+                .name("Grilled Chicken")
+                .coverage(0.75)
+                .matchedIngredients(3)
+                .totalIngredients(4)
+                .missingIngredientIds(Collections.emptyList())
+                .insufficientIngredientIds(Collections.emptyList())
+                .build();
+        when(recipeService.getSuggestions(5)).thenReturn(Collections.singletonList(suggestion));
+
+        // Act & Assert
+        mockMvc.perform(get("/recipes/suggestions").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Grilled Chicken"))
+                .andExpect(jsonPath("$[0].source").value("recipe"))
+                .andExpect(jsonPath("$[0].coverage").value(0.75));
+
+        verify(recipeService, never()).getRecipeById(any());
+    }
+
+    @Test
+    @DisplayName("Should return the recipes similar to a recipe")
+    void shouldReturnSimilarRecipes_WhenValidIdIsProvided() throws Exception {
+        // Arrange
+        SimilarRecipeDto similar = SimilarRecipeDto.builder()
+                .id(UUID.randomUUID())
+                .name("Chicken Wrap")
+                .similarity(0.6)
+                .build();
+        when(recipeService.getSimilarRecipes(recipeDto.getId(), null)).thenReturn(Collections.singletonList(similar));
+
+        // Act & Assert
+        mockMvc.perform(get("/recipes/{id}/similar", recipeDto.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Chicken Wrap"))
+                .andExpect(jsonPath("$[0].similarity").value(0.6));
+    }
+
     @Test
     @DisplayName("Should return recipe details when valid ID is provided")
     void shouldReturnRecipeDetails_WhenValidIdIsProvided() throws Exception {
@@ -129,7 +129,7 @@ class RecipeTemplateControllerTest {
     @DisplayName("GET /templates returns paged templates")
     @WithMockUser
     void getTemplates_returnsPage() throws Exception {
-        when(templateService.getTemplates(any(), any(), any())).thenReturn(pageResponse);
+        when(templateService.getTemplates(any(), any(), any(), any(), any())).thenReturn(pageResponse);
 
         mockMvc.perform(get("/templates"))
                 .andExpect(status().isOk())
@@ -0,0 +1,82 @@
+package com.mealmap.model.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TimeOrderedUuidGenerator Tests")
+class TimeOrderedUuidGeneratorTest {
+
+    // SQL Server compares the last group first, then the fourth; those two never tie between our ids
+    private static final Comparator<UUID> SQL_SERVER_ORDER = Comparator
+            .comparingLong((UUID id) -> id.getLeastSignificantBits() & 0xFFFF_FFFF_FFFFL)
+            .thenComparingLong(id -> (id.getLeastSignificantBits() >>> 48) & 0xFFFF);
+
+    @Test
+    @DisplayName("Should sort ids in creation order the way SQL Server compares them")
+    void shouldSortInCreationOrder() {
+        // Given
+        List<UUID> ids = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(TimeOrderedUuidGenerator.next());
+        }
+
+        // Then
+        assertThat(ids).isSortedAccordingTo(SQL_SERVER_ORDER);
+        assertThat(new HashSet<>(ids)).hasSize(ids.size());
+    }
+
+    @Test
+    @DisplayName("Should stay ordered past the per-millisecond counter")
+    void shouldBorrowNextMillisecondWhenCounterOverflows() {
+        // Given - more ids in one millisecond than the 14-bit counter holds
+        long now = System.currentTimeMillis();
+        List<UUID> ids = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            ids.add(TimeOrderedUuidGenerator.next(now));
+        }
+
+        // Then
+        assertThat(ids).isSortedAccordingTo(SQL_SERVER_ORDER);
+        assertThat(new HashSet<>(ids)).hasSize(ids.size());
+    }
+
+    @Test
+    @DisplayName("Should keep ordering when the clock moves backwards")
+    void shouldIgnoreClockGoingBackwards() {
+        // Given
+        UUID first = TimeOrderedUuidGenerator.next();
+
+        // When
+        UUID second = TimeOrderedUuidGenerator.next(System.currentTimeMillis() - 60_000);
+
+        // Then
+        assertThat(SQL_SERVER_ORDER.compare(first, second)).isNegative();
+    }
+
+    @Test
+    @DisplayName("Should put the millisecond timestamp in the last group and mark a custom-layout RFC id")
+    void shouldEncodeTimestampVersionAndVariant() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        UUID id = TimeOrderedUuidGenerator.next();
+
+        // Then
+        assertThat(Long.parseLong(id.toString().substring(24), 16)).isGreaterThanOrEqualTo(before);
+        assertThat(id.version()).isEqualTo(8);
+        assertThat(id.variant()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,92 @@
+package com.mealmap.observability;
+
+import com.mealmap.repository.CategoryRepository;
+import com.mealmap.service.CategoryService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ServiceObservationAspect Tests")
+class ServiceObservationAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+    private CategoryRepository categoryRepository;
+    private CategoryService categoryService;
+
+    @BeforeEach
+    void setUp() {
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+
+        categoryRepository = mock(CategoryRepository.class);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new CategoryService(categoryRepository));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ServiceObservationAspect(observationRegistry));
+        categoryService = proxyFactory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Should time successful service calls by class and method")
+    void shouldTimeSuccessfulCalls() {
+        // Given
+        when(categoryRepository.findAll()).thenReturn(List.of());
+
+        // When
+        categoryService.getAllCategories();
+        categoryService.getAllCategories();
+
+        // Then
+        Timer timer = meterRegistry.find(ServiceObservationAspect.OBSERVATION_NAME)
+                .tags("class", "CategoryService", "method", "getAllCategories", "outcome", "success")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should tag failed calls with the outcome and exception type")
+    void shouldTagFailedCalls() {
+        // Given
+        when(categoryRepository.findAll()).thenThrow(new IllegalStateException("boom"));
+
+        // When
+        assertThatThrownBy(() -> categoryService.getAllCategories())
+                .isInstanceOf(IllegalStateException.class);
+
+        // Then
+        Timer timer = meterRegistry.find(ServiceObservationAspect.OBSERVATION_NAME)
+                .tags("outcome", "error", "error", "IllegalStateException")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should name repository observations after the application repository interface")
+    void shouldObserveRepositoryCalls() {
+        // Given
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(categoryRepository);
+        proxyFactory.addAspect(new ServiceObservationAspect(observationRegistry));
+        CategoryRepository repository = proxyFactory.getProxy();
+
+        // When
+        repository.findAll();
+
+        // Then
+        Timer timer = meterRegistry.find(ServiceObservationAspect.REPOSITORY_OBSERVATION_NAME)
+                .tags("class", "CategoryRepository", "method", "findAll", "outcome", "success")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,75 @@
+package com.mealmap.observability.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("JfrRecordingEndpoint Tests")
+class JfrRecordingEndpointTest {
+
+    private final JfrRecordingEndpoint endpoint =
+            new JfrRecordingEndpoint(Duration.ofMinutes(1), DataSize.ofMegabytes(10));
+
+    @AfterEach
+    void tearDown() {
+        endpoint.discard();
+    }
+
+    @Test
+    @DisplayName("Should record domain events and dump them on request")
+    void shouldRecordAndDumpDomainEvents() throws Exception {
+        // Given
+        endpoint.start(30L, "default");
+
+        // When
+        GroceryComputeEvent event = new GroceryComputeEvent();
+        event.begin();
+        event.planWeekId = "week-1";
+        event.lines = 12;
+        event.commit();
+        Resource dump = endpoint.dump("dump");
+
+        // Then
+        assertThat(dump).isNotNull();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump.getFile().toPath());
+        assertThat(events)
+                .filteredOn(recorded -> recorded.getEventType().getName().equals("com.mealmap.GroceryCompute"))
+                .singleElement()
+                .satisfies(recorded -> {
+                    assertThat(recorded.getString("planWeekId")).isEqualTo("week-1");
+                    assertThat(recorded.getInt("lines")).isEqualTo(12);
+                });
+    }
+
+    @Test
+    @DisplayName("Should cap the requested duration and refuse a second recording")
+    void shouldBoundRecordings() {
+        // When
+        Map<String, Object> status = endpoint.start(3600L, null);
+
+        // Then
+        assertThat(status).containsEntry("state", "RUNNING").containsEntry("duration", Duration.ofMinutes(1));
+        assertThatThrownBy(() -> endpoint.start(10L, "default"))
+                .isInstanceOf(InvalidEndpointRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown settings and report no recording")
+    void shouldRejectUnknownSettings() {
+        assertThatThrownBy(() -> endpoint.start(10L, "/etc/passwd"))
+                .isInstanceOf(InvalidEndpointRequestException.class);
+        assertThat(endpoint.status()).containsEntry("state", "NONE");
+        assertThat(endpoint.dump("dump")).isNull();
+    }
+}
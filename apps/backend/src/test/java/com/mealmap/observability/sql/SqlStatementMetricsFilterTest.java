@@ -0,0 +1,121 @@
+package com.mealmap.observability.sql;
+
+import com.mealmap.support.SqlStatementBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("SqlStatementMetricsFilter Tests")
+class SqlStatementMetricsFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcTemplate jdbcTemplate;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql-metrics-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        DataSource dataSource = DataSourceProxyPostProcessor.wrap(h2, "test");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE items (id INT PRIMARY KEY, name VARCHAR(50))");
+        jdbcTemplate.batchUpdate("INSERT INTO items VALUES (?, ?)",
+                List.of(new Object[]{1, "a"}, new Object[]{2, "b"}, new Object[]{3, "c"}));
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new ItemsController(jdbcTemplate))
+                .addFilters(new SqlStatementMetricsFilter(meterRegistry, 3))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should report statement count and JDBC time as headers and metrics")
+    void shouldReportStatementsPerRequest() throws Exception {
+        mockMvc.perform(get("/items").param("perItem", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlStatementMetricsFilter.STATEMENT_COUNT_HEADER, "4"))
+                .andExpect(header().exists(SqlStatementMetricsFilter.ELAPSED_HEADER));
+
+        assertThat(meterRegistry.get("mealmap.http.sql.statements")
+                .tags("method", "GET", "uri", "/items")
+                .summary()
+                .totalAmount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should fail a MockMvc query budget when the endpoint runs an N+1")
+    void shouldEnforceMockMvcBudget() throws Exception {
+        mockMvc.perform(get("/items").param("perItem", "false"))
+                .andExpect(SqlStatementBudget.atMost(1));
+
+        assertThatThrownBy(() -> mockMvc.perform(get("/items").param("perItem", "true"))
+                .andExpect(SqlStatementBudget.atMost(1)))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("ran 4");
+    }
+
+    @Test
+    @DisplayName("Should fail a direct query budget and name the repeated statement")
+    void shouldEnforceDirectBudget() {
+        Integer count = SqlStatementBudget.assertAtMost(1,
+                () -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Integer.class));
+        assertThat(count).isEqualTo(3);
+
+        assertThatThrownBy(() -> SqlStatementBudget.assertAtMost(2, () -> {
+            for (int id = 1; id <= 3; id++) {
+                jdbcTemplate.queryForObject("SELECT name FROM items WHERE id = ?", String.class, id);
+            }
+        }))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("ran 3")
+                .hasMessageContaining("SELECT name FROM items WHERE id = ?");
+    }
+
+    @Test
+    @DisplayName("Should not count statements outside an open tally")
+    void shouldIgnoreStatementsOutsideTally() {
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Integer.class);
+
+        try (SqlStatementCounter.Tally tally = SqlStatementCounter.start()) {
+            assertThat(tally.getStatements()).isZero();
+        }
+        assertThat(SqlStatementCounter.current()).isEmpty();
+    }
+
+    @RestController
+    static class ItemsController {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        ItemsController(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @GetMapping("/items")
+        List<String> items(@RequestParam boolean perItem) {
+            if (!perItem) {
+                return jdbcTemplate.queryForList("SELECT name FROM items ORDER BY id", String.class);
+            }
+            List<Integer> ids = jdbcTemplate.queryForList("SELECT id FROM items ORDER BY id", Integer.class);
+            return ids.stream()
+                    .map(id -> jdbcTemplate.queryForObject("SELECT name FROM items WHERE id = ?", String.class, id))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.mealmap.observability.tracing;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("EndpointSampler Tests")
+class EndpointSamplerTest {
+
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+
+    private final EndpointSampler sampler = new EndpointSampler("/actuator/**=0.0, /grocery/**=1.0", 0.0);
+
+    @AfterEach
+    void tearDown() {
+        EndpointSampler.clearPath();
+    }
+
+    @Test
+    @DisplayName("Should apply the first rule matching the bound request path")
+    void shouldApplyMatchingRule() {
+        EndpointSampler.bindPath("/grocery/compute");
+        assertThat(decision()).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+
+        EndpointSampler.bindPath("/actuator/prometheus");
+        assertThat(decision()).isEqualTo(SamplingDecision.DROP);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the default ratio for unmatched or unbound paths")
+    void shouldUseDefaultRatio() {
+        EndpointSampler.bindPath("/recipes");
+        assertThat(decision()).isEqualTo(SamplingDecision.DROP);
+
+        EndpointSampler.clearPath();
+        assertThat(new EndpointSampler("/grocery/**=0.0", 1.0).shouldSample(
+                Context.root(), TRACE_ID, "task", SpanKind.INTERNAL, Attributes.empty(), List.of())
+                .getDecision()).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed rules")
+    void shouldRejectMalformedRules() {
+        assertThatThrownBy(() -> new EndpointSampler("/grocery/**", 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new EndpointSampler("/grocery/**=2", 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private SamplingDecision decision() {
+        return sampler.shouldSample(Context.root(), TRACE_ID, "http get", SpanKind.SERVER, Attributes.empty(), List.of())
+                .getDecision();
+    }
+}
@@ -0,0 +1,81 @@
+package com.mealmap.repository;
+
+import com.mealmap.model.embedded.Quantity;
+import com.mealmap.model.entity.RecipeTemplate;
+import com.mealmap.model.entity.RecipeTemplateItem;
+import com.mealmap.model.enums.RecipeTemplateSource;
+import com.mealmap.model.enums.Unit;
+import com.mealmap.observability.sql.DataSourceProxyPostProcessor;
+import com.mealmap.support.SqlStatementBudget;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:template-page;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DataSourceProxyPostProcessor.class)
+@DisplayName("RecipeTemplateRepository Tests")
+class RecipeTemplateRepositoryTest {
+
+    @Autowired
+    private RecipeTemplateRepository recipeTemplateRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Should load a template page and all of its items in a fixed number of statements")
+    void shouldLoadPageItemsInOneBatch() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        for (int i = 0; i < 10; i++) {
+            RecipeTemplate template = RecipeTemplate.builder()
+                    .name("Template " + i)
+                    .source(i % 2 == 0 ? RecipeTemplateSource.global : RecipeTemplateSource.user)
+                    .ownerUserId(i % 2 == 0 ? null : userId)
+                    .build();
+            for (int j = 0; j < 3; j++) {
+                template.getItems().add(RecipeTemplateItem.builder()
+                        .template(template)
+                        .ingredientId(UUID.randomUUID())
+                        .quantity(new Quantity(BigDecimal.ONE, Unit.piece))
+                        .build());
+            }
+            entityManager.persist(template);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // When - page query, count query and one batch for the items, however many templates
+        Page<RecipeTemplate> page = SqlStatementBudget.assertAtMost(3, () -> {
+            Page<RecipeTemplate> loaded = recipeTemplateRepository.findVisibleTemplates(
+                    userId, RecipeTemplateSource.global, PageRequest.of(0, 8));
+            loaded.forEach(template -> template.getItems().size());
+            return loaded;
+        });
+
+        // Then
+        assertThat(page.getContent()).hasSize(8);
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getContent()).allSatisfy(template -> assertThat(template.getItems()).hasSize(3));
+    }
+}
@@ -0,0 +1,52 @@
+package com.mealmap.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ClientAddressResolver Tests")
+class ClientAddressResolverTest {
+
+    private final ClientAddressResolver resolver = new ClientAddressResolver(List.of("172.16.0.0/12", "127.0.0.1"));
+
+    @Test
+    @DisplayName("Should take the client from X-Forwarded-For when the request comes from a trusted proxy")
+    void shouldResolveForwardedClient() {
+        assertThat(resolver.resolve(request("172.18.0.3", "203.0.113.7"))).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    @DisplayName("Should ignore X-Forwarded-For sent by a client that is not a trusted proxy")
+    void shouldIgnoreHeaderFromUntrustedAddress() {
+        assertThat(resolver.resolve(request("198.51.100.4", "203.0.113.7"))).isEqualTo("198.51.100.4");
+    }
+
+    @Test
+    @DisplayName("Should stop at the first untrusted hop so addresses a client prepends are not used")
+    void shouldStopAtFirstUntrustedHop() {
+        // The client sent "10.9.9.9"; nginx appended the address it saw, then another proxy its own
+        assertThat(resolver.resolve(request("127.0.0.1", "10.9.9.9, 203.0.113.7, 172.20.0.2")))
+                .isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the last trusted hop when the chain holds something other than an address")
+    void shouldNotResolveHostNames() {
+        assertThat(resolver.resolve(request("172.18.0.3", "example.com"))).isEqualTo("172.18.0.3");
+        assertThat(resolver.resolve(request("172.18.0.3", "2001:db8::7"))).isEqualTo("2001:db8::7");
+        assertThat(resolver.resolve(request("172.18.0.3", null))).isEqualTo("172.18.0.3");
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddress);
+        if (forwardedFor != null) {
+            request.addHeader(ClientAddressResolver.FORWARDED_FOR, forwardedFor);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,87 @@
+package com.mealmap.security;
+
+import com.mealmap.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("LoginRateLimiter Tests")
+class LoginRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private LoginRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new LoginRateLimiter(3, 2, meterRegistry, now::get);
+    }
+
+    @Test
+    @DisplayName("Should reject an IP once its bucket is empty")
+    void shouldRejectIpWhenBucketEmpty() {
+        // Given
+        rateLimiter.acquireForIp("198.51.100.1");
+        rateLimiter.acquireForIp("198.51.100.1");
+        rateLimiter.acquireForIp("198.51.100.1");
+
+        // When & Then
+        assertThatThrownBy(() -> rateLimiter.acquireForIp("198.51.100.1"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting("retryAfterSeconds").isEqualTo(20L);
+        assertThatCode(() -> rateLimiter.acquireForIp("198.51.100.2")).doesNotThrowAnyException();
+        assertThat(meterRegistry.counter("mealmap.auth.admission.rejected", "reason", "ip").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should limit an account across different IPs")
+    void shouldLimitAccountAcrossIps() {
+        // Given
+        rateLimiter.acquireLogin("198.51.100.1", "victim@example.com");
+        rateLimiter.acquireLogin("198.51.100.2", " Victim@Example.com ");
+
+        // When & Then
+        assertThatThrownBy(() -> rateLimiter.acquireLogin("198.51.100.3", "victim@example.com"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(meterRegistry.counter("mealmap.auth.admission.rejected", "reason", "account").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should refill tokens over time")
+    void shouldRefillTokensOverTime() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquireForIp("198.51.100.1");
+        }
+
+        // When - one token refills every 20 seconds at 3 per minute
+        now.addAndGet(TimeUnit.SECONDS.toNanos(21));
+
+        // Then
+        assertThatCode(() -> rateLimiter.acquireForIp("198.51.100.1")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> rateLimiter.acquireForIp("198.51.100.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    @DisplayName("Should evict buckets that have fully refilled")
+    void shouldEvictFullBuckets() {
+        // Given
+        rateLimiter.acquireLogin("198.51.100.1", "user@example.com");
+        assertThat(rateLimiter.trackedBucketCount()).isEqualTo(2);
+
+        // When
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        rateLimiter.evictIdleBuckets();
+
+        // Then
+        assertThat(rateLimiter.trackedBucketCount()).isZero();
+    }
+}
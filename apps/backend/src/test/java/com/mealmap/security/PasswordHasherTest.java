@@ -0,0 +1,110 @@
+package com.mealmap.security;
+
+import com.mealmap.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PasswordHasher Tests")
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should hash and verify on the hashing pool and record latency")
+    void shouldHashAndVerify() {
+        // Given
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(4), meterRegistry, 1, 4, Duration.ofSeconds(5));
+
+        // When
+        String hash = hasher.encode("secret-password");
+
+        // Then
+        assertThat(hasher.matches("secret-password", hash)).isTrue();
+        assertThat(hasher.matches("wrong-password", hash)).isFalse();
+        assertThat(meterRegistry.timer("mealmap.auth.password_hash", "operation", "matches").count()).isEqualTo(2);
+        assertThat(meterRegistry.timer("mealmap.auth.password_hash.queue_wait").count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should detect hashes created with a lower cost factor")
+    void shouldDetectOutdatedCostFactor() {
+        // Given
+        String weakHash = new BCryptPasswordEncoder(4).encode("secret-password");
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(5), meterRegistry, 1, 4, Duration.ofSeconds(5));
+
+        // When & Then
+        assertThat(hasher.upgradeEncoding(weakHash)).isTrue();
+        assertThat(hasher.upgradeEncoding(hasher.encode("secret-password"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject immediately when the hashing queue is full")
+    void shouldRejectWhenSaturated() throws Exception {
+        // Given - one thread, one queue slot, and an encoder that blocks until released
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = new BlockingEncoder(started, release);
+        hasher = new PasswordHasher(blockingEncoder, meterRegistry, 1, 1, Duration.ofSeconds(5));
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.encode("b"));
+        await(() -> meterRegistry.get("mealmap.auth.password_hash.queue").gauge().value() == 1.0);
+
+        // When & Then
+        assertThatThrownBy(() -> hasher.encode("c")).isInstanceOf(TooManyRequestsException.class);
+        assertThat(meterRegistry.counter("mealmap.auth.admission.rejected", "reason", "saturated").count())
+                .isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hashed");
+    }
+
+    private static void await(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met in time");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private record BlockingEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed";
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return false;
+        }
+    }
+}
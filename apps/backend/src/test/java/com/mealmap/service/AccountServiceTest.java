@@ -191,35 +191,6 @@ class AccountServiceTest {
         verify(userRepository, never()).save(any());
     }
 
-    // ===========================
-    // updateLastLogin Tests
-    // ===========================
-
-    @Test
-    @DisplayName("updateLastLogin - Should update last login timestamp")
-    void updateLastLogin_Success() {
-        // Arrange
-        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
-
-        Instant beforeCall = Instant.now();
-
-        // Act
-        accountService.updateLastLogin(userId);
-
-        Instant afterCall = Instant.now();
-
-        // Assert
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-
-        User savedUser = userCaptor.getValue();
-        assertThat(savedUser.getLastLoginAt())
-                .isNotNull()
-                .isAfterOrEqualTo(beforeCall)
-                .isBeforeOrEqualTo(afterCall);
-    }
-
     // ===========================
     // recordTermsAcceptance Tests
     // ===========================
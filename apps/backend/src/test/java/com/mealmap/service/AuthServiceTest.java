@@ -4,9 +4,12 @@ import com.mealmap.dto.auth.LoginRequest;
 import com.mealmap.dto.auth.LoginResponse;
 import com.mealmap.dto.auth.RegisterRequest;
 import com.mealmap.dto.UserDto;
+import com.mealmap.exception.TooManyRequestsException;
 import com.mealmap.model.entity.User;
 import com.mealmap.repository.UserRepository;
 import com.mealmap.security.JwtService;
+import com.mealmap.security.LoginRateLimiter;
+import com.mealmap.security.PasswordHasher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,7 +19,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.Instant;
 import java.util.Optional;
@@ -32,11 +34,16 @@ import static org.mockito.Mockito.*;
 @SuppressWarnings("null")
 class AuthServiceTest {
 
+    private static final String CLIENT_IP = "203.0.113.7";
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private LoginRateLimiter loginRateLimiter;
 
     @Mock
     private JwtService jwtService;
@@ -47,6 +54,9 @@ class AuthServiceTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private LastLoginRecorder lastLoginRecorder;
+
     @InjectMocks
     private AuthService authService;
 
@@ -81,11 +91,11 @@ class AuthServiceTest {
     void shouldRegisterNewUserSuccessfully() {
         // Given
         when(userRepository.existsByEmail(registerRequest.getEmail())).thenReturn(false);
-        when(passwordEncoder.encode(registerRequest.getPassword())).thenReturn("$2a$10$hashedpassword");
+        when(passwordHasher.encode(registerRequest.getPassword())).thenReturn("$2a$10$hashedpassword");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         // When
-        UserDto response = authService.register(registerRequest);
+        UserDto response = authService.register(registerRequest, CLIENT_IP);
 
         // Then
         assertThat(response).isNotNull();
@@ -96,7 +106,7 @@ class AuthServiceTest {
 
         // Verify interactions
         verify(userRepository).existsByEmail(registerRequest.getEmail());
-        verify(passwordEncoder).encode(registerRequest.getPassword());
+        verify(passwordHasher).encode(registerRequest.getPassword());
         
         ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
         verify(userRepository).save(userCaptor.capture());
@@ -114,13 +124,13 @@ class AuthServiceTest {
         when(userRepository.existsByEmail(registerRequest.getEmail())).thenReturn(true);
 
         // When & Then
-        assertThatThrownBy(() -> authService.register(registerRequest))
+        assertThatThrownBy(() -> authService.register(registerRequest, CLIENT_IP))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("User already exists");
 
         verify(userRepository).existsByEmail(registerRequest.getEmail());
         verify(userRepository, never()).save(any(User.class));
-        verify(passwordEncoder, never()).encode(anyString());
+        verify(passwordHasher, never()).encode(anyString());
     }
 
     @Test
@@ -128,11 +138,11 @@ class AuthServiceTest {
     void shouldLoginSuccessfullyWithCorrectCredentials() {
         // Given
         when(userRepository.findByEmail(loginRequest.getEmail())).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches(loginRequest.getPassword(), testUser.getPasswordHash())).thenReturn(true);
+        when(passwordHasher.matches(loginRequest.getPassword(), testUser.getPasswordHash())).thenReturn(true);
         when(jwtService.generateToken(any(UserDetails.class))).thenReturn("jwt-token");
 
         // When
-        LoginResponse response = authService.login(loginRequest);
+        LoginResponse response = authService.login(loginRequest, CLIENT_IP);
 
         // Then
         assertThat(response).isNotNull();
@@ -142,8 +152,9 @@ class AuthServiceTest {
         assertThat(response.getUser().getId()).isEqualTo(testUser.getId());
 
         verify(userRepository).findByEmail(loginRequest.getEmail());
-        verify(passwordEncoder).matches(loginRequest.getPassword(), testUser.getPasswordHash());
+        verify(passwordHasher).matches(loginRequest.getPassword(), testUser.getPasswordHash());
         verify(jwtService).generateToken(any(UserDetails.class));
+        verify(lastLoginRecorder).record(testUser.getId());
     }
 
     @Test
@@ -153,12 +164,12 @@ class AuthServiceTest {
         when(userRepository.findByEmail(loginRequest.getEmail())).thenReturn(Optional.empty());
 
         // When & Then
-        assertThatThrownBy(() -> authService.login(loginRequest))
+        assertThatThrownBy(() -> authService.login(loginRequest, CLIENT_IP))
                 .isInstanceOf(org.springframework.security.authentication.BadCredentialsException.class)
                 .hasMessageContaining("Invalid credentials");
 
         verify(userRepository).findByEmail(loginRequest.getEmail());
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(passwordHasher, never()).matches(anyString(), anyString());
         verify(jwtService, never()).generateToken(any(UserDetails.class));
     }
 
@@ -167,16 +178,52 @@ class AuthServiceTest {
     void shouldThrowExceptionWhenPasswordIsIncorrect() {
         // Given
         when(userRepository.findByEmail(loginRequest.getEmail())).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches(loginRequest.getPassword(), testUser.getPasswordHash())).thenReturn(false);
+        when(passwordHasher.matches(loginRequest.getPassword(), testUser.getPasswordHash())).thenReturn(false);
 
         // When & Then
-        assertThatThrownBy(() -> authService.login(loginRequest))
+        assertThatThrownBy(() -> authService.login(loginRequest, CLIENT_IP))
                 .isInstanceOf(org.springframework.security.authentication.BadCredentialsException.class)
                 .hasMessageContaining("Invalid credentials");
 
         verify(userRepository).findByEmail(loginRequest.getEmail());
-        verify(passwordEncoder).matches(loginRequest.getPassword(), testUser.getPasswordHash());
+        verify(passwordHasher).matches(loginRequest.getPassword(), testUser.getPasswordHash());
         verify(jwtService, never()).generateToken(any(UserDetails.class));
+        verify(lastLoginRecorder, never()).record(any());
+    }
+
+    @Test
+    @DisplayName("Should re-hash the password when the stored hash uses an outdated cost factor")
+    void shouldUpgradeOutdatedPasswordHashOnLogin() {
+        // Given
+        when(userRepository.findByEmail(loginRequest.getEmail())).thenReturn(Optional.of(testUser));
+        when(passwordHasher.matches(loginRequest.getPassword(), testUser.getPasswordHash())).thenReturn(true);
+        when(passwordHasher.upgradeEncoding(testUser.getPasswordHash())).thenReturn(true);
+        String oldHash = testUser.getPasswordHash();
+        when(passwordHasher.encode(loginRequest.getPassword())).thenReturn("$2a$12$strongerhash");
+        when(userRepository.upgradePasswordHash(testUser.getId(), oldHash, "$2a$12$strongerhash")).thenReturn(1);
+        when(jwtService.generateToken(any(UserDetails.class))).thenReturn("jwt-token");
+
+        // When
+        authService.login(loginRequest, CLIENT_IP);
+
+        // Then - only the hash is written, never the whole row as read
+        verify(userRepository).upgradePasswordHash(testUser.getId(), oldHash, "$2a$12$strongerhash");
+        verify(userRepository, never()).save(any(User.class));
+        assertThat(testUser.getPasswordHash()).isEqualTo("$2a$12$strongerhash");
+    }
+
+    @Test
+    @DisplayName("Should reject login before hashing when the rate limit is exhausted")
+    void shouldRejectLoginWhenRateLimited() {
+        // Given
+        doThrow(new TooManyRequestsException("slow down", 6))
+                .when(loginRateLimiter).acquireLogin(CLIENT_IP, loginRequest.getEmail());
+
+        // When & Then
+        assertThatThrownBy(() -> authService.login(loginRequest, CLIENT_IP))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        verifyNoInteractions(userRepository, passwordHasher);
     }
 
     @Test
@@ -184,11 +231,11 @@ class AuthServiceTest {
     void shouldMapUserEntityToDtoCorrectly() {
         // Given
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(passwordEncoder.encode(anyString())).thenReturn("$2a$10$hashedpassword");
+        when(passwordHasher.encode(anyString())).thenReturn("$2a$10$hashedpassword");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         // When
-        UserDto userDto = authService.register(registerRequest);
+        UserDto userDto = authService.register(registerRequest, CLIENT_IP);
 
         // Then
         assertThat(userDto.getId()).isEqualTo(testUser.getId());
@@ -0,0 +1,149 @@
+package com.mealmap.service;
+
+import com.mealmap.model.entity.EmailOutboxMessage;
+import com.mealmap.support.SmtpStandIn;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailOutboxDispatcher Tests")
+class EmailOutboxDispatcherTest {
+
+    @Mock
+    private EmailOutboxService outboxService;
+
+    private SmtpStandIn smtp;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtp = new SmtpStandIn("bounce@example.com");
+        dispatcher = new EmailOutboxDispatcher(
+                outboxService, mailSenderFor(smtp.getHost(), smtp.getPort()), ObservationRegistry.NOOP);
+        ReflectionTestUtils.setField(dispatcher, "fromEmail", "noreply@mealmap.com");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        smtp.close();
+    }
+
+    @Test
+    @DisplayName("Should deliver a whole batch over a single SMTP connection")
+    void shouldDeliverBatchOverSingleConnection() {
+        // Given
+        List<EmailOutboxMessage> batch = List.of(
+                message("first@example.com", "One"),
+                message("second@example.com", "Two"),
+                message("third@example.com", "Three"));
+        when(outboxService.claimBatch()).thenReturn(batch, List.of());
+
+        // When
+        dispatcher.dispatchPending();
+
+        // Then
+        assertThat(smtp.getConnectionCount()).isEqualTo(1);
+        assertThat(smtp.getMessages())
+                .extracting(SmtpStandIn.ReceivedMessage::recipient)
+                .containsExactly("first@example.com", "second@example.com", "third@example.com");
+        assertThat(smtp.getMessages().get(0).data()).contains("Subject: One");
+
+        Results results = captureResults();
+        assertThat(results.sent()).containsExactlyInAnyOrderElementsOf(ids(batch));
+        assertThat(results.failures()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should record rejected recipients as failures and still send the rest")
+    void shouldRecordRejectedRecipientsAsFailures() {
+        // Given
+        EmailOutboxMessage accepted = message("first@example.com", "One");
+        EmailOutboxMessage rejected = message("bounce@example.com", "Two");
+        EmailOutboxMessage alsoAccepted = message("third@example.com", "Three");
+
+        // When
+        dispatcher.deliver(List.of(accepted, rejected, alsoAccepted));
+
+        // Then
+        assertThat(smtp.getMessages())
+                .extracting(SmtpStandIn.ReceivedMessage::recipient)
+                .containsExactly("first@example.com", "third@example.com");
+
+        Results results = captureResults();
+        assertThat(results.sent()).containsExactlyInAnyOrder(accepted.getId(), alsoAccepted.getId());
+        assertThat(results.failures()).containsOnlyKeys(rejected.getId());
+    }
+
+    @Test
+    @DisplayName("Should mark the whole batch failed when the SMTP server is unreachable")
+    void shouldMarkBatchFailedWhenServerUnreachable() throws Exception {
+        // Given
+        List<EmailOutboxMessage> batch = List.of(
+                message("first@example.com", "One"),
+                message("second@example.com", "Two"));
+        smtp.close();
+
+        // When
+        dispatcher.deliver(batch);
+
+        // Then
+        Results results = captureResults();
+        assertThat(results.sent()).isEmpty();
+        assertThat(results.failures()).containsOnlyKeys(ids(batch));
+    }
+
+    private record Results(Collection<UUID> sent, Map<UUID, String> failures) {
+    }
+
+    @SuppressWarnings("unchecked")
+    private Results captureResults() {
+        ArgumentCaptor<Collection<UUID>> sentCaptor = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Map<UUID, String>> failureCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(outboxService).recordResults(sentCaptor.capture(), failureCaptor.capture());
+        return new Results(sentCaptor.getValue(), failureCaptor.getValue());
+    }
+
+    private static List<UUID> ids(List<EmailOutboxMessage> batch) {
+        return batch.stream().map(EmailOutboxMessage::getId).toList();
+    }
+
+    private static EmailOutboxMessage message(String recipient, String subject) {
+        return EmailOutboxMessage.builder()
+                .id(UUID.randomUUID())
+                .recipient(recipient)
+                .subject(subject)
+                .body("Body of " + subject)
+                .attempts(1)
+                .build();
+    }
+
+    private static JavaMailSenderImpl mailSenderFor(String host, int port) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost(host);
+        sender.setPort(port);
+        Properties properties = new Properties();
+        properties.put("mail.smtp.connectiontimeout", "2000");
+        properties.put("mail.smtp.timeout", "2000");
+        sender.setJavaMailProperties(properties);
+        return sender;
+    }
+}
@@ -0,0 +1,140 @@
+package com.mealmap.service;
+
+import com.mealmap.model.entity.EmailOutboxMessage;
+import com.mealmap.model.enums.EmailOutboxStatus;
+import com.mealmap.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailOutboxService Tests")
+class EmailOutboxServiceTest {
+
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+
+    @InjectMocks
+    private EmailOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxService, "batchSize", 50);
+        ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outboxService, "initialBackoff", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(outboxService, "maxBackoff", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(outboxService, "lease", Duration.ofMinutes(2));
+    }
+
+    @Test
+    @DisplayName("enqueue - Should store a pending message due immediately")
+    void enqueue_StoresPendingMessage() {
+        // When
+        outboxService.enqueue("user@example.com", "Subject", "Body");
+
+        // Then
+        ArgumentCaptor<EmailOutboxMessage> captor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(outboxRepository).save(captor.capture());
+        EmailOutboxMessage saved = captor.getValue();
+        assertThat(saved.getRecipient()).isEqualTo("user@example.com");
+        assertThat(saved.getStatus()).isEqualTo(EmailOutboxStatus.pending);
+        assertThat(saved.getAttempts()).isZero();
+        assertThat(saved.getNextAttemptAt()).isBeforeOrEqualTo(Instant.now());
+    }
+
+    @Test
+    @DisplayName("claimBatch - Should lease claimed messages and count the attempt")
+    void claimBatch_LeasesMessages() {
+        // Given
+        EmailOutboxMessage message = message(0);
+        when(outboxRepository.findDueForUpdate(eq(EmailOutboxStatus.pending), eq(EmailOutboxStatus.sending),
+                any(Instant.class), any(Pageable.class))).thenReturn(List.of(message));
+        when(outboxRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        List<EmailOutboxMessage> claimed = outboxService.claimBatch();
+
+        // Then
+        assertThat(claimed).containsExactly(message);
+        assertThat(message.getStatus()).isEqualTo(EmailOutboxStatus.sending);
+        assertThat(message.getAttempts()).isEqualTo(1);
+        assertThat(message.getLockedUntil()).isAfter(Instant.now());
+    }
+
+    @Test
+    @DisplayName("recordResults - Should mark sent messages and reschedule failures with backoff")
+    void recordResults_MarksSentAndReschedulesFailures() {
+        // Given
+        EmailOutboxMessage sent = message(1);
+        EmailOutboxMessage failed = message(2);
+        when(outboxRepository.findAllById(List.of(sent.getId()))).thenReturn(List.of(sent));
+        when(outboxRepository.findAllById(Map.of(failed.getId(), "timeout").keySet())).thenReturn(List.of(failed));
+
+        Instant before = Instant.now();
+
+        // When
+        outboxService.recordResults(List.of(sent.getId()), Map.of(failed.getId(), "timeout"));
+
+        // Then
+        assertThat(sent.getStatus()).isEqualTo(EmailOutboxStatus.sent);
+        assertThat(sent.getSentAt()).isNotNull();
+        assertThat(failed.getStatus()).isEqualTo(EmailOutboxStatus.pending);
+        assertThat(failed.getLastError()).isEqualTo("timeout");
+        assertThat(failed.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(60));
+    }
+
+    @Test
+    @DisplayName("recordResults - Should give up after the maximum number of attempts")
+    void recordResults_GivesUpAfterMaxAttempts() {
+        // Given
+        EmailOutboxMessage failed = message(3);
+        when(outboxRepository.findAllById(List.of())).thenReturn(List.of());
+        when(outboxRepository.findAllById(Map.of(failed.getId(), "550").keySet())).thenReturn(List.of(failed));
+
+        // When
+        outboxService.recordResults(List.of(), Map.of(failed.getId(), "550"));
+
+        // Then
+        assertThat(failed.getStatus()).isEqualTo(EmailOutboxStatus.failed);
+    }
+
+    @Test
+    @DisplayName("backoffFor - Should grow exponentially and respect the cap")
+    void backoffFor_GrowsExponentially() {
+        assertThat(outboxService.backoffFor(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(outboxService.backoffFor(2)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(outboxService.backoffFor(3)).isEqualTo(Duration.ofSeconds(120));
+        assertThat(outboxService.backoffFor(10)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    private static EmailOutboxMessage message(int attempts) {
+        return EmailOutboxMessage.builder()
+                .id(UUID.randomUUID())
+                .recipient("user@example.com")
+                .subject("Subject")
+                .body("Body")
+                .status(EmailOutboxStatus.sending)
+                .attempts(attempts)
+                .nextAttemptAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,350 @@
+package com.mealmap.service;
+
+import com.mealmap.exception.UnauthorizedException;
+import com.mealmap.mapper.GroceryLookup;
+import com.mealmap.mapper.GroceryMapper;
+import com.mealmap.model.dto.grocery.ComputeGroceryRequest;
+import com.mealmap.model.dto.grocery.GroceryItemDto;
+import com.mealmap.model.dto.grocery.GroceryListDto;
+import com.mealmap.model.dto.grocery.UpdateGroceryListRequest;
+import com.mealmap.model.embedded.GroceryItem;
+import com.mealmap.model.embedded.Quantity;
+import com.mealmap.model.entity.GroceryList;
+import com.mealmap.model.entity.GroceryTrip;
+import com.mealmap.model.entity.Household;
+import com.mealmap.model.entity.PlannerWeek;
+import com.mealmap.model.entity.User;
+import com.mealmap.model.enums.Unit;
+import com.mealmap.observability.DomainMetrics;
+import com.mealmap.repository.GroceryListRepository;
+import com.mealmap.repository.IngredientRepository;
+import com.mealmap.repository.PlannerWeekRepository;
+import com.mealmap.repository.UserRepository;
+import com.mealmap.repository.projection.GroceryListUpsert;
+import com.mealmap.repository.projection.IngredientRequirement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GroceryService Tests")
+class GroceryServiceTest {
+
+    @Mock
+    private GroceryListRepository groceryListRepository;
+
+    @Mock
+    private PlannerWeekRepository plannerWeekRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private IngredientRepository ingredientRepository;
+
+    @Mock
+    private GroceryMapper groceryMapper;
+
+    @Mock
+    private DomainMetrics domainMetrics;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private RevisionStore revisionStore;
+
+    @Mock
+    private SecurityContext securityContext;
+
+    @Mock
+    private Authentication authentication;
+
+    @InjectMocks
+    private GroceryService groceryService;
+
+    private User testUser;
+    private PlannerWeek testPlannerWeek;
+
+    record Requirement(UUID ingredientId, UUID categoryId, String baseUnit, BigDecimal neededAmount,
+                       BigDecimal afterPantryAmount) implements IngredientRequirement {
+
+        public UUID getIngredientId() { return ingredientId; }
+        public UUID getCategoryId() { return categoryId; }
+        public String getBaseUnit() { return baseUnit; }
+        public BigDecimal getNeededAmount() { return neededAmount; }
+        public BigDecimal getAfterPantryAmount() { return afterPantryAmount; }
+    }
+
+    record Upsert(UUID id, String action) implements GroceryListUpsert {
+
+        public UUID getId() { return id; }
+        public String getAction() { return action; }
+    }
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(UUID.randomUUID());
+        testUser.setEmail("test@example.com");
+
+        testPlannerWeek = PlannerWeek.builder()
+                .id(UUID.randomUUID())
+                .startDate(LocalDate.now().with(DayOfWeek.MONDAY))
+                .user(testUser)
+                .items(new ArrayList<>())
+                .build();
+
+        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
+        lenient().when(authentication.getName()).thenReturn("test@example.com");
+        SecurityContextHolder.setContext(securityContext);
+        lenient().when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Should build grocery lines from the aggregated requirements")
+    void shouldBuildLinesFromAggregatedRequirements() {
+        // Given
+        UUID flour = UUID.randomUUID();
+        UUID flourCategory = UUID.randomUUID();
+        UUID milk = UUID.randomUUID();
+        ComputeGroceryRequest request = new ComputeGroceryRequest();
+        request.setPlanWeekId(testPlannerWeek.getId());
+        request.setTrips(2);
+
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        GroceryList groceryList = GroceryList.builder()
+                .id(UUID.randomUUID())
+                .plannerWeek(testPlannerWeek)
+                .user(testUser)
+                .version(0L)
+                .build();
+        when(groceryListRepository.upsertForPlanWeek(testPlannerWeek.getId()))
+                .thenReturn(new Upsert(groceryList.getId(), "INSERT"));
+        when(groceryListRepository.findById(groceryList.getId())).thenReturn(Optional.of(groceryList));
+        when(groceryListRepository.aggregateRequirements(testPlannerWeek.getId()))
+                .thenReturn(List.of(
+                        new Requirement(flour, flourCategory, "g", new BigDecimal("2500.000000"),
+                                new BigDecimal("1500.000000")),
+                        new Requirement(milk, null, "ml", new BigDecimal("500"), BigDecimal.ZERO)));
+        when(groceryMapper.toDto(any(GroceryList.class), any(GroceryLookup.class))).thenReturn(new GroceryListDto());
+
+        // When
+        groceryService.computeGroceryList(request);
+
+        // Then
+        ArgumentCaptor<GroceryList> captor = ArgumentCaptor.forClass(GroceryList.class);
+        verify(groceryListRepository).saveAndFlush(captor.capture());
+        GroceryList saved = captor.getValue();
+        assertThat(saved.getTrips()).hasSize(2);
+        assertThat(saved.getTrips().get(0).getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getIngredientId()).isEqualTo(flour);
+            assertThat(item.getCategoryId()).isEqualTo(flourCategory);
+            assertThat(item.getNeeded().getAmount()).isEqualByComparingTo("2500.00");
+            assertThat(item.getNeeded().getUnit()).isEqualTo(Unit.g);
+            assertThat(item.getAfterPantry().getAmount()).isEqualByComparingTo("1500.00");
+        });
+        assertThat(saved.getTrips().get(1).getItems()).isEmpty();
+        verify(domainMetrics).groceryListComputed(true, 0, 1);
+    }
+
+    @Test
+    @DisplayName("Should replace the trips of an existing list on recompute")
+    void shouldReplaceTripsOfExistingList() {
+        // Given - a list already claimed by the upsert, with a stale trip
+        ComputeGroceryRequest request = new ComputeGroceryRequest();
+        request.setPlanWeekId(testPlannerWeek.getId());
+        request.setTrips(1);
+        GroceryList groceryList = GroceryList.builder()
+                .id(UUID.randomUUID())
+                .plannerWeek(testPlannerWeek)
+                .user(testUser)
+                .trips(new ArrayList<>(List.of(new GroceryTrip(), new GroceryTrip())))
+                .version(3L)
+                .build();
+
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        when(groceryListRepository.upsertForPlanWeek(testPlannerWeek.getId()))
+                .thenReturn(new Upsert(groceryList.getId(), "UPDATE"));
+        when(groceryListRepository.findById(groceryList.getId())).thenReturn(Optional.of(groceryList));
+        when(groceryListRepository.aggregateRequirements(testPlannerWeek.getId()))
+                .thenReturn(List.of());
+        when(groceryMapper.toDto(eq(groceryList), any(GroceryLookup.class))).thenReturn(new GroceryListDto());
+
+        // When
+        groceryService.computeGroceryList(request);
+
+        // Then
+        assertThat(groceryList.getTrips()).singleElement()
+                .satisfies(trip -> assertThat(trip.getGroceryList()).isSameAs(groceryList));
+        verify(domainMetrics).groceryListComputed(false, 0, 0);
+        verify(revisionStore).record(eq(RevisionStore.GROCERY_LIST), eq(groceryList.getId()), eq(3L), any());
+    }
+
+    @Test
+    @DisplayName("Should refuse to compute a list for another user's week")
+    void shouldRejectForeignPlannerWeek() {
+        // Given
+        User otherUser = new User();
+        otherUser.setId(UUID.randomUUID());
+        testPlannerWeek.setUser(otherUser);
+        ComputeGroceryRequest request = new ComputeGroceryRequest();
+        request.setPlanWeekId(testPlannerWeek.getId());
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+
+        // When & Then
+        assertThatThrownBy(() -> groceryService.computeGroceryList(request))
+                .isInstanceOf(UnauthorizedException.class);
+        verify(groceryListRepository, never()).upsertForPlanWeek(any());
+        verify(groceryListRepository, never()).aggregateRequirements(any());
+    }
+
+    @Test
+    @DisplayName("Should compute a household week once for members who open it together")
+    void shouldCoalesceHouseholdMembers() throws Exception {
+        // Given - a household week; the first member's compute is still in flight
+        User otherMember = new User();
+        otherMember.setId(UUID.randomUUID());
+        otherMember.setEmail("other@example.com");
+        testPlannerWeek.setHousehold(Household.builder()
+                .id(UUID.randomUUID())
+                .members(new ArrayList<>(List.of(testUser, otherMember)))
+                .build());
+        ComputeGroceryRequest request = new ComputeGroceryRequest();
+        request.setPlanWeekId(testPlannerWeek.getId());
+        request.setTrips(1);
+        GroceryList groceryList = GroceryList.builder()
+                .id(UUID.randomUUID())
+                .plannerWeek(testPlannerWeek)
+                .household(testPlannerWeek.getHousehold())
+                .version(0L)
+                .build();
+        GroceryListDto computed = new GroceryListDto();
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findByEmail("other@example.com")).thenReturn(Optional.of(otherMember));
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        when(groceryListRepository.upsertForPlanWeek(testPlannerWeek.getId()))
+                .thenReturn(new Upsert(groceryList.getId(), "UPDATE"));
+        when(groceryListRepository.findById(groceryList.getId())).thenReturn(Optional.of(groceryList));
+        when(groceryListRepository.aggregateRequirements(testPlannerWeek.getId()))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return List.of();
+                });
+        when(groceryMapper.toDto(eq(groceryList), any(GroceryLookup.class))).thenReturn(computed);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<GroceryListDto> first = executor.submit(() -> computeAs("test@example.com", request));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // When - the second member asks for the same week while the first compute is blocked
+            Future<GroceryListDto> second = executor.submit(() -> computeAs("other@example.com", request));
+            Thread.sleep(200);
+            release.countDown();
+
+            // Then - one computation against the week's stock, shared by both members
+            assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(computed);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(computed);
+            verify(groceryListRepository, times(1)).aggregateRequirements(testPlannerWeek.getId());
+            verify(groceryListRepository, times(1)).upsertForPlanWeek(testPlannerWeek.getId());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should merge check-offs made against an older list version")
+    void shouldMergeStaleCheckOffs() {
+        // Given - since version 4 another member checked off the milk; this client, still at
+        // version 4, checks off the flour
+        UUID flour = UUID.randomUUID();
+        UUID milk = UUID.randomUUID();
+        GroceryTrip trip = new GroceryTrip();
+        trip.setTripIndex(0);
+        trip.setItems(new ArrayList<>(List.of(groceryItem(flour, Unit.g, false), groceryItem(milk, Unit.ml, true))));
+        GroceryList groceryList = GroceryList.builder()
+                .id(UUID.randomUUID())
+                .plannerWeek(testPlannerWeek)
+                .user(testUser)
+                .trips(new ArrayList<>(List.of(trip)))
+                .version(5L)
+                .build();
+        when(groceryListRepository.findById(groceryList.getId())).thenReturn(Optional.of(groceryList));
+        when(revisionStore.<Map<String, Boolean>>find(eq(RevisionStore.GROCERY_LIST), eq(groceryList.getId()),
+                eq(4L), any())).thenReturn(Optional.of(Map.of("0/" + flour + "/g", false, "0/" + milk + "/ml", false)));
+        when(groceryMapper.toDto(eq(groceryList), any(GroceryLookup.class))).thenReturn(new GroceryListDto());
+
+        UpdateGroceryListRequest.TripUpdate tripUpdate = new UpdateGroceryListRequest.TripUpdate();
+        tripUpdate.setTripIndex(0);
+        tripUpdate.setItems(List.of(itemDto(flour, Unit.g, true), itemDto(milk, Unit.ml, false)));
+        UpdateGroceryListRequest request = new UpdateGroceryListRequest();
+        request.setVersion(4L);
+        request.setTrips(List.of(tripUpdate));
+
+        // When
+        groceryService.updateGroceryList(groceryList.getId(), request);
+
+        // Then - neither check-off is lost
+        assertThat(trip.getItems()).allMatch(GroceryItem::isChecked);
+        verify(groceryListRepository).saveAndFlush(groceryList);
+        verify(domainMetrics).mergeOutcome(RevisionStore.GROCERY_LIST, "merged");
+    }
+
+    private GroceryListDto computeAs(String email, ComputeGroceryRequest request) {
+        SecurityContextHolder.setContext(new SecurityContextImpl(new TestingAuthenticationToken(email, null)));
+        try {
+            return groceryService.computeGroceryList(request);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static GroceryItem groceryItem(UUID ingredientId, Unit unit, boolean checked) {
+        Quantity quantity = Quantity.builder().amount(BigDecimal.ONE).unit(unit).build();
+        return new GroceryItem(ingredientId, null, quantity, quantity, checked);
+    }
+
+    private static GroceryItemDto itemDto(UUID ingredientId, Unit unit, boolean checked) {
+        GroceryItemDto dto = new GroceryItemDto();
+        dto.setIngredientId(ingredientId);
+        dto.setNeeded(Quantity.builder().amount(BigDecimal.ONE).unit(unit).build());
+        dto.setChecked(checked);
+        return dto;
+    }
+}
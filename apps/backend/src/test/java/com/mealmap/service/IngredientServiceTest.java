@@ -1,5 +1,6 @@
 package com.mealmap.service;
 
+import com.mealmap.mapper.IngredientMapper;
 import com.mealmap.model.dto.ingredient.*;
 import com.mealmap.model.embedded.PackageSize;
 import com.mealmap.model.entity.Category;
@@ -8,12 +9,15 @@ import com.mealmap.model.entity.User;
 import com.mealmap.model.enums.Unit;
 import com.mealmap.repository.CategoryRepository;
 import com.mealmap.repository.IngredientRepository;
+import com.mealmap.repository.projection.IngredientSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -25,7 +29,6 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -57,6 +60,9 @@ class IngredientServiceTest {
     @Mock
     private org.springframework.security.core.userdetails.UserDetails userDetails;
 
+    @Spy
+    private IngredientMapper ingredientMapper = Mappers.getMapper(IngredientMapper.class);
+
     @InjectMocks
     private IngredientService ingredientService;
 
@@ -66,6 +72,29 @@ class IngredientServiceTest {
     private CreateIngredientRequest createRequest;
     private UpdateIngredientRequest updateRequest;
 
+    record Summary(UUID id, UUID ownerUserId, String name, UUID categoryId, Unit defaultUnit,
+                   BigDecimal packageAmount, Unit packageUnit, String notes, Instant createdAt,
+                   Instant updatedAt) implements IngredientSummary {
+
+        static Summary of(Ingredient ingredient) {
+            return new Summary(ingredient.getId(), ingredient.getOwnerUserId(), ingredient.getName(),
+                    ingredient.getCategory().getId(), ingredient.getDefaultUnit(),
+                    ingredient.getPackageSize().getAmount(), ingredient.getPackageSize().getUnit(),
+                    ingredient.getNotes(), ingredient.getCreatedAt(), ingredient.getUpdatedAt());
+        }
+
+        public UUID getId() { return id; }
+        public UUID getOwnerUserId() { return ownerUserId; }
+        public String getName() { return name; }
+        public UUID getCategoryId() { return categoryId; }
+        public Unit getDefaultUnit() { return defaultUnit; }
+        public BigDecimal getPackageAmount() { return packageAmount; }
+        public Unit getPackageUnit() { return packageUnit; }
+        public String getNotes() { return notes; }
+        public Instant getCreatedAt() { return createdAt; }
+        public Instant getUpdatedAt() { return updatedAt; }
+    }
+
     @BeforeEach
     void setUp() {
         testUser = User.builder()
@@ -120,8 +149,7 @@ class IngredientServiceTest {
     @DisplayName("Should get ingredients with pagination")
     void shouldGetIngredientsWithPagination() {
         // Given
-        List<Ingredient> ingredients = Arrays.asList(testIngredient);
-        Page<Ingredient> page = new PageImpl<>(ingredients);
+        Page<IngredientSummary> page = new PageImpl<>(List.of(Summary.of(testIngredient)));
         when(ingredientRepository.findByOwnerUserIdIn(anyList(), any(Pageable.class)))
                 .thenReturn(page);
 
@@ -132,6 +160,8 @@ class IngredientServiceTest {
         assertThat(response).isNotNull();
         assertThat(response.getData()).hasSize(1);
         assertThat(response.getData().get(0).getName()).isEqualTo("Milk");
+        assertThat(response.getData().get(0).getCategoryId()).isEqualTo(testCategory.getId());
+        assertThat(response.getData().get(0).getPackageSize()).isEqualTo(testIngredient.getPackageSize());
         assertThat(response.getNextCursor()).isNull(); // No next page
 
         verify(ingredientRepository).findByOwnerUserIdIn(anyList(), any(Pageable.class));
@@ -141,8 +171,7 @@ class IngredientServiceTest {
     @DisplayName("Should search ingredients by name")
     void shouldSearchIngredientsByName() {
         // Given
-        List<Ingredient> ingredients = Arrays.asList(testIngredient);
-        Page<Ingredient> page = new PageImpl<>(ingredients);
+        Page<IngredientSummary> page = new PageImpl<>(List.of(Summary.of(testIngredient)));
         when(ingredientRepository.findByOwnerUserIdInAndNameContainingIgnoreCase(
                 anyList(), eq("milk"), any(Pageable.class)))
                 .thenReturn(page);
@@ -163,8 +192,7 @@ class IngredientServiceTest {
     @DisplayName("Should filter ingredients by category")
     void shouldFilterIngredientsByCategory() {
         // Given
-        List<Ingredient> ingredients = Arrays.asList(testIngredient);
-        Page<Ingredient> page = new PageImpl<>(ingredients);
+        Page<IngredientSummary> page = new PageImpl<>(List.of(Summary.of(testIngredient)));
         when(ingredientRepository.findByOwnerUserIdInAndCategoryId(
                 anyList(), eq(testCategory.getId()), any(Pageable.class)))
                 .thenReturn(page);
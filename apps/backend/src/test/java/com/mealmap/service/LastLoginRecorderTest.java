@@ -0,0 +1,117 @@
+package com.mealmap.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.Invocation;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LastLoginRecorder Tests")
+class LastLoginRecorderTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private MeterRegistry meterRegistry;
+    private LastLoginRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new LastLoginRecorder(jdbcTemplate, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("flush - Should coalesce repeated logins into one row with the latest timestamp")
+    void flush_CoalescesRepeatedLogins() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        Instant first = Instant.parse("2025-01-01T10:00:00Z");
+        Instant second = Instant.parse("2025-01-01T10:00:03Z");
+        recorder.record(userId, second);
+        recorder.record(userId, first);
+
+        // When
+        recorder.flush();
+
+        // Then
+        List<Object[]> statements = updateArguments();
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0)).containsExactly(userId.toString(), Timestamp.from(second));
+        assertThat(meterRegistry.counter("mealmap.auth.last_login.flushed").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.timer("mealmap.auth.last_login.flush").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("flush - Should split large batches to stay under the parameter limit")
+    void flush_SplitsLargeBatches() {
+        // Given
+        for (int i = 0; i < LastLoginRecorder.MAX_ROWS_PER_STATEMENT + 1; i++) {
+            recorder.record(UUID.randomUUID());
+        }
+
+        // When
+        recorder.flush();
+
+        // Then
+        List<Object[]> statements = updateArguments();
+        assertThat(statements).hasSize(2);
+        assertThat(statements.get(0)).hasSize(LastLoginRecorder.MAX_ROWS_PER_STATEMENT * 2);
+        assertThat(statements.get(1)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("flush - Should not touch the database when nothing is buffered")
+    void flush_NothingBuffered_NoStatement() {
+        // When
+        recorder.flush();
+
+        // Then
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("flush - Should keep timestamps buffered when the write fails")
+    void flush_WriteFails_RetriesOnNextFlush() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        recorder.record(userId);
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenReturn(1);
+
+        // When
+        recorder.flush();
+        recorder.flush();
+
+        // Then
+        assertThat(updateArguments()).hasSize(2);
+        assertThat(meterRegistry.counter("mealmap.auth.last_login.flush.failures").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("mealmap.auth.last_login.flushed").count()).isEqualTo(1.0);
+    }
+
+    private List<Object[]> updateArguments() {
+        return mockingDetails(jdbcTemplate).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("update"))
+                .map(Invocation::getRawArguments)
+                .map(raw -> (Object[]) raw[1])
+                .toList();
+    }
+}
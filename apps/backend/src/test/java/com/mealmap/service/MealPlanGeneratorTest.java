@@ -0,0 +1,120 @@
+package com.mealmap.service;
+
+import com.mealmap.model.entity.RecipeTemplatePreference;
+import com.mealmap.model.entity.User;
+import com.mealmap.model.enums.SuggestionSource;
+import com.mealmap.repository.PantryItemRepository;
+import com.mealmap.repository.RecipeTemplatePreferenceRepository;
+import com.mealmap.service.RecipeSuggestionIndex.MealVector;
+import com.mealmap.service.RecipeSuggestionIndex.PlanningSpace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("MealPlanGenerator Tests")
+class MealPlanGeneratorTest {
+
+    private RecipeSuggestionIndex suggestionIndex;
+    private TemplateTagIndex tagIndex;
+    private RecipeTemplatePreferenceRepository preferenceRepository;
+    private PantryItemRepository pantryItemRepository;
+    private MealPlanGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        suggestionIndex = mock(RecipeSuggestionIndex.class);
+        tagIndex = mock(TemplateTagIndex.class);
+        preferenceRepository = mock(RecipeTemplatePreferenceRepository.class);
+        pantryItemRepository = mock(PantryItemRepository.class);
+        generator = new MealPlanGenerator(suggestionIndex, tagIndex, preferenceRepository, pantryItemRepository,
+                2, Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        generator.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should prefer a meal that uses the pantry over one that needs buying")
+    void shouldPreferMealsUsingThePantry() {
+        // Given - key 0 is stocked, key 1 is not
+        MealVector fromPantry = meal("Rice bowl", new int[]{0}, new double[]{250});
+        MealVector toBuy = meal("Saffron rice", new int[]{1}, new double[]{1});
+        PlanningSpace space = new PlanningSpace(List.of(toBuy, fromPantry), new double[]{500, 0});
+
+        // When
+        MealPlanGenerator.Plan plan = generator.search(space, 1, 2);
+
+        // Then - two portions use up the stock
+        assertThat(plan.meals()).containsExactly(fromPantry);
+        assertThat(plan.score()).isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should not repeat a meal while others are left")
+    void shouldAvoidRepeats() {
+        // Given
+        List<MealVector> meals = List.of(
+                meal("Soup", new int[]{0}, new double[]{100}),
+                meal("Stew", new int[]{1}, new double[]{100}),
+                meal("Salad", new int[]{2}, new double[]{100}));
+        PlanningSpace space = new PlanningSpace(meals, new double[]{100, 100, 100});
+
+        // When
+        MealPlanGenerator.Plan plan = generator.search(space, 3, 1);
+
+        // Then
+        assertThat(plan.meals()).containsExactlyInAnyOrderElementsOf(meals);
+        assertThat(plan.score()).isCloseTo(3.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should leave every slot empty when there is nothing to plan from")
+    void shouldLeaveSlotsEmptyWithoutMeals() {
+        // When
+        MealPlanGenerator.Plan plan = generator.search(new PlanningSpace(List.of(), new double[0]), 3, 1);
+
+        // Then
+        assertThat(plan.meals()).hasSize(3).containsOnlyNulls();
+    }
+
+    @Test
+    @DisplayName("Should plan only from unhidden templates carrying the dietary tags, without recipes")
+    void shouldRestrictDietaryPlansToTemplates() {
+        // Given
+        User user = User.builder().id(UUID.randomUUID()).build();
+        UUID hiddenId = UUID.randomUUID();
+        UUID veganId = UUID.randomUUID();
+        RecipeTemplatePreference hidden = RecipeTemplatePreference.builder()
+                .userId(user.getId()).templateId(hiddenId).hidden(true).build();
+        when(preferenceRepository.findFlaggedByUserId(user.getId())).thenReturn(List.of(hidden));
+        when(tagIndex.match(user.getId(), List.of(hiddenId), List.of(), null, null, List.of("vegan"), 0, Integer.MAX_VALUE))
+                .thenReturn(new TemplateTagIndex.Matches(List.of(veganId), 1, false, Map.of(), Map.of()));
+        when(pantryItemRepository.aggregateStock(user.getId(), null)).thenReturn(List.of());
+        PlanningSpace vegan = new PlanningSpace(List.of(), new double[0]);
+        when(suggestionIndex.planningSpace(eq(user.getId()), eq(false), eq(List.of(veganId)), any()))
+                .thenReturn(vegan);
+
+        // When
+        PlanningSpace space = generator.planningSpace(user, List.of("vegan"), true);
+
+        // Then
+        assertThat(space).isSameAs(vegan);
+        verify(suggestionIndex).planningSpace(eq(user.getId()), eq(false), eq(List.of(veganId)), any());
+    }
+
+    private static MealVector meal(String name, int[] keys, double[] amounts) {
+        return new MealVector(UUID.randomUUID(), SuggestionSource.recipe, name, keys, amounts);
+    }
+}
@@ -1,22 +1,32 @@
 package com.mealmap.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mealmap.exception.ConflictException;
 import com.mealmap.exception.ResourceNotFoundException;
 import com.mealmap.exception.UnauthorizedException;
 import com.mealmap.mapper.PlannerMapper;
 import com.mealmap.model.dto.planner.*;
 import com.mealmap.model.entity.*;
 import com.mealmap.model.enums.MealSlot;
+import com.mealmap.model.enums.SuggestionSource;
+import com.mealmap.observability.DomainMetrics;
 import com.mealmap.repository.*;
+import com.mealmap.repository.projection.GeneratedWeek;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -51,9 +61,38 @@ class PlannerServiceTest {
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private DomainMetrics domainMetrics;
+
+    @Mock
+    private RevisionStore revisionStore;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ProfileRepository profileRepository;
+
+    @Mock
+    private MealPlanGenerator mealPlanGenerator;
+
+    @Mock
+    private RecipeTemplateService recipeTemplateService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
     @InjectMocks
     private PlannerService plannerService;
 
+    record Generated(UUID id, LocalDate startDate) implements GeneratedWeek {
+
+        public UUID getId() { return id; }
+        public LocalDate getStartDate() { return startDate; }
+    }
+
     private User testUser;
     private Household testHousehold;
     private Recipe testRecipe;
@@ -83,6 +122,7 @@ class PlannerServiceTest {
                 .startDate(LocalDate.now().with(java.time.DayOfWeek.MONDAY))
                 .user(testUser)
                 .items(new ArrayList<>())
+                .version(0L)
                 .build();
 
         // Setup test planner item
@@ -101,6 +141,8 @@ class PlannerServiceTest {
         lenient().when(authentication.getName()).thenReturn("test@example.com");
         SecurityContextHolder.setContext(securityContext);
         lenient().when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
@@ -193,6 +235,7 @@ class PlannerServiceTest {
         // Then
         assertThat(result).isNotNull();
         verify(plannerWeekRepository).save(any(PlannerWeek.class));
+        verify(revisionStore).record(eq(RevisionStore.PLANNER_WEEK), eq(testPlannerWeek.getId()), eq(0L), any());
     }
 
     @Test
@@ -224,7 +267,7 @@ class PlannerServiceTest {
         request.setStartDate(monday);
         request.setItems(Collections.singletonList(itemRequest));
 
-        when(recipeRepository.findById(testRecipe.getId())).thenReturn(Optional.of(testRecipe));
+        when(recipeRepository.findAllById(Set.of(testRecipe.getId()))).thenReturn(List.of(testRecipe));
         when(plannerWeekRepository.save(any(PlannerWeek.class))).thenReturn(testPlannerWeek);
 
         PlannerWeekDto dto = new PlannerWeekDto();
@@ -235,20 +278,36 @@ class PlannerServiceTest {
 
         // Then
         assertThat(result).isNotNull();
-        verify(recipeRepository).findById(testRecipe.getId());
+        verify(recipeRepository).findAllById(Set.of(testRecipe.getId()));
         verify(plannerWeekRepository).save(any(PlannerWeek.class));
     }
 
+    @Test
+    @DisplayName("Should reject a new week with an item dated outside it")
+    void shouldRejectNewWeekWithItemOutsideWeek() {
+        // Given
+        LocalDate monday = LocalDate.now().with(java.time.DayOfWeek.MONDAY);
+        CreatePlannerWeekRequest request = new CreatePlannerWeekRequest();
+        request.setStartDate(monday);
+        request.setItems(List.of(itemRequest(null, monday.plusDays(7), MealSlot.dinner, testRecipe.getId())));
+
+        // When & Then
+        assertThatThrownBy(() -> plannerService.createPlannerWeek(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("outside the planner week");
+        verify(plannerWeekRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("Should update planner week")
     void shouldUpdatePlannerWeek() {
         // Given
         UUID weekId = testPlannerWeek.getId();
+        testPlannerWeek.getItems().add(testPlannerItem);
         UpdatePlannerWeekRequest request = new UpdatePlannerWeekRequest();
         request.setItems(Collections.emptyList());
 
         when(plannerWeekRepository.findById(weekId)).thenReturn(Optional.of(testPlannerWeek));
-        when(plannerWeekRepository.save(any(PlannerWeek.class))).thenReturn(testPlannerWeek);
 
         PlannerWeekDto dto = new PlannerWeekDto();
         when(plannerMapper.toDto(any(PlannerWeek.class))).thenReturn(dto);
@@ -258,7 +317,436 @@ class PlannerServiceTest {
 
         // Then
         assertThat(result).isNotNull();
-        verify(plannerWeekRepository).save(any(PlannerWeek.class));
+        assertThat(testPlannerWeek.getItems()).isEmpty();
+        verify(plannerWeekRepository).saveAndFlush(testPlannerWeek);
+        verify(revisionStore).record(eq(RevisionStore.PLANNER_WEEK), eq(weekId), anyLong(), eq(Map.of()));
+    }
+
+    @Test
+    @DisplayName("Should not write a week update that changes nothing")
+    void shouldSkipUnchangedWeekUpdate() {
+        // Given
+        testPlannerWeek.getItems().add(testPlannerItem);
+        UpdatePlannerWeekRequest request = new UpdatePlannerWeekRequest();
+        request.setVersion(0L);
+        request.setItems(List.of(itemRequest(testPlannerItem.getId(), testPlannerItem.getDate(), MealSlot.lunch,
+                testRecipe.getId())));
+
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        when(recipeRepository.findAllById(Set.of(testRecipe.getId()))).thenReturn(List.of(testRecipe));
+        when(plannerMapper.toDto(testPlannerWeek)).thenReturn(new PlannerWeekDto());
+
+        // When
+        plannerService.updatePlannerWeek(testPlannerWeek.getId(), request);
+
+        // Then
+        verify(plannerWeekRepository, never()).saveAndFlush(any());
+        verify(revisionStore, never()).record(any(), any(), anyLong(), any());
+        verify(domainMetrics).mergeOutcome(RevisionStore.PLANNER_WEEK, "current");
+    }
+
+    @Test
+    @DisplayName("Should merge an edit made against an older version with the changes since")
+    void shouldMergeStaleWeekUpdate() {
+        // Given - at version 3 the week had lunch and dinner; since then someone else moved dinner
+        // to Tuesday. This client, still at version 3, changes the lunch portions and adds breakfast
+        LocalDate monday = testPlannerWeek.getStartDate();
+        PlannerItem lunch = plannerItem(monday, MealSlot.lunch, testRecipe);
+        PlannerItem dinner = plannerItem(monday.plusDays(1), MealSlot.dinner, testRecipe);
+        testPlannerWeek.getItems().addAll(List.of(lunch, dinner));
+        testPlannerWeek.setVersion(4L);
+        stubRevision(3L, Map.of(
+                lunch.getId(), new PlannerService.ItemState(monday, MealSlot.lunch, testRecipe.getId(), 2),
+                dinner.getId(), new PlannerService.ItemState(monday, MealSlot.dinner, testRecipe.getId(), 2)));
+
+        CreatePlannerItemRequest changedLunch = itemRequest(lunch.getId(), monday, MealSlot.lunch, testRecipe.getId());
+        changedLunch.setPortions(4);
+        UpdatePlannerWeekRequest request = new UpdatePlannerWeekRequest();
+        request.setVersion(3L);
+        request.setItems(List.of(
+                changedLunch,
+                itemRequest(dinner.getId(), monday, MealSlot.dinner, testRecipe.getId()),
+                itemRequest(null, monday, MealSlot.breakfast, null)));
+
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        when(recipeRepository.findAllById(Set.of(testRecipe.getId()))).thenReturn(List.of(testRecipe));
+        when(plannerMapper.toDto(testPlannerWeek)).thenReturn(new PlannerWeekDto());
+
+        // When
+        plannerService.updatePlannerWeek(testPlannerWeek.getId(), request);
+
+        // Then - both edits survive
+        assertThat(lunch.getPortions()).isEqualTo(4);
+        assertThat(dinner.getDate()).isEqualTo(monday.plusDays(1));
+        assertThat(testPlannerWeek.getItems()).hasSize(3)
+                .anySatisfy(item -> assertThat(item.getSlot()).isEqualTo(MealSlot.breakfast));
+        verify(plannerWeekRepository).saveAndFlush(testPlannerWeek);
+        verify(domainMetrics).mergeOutcome(RevisionStore.PLANNER_WEEK, "merged");
+    }
+
+    @Test
+    @DisplayName("Should reject a stale edit that overlaps the changes since")
+    void shouldRejectConflictingStaleWeekUpdate() {
+        // Given - since version 3 someone else changed the lunch portions to 3, this client to 4
+        LocalDate monday = testPlannerWeek.getStartDate();
+        PlannerItem lunch = plannerItem(monday, MealSlot.lunch, testRecipe);
+        lunch.setPortions(3);
+        testPlannerWeek.getItems().add(lunch);
+        testPlannerWeek.setVersion(4L);
+        stubRevision(3L, Map.of(
+                lunch.getId(), new PlannerService.ItemState(monday, MealSlot.lunch, testRecipe.getId(), 2)));
+
+        CreatePlannerItemRequest changedLunch = itemRequest(lunch.getId(), monday, MealSlot.lunch, testRecipe.getId());
+        changedLunch.setPortions(4);
+        UpdatePlannerWeekRequest request = new UpdatePlannerWeekRequest();
+        request.setVersion(3L);
+        request.setItems(List.of(changedLunch));
+
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        when(recipeRepository.findAllById(Set.of(testRecipe.getId()))).thenReturn(List.of(testRecipe));
+
+        // When & Then
+        assertThatThrownBy(() -> plannerService.updatePlannerWeek(testPlannerWeek.getId(), request))
+                .isInstanceOfSatisfying(ConflictException.class, e -> {
+                    assertThat(e.getCurrentVersion()).isEqualTo(4L);
+                    assertThat(e.getConflicts()).containsExactly(lunch.getId().toString());
+                });
+        assertThat(lunch.getPortions()).isEqualTo(3);
+        verify(plannerWeekRepository, never()).saveAndFlush(any());
+        verify(domainMetrics).mergeOutcome(RevisionStore.PLANNER_WEEK, "conflict");
+    }
+
+    @Test
+    @DisplayName("Should report a conflict when the base revision has expired")
+    void shouldRejectStaleWeekUpdateWithoutBase() {
+        // Given
+        testPlannerWeek.setVersion(4L);
+        UpdatePlannerWeekRequest request = new UpdatePlannerWeekRequest();
+        request.setVersion(1L);
+        request.setItems(List.of());
+
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        when(revisionStore.<Map<UUID, PlannerService.ItemState>>find(eq(RevisionStore.PLANNER_WEEK),
+                eq(testPlannerWeek.getId()), eq(1L), any())).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> plannerService.updatePlannerWeek(testPlannerWeek.getId(), request))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("no longer available");
+    }
+
+    @Test
+    @DisplayName("Should only touch changed items when updating a planner week")
+    void shouldMergeItemsWhenUpdatingPlannerWeek() {
+        // Given - lunch on Monday stays, dinner moves to Tuesday, breakfast is removed, one item is added
+        LocalDate monday = testPlannerWeek.getStartDate();
+        Recipe otherRecipe = new Recipe();
+        otherRecipe.setId(UUID.randomUUID());
+        PlannerItem lunch = plannerItem(monday, MealSlot.lunch, testRecipe);
+        PlannerItem dinner = plannerItem(monday, MealSlot.dinner, otherRecipe);
+        PlannerItem breakfast = plannerItem(monday, MealSlot.breakfast, null);
+        testPlannerWeek.getItems().addAll(List.of(lunch, dinner, breakfast));
+
+        UpdatePlannerWeekRequest request = new UpdatePlannerWeekRequest();
+        request.setItems(List.of(
+                itemRequest(null, monday, MealSlot.lunch, testRecipe.getId()),
+                itemRequest(null, monday.plusDays(1), MealSlot.dinner, otherRecipe.getId()),
+                itemRequest(null, monday.plusDays(2), MealSlot.lunch, testRecipe.getId())));
+
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        when(recipeRepository.findAllById(Set.of(testRecipe.getId(), otherRecipe.getId())))
+                .thenReturn(List.of(testRecipe, otherRecipe));
+        when(plannerMapper.toDto(testPlannerWeek)).thenReturn(new PlannerWeekDto());
+
+        // When
+        plannerService.updatePlannerWeek(testPlannerWeek.getId(), request);
+
+        // Then - existing rows are kept and updated in place, only the difference is inserted or removed
+        assertThat(testPlannerWeek.getItems()).hasSize(3).contains(lunch, dinner).doesNotContain(breakfast);
+        assertThat(lunch.getDate()).isEqualTo(monday);
+        assertThat(dinner.getDate()).isEqualTo(monday.plusDays(1));
+        assertThat(testPlannerWeek.getItems())
+                .filteredOn(item -> item.getId() == null)
+                .singleElement()
+                .satisfies(item -> {
+                    assertThat(item.getDate()).isEqualTo(monday.plusDays(2));
+                    assertThat(item.getRecipe()).isSameAs(testRecipe);
+                });
+        verify(recipeRepository, never()).findById(any());
+        verify(plannerWeekRepository).saveAndFlush(testPlannerWeek);
+    }
+
+    @Test
+    @DisplayName("Should reject a week update that references a missing recipe")
+    void shouldRejectWeekUpdateWithMissingRecipe() {
+        // Given
+        UUID missingRecipeId = UUID.randomUUID();
+        UpdatePlannerWeekRequest request = new UpdatePlannerWeekRequest();
+        request.setItems(List.of(itemRequest(null, testPlannerWeek.getStartDate(), MealSlot.lunch, missingRecipeId)));
+
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        when(recipeRepository.findAllById(Set.of(missingRecipeId))).thenReturn(List.of());
+
+        // When & Then
+        assertThatThrownBy(() -> plannerService.updatePlannerWeek(testPlannerWeek.getId(), request))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining(missingRecipeId.toString());
+        verify(plannerWeekRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Should add a single item without rewriting the week")
+    void shouldAddPlannerItem() {
+        // Given
+        CreatePlannerItemRequest request = itemRequest(null, testPlannerWeek.getStartDate(), MealSlot.dinner,
+                testRecipe.getId());
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        when(recipeRepository.findAllById(Set.of(testRecipe.getId()))).thenReturn(List.of(testRecipe));
+        when(plannerItemRepository.save(any(PlannerItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(plannerMapper.toItemDto(any(PlannerItem.class))).thenReturn(new PlannerItemDto());
+
+        // When
+        PlannerItemDto result = plannerService.addPlannerItem(testPlannerWeek.getId(), request);
+
+        // Then
+        assertThat(result).isNotNull();
+        verify(plannerItemRepository).save(argThat(item ->
+                item.getPlannerWeek() == testPlannerWeek && item.getRecipe() == testRecipe));
+        verify(plannerWeekRepository, never()).save(any());
+        verify(plannerWeekRepository).saveAndFlush(testPlannerWeek);
+    }
+
+    @Test
+    @DisplayName("Should reject an item dated outside its week")
+    void shouldRejectItemOutsideWeek() {
+        // Given
+        CreatePlannerItemRequest request = itemRequest(null, testPlannerWeek.getStartDate().plusDays(7),
+                MealSlot.dinner, null);
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+
+        // When & Then
+        assertThatThrownBy(() -> plannerService.addPlannerItem(testPlannerWeek.getId(), request))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(plannerItemRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should move a single item to another slot")
+    void shouldUpdatePlannerItem() {
+        // Given
+        UpdatePlannerItemRequest request = new UpdatePlannerItemRequest();
+        request.setSlot(MealSlot.dinner);
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        when(plannerItemRepository.findByIdAndPlannerWeekId(testPlannerItem.getId(), testPlannerWeek.getId()))
+                .thenReturn(Optional.of(testPlannerItem));
+        when(plannerItemRepository.save(testPlannerItem)).thenReturn(testPlannerItem);
+        when(plannerMapper.toItemDto(testPlannerItem)).thenReturn(new PlannerItemDto());
+
+        // When
+        plannerService.updatePlannerItem(testPlannerWeek.getId(), testPlannerItem.getId(), request);
+
+        // Then - only the slot changes
+        assertThat(testPlannerItem.getSlot()).isEqualTo(MealSlot.dinner);
+        assertThat(testPlannerItem.getPortions()).isEqualTo(2);
+        assertThat(testPlannerItem.getRecipe()).isSameAs(testRecipe);
+    }
+
+    @Test
+    @DisplayName("Should delete a single item")
+    void shouldDeletePlannerItem() {
+        // Given
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        when(plannerItemRepository.findByIdAndPlannerWeekId(testPlannerItem.getId(), testPlannerWeek.getId()))
+                .thenReturn(Optional.of(testPlannerItem));
+
+        // When
+        plannerService.deletePlannerItem(testPlannerWeek.getId(), testPlannerItem.getId());
+
+        // Then
+        verify(plannerItemRepository).delete(testPlannerItem);
+        verify(plannerWeekRepository).saveAndFlush(testPlannerWeek);
+    }
+
+    @Test
+    @DisplayName("Should generate rotation weeks with one insert for weeks and one for items")
+    void shouldCreateRotation() {
+        // Given - a two-week rotation (this week and the next) repeated over four weeks
+        LocalDate start = testPlannerWeek.getStartDate().plusWeeks(4);
+        PlannerWeek secondPatternWeek = PlannerWeek.builder()
+                .id(UUID.randomUUID())
+                .startDate(testPlannerWeek.getStartDate().plusWeeks(1))
+                .user(testUser)
+                .items(new ArrayList<>())
+                .build();
+        List<GeneratedWeek> created = List.of(generatedWeek(start), generatedWeek(start.plusWeeks(1)));
+        List<UUID> createdIds = created.stream().map(GeneratedWeek::getId).toList();
+        PlannerWeek createdWeek = PlannerWeek.builder().id(createdIds.get(0)).startDate(start).user(testUser)
+                .items(new ArrayList<>()).version(0L).build();
+
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        when(plannerWeekRepository.findByUserOrHouseholdsAndDateRange(testUser.getId(), List.of(),
+                testPlannerWeek.getStartDate(), secondPatternWeek.getStartDate()))
+                .thenReturn(List.of(secondPatternWeek, testPlannerWeek));
+        when(plannerWeekRepository.insertRotationWeeks(testPlannerWeek.getId(), start, 4)).thenReturn(created);
+        when(plannerItemRepository.insertRotationItems(testPlannerWeek.getId(), start, 2, createdIds, testUser.getId()))
+                .thenReturn(6);
+        when(plannerWeekRepository.findAllWithItemsByIdIn(createdIds)).thenReturn(List.of(createdWeek));
+        when(plannerMapper.toDto(createdWeek)).thenReturn(new PlannerWeekDto());
+
+        CreateRotationRequest request = new CreateRotationRequest();
+        request.setCycleWeeks(2);
+        request.setStartDate(start);
+        request.setWeeks(4);
+
+        // When
+        List<PlannerWeekDto> result = plannerService.createRotation(testPlannerWeek.getId(), request);
+
+        // Then - no per-item ORM writes
+        assertThat(result).hasSize(1);
+        verify(plannerItemRepository, never()).save(any());
+        verify(plannerWeekRepository, never()).save(any());
+        verify(revisionStore).record(eq(RevisionStore.PLANNER_WEEK), eq(createdWeek.getId()), eq(0L), any());
+    }
+
+    @Test
+    @DisplayName("Should generate meals for the open slots only and insert them with one statement")
+    void shouldGenerateWeek() {
+        // Given - lunch and dinner every day, Monday's lunch already planned
+        LocalDate monday = testPlannerWeek.getStartDate();
+        testPlannerItem.setDate(monday);
+        testPlannerWeek.getItems().add(testPlannerItem);
+        UUID templateId = UUID.randomUUID();
+        Recipe templateCopy = Recipe.builder().id(UUID.randomUUID()).name("Fried rice").build();
+        List<RecipeSuggestionIndex.MealVector> meals = new ArrayList<>(Collections.nCopies(13, null));
+        meals.set(0, new RecipeSuggestionIndex.MealVector(testRecipe.getId(), SuggestionSource.recipe, "Test Recipe",
+                new int[0], new double[0]));
+        meals.set(1, new RecipeSuggestionIndex.MealVector(templateId, SuggestionSource.template, "Fried rice",
+                new int[0], new double[0]));
+
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        RecipeSuggestionIndex.PlanningSpace space = new RecipeSuggestionIndex.PlanningSpace(List.of(), new double[0]);
+        when(mealPlanGenerator.planningSpace(testUser, null, true)).thenReturn(space);
+        when(mealPlanGenerator.search(space, 13, 2)).thenReturn(new MealPlanGenerator.Plan(meals, 1.0));
+        when(recipeTemplateService.copyToRecipes(Set.of(templateId), testUser))
+                .thenReturn(Map.of(templateId, templateCopy));
+        when(plannerWeekRepository.findAllWithItemsByIdIn(List.of(testPlannerWeek.getId())))
+                .thenReturn(List.of(testPlannerWeek));
+        when(plannerMapper.toDto(testPlannerWeek)).thenReturn(new PlannerWeekDto());
+
+        GeneratePlannerWeekRequest request = new GeneratePlannerWeekRequest();
+        request.setSlots(List.of(MealSlot.dinner, MealSlot.lunch));
+        request.setPortions(2);
+
+        // When
+        plannerService.generateWeek(testPlannerWeek.getId(), request);
+
+        // Then - Monday's dinner and Tuesday's lunch, the template planned as its copy
+        verify(plannerItemRepository).insertGeneratedItems(eq(testPlannerWeek.getId()), eq(testUser.getId()),
+                argThat(json -> json.equals("[{\"date\":\"" + monday + "\",\"slot\":\"dinner\",\"recipeId\":\""
+                        + testRecipe.getId() + "\",\"portions\":2},{\"date\":\"" + monday.plusDays(1)
+                        + "\",\"slot\":\"lunch\",\"recipeId\":\"" + templateCopy.getId() + "\",\"portions\":2}]")));
+        verify(plannerItemRepository, never()).save(any());
+        verify(plannerWeekRepository).saveAndFlush(testPlannerWeek);
+        verify(profileRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should plan dinners when neither the request nor the profile names meal slots")
+    void shouldGenerateDinnersWithoutMealSlots() {
+        // Given
+        Profile profile = Profile.builder().userId(testUser.getId()).mealSlots(List.of()).build();
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        when(profileRepository.findById(testUser.getId())).thenReturn(Optional.of(profile));
+        RecipeSuggestionIndex.PlanningSpace space = new RecipeSuggestionIndex.PlanningSpace(List.of(), new double[0]);
+        when(mealPlanGenerator.planningSpace(testUser, null, true)).thenReturn(space);
+        when(mealPlanGenerator.search(space, 7, 1))
+                .thenReturn(new MealPlanGenerator.Plan(new ArrayList<>(Collections.nCopies(7, null)), 0));
+        when(plannerWeekRepository.findAllWithItemsByIdIn(List.of(testPlannerWeek.getId())))
+                .thenReturn(List.of(testPlannerWeek));
+
+        // When
+        plannerService.generateWeek(testPlannerWeek.getId(), new GeneratePlannerWeekRequest());
+
+        // Then - nothing to plan from, so nothing is written but the week still gets its revision
+        verify(plannerItemRepository, never()).insertGeneratedItems(any(), any(), any());
+        verify(recipeTemplateService, never()).copyToRecipes(any(), any());
+        verify(revisionStore).record(eq(RevisionStore.PLANNER_WEEK), eq(testPlannerWeek.getId()), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should not write generated meals when the week changed during the search")
+    void shouldRejectGeneratedMealsForChangedWeek() {
+        // Given - another edit bumps the week while the search runs
+        testPlannerWeek.setVersion(3L);
+        PlannerWeek changed = PlannerWeek.builder()
+                .id(testPlannerWeek.getId())
+                .startDate(testPlannerWeek.getStartDate())
+                .user(testUser)
+                .items(new ArrayList<>())
+                .version(4L)
+                .build();
+        RecipeSuggestionIndex.PlanningSpace space = new RecipeSuggestionIndex.PlanningSpace(List.of(), new double[0]);
+        GeneratePlannerWeekRequest request = new GeneratePlannerWeekRequest();
+        request.setSlots(List.of(MealSlot.dinner));
+        when(plannerWeekRepository.findById(testPlannerWeek.getId()))
+                .thenReturn(Optional.of(testPlannerWeek), Optional.of(changed));
+        when(mealPlanGenerator.planningSpace(testUser, null, true)).thenReturn(space);
+        when(mealPlanGenerator.search(space, 7, 1))
+                .thenReturn(new MealPlanGenerator.Plan(new ArrayList<>(Collections.nCopies(7, null)), 0));
+
+        // When & Then
+        assertThatThrownBy(() -> plannerService.generateWeek(testPlannerWeek.getId(), request))
+                .isInstanceOf(ConflictException.class);
+        verify(plannerWeekRepository, never()).saveAndFlush(any());
+        verify(plannerItemRepository, never()).insertGeneratedItems(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject a rotation whose pattern weeks do not all exist")
+    void shouldRejectRotationWithMissingPatternWeek() {
+        // Given
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        when(plannerWeekRepository.findByUserOrHouseholdsAndDateRange(any(), any(), any(), any()))
+                .thenReturn(List.of(testPlannerWeek));
+        CreateRotationRequest request = new CreateRotationRequest();
+        request.setCycleWeeks(2);
+        request.setStartDate(testPlannerWeek.getStartDate().plusWeeks(4));
+        request.setWeeks(4);
+
+        // When & Then
+        assertThatThrownBy(() -> plannerService.createRotation(testPlannerWeek.getId(), request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does not exist");
+        verify(plannerWeekRepository, never()).insertRotationWeeks(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should report a conflict with the existing week when copying onto it")
+    void shouldRejectCopyOntoExistingWeek() {
+        // Given
+        LocalDate target = testPlannerWeek.getStartDate().plusWeeks(1);
+        CopyPlannerWeekRequest request = new CopyPlannerWeekRequest();
+        request.setTargetStartDate(target);
+        PlannerWeek existing = PlannerWeek.builder()
+                .id(UUID.randomUUID())
+                .startDate(target)
+                .user(testUser)
+                .items(new ArrayList<>())
+                .version(3L)
+                .build();
+        when(plannerWeekRepository.findById(testPlannerWeek.getId())).thenReturn(Optional.of(testPlannerWeek));
+        when(plannerWeekRepository.insertRotationWeeks(testPlannerWeek.getId(), target, 1)).thenReturn(List.of());
+        when(plannerWeekRepository.findByUserOrHouseholdsAndDateRange(testUser.getId(), List.of(), target, target))
+                .thenReturn(List.of(existing));
+
+        // When & Then
+        assertThatThrownBy(() -> plannerService.copyPlannerWeek(testPlannerWeek.getId(), request))
+                .isInstanceOfSatisfying(ConflictException.class, conflict -> {
+                    assertThat(conflict.getMessage()).contains("already exists");
+                    assertThat(conflict.getCurrentVersion()).isEqualTo(3L);
+                    assertThat(conflict.getConflicts()).containsExactly(existing.getId().toString());
+                });
+        verify(plannerItemRepository, never()).insertRotationItems(any(), any(), anyInt(), any(), any());
     }
 
     @Test
@@ -291,6 +779,7 @@ class PlannerServiceTest {
                 .startDate(monday)
                 .household(testHousehold)
                 .items(new ArrayList<>())
+                .version(0L)
                 .build();
 
         when(plannerWeekRepository.save(any(PlannerWeek.class))).thenReturn(householdWeek);
@@ -320,4 +809,35 @@ class PlannerServiceTest {
                 .isInstanceOf(UnauthorizedException.class)
                 .hasMessageContaining("don't have access");
     }
+
+    private PlannerItem plannerItem(LocalDate date, MealSlot slot, Recipe recipe) {
+        return PlannerItem.builder()
+                .id(UUID.randomUUID())
+                .date(date)
+                .slot(slot)
+                .recipe(recipe)
+                .portions(2)
+                .addedByUser(testUser)
+                .plannerWeek(testPlannerWeek)
+                .build();
+    }
+
+    private static GeneratedWeek generatedWeek(LocalDate startDate) {
+        return new Generated(UUID.randomUUID(), startDate);
+    }
+
+    private void stubRevision(long version, Map<UUID, PlannerService.ItemState> items) {
+        when(revisionStore.<Map<UUID, PlannerService.ItemState>>find(eq(RevisionStore.PLANNER_WEEK),
+                eq(testPlannerWeek.getId()), eq(version), any())).thenReturn(Optional.of(items));
+    }
+
+    private static CreatePlannerItemRequest itemRequest(UUID id, LocalDate date, MealSlot slot, UUID recipeId) {
+        CreatePlannerItemRequest request = new CreatePlannerItemRequest();
+        request.setId(id);
+        request.setDate(date);
+        request.setSlot(slot);
+        request.setRecipeId(recipeId);
+        request.setPortions(2);
+        return request;
+    }
 }
@@ -1,22 +1,34 @@
 package com.mealmap.service;
 
+import com.mealmap.mapper.RecipeMapper;
 import com.mealmap.model.dto.recipe.*;
 import com.mealmap.model.embedded.Quantity;
 import com.mealmap.model.entity.Recipe;
 import com.mealmap.model.entity.RecipeItem;
 import com.mealmap.model.entity.User;
+import com.mealmap.model.enums.SuggestionSource;
 import com.mealmap.model.enums.Unit;
+import com.mealmap.observability.DomainMetrics;
+import com.mealmap.repository.IngredientRepository;
+import com.mealmap.repository.PantryItemRepository;
+import com.mealmap.repository.RecipeIngredientTotalRepository;
 import com.mealmap.repository.RecipeRepository;
+import com.mealmap.repository.projection.PantryStock;
+import com.mealmap.repository.projection.RecipeItemRow;
+import com.mealmap.repository.projection.RecipeSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,10 +40,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,9 +56,24 @@ class RecipeServiceTest {
     @Mock
     private RecipeRepository recipeRepository;
 
+    @Mock
+    private RecipeIngredientTotalRepository recipeIngredientTotalRepository;
+
+    @Mock
+    private IngredientRepository ingredientRepository;
+
     @Mock
     private com.mealmap.repository.UserRepository userRepository;
 
+    @Mock
+    private PantryItemRepository pantryItemRepository;
+
+    @Mock
+    private RecipeSuggestionIndex suggestionIndex;
+
+    @Mock
+    private RecipeSimilarityIndex similarityIndex;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -54,14 +83,53 @@ class RecipeServiceTest {
     @Mock
     private org.springframework.security.core.userdetails.UserDetails userDetails;
 
+    @Mock
+    private DomainMetrics domainMetrics;
+
+    @Spy
+    private RecipeMapper recipeMapper = Mappers.getMapper(RecipeMapper.class);
+
     @InjectMocks
     private RecipeService recipeService;
 
+    private static final UUID SYSTEM_USER_ID = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+
     private User testUser;
     private Recipe testRecipe;
     private CreateRecipeRequest createRequest;
     private UpdateRecipeRequest updateRequest;
 
+    record Summary(UUID id, String name, String externalUrl, String notes, Instant createdAt,
+                   Instant updatedAt) implements RecipeSummary {
+
+        static Summary of(Recipe recipe) {
+            return new Summary(recipe.getId(), recipe.getName(), recipe.getExternalUrl(), recipe.getNotes(),
+                    recipe.getCreatedAt(), recipe.getUpdatedAt());
+        }
+
+        public UUID getId() { return id; }
+        public String getName() { return name; }
+        public String getExternalUrl() { return externalUrl; }
+        public String getNotes() { return notes; }
+        public Instant getCreatedAt() { return createdAt; }
+        public Instant getUpdatedAt() { return updatedAt; }
+    }
+
+    record ItemRow(UUID recipeId, UUID ingredientId, BigDecimal amount, Unit unit,
+                   String packageNote) implements RecipeItemRow {
+
+        static ItemRow of(RecipeItem item) {
+            return new ItemRow(item.getRecipe().getId(), item.getIngredientId(), item.getQuantity().getAmount(),
+                    item.getQuantity().getUnit(), item.getPackageNote());
+        }
+
+        public UUID getRecipeId() { return recipeId; }
+        public UUID getIngredientId() { return ingredientId; }
+        public BigDecimal getAmount() { return amount; }
+        public Unit getUnit() { return unit; }
+        public String getPackageNote() { return packageNote; }
+    }
+
     @BeforeEach
     void setUp() {
         testUser = User.builder()
@@ -123,10 +191,11 @@ class RecipeServiceTest {
     @DisplayName("Should retrieve all user recipes with pagination when requested by authenticated user")
     void shouldRetrieveAllUserRecipesWithPaginationWhenRequestedByAuthenticatedUser() {
         // Given - authenticated user has recipes in database
-        List<Recipe> recipes = Arrays.asList(testRecipe);
-        Page<Recipe> page = new PageImpl<>(recipes);
+        Page<RecipeSummary> page = new PageImpl<>(List.of(Summary.of(testRecipe)));
         when(recipeRepository.findByOwnerUserId(eq(testUser.getId()), any(Pageable.class)))
                 .thenReturn(page);
+        when(recipeRepository.findItemRowsByRecipeIdIn(List.of(testRecipe.getId())))
+                .thenReturn(List.of(ItemRow.of(testRecipe.getItems().get(0))));
 
         // When - user requests their recipes
         RecipePageResponse response = recipeService.getRecipes(20, null, null);
@@ -141,7 +210,8 @@ class RecipeServiceTest {
         assertThat(response.getData().get(0))
                 .satisfies(recipe -> {
                     assertThat(recipe.getName()).isEqualTo("Grilled Chicken");
-                    assertThat(recipe.getItems()).hasSize(1);
+                    assertThat(recipe.getItems()).singleElement()
+                            .satisfies(item -> assertThat(item.getPackageNote()).isEqualTo("Fresh"));
                     assertThat(recipe.getId()).isEqualTo(testRecipe.getId());
                 });
 
@@ -152,11 +222,11 @@ class RecipeServiceTest {
     @DisplayName("Should filter user recipes by name using case-insensitive search when search query is provided")
     void shouldFilterUserRecipesByNameUsingCaseInsensitiveSearchWhenSearchQueryProvided() {
         // Given - user has recipe matching search term
-        List<Recipe> recipes = Arrays.asList(testRecipe);
-        Page<Recipe> page = new PageImpl<>(recipes);
+        Page<RecipeSummary> page = new PageImpl<>(List.of(Summary.of(testRecipe)));
         when(recipeRepository.findByOwnerUserIdAndNameContainingIgnoreCase(
                 eq(testUser.getId()), eq("chicken"), any(Pageable.class)))
                 .thenReturn(page);
+        when(recipeRepository.findItemRowsByRecipeIdIn(List.of(testRecipe.getId()))).thenReturn(List.of());
 
         // When - user searches for recipes containing "chicken"
         RecipePageResponse response = recipeService.getRecipes(20, null, "chicken");
@@ -259,7 +329,13 @@ class RecipeServiceTest {
     @DisplayName("Should create new recipe with all provided details and associate it with authenticated user")
     void shouldCreateNewRecipeWithAllProvidedDetailsAndAssociateItWithAuthenticatedUser() {
         // Given - valid recipe creation request from authenticated user
+        UUID ingredientId = createRequest.getItems().get(0).getIngredientId();
+        when(ingredientRepository.findVisibleIds(Set.of(ingredientId), List.of(testUser.getId(), SYSTEM_USER_ID)))
+                .thenReturn(List.of(ingredientId));
         when(recipeRepository.save(any(Recipe.class))).thenReturn(testRecipe);
+        RecipeSimilarityIndex.Match earlierCopy = new RecipeSimilarityIndex.Match(UUID.randomUUID(), "Chicken", 1.0);
+        when(similarityIndex.possibleDuplicates(testUser.getId(), List.of(ingredientId), testRecipe.getId()))
+                .thenReturn(List.of(earlierCopy));
 
         // When - user creates new recipe
         RecipeDto result = recipeService.createRecipe(createRequest);
@@ -273,9 +349,14 @@ class RecipeServiceTest {
                     assertThat(recipe.getExternalUrl()).isNotBlank();
                                         assertThat(recipe.getNotes()).isEqualTo("Tastes better next day");
                     assertThat(recipe.getItems()).isNotEmpty();
+                    assertThat(recipe.getPossibleDuplicates()).singleElement()
+                            .satisfies(duplicate -> assertThat(duplicate.getId()).isEqualTo(earlierCopy.id()));
                 });
 
         verify(recipeRepository).save(any(Recipe.class));
+        verify(recipeIngredientTotalRepository).refresh(testRecipe.getId());
+        verify(suggestionIndex).putRecipe(eq(testRecipe), anyList());
+        verify(similarityIndex).putRecipe(eq(testRecipe), anyList());
     }
 
     @Test
@@ -293,6 +374,7 @@ class RecipeServiceTest {
                 assertThat(result.getNotes()).isEqualTo("Brush with sauce last");
         verify(recipeRepository).findById(testRecipe.getId());
         verify(recipeRepository).save(testRecipe);
+        verify(recipeIngredientTotalRepository, never()).refresh(any());
     }
 
     @Test
@@ -308,6 +390,7 @@ class RecipeServiceTest {
 
         updateRequest.setItems(Arrays.asList(newItem));
 
+        when(ingredientRepository.findVisibleIds(any(), any())).thenReturn(List.of(newItem.getIngredientId()));
         when(recipeRepository.findById(testRecipe.getId())).thenReturn(Optional.of(testRecipe));
         when(recipeRepository.save(any(Recipe.class))).thenReturn(testRecipe);
 
@@ -318,6 +401,77 @@ class RecipeServiceTest {
         assertThat(result).isNotNull();
         verify(recipeRepository).findById(testRecipe.getId());
         verify(recipeRepository).save(testRecipe);
+        verify(recipeIngredientTotalRepository).refresh(testRecipe.getId());
+    }
+
+    @Test
+    @DisplayName("Should keep unchanged recipe items and update changed ones in place")
+    void shouldDiffRecipeItems() {
+        // Given - the existing item comes back with a new amount, plus one new item
+        RecipeItem existing = testRecipe.getItems().get(0);
+        RecipeItemDto changed = RecipeItemDto.builder()
+                .ingredientId(existing.getIngredientId())
+                .quantity(Quantity.builder().amount(new BigDecimal("0.75")).unit(Unit.kg).build())
+                .packageNote("Fresh")
+                .build();
+        RecipeItemDto added = RecipeItemDto.builder()
+                .ingredientId(UUID.randomUUID())
+                .quantity(Quantity.builder().amount(BigDecimal.ONE).unit(Unit.pc).build())
+                .build();
+        updateRequest.setItems(List.of(changed, added));
+
+        when(ingredientRepository.findVisibleIds(any(), any()))
+                .thenReturn(List.of(existing.getIngredientId(), added.getIngredientId()));
+        when(recipeRepository.findById(testRecipe.getId())).thenReturn(Optional.of(testRecipe));
+        when(recipeRepository.save(testRecipe)).thenReturn(testRecipe);
+
+        // When
+        recipeService.updateRecipe(testRecipe.getId(), updateRequest);
+
+        // Then - the existing row is kept (same entity, same id), only the new one is inserted
+        assertThat(testRecipe.getItems()).hasSize(2).startsWith(existing);
+        assertThat(existing.getQuantity().getAmount()).isEqualByComparingTo("0.75");
+        assertThat(testRecipe.getItems().get(1).getId()).isNull();
+        verify(recipeIngredientTotalRepository).refresh(testRecipe.getId());
+    }
+
+    @Test
+    @DisplayName("Should not touch items or totals when the same items are sent back")
+    void shouldSkipUnchangedRecipeItems() {
+        // Given - same item, amount written with a different scale
+        RecipeItem existing = testRecipe.getItems().get(0);
+        RecipeItemDto same = RecipeItemDto.builder()
+                .ingredientId(existing.getIngredientId())
+                .quantity(Quantity.builder().amount(new BigDecimal("0.50")).unit(Unit.kg).build())
+                .packageNote("Fresh")
+                .build();
+        updateRequest.setItems(List.of(same));
+
+        when(ingredientRepository.findVisibleIds(any(), any())).thenReturn(List.of(existing.getIngredientId()));
+        when(recipeRepository.findById(testRecipe.getId())).thenReturn(Optional.of(testRecipe));
+        when(recipeRepository.save(testRecipe)).thenReturn(testRecipe);
+
+        // When
+        recipeService.updateRecipe(testRecipe.getId(), updateRequest);
+
+        // Then
+        assertThat(testRecipe.getItems()).containsExactly(existing);
+        assertThat(existing.getQuantity().getAmount()).isEqualByComparingTo("0.5");
+        verify(recipeIngredientTotalRepository, never()).refresh(any());
+    }
+
+    @Test
+    @DisplayName("Should reject a recipe that references an unknown ingredient")
+    void shouldRejectUnknownIngredient() {
+        // Given
+        when(ingredientRepository.findVisibleIds(any(), any())).thenReturn(List.of());
+
+        // When & Then
+        assertThatThrownBy(() -> recipeService.createRecipe(createRequest))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Ingredient not found")
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        verify(recipeRepository, never()).save(any(Recipe.class));
     }
 
     @Test
@@ -333,6 +487,55 @@ class RecipeServiceTest {
         verify(recipeRepository).findById(testRecipe.getId());
         verify(recipeRepository).delete(testRecipe);
         verify(recipeRepository, times(1)).delete(any(Recipe.class));
+        verify(suggestionIndex).removeRecipe(testRecipe.getId());
+        verify(similarityIndex).removeRecipe(testRecipe.getId());
+    }
+
+    @Test
+    @DisplayName("Should score suggestions against the pantry stock of the user and their household")
+    void shouldSuggestRecipesFromPantryStock() {
+        // Given
+        PantryStock stock = mock(PantryStock.class);
+        UUID ingredientId = UUID.randomUUID();
+        RecipeSuggestionIndex.Suggestion suggestion = new RecipeSuggestionIndex.Suggestion(
+                testRecipe.getId(), SuggestionSource.recipe, "Grilled Chicken", 0.5, 1, 2,
+                List.of(ingredientId), List.of());
+        when(pantryItemRepository.aggregateStock(testUser.getId(), null)).thenReturn(List.of(stock));
+        when(suggestionIndex.suggest(testUser.getId(), List.of(stock), 10)).thenReturn(List.of(suggestion));
+
+        // When
+        List<RecipeSuggestionDto> result = recipeService.getSuggestions(null);
+
+        // Then
+        assertThat(result).singleElement().satisfies(dto -> {
+            assertThat(dto.getId()).isEqualTo(testRecipe.getId());
+            assertThat(dto.getSource()).isEqualTo(SuggestionSource.recipe);
+            assertThat(dto.getCoverage()).isEqualTo(0.5);
+            assertThat(dto.getMatchedIngredients()).isEqualTo(1);
+            assertThat(dto.getTotalIngredients()).isEqualTo(2);
+            assertThat(dto.getMissingIngredientIds()).containsExactly(ingredientId);
+        });
+    }
+
+    @Test
+    @DisplayName("Should look up similar recipes by the ingredients of the recipe, leaving it out")
+    void shouldFindSimilarRecipes() {
+        // Given
+        UUID ingredientId = testRecipe.getItems().get(0).getIngredientId();
+        RecipeSimilarityIndex.Match match = new RecipeSimilarityIndex.Match(UUID.randomUUID(), "Chicken Wrap", 0.6);
+        when(recipeRepository.findById(testRecipe.getId())).thenReturn(Optional.of(testRecipe));
+        when(similarityIndex.similar(testUser.getId(), List.of(ingredientId), testRecipe.getId(),
+                RecipeSimilarityIndex.SIMILAR, 10)).thenReturn(List.of(match));
+
+        // When
+        List<SimilarRecipeDto> result = recipeService.getSimilarRecipes(testRecipe.getId(), null);
+
+        // Then
+        assertThat(result).singleElement().satisfies(dto -> {
+            assertThat(dto.getId()).isEqualTo(match.id());
+            assertThat(dto.getName()).isEqualTo("Chicken Wrap");
+            assertThat(dto.getSimilarity()).isEqualTo(0.6);
+        });
     }
 
     @Test
@@ -0,0 +1,160 @@
+package com.mealmap.service;
+
+import com.mealmap.model.entity.Recipe;
+import com.mealmap.model.entity.RecipeIngredientTotal;
+import com.mealmap.repository.projection.SuggestionRequirementRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("RecipeSimilarityIndex Tests")
+class RecipeSimilarityIndexTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID otherUserId = UUID.randomUUID();
+    private RecipeSimilarityIndex index;
+
+    private record Row(UUID getCandidateId, String getName, UUID getOwnerUserId, UUID getIngredientId,
+                       String getBaseUnit, BigDecimal getAmount) implements SuggestionRequirementRow {
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new RecipeSimilarityIndex();
+    }
+
+    @Test
+    @DisplayName("Should find the user's near copies with their exact similarity and leave out the queried recipe")
+    void shouldFindNearCopies() {
+        // Given - twenty ingredients, one swapped in the copy
+        List<UUID> ingredients = ingredients(20);
+        List<UUID> swapped = new ArrayList<>(ingredients.subList(0, 19));
+        swapped.add(UUID.randomUUID());
+        Recipe original = recipe("Chili", userId);
+        Recipe copy = recipe("Chili (copy)", userId);
+        Recipe othersCopy = recipe("Chili", otherUserId);
+        Recipe unrelated = recipe("Pancakes", userId);
+        index.putRecipe(original, totals(original, ingredients));
+        index.putRecipe(copy, totals(copy, swapped));
+        index.putRecipe(othersCopy, totals(othersCopy, ingredients));
+        index.putRecipe(unrelated, totals(unrelated, ingredients(5)));
+
+        // When
+        List<RecipeSimilarityIndex.Match> matches = index.similar(userId, ingredients, original.getId(),
+                RecipeSimilarityIndex.SIMILAR, 10);
+
+        // Then
+        assertThat(matches).singleElement().satisfies(match -> {
+            assertThat(match.id()).isEqualTo(copy.getId());
+            assertThat(match.similarity()).isEqualTo(19.0 / 21);
+        });
+    }
+
+    @Test
+    @DisplayName("Should always bucket identical ingredient sets together, whatever their order")
+    void shouldMatchIdenticalSets() {
+        // Given
+        List<UUID> ingredients = ingredients(8);
+        List<UUID> reversed = new ArrayList<>(ingredients);
+        Collections.reverse(reversed);
+
+        // Then
+        assertThat(RecipeSimilarityIndex.bandKeys(RecipeSimilarityIndex.signature(reversed)))
+                .containsExactly(RecipeSimilarityIndex.bandKeys(RecipeSimilarityIndex.signature(ingredients)));
+    }
+
+    @Test
+    @DisplayName("Should report only close copies as possible duplicates, most similar first")
+    void shouldRankPossibleDuplicates() {
+        // Given
+        List<UUID> ingredients = ingredients(20);
+        Recipe same = recipe("Same", userId);
+        Recipe oneExtra = recipe("One extra", userId);
+        Recipe halfway = recipe("Halfway", userId);
+        index.putRecipe(same, totals(same, ingredients));
+        index.putRecipe(oneExtra, totals(oneExtra, Stream.concat(ingredients.stream(), Stream.of(UUID.randomUUID())).toList()));
+        index.putRecipe(halfway, totals(halfway, ingredients.subList(0, 10)));
+
+        // When
+        List<RecipeSimilarityIndex.Match> duplicates = index.possibleDuplicates(userId, ingredients, null);
+
+        // Then
+        assertThat(duplicates).extracting(RecipeSimilarityIndex.Match::id)
+                .containsExactly(same.getId(), oneExtra.getId());
+        assertThat(duplicates.get(0).similarity()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should apply updates and deletes and rebuild from the recipe totals")
+    void shouldApplyWritesAndRebuild() {
+        // Given
+        List<UUID> ingredients = ingredients(6);
+        Recipe changed = recipe("Changed", userId);
+        Recipe removed = recipe("Removed", userId);
+        index.putRecipe(changed, totals(changed, ingredients));
+        index.putRecipe(removed, totals(removed, ingredients));
+        index.putRecipe(changed, totals(changed, ingredients(6)));
+        index.removeRecipe(removed.getId());
+
+        UUID rebuilt = UUID.randomUUID();
+        List<SuggestionRequirementRow> rows = new ArrayList<>();
+        for (UUID ingredientId : ingredients) {
+            rows.add(new Row(rebuilt, "Rebuilt", userId, ingredientId, "g", BigDecimal.ONE));
+        }
+        // A second base unit of the same ingredient is still one ingredient
+        rows.add(new Row(rebuilt, "Rebuilt", userId, ingredients.get(0), "piece", BigDecimal.ONE));
+
+        // When
+        List<RecipeSimilarityIndex.Match> beforeRebuild = index.possibleDuplicates(userId, ingredients, null);
+        index.startRebuild().complete(rows);
+        List<RecipeSimilarityIndex.Match> afterRebuild = index.possibleDuplicates(userId, ingredients, null);
+
+        // Then
+        assertThat(beforeRebuild).isEmpty();
+        assertThat(afterRebuild).singleElement().satisfies(match -> {
+            assertThat(match.id()).isEqualTo(rebuilt);
+            assertThat(match.similarity()).isEqualTo(1.0);
+        });
+    }
+
+    @Test
+    @DisplayName("Should replay writes made between the start and the completion of a rebuild")
+    void shouldReplayWritesMadeDuringRebuild() {
+        // Given
+        List<UUID> ingredients = ingredients(6);
+        Recipe created = recipe("Created meanwhile", userId);
+        RecipeSimilarityIndex.Rebuild rebuild = index.startRebuild();
+        index.putRecipe(created, totals(created, ingredients));
+
+        // When - the rows were read before the recipe was saved
+        rebuild.complete(List.of());
+
+        // Then
+        assertThat(index.possibleDuplicates(userId, ingredients, null))
+                .extracting(RecipeSimilarityIndex.Match::id).containsExactly(created.getId());
+    }
+
+    private static List<UUID> ingredients(int count) {
+        return Stream.generate(UUID::randomUUID).limit(count).toList();
+    }
+
+    private static Recipe recipe(String name, UUID ownerUserId) {
+        return Recipe.builder().id(UUID.randomUUID()).name(name).ownerUserId(ownerUserId).build();
+    }
+
+    private static List<RecipeIngredientTotal> totals(Recipe recipe, List<UUID> ingredientIds) {
+        return ingredientIds.stream()
+                .map(ingredientId -> new RecipeIngredientTotal(recipe.getId(), ingredientId, "g", BigDecimal.ONE,
+                        UUID.randomUUID()))
+                .toList();
+    }
+}
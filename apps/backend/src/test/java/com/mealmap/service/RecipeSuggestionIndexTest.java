@@ -0,0 +1,212 @@
+package com.mealmap.service;
+
+import com.mealmap.model.entity.Recipe;
+import com.mealmap.model.entity.RecipeIngredientTotal;
+import com.mealmap.model.enums.SuggestionSource;
+import com.mealmap.repository.RecipeIngredientTotalRepository;
+import com.mealmap.repository.RecipeTemplateRepository;
+import com.mealmap.repository.projection.PantryStock;
+import com.mealmap.repository.projection.SuggestionRequirementRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RecipeSuggestionIndex Tests")
+class RecipeSuggestionIndexTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID otherUserId = UUID.randomUUID();
+    private final UUID rice = UUID.randomUUID();
+    private final UUID beans = UUID.randomUUID();
+    private final UUID onion = UUID.randomUUID();
+    private final UUID saffron = UUID.randomUUID();
+    private RecipeIngredientTotalRepository totalRepository;
+    private RecipeTemplateRepository templateRepository;
+    private RecipeSimilarityIndex similarityIndex;
+    private RecipeSuggestionIndex index;
+
+    private record Stock(UUID getIngredientId, String getBaseUnit, BigDecimal getAmount) implements PantryStock {
+    }
+
+    private record Row(UUID getCandidateId, String getName, UUID getOwnerUserId, UUID getIngredientId,
+                       String getBaseUnit, BigDecimal getAmount) implements SuggestionRequirementRow {
+    }
+
+    @BeforeEach
+    void setUp() {
+        totalRepository = mock(RecipeIngredientTotalRepository.class);
+        templateRepository = mock(RecipeTemplateRepository.class);
+        similarityIndex = new RecipeSimilarityIndex();
+        index = new RecipeSuggestionIndex(totalRepository, templateRepository, similarityIndex);
+    }
+
+    @Test
+    @DisplayName("Should rank by covered share of each line in base units and report what is missing or short")
+    void shouldScoreCoverageInBaseUnits() {
+        // Given
+        Recipe riceAndBeans = recipe("Rice and beans", userId);
+        Recipe paella = recipe("Paella", userId);
+        index.putRecipe(riceAndBeans, List.of(total(riceAndBeans, rice, "g", "200"), total(riceAndBeans, beans, "g", "400")));
+        index.putRecipe(paella, List.of(total(paella, rice, "g", "300"), total(paella, saffron, "g", "1")));
+        List<Stock> pantry = List.of(stock(rice, "g", "500"), stock(beans, "g", "200"), stock(beans, "piece", "3"));
+
+        // When
+        List<RecipeSuggestionIndex.Suggestion> suggestions = index.suggest(userId, pantry, 10);
+
+        // Then
+        assertThat(suggestions).extracting(RecipeSuggestionIndex.Suggestion::id)
+                .containsExactly(riceAndBeans.getId(), paella.getId());
+        assertThat(suggestions.get(0).coverage()).isEqualTo(0.75);
+        assertThat(suggestions.get(0).matchedIngredients()).isEqualTo(2);
+        assertThat(suggestions.get(0).insufficientIngredientIds()).containsExactly(beans);
+        assertThat(suggestions.get(1).coverage()).isEqualTo(0.5);
+        assertThat(suggestions.get(1).missingIngredientIds()).containsExactly(saffron);
+    }
+
+    @Test
+    @DisplayName("Should only consider the user's recipes and global templates that use something in the pantry")
+    void shouldScoreOnlyVisibleReachableCandidates() {
+        // Given
+        Recipe own = recipe("Onion soup", userId);
+        Recipe others = recipe("Someone else's soup", otherUserId);
+        Recipe unrelated = recipe("Plain rice", userId);
+        index.putRecipe(own, List.of(total(own, onion, "g", "500")));
+        index.putRecipe(others, List.of(total(others, onion, "g", "500")));
+        index.putRecipe(unrelated, List.of(total(unrelated, rice, "g", "200")));
+
+        // When
+        List<RecipeSuggestionIndex.Suggestion> suggestions = index.suggest(userId, List.of(stock(onion, "g", "100")), 10);
+
+        // Then
+        assertThat(suggestions).extracting(RecipeSuggestionIndex.Suggestion::id).containsExactly(own.getId());
+    }
+
+    @Test
+    @DisplayName("Should keep only the best candidates up to the limit")
+    void shouldLimitToBestCandidates() {
+        // Given
+        Recipe full = recipe("Full", userId);
+        Recipe half = recipe("Half", userId);
+        Recipe little = recipe("Little", userId);
+        index.putRecipe(full, List.of(total(full, rice, "g", "100")));
+        index.putRecipe(half, List.of(total(half, rice, "g", "200")));
+        index.putRecipe(little, List.of(total(little, rice, "g", "1000")));
+
+        // When
+        List<RecipeSuggestionIndex.Suggestion> suggestions = index.suggest(userId, List.of(stock(rice, "g", "100")), 2);
+
+        // Then
+        assertThat(suggestions).extracting(RecipeSuggestionIndex.Suggestion::name).containsExactly("Full", "Half");
+    }
+
+    @Test
+    @DisplayName("Should apply recipe updates and deletes and rebuild recipes and global templates from their rows")
+    void shouldApplyWritesAndRebuild() {
+        // Given
+        Recipe renamed = recipe("Before", userId);
+        Recipe removed = recipe("Removed", userId);
+        index.putRecipe(renamed, List.of(total(renamed, rice, "g", "100")));
+        index.putRecipe(removed, List.of(total(removed, rice, "g", "100")));
+        renamed.setName("After");
+        index.putRecipe(renamed, List.of(total(renamed, onion, "g", "100")));
+        index.removeRecipe(removed.getId());
+
+        UUID template = UUID.randomUUID();
+        List<SuggestionRequirementRow> recipeRows = List.of(
+                new Row(renamed.getId(), "After", userId, onion, "g", new BigDecimal("100")));
+        when(totalRepository.findAllSuggestionRows()).thenReturn(recipeRows);
+        when(templateRepository.findGlobalSuggestionRows()).thenReturn(List.of(
+                new Row(template, "Fried rice", null, rice, "g", new BigDecimal("200")),
+                new Row(template, "Fried rice", null, onion, "piece", null)));
+
+        // When
+        List<RecipeSuggestionIndex.Suggestion> beforeRebuild = index.suggest(userId, List.of(stock(onion, "g", "100")), 10);
+        index.rebuild();
+        List<RecipeSuggestionIndex.Suggestion> afterRebuild = index.suggest(userId,
+                List.of(stock(rice, "g", "200"), stock(onion, "piece", "1")), 10);
+
+        // Then
+        assertThat(beforeRebuild).singleElement().satisfies(suggestion -> {
+            assertThat(suggestion.name()).isEqualTo("After");
+            assertThat(suggestion.coverage()).isEqualTo(1.0);
+        });
+        assertThat(afterRebuild).extracting(RecipeSuggestionIndex.Suggestion::id)
+                .containsExactly(template, renamed.getId());
+        assertThat(afterRebuild.get(0)).satisfies(suggestion -> {
+            assertThat(suggestion.source()).isEqualTo(SuggestionSource.template);
+            assertThat(suggestion.coverage()).isEqualTo(1.0);
+            assertThat(suggestion.totalIngredients()).isEqualTo(2);
+        });
+        assertThat(afterRebuild.get(1).insufficientIngredientIds()).containsExactly(onion);
+        // The similarity index is rebuilt from the same scan of the recipe totals
+        verify(totalRepository, times(1)).findAllSuggestionRows();
+        assertThat(similarityIndex.similar(userId, List.of(onion), null, 1.0, 10))
+                .extracting(RecipeSimilarityIndex.Match::id).containsExactly(renamed.getId());
+    }
+
+    @Test
+    @DisplayName("Should keep recipes written while a rebuild is reading the rows, in both indexes")
+    void shouldReplayWritesMadeDuringRebuild() {
+        // Given - a recipe saved after the totals were read
+        Recipe created = recipe("Created meanwhile", userId);
+        List<RecipeIngredientTotal> totals = List.of(total(created, onion, "g", "100"));
+        when(totalRepository.findAllSuggestionRows()).thenAnswer(invocation -> {
+            index.putRecipe(created, totals);
+            similarityIndex.putRecipe(created, totals);
+            return List.of();
+        });
+        when(templateRepository.findGlobalSuggestionRows()).thenReturn(List.of());
+
+        // When
+        index.rebuild();
+
+        // Then
+        assertThat(index.suggest(userId, List.of(stock(onion, "g", "100")), 10))
+                .extracting(RecipeSuggestionIndex.Suggestion::id).containsExactly(created.getId());
+        assertThat(similarityIndex.similar(userId, List.of(onion), null, 1.0, 10))
+                .extracting(RecipeSimilarityIndex.Match::id).containsExactly(created.getId());
+    }
+
+    @Test
+    @DisplayName("Should lay out the user's recipes and the requested templates as vectors next to the stock")
+    void shouldBuildPlanningSpace() {
+        // Given
+        Recipe own = recipe("Rice and beans", userId);
+        Recipe others = recipe("Someone else's rice", otherUserId);
+        index.putRecipe(own, List.of(total(own, rice, "g", "200"), total(own, beans, "piece", "2")));
+        index.putRecipe(others, List.of(total(others, rice, "g", "100")));
+        List<Stock> pantry = List.of(stock(rice, "g", "500"), stock(beans, "g", "300"));
+
+        // When
+        RecipeSuggestionIndex.PlanningSpace space = index.planningSpace(userId, true, List.of(UUID.randomUUID()), pantry);
+        RecipeSuggestionIndex.PlanningSpace withoutRecipes = index.planningSpace(userId, false, List.of(), pantry);
+
+        // Then - beans are stocked in grams, not pieces
+        assertThat(space.meals()).singleElement().satisfies(meal -> {
+            assertThat(meal.id()).isEqualTo(own.getId());
+            assertThat(meal.amounts()).containsExactly(200, 2);
+            assertThat(space.stock()[meal.keys()[0]]).isEqualTo(500);
+            assertThat(space.stock()[meal.keys()[1]]).isZero();
+        });
+        assertThat(withoutRecipes.meals()).isEmpty();
+    }
+
+    private static Recipe recipe(String name, UUID ownerUserId) {
+        return Recipe.builder().id(UUID.randomUUID()).name(name).ownerUserId(ownerUserId).build();
+    }
+
+    private static RecipeIngredientTotal total(Recipe recipe, UUID ingredientId, String baseUnit, String amount) {
+        return new RecipeIngredientTotal(recipe.getId(), ingredientId, baseUnit, new BigDecimal(amount), UUID.randomUUID());
+    }
+
+    private static Stock stock(UUID ingredientId, String baseUnit, String amount) {
+        return new Stock(ingredientId, baseUnit, new BigDecimal(amount));
+    }
+}
@@ -1,5 +1,7 @@
 package com.mealmap.service;
 
+import com.mealmap.mapper.RecipeMapper;
+import com.mealmap.mapper.RecipeTemplateMapper;
 import com.mealmap.model.dto.recipe.CreateRecipeTemplateRequest;
 import com.mealmap.model.dto.recipe.RecipeDto;
 import com.mealmap.model.dto.recipe.RecipeItemDto;
@@ -14,16 +16,23 @@ import com.mealmap.model.entity.RecipeTemplatePreference;
 import com.mealmap.model.entity.User;
 import com.mealmap.model.enums.RecipeTemplateSource;
 import com.mealmap.model.enums.Unit;
+import com.mealmap.observability.DomainMetrics;
+import com.mealmap.repository.RecipeIngredientTotalRepository;
 import com.mealmap.repository.RecipeRepository;
 import com.mealmap.repository.RecipeTemplatePreferenceRepository;
 import com.mealmap.repository.RecipeTemplateRepository;
+import com.mealmap.repository.TagRepository;
 import com.mealmap.repository.UserRepository;
+import com.mealmap.repository.projection.TemplateCopy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -38,13 +47,19 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -60,6 +75,9 @@ class RecipeTemplateServiceTest {
     @Mock
     private RecipeRepository recipeRepository;
 
+    @Mock
+    private RecipeIngredientTotalRepository recipeIngredientTotalRepository;
+
     @Mock
     private UserRepository userRepository;
 
@@ -72,6 +90,27 @@ class RecipeTemplateServiceTest {
     @Mock
     private UserDetails userDetails;
 
+    @Mock
+    private DomainMetrics domainMetrics;
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private TemplateTagIndex tagIndex;
+
+    @Mock
+    private RecipeSuggestionIndex suggestionIndex;
+
+    @Mock
+    private RecipeSimilarityIndex similarityIndex;
+
+    @Spy
+    private RecipeTemplateMapper templateMapper = Mappers.getMapper(RecipeTemplateMapper.class);
+
+    @Spy
+    private RecipeMapper recipeMapper = Mappers.getMapper(RecipeMapper.class);
+
     @InjectMocks
     private RecipeTemplateService service;
 
@@ -124,8 +163,9 @@ class RecipeTemplateServiceTest {
     }
 
     @Test
-    @DisplayName("Lists templates and hides those marked hidden by the user")
+    @DisplayName("Lists the page the repository filtered and leaves hidden templates to it")
     void getTemplates_filtersHidden() {
+        // Given
         RecipeTemplatePreference hiddenPref = RecipeTemplatePreference.builder()
                 .id(UUID.randomUUID())
                 .templateId(globalTemplate.getId())
@@ -134,27 +174,59 @@ class RecipeTemplateServiceTest {
                 .hidden(true)
                 .updatedAt(Instant.now())
                 .build();
+        RecipeTemplatePreference favoritePref = RecipeTemplatePreference.builder()
+                .id(UUID.randomUUID())
+                .templateId(userTemplate.getId())
+                .userId(user.getId())
+                .favorite(true)
+                .hidden(false)
+                .updatedAt(Instant.now())
+                .build();
 
-        Page<RecipeTemplate> page = new PageImpl<>(List.of(globalTemplate, userTemplate));
+        when(preferenceRepository.findFlaggedByUserId(user.getId())).thenReturn(List.of(hiddenPref, favoritePref));
         when(templateRepository.findVisibleTemplates(eq(user.getId()), eq(RecipeTemplateSource.global), any(Pageable.class)))
-                .thenReturn(page);
-        when(preferenceRepository.findByUserIdAndTemplateIdIn(eq(user.getId()), any()))
-                .thenReturn(List.of(hiddenPref));
+                .thenReturn(new PageImpl<>(List.of(userTemplate)));
+        when(tagIndex.match(user.getId(), List.of(globalTemplate.getId()), List.of(userTemplate.getId()),
+                null, null, null, 0, 10))
+                .thenReturn(new TemplateTagIndex.Matches(List.of(), 1, false, Map.of(), Map.of()));
 
-        RecipeTemplatePageResponse response = service.getTemplates(10, null, null);
+        // When
+        RecipeTemplatePageResponse response = service.getTemplates(10, null, null, null, null);
 
+        // Then
         assertThat(response.getData())
                 .hasSize(1)
                 .first()
                 .satisfies(dto -> {
                     assertThat(dto.getId()).isEqualTo(userTemplate.getId());
                     assertThat(dto.isHidden()).isFalse();
-                    assertThat(dto.isFavorite()).isFalse();
+                    assertThat(dto.isFavorite()).isTrue();
                     assertThat(dto.getItems()).hasSize(1);
                 });
         assertThat(response.getNextCursor()).isNull();
     }
 
+    @Test
+    @DisplayName("Filters by tag through the index and keeps its order and facet counts")
+    void getTemplates_filtersByTag() {
+        // Given
+        when(preferenceRepository.findFlaggedByUserId(user.getId())).thenReturn(List.of());
+        when(tagIndex.match(user.getId(), List.of(), List.of(), null, List.of("quick"), null, 0, 10))
+                .thenReturn(new TemplateTagIndex.Matches(List.of(userTemplate.getId(), globalTemplate.getId()), 3, true,
+                        Map.of("quick", 3), Map.of("vegan", 1)));
+        when(templateRepository.findWithItemsByIdIn(anyList())).thenReturn(List.of(globalTemplate, userTemplate));
+
+        // When
+        RecipeTemplatePageResponse response = service.getTemplates(10, null, null, List.of("quick"), null);
+
+        // Then
+        assertThat(response.getData()).extracting("id").containsExactly(userTemplate.getId(), globalTemplate.getId());
+        assertThat(response.getNextCursor()).isNotNull();
+        assertThat(response.getFacets().getTags()).containsEntry("quick", 3);
+        assertThat(response.getFacets().getDietaryTags()).containsEntry("vegan", 1);
+        verify(templateRepository, never()).findVisibleTemplates(any(), any(), any());
+    }
+
     @Test
     @DisplayName("Updates preferences and defaults missing flags")
     void updatePreferences_setsFlags() {
@@ -193,6 +265,78 @@ class RecipeTemplateServiceTest {
         assertThat(dto.getName()).isEqualTo("Cloned");
         assertThat(dto.getItems()).hasSize(1);
         assertThat(dto.getId()).isNotNull();
+        verify(recipeIngredientTotalRepository).refresh(dto.getId());
+        verify(suggestionIndex).putRecipe(argThat(recipe -> recipe.getId().equals(dto.getId())), any());
+        verify(similarityIndex).putRecipe(argThat(recipe -> recipe.getId().equals(dto.getId())), any());
+        verify(similarityIndex).possibleDuplicates(user.getId(), List.of(ingredientIdOf(userTemplate)), dto.getId());
+    }
+
+    @Test
+    @DisplayName("Copy to recipes creates one recipe per accessible template")
+    void copyToRecipes_skipsInaccessibleTemplates() {
+        RecipeTemplate othersTemplate = RecipeTemplate.builder()
+                .id(UUID.randomUUID())
+                .name("Other")
+                .source(RecipeTemplateSource.user)
+                .ownerUserId(UUID.randomUUID())
+                .items(List.of())
+                .build();
+        List<UUID> ids = List.of(globalTemplate.getId(), othersTemplate.getId());
+        when(templateRepository.findWithItemsByIdIn(ids)).thenReturn(List.of(globalTemplate, othersTemplate));
+        when(recipeRepository.save(any())).thenAnswer(invocation -> {
+            Recipe saved = invocation.getArgument(0);
+            saved.setId(UUID.randomUUID());
+            return saved;
+        });
+
+        Map<UUID, Recipe> recipes = service.copyToRecipes(ids, user);
+
+        assertThat(recipes).containsOnlyKeys(globalTemplate.getId());
+        Recipe copy = recipes.get(globalTemplate.getId());
+        assertThat(copy.getName()).isEqualTo("Global Template");
+        assertThat(copy.getOwnerUserId()).isEqualTo(user.getId());
+        assertThat(copy.getItems()).hasSize(1);
+        verify(recipeIngredientTotalRepository).refresh(copy.getId());
+        verify(suggestionIndex).putRecipe(eq(copy), any());
+    }
+
+    @Test
+    @DisplayName("Copy to recipes plans an unchanged earlier copy instead of copying again")
+    void copyToRecipes_reusesEarlierCopy() {
+        Recipe earlierCopy = Recipe.builder().id(UUID.randomUUID()).name("Global Template").ownerUserId(user.getId()).build();
+        List<UUID> ids = List.of(globalTemplate.getId());
+        when(templateRepository.findWithItemsByIdIn(ids)).thenReturn(List.of(globalTemplate));
+        Recipe olderCopy = Recipe.builder().id(UUID.randomUUID()).name("Global Template").ownerUserId(user.getId()).build();
+        when(recipeRepository.findUnchangedCopies(user.getId(), ids)).thenReturn(List.of(
+                new Copy(globalTemplate.getId(), earlierCopy.getId()),
+                new Copy(globalTemplate.getId(), olderCopy.getId())));
+        when(recipeRepository.findAllById(any())).thenReturn(List.of(earlierCopy));
+
+        Map<UUID, Recipe> recipes = service.copyToRecipes(ids, user);
+
+        assertThat(recipes).containsExactly(entry(globalTemplate.getId(), earlierCopy));
+        verify(recipeRepository, never()).save(any());
+        verify(similarityIndex, never()).possibleDuplicates(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Copy to recipes locks the owner before looking for earlier copies")
+    void copyToRecipes_serializesCopiesPerOwner() {
+        List<UUID> ids = List.of(globalTemplate.getId());
+        when(templateRepository.findWithItemsByIdIn(ids)).thenReturn(List.of(globalTemplate));
+        when(recipeRepository.findUnchangedCopies(user.getId(), ids)).thenReturn(List.of());
+        when(recipeRepository.save(any(Recipe.class))).thenAnswer(invocation -> {
+            Recipe recipe = invocation.getArgument(0);
+            recipe.setId(UUID.randomUUID());
+            return recipe;
+        });
+
+        service.copyToRecipes(ids, user);
+
+        InOrder inOrder = inOrder(userRepository, recipeRepository);
+        inOrder.verify(userRepository).lockById(user.getId());
+        inOrder.verify(recipeRepository).findUnchangedCopies(user.getId(), ids);
+        inOrder.verify(recipeRepository).save(any(Recipe.class));
     }
 
     @Test
@@ -238,10 +382,19 @@ class RecipeTemplateServiceTest {
 
         assertThat(result.getName()).isEqualTo("My Template");
         assertThat(result.getItems()).hasSize(1);
-        assertThat(result.getTags()).contains("tag1", "tag2");
+        assertThat(result.getTags()).containsExactly("tag1", "tag2");
+        assertThat(result.getDietaryTags()).containsExactly("veg");
+        verify(tagIndex).put(any(RecipeTemplate.class));
         assertThat(result.getSource()).isEqualTo(RecipeTemplateSource.user);
     }
 
+    private record Copy(UUID getTemplateId, UUID getRecipeId) implements TemplateCopy {
+    }
+
+    private static UUID ingredientIdOf(RecipeTemplate template) {
+        return template.getItems().get(0).getIngredientId();
+    }
+
     private RecipeTemplateItem buildTemplateItem(RecipeTemplate template) {
         return RecipeTemplateItem.builder()
                 .id(UUID.randomUUID())
@@ -0,0 +1,122 @@
+package com.mealmap.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SingleFlight Tests")
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    @Test
+    @DisplayName("Should run the work once for concurrent calls with the same key")
+    void shouldShareInFlightResult() throws Exception {
+        // Given - a leader blocked inside its work
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            Future<Integer> leader = executor.submit(() -> singleFlight.execute("week", () -> {
+                started.countDown();
+                await(release);
+                return runs.incrementAndGet();
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // When - followers arrive while the leader is in flight
+            Future<Integer> first = executor.submit(() -> singleFlight.execute("week", runs::incrementAndGet));
+            Future<Integer> second = executor.submit(() -> singleFlight.execute("week", runs::incrementAndGet));
+            Thread.sleep(200);
+            release.countDown();
+
+            // Then - everyone gets the leader's result and the work ran once
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(runs).hasValue(1);
+            assertThat(singleFlight.inFlight()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should rethrow the leader's exception to followers")
+    void shouldShareLeaderFailure() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Integer> leader = executor.submit(() -> singleFlight.execute("week", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("boom");
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // When
+            Future<Integer> follower = executor.submit(() -> singleFlight.execute("week", () -> 42));
+            Thread.sleep(200);
+            release.countDown();
+
+            // Then
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("boom");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not cache results once a call has finished")
+    void shouldRunAgainAfterCompletion() {
+        // Given
+        AtomicInteger runs = new AtomicInteger();
+
+        // When
+        int first = singleFlight.execute("week", runs::incrementAndGet);
+        int second = singleFlight.execute("week", runs::incrementAndGet);
+
+        // Then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should run calls with different keys independently")
+    void shouldNotCoalesceDifferentKeys() {
+        // Given
+        AtomicInteger runs = new AtomicInteger();
+
+        // When
+        singleFlight.execute("week-1", () -> singleFlight.execute("week-2", runs::incrementAndGet));
+
+        // Then
+        assertThat(runs).hasValue(1);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
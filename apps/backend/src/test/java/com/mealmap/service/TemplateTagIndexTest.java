@@ -0,0 +1,189 @@
+package com.mealmap.service;
+
+import com.mealmap.model.entity.RecipeTemplate;
+import com.mealmap.model.entity.Tag;
+import com.mealmap.model.enums.RecipeTemplateSource;
+import com.mealmap.model.enums.TagKind;
+import com.mealmap.repository.RecipeTemplateRepository;
+import com.mealmap.repository.projection.TemplateTagRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("TemplateTagIndex Tests")
+class TemplateTagIndexTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID otherUserId = UUID.randomUUID();
+    private RecipeTemplateRepository templateRepository;
+    private TemplateTagIndex index;
+
+    private record Row(UUID getTemplateId, String getTemplateName, RecipeTemplateSource getSource,
+                       UUID getOwnerUserId, TagKind getTagKind, String getTagName) implements TemplateTagRow {
+    }
+
+    @BeforeEach
+    void setUp() {
+        templateRepository = mock(RecipeTemplateRepository.class);
+        index = new TemplateTagIndex(templateRepository);
+    }
+
+    @Test
+    @DisplayName("Should match only visible templates carrying every requested tag")
+    void shouldIntersectTagsWithinVisibleTemplates() {
+        // Given
+        RecipeTemplate quickVegan = template("Quick vegan", null, "Quick", "vegan");
+        RecipeTemplate quick = template("Quick", null, "quick", null);
+        RecipeTemplate ownQuickVegan = template("Mine", userId, "quick", "vegan");
+        RecipeTemplate othersQuickVegan = template("Not mine", otherUserId, "quick", "vegan");
+        List.of(quickVegan, quick, ownQuickVegan, othersQuickVegan).forEach(index::put);
+
+        // When
+        TemplateTagIndex.Matches matches = index.match(userId, List.of(), List.of(), null, List.of(" QUICK "), List.of("Vegan"), 0, 10);
+
+        // Then
+        assertThat(matches.pageIds()).containsExactly(quickVegan.getId(), ownQuickVegan.getId());
+        assertThat(matches.total()).isEqualTo(2);
+        assertThat(matches.tagCounts()).containsExactly(entry("quick", 2));
+        assertThat(matches.dietaryCounts()).containsExactly(entry("vegan", 2));
+    }
+
+    @Test
+    @DisplayName("Should page matches and count facets across all pages")
+    void shouldPageAndCountFacets() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            index.put(template("Soup " + i, null, "soup", i % 2 == 0 ? "vegan" : "gluten-free"));
+        }
+
+        // When
+        TemplateTagIndex.Matches first = index.match(userId, List.of(), List.of(), null, List.of("soup"), null, 0, 2);
+        TemplateTagIndex.Matches last = index.match(userId, List.of(), List.of(), null, List.of("soup"), null, 4, 2);
+
+        // Then
+        assertThat(first.pageIds()).hasSize(2);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first.dietaryCounts()).containsExactly(entry("vegan", 3), entry("gluten-free", 2));
+        assertThat(last.pageIds()).hasSize(1);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should leave out hidden, removed and retagged templates and apply the name filter")
+    void shouldApplyWritesHiddenIdsAndNames() {
+        // Given
+        RecipeTemplate hidden = template("Hidden curry", null, "curry", null);
+        RecipeTemplate removed = template("Removed curry", null, "curry", null);
+        RecipeTemplate retagged = template("Retagged curry", null, "curry", null);
+        RecipeTemplate kept = template("Green curry", null, "curry", null);
+        List.of(hidden, removed, retagged, kept).forEach(index::put);
+        index.remove(removed.getId());
+        retagged.setTags(List.of(tag(TagKind.general, "stew")));
+        index.put(retagged);
+
+        // When
+        TemplateTagIndex.Matches byTag = index.match(userId, List.of(hidden.getId()), List.of(), null, List.of("curry"), null, 0, 10);
+        TemplateTagIndex.Matches byTagAndName = index.match(userId, List.of(), List.of(), "GREEN", List.of("curry"), null, 0, 10);
+        TemplateTagIndex.Matches unknownTag = index.match(userId, List.of(), List.of(), null, List.of("unknown"), null, 0, 10);
+
+        // Then
+        assertThat(byTag.pageIds()).containsExactly(kept.getId());
+        assertThat(byTagAndName.pageIds()).containsExactly(kept.getId());
+        assertThat(unknownTag.total()).isZero();
+        assertThat(unknownTag.tagCounts()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should put favorites first and keep paging stable across the two groups")
+    void shouldOrderFavoritesFirst() {
+        // Given
+        List<RecipeTemplate> soups = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            RecipeTemplate soup = template("Soup " + i, null, "soup", null);
+            soups.add(soup);
+            index.put(soup);
+        }
+        List<UUID> favoriteIds = List.of(soups.get(3).getId(), soups.get(1).getId());
+
+        // When
+        TemplateTagIndex.Matches first = index.match(userId, List.of(), favoriteIds, null, List.of("soup"), null, 0, 3);
+        TemplateTagIndex.Matches second = index.match(userId, List.of(), favoriteIds, null, List.of("soup"), null, 3, 3);
+
+        // Then
+        assertThat(first.pageIds()).containsExactly(soups.get(1).getId(), soups.get(3).getId(), soups.get(0).getId());
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.pageIds()).containsExactly(soups.get(2).getId());
+    }
+
+    @Test
+    @DisplayName("Should rebuild from the tag rows of every template")
+    void shouldRebuildFromRows() {
+        // Given
+        UUID tagged = UUID.randomUUID();
+        UUID untagged = UUID.randomUUID();
+        when(templateRepository.findAllTagRows()).thenReturn(List.of(
+                new Row(tagged, "Pasta", RecipeTemplateSource.global, null, TagKind.general, "quick"),
+                new Row(tagged, "Pasta", RecipeTemplateSource.global, null, TagKind.dietary, "vegetarian"),
+                new Row(untagged, "Rice", RecipeTemplateSource.user, userId, null, null)));
+        index.put(template("Stale", null, "quick", null));
+
+        // When
+        index.rebuild();
+
+        // Then
+        assertThat(index.match(userId, List.of(), List.of(), null, List.of("quick"), null, 0, 10).pageIds())
+                .containsExactly(tagged);
+        assertThat(index.match(userId, List.of(), List.of(), null, null, null, 0, 10).pageIds())
+                .containsExactly(tagged, untagged);
+    }
+
+    @Test
+    @DisplayName("Should keep writes that land while a rebuild is reading the tag rows")
+    void shouldReplayWritesMadeDuringRebuild() {
+        // Given - a template created and another removed after the rows were read
+        RecipeTemplate created = template("Created meanwhile", null, "quick", null);
+        UUID removed = UUID.randomUUID();
+        UUID kept = UUID.randomUUID();
+        when(templateRepository.findAllTagRows()).thenAnswer(invocation -> {
+            List<TemplateTagRow> rows = List.of(
+                    new Row(removed, "Removed meanwhile", RecipeTemplateSource.global, null, TagKind.general, "quick"),
+                    new Row(kept, "Pasta", RecipeTemplateSource.global, null, TagKind.general, "quick"));
+            index.put(created);
+            index.remove(removed);
+            return rows;
+        });
+
+        // When
+        index.rebuild();
+
+        // Then
+        assertThat(index.match(userId, List.of(), List.of(), null, List.of("quick"), null, 0, 10).pageIds())
+                .containsExactlyInAnyOrder(kept, created.getId());
+    }
+
+    private static RecipeTemplate template(String name, UUID ownerUserId, String tag, String dietaryTag) {
+        List<Tag> tags = new ArrayList<>();
+        tags.add(tag(TagKind.general, TemplateTagIndex.normalize(tag)));
+        if (dietaryTag != null) {
+            tags.add(tag(TagKind.dietary, dietaryTag));
+        }
+        return RecipeTemplate.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .source(ownerUserId == null ? RecipeTemplateSource.global : RecipeTemplateSource.user)
+                .ownerUserId(ownerUserId)
+                .tags(tags)
+                .build();
+    }
+
+    private static Tag tag(TagKind kind, String name) {
+        return Tag.builder().id(UUID.randomUUID()).kind(kind).name(name).build();
+    }
+}
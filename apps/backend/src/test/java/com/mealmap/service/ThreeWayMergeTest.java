@@ -0,0 +1,71 @@
+package com.mealmap.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ThreeWayMerge Tests")
+class ThreeWayMergeTest {
+
+    @Test
+    @DisplayName("Should keep changes made on either side")
+    void shouldMergeNonOverlappingChanges() {
+        // Given - they changed a, we changed b
+        Map<String, Integer> base = Map.of("a", 1, "b", 1);
+        Map<String, Integer> theirs = Map.of("a", 2, "b", 1);
+        Map<String, Integer> ours = Map.of("a", 1, "b", 3);
+
+        // When
+        ThreeWayMerge.Result<String, Integer> result = ThreeWayMerge.merge(base, theirs, ours);
+
+        // Then
+        assertThat(result.hasConflicts()).isFalse();
+        assertThat(result.merged()).containsExactlyInAnyOrderEntriesOf(Map.of("a", 2, "b", 3));
+    }
+
+    @Test
+    @DisplayName("Should apply additions and deletions from either side")
+    void shouldMergeAdditionsAndDeletions() {
+        // Given - they added c, we deleted b and added d
+        Map<String, Integer> base = Map.of("a", 1, "b", 1);
+        Map<String, Integer> theirs = Map.of("a", 1, "b", 1, "c", 1);
+        Map<String, Integer> ours = Map.of("a", 1, "d", 1);
+
+        // When
+        ThreeWayMerge.Result<String, Integer> result = ThreeWayMerge.merge(base, theirs, ours);
+
+        // Then
+        assertThat(result.hasConflicts()).isFalse();
+        assertThat(result.merged()).containsOnlyKeys("a", "c", "d");
+    }
+
+    @Test
+    @DisplayName("Should accept the same change made on both sides")
+    void shouldAgreeOnIdenticalChanges() {
+        // When
+        ThreeWayMerge.Result<String, Integer> result = ThreeWayMerge.merge(Map.of("a", 1), Map.of("a", 2), Map.of("a", 2));
+
+        // Then
+        assertThat(result.hasConflicts()).isFalse();
+        assertThat(result.merged()).containsEntry("a", 2);
+    }
+
+    @Test
+    @DisplayName("Should report different changes to the same key and keep the current value")
+    void shouldReportConflicts() {
+        // Given - both changed a; we edited b which they deleted
+        Map<String, Integer> base = Map.of("a", 1, "b", 1);
+        Map<String, Integer> theirs = Map.of("a", 2);
+        Map<String, Integer> ours = Map.of("a", 3, "b", 2);
+
+        // When
+        ThreeWayMerge.Result<String, Integer> result = ThreeWayMerge.merge(base, theirs, ours);
+
+        // Then
+        assertThat(result.conflicts()).containsExactlyInAnyOrder("a", "b");
+        assertThat(result.merged()).containsExactlyInAnyOrderEntriesOf(Map.of("a", 2));
+    }
+}
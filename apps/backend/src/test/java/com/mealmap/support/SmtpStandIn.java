@@ -0,0 +1,139 @@
+package com.mealmap.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process SMTP server for tests.
+ * Accepts every message except those addressed to configured rejected recipients,
+ * and counts connections so tests can assert how many SMTP sessions were opened.
+ */
+public class SmtpStandIn implements AutoCloseable {
+
+    public record ReceivedMessage(String recipient, String data) {
+    }
+
+    private final ServerSocket serverSocket;
+    private final Set<String> rejectedRecipients;
+    private final List<ReceivedMessage> messages = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    public SmtpStandIn(String... rejectedRecipients) throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.rejectedRecipients = Set.of(rejectedRecipients);
+        executor.submit(this::acceptLoop);
+    }
+
+    public String getHost() {
+        return serverSocket.getInetAddress().getHostAddress();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public List<ReceivedMessage> getMessages() {
+        return List.copyOf(messages);
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                executor.submit(() -> handle(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+
+            reply(out, "220 localhost SMTP stand-in");
+            String recipient = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4
+                        ? line.substring(0, 4).toUpperCase(Locale.ROOT)
+                        : line.toUpperCase(Locale.ROOT);
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 localhost");
+                    case "MAIL" -> {
+                        recipient = null;
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        String address = extractAddress(line);
+                        if (rejectedRecipients.contains(address)) {
+                            reply(out, "550 No such user");
+                        } else {
+                            recipient = address;
+                            reply(out, "250 OK");
+                        }
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line).append('\n');
+                        }
+                        messages.add(new ReceivedMessage(recipient, data.toString()));
+                        reply(out, "250 OK");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        } catch (IOException ignored) {
+            // Client went away; nothing to clean up beyond the socket
+        }
+    }
+
+    private static String extractAddress(String line) {
+        int start = line.indexOf('<');
+        int end = line.indexOf('>');
+        if (start < 0 || end < start) {
+            return line.substring(line.indexOf(':') + 1).trim();
+        }
+        return line.substring(start + 1, end);
+    }
+
+    private static void reply(Writer out, String response) throws IOException {
+        out.write(response);
+        out.write("\r\n");
+        out.flush();
+    }
+}
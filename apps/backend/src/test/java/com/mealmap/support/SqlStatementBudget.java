@@ -0,0 +1,55 @@
+package com.mealmap.support;
+
+import com.mealmap.observability.sql.SqlStatementCounter;
+import com.mealmap.observability.sql.SqlStatementMetricsFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.function.Supplier;
+
+/**
+ * Query budgets for tests.
+ * Use {@link #atMost(int)} with MockMvc (the SQL metrics filter must be in the chain) or
+ * {@link #assertAtMost(int, Supplier)} around a direct service call. Either fails with the
+ * actual count and the most repeated statement, which usually points straight at the N+1.
+ */
+public final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    public static ResultMatcher atMost(int budget) {
+        return result -> {
+            String header = result.getResponse().getHeader(SqlStatementMetricsFilter.STATEMENT_COUNT_HEADER);
+            if (header == null) {
+                throw new AssertionError("No " + SqlStatementMetricsFilter.STATEMENT_COUNT_HEADER
+                        + " header; is SqlStatementMetricsFilter registered with MockMvc?");
+            }
+            int statements = Integer.parseInt(header);
+            if (statements > budget) {
+                throw new AssertionError("Expected at most " + budget + " SQL statements but the request ran "
+                        + statements);
+            }
+        };
+    }
+
+    public static <T> T assertAtMost(int budget, Supplier<T> action) {
+        try (SqlStatementCounter.Tally tally = SqlStatementCounter.start()) {
+            T result = action.get();
+            if (tally.getStatements() > budget) {
+                String repeated = tally.mostRepeated()
+                        .map(entry -> "; most repeated (" + entry.getValue() + "x): " + entry.getKey())
+                        .orElse("");
+                throw new AssertionError("Expected at most " + budget + " SQL statements but ran "
+                        + tally.getStatements() + repeated);
+            }
+            return result;
+        }
+    }
+
+    public static void assertAtMost(int budget, Runnable action) {
+        assertAtMost(budget, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
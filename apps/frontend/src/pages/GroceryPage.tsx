@@ -32,8 +32,9 @@ const GroceryPage = () => {
   })
 
   const updateMutation = useMutation({
-    mutationFn: ({ id, items }: { id: string; items: GroceryItem[][]; }) =>
+    mutationFn: ({ id, version, items }: { id: string; version: number; items: GroceryItem[][]; }) =>
       updateGroceryList(id, {
+        version,
         trips: items.map((tripItems, index) => ({
           tripIndex: index,
           items: tripItems,
@@ -67,7 +68,7 @@ const GroceryPage = () => {
     }
 
     const allTripItems = updatedTrips.map((trip) => trip.items)
-    updateMutation.mutate({ id: groceryList.id, items: allTripItems })
+    updateMutation.mutate({ id: groceryList.id, version: groceryList.version, items: allTripItems })
   }
 
   // Group items by category
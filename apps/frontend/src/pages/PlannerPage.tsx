@@ -76,8 +76,8 @@ const PlannerPage = () => {
 
   // Update week mutation
   const updateWeekMutation = useMutation({
-    mutationFn: ({ id, items }: { id: string; items: CreatePlannerItemRequest[] }) =>
-      updatePlannerWeek(id, { items }),
+    mutationFn: ({ id, version, items }: { id: string; version: number; items: CreatePlannerItemRequest[] }) =>
+      updatePlannerWeek(id, { version, items }),
     onSuccess: () => {
       queryClient.invalidateQueries({ queryKey: ['planner-weeks'] })
     },
@@ -91,13 +91,14 @@ const PlannerPage = () => {
       const updatedItems = currentWeek.items
         .filter((item) => item.id !== itemId)
         .map((item) => ({
+          id: item.id,
           date: item.date,
           slot: item.slot,
           recipeId: item.recipeId || undefined,
           portions: item.portions,
         }))
 
-      await updatePlannerWeek(currentWeek.id, { items: updatedItems })
+      await updatePlannerWeek(currentWeek.id, { version: currentWeek.version, items: updatedItems })
     },
     onSuccess: () => {
       queryClient.invalidateQueries({ queryKey: ['planner-weeks'] })
@@ -145,6 +146,7 @@ const PlannerPage = () => {
     if (currentWeek) {
       // Update existing week
       const existingItems = currentWeek.items.map((item) => ({
+        id: item.id,
         date: item.date,
         slot: item.slot,
         recipeId: item.recipeId || undefined,
@@ -152,6 +154,7 @@ const PlannerPage = () => {
       }))
       await updateWeekMutation.mutateAsync({
         id: currentWeek.id,
+        version: currentWeek.version,
         items: [...existingItems, newItem],
       })
     } else {
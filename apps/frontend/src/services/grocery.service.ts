@@ -30,6 +30,7 @@ export interface GroceryList {
   trips: GroceryTrip[]
   createdAt: string
   updatedAt?: string
+  version: number
 }
 
 export interface ComputeGroceryRequest {
@@ -43,6 +44,7 @@ export interface ComputeGroceryRequest {
 }
 
 export interface UpdateGroceryListRequest {
+  version?: number
   trips: Array<{
     tripIndex: number
     items: GroceryItem[]
@@ -20,9 +20,11 @@ export interface PlannerWeek {
   items: PlannerItem[]
   createdAt: string
   updatedAt: string
+  version: number
 }
 
 export interface CreatePlannerItemRequest {
+  id?: string // keeps an existing item when updating a week
   date: string
   slot: MealSlot
   recipeId?: string
@@ -36,9 +38,34 @@ export interface CreatePlannerWeekRequest {
 }
 
 export interface UpdatePlannerWeekRequest {
+  version?: number // version the edit was made against; older versions are merged server-side
   items: CreatePlannerItemRequest[]
 }
 
+export interface UpdatePlannerItemRequest {
+  date?: string
+  slot?: MealSlot
+  recipeId?: string
+  portions?: number
+}
+
+export interface CopyPlannerWeekRequest {
+  targetStartDate: string
+}
+
+export interface CreateRotationRequest {
+  cycleWeeks?: number // the source week and the weeks following it, default 1
+  startDate: string
+  weeks: number
+}
+
+export interface GeneratePlannerWeekRequest {
+  slots?: MealSlot[] // defaults to the profile's meal slots, or dinner
+  dietaryTags?: string[] // only templates carrying all of these are planned
+  includeTemplates?: boolean // default true
+  portions?: number // default 1
+}
+
 export interface PlannerWeekPageResponse {
   data: PlannerWeek[]
   nextCursor: string | null
@@ -99,6 +126,72 @@ export const deletePlannerWeek = async (id: string): Promise<void> => {
   await api.delete(`/planner/weeks/${id}`)
 }
 
+/**
+ * Copy a planner week, items included, to another week
+ */
+export const copyPlannerWeek = async (
+  id: string,
+  request: CopyPlannerWeekRequest
+): Promise<PlannerWeek> => {
+  const { data } = await api.post<PlannerWeek>(`/planner/weeks/${id}/copy`, request)
+  return data
+}
+
+/**
+ * Repeat a rotation starting with this week over the following weeks; returns the weeks created
+ */
+export const createRotation = async (
+  id: string,
+  request: CreateRotationRequest
+): Promise<PlannerWeek[]> => {
+  const { data } = await api.post<PlannerWeek[]>(`/planner/weeks/${id}/rotation`, request)
+  return data
+}
+
+/**
+ * Fill the open slots of a week with generated meals; returns the updated week
+ */
+export const generatePlannerWeek = async (
+  id: string,
+  request: GeneratePlannerWeekRequest
+): Promise<PlannerWeek> => {
+  const { data } = await api.post<PlannerWeek>(`/planner/weeks/${id}/generate`, request)
+  return data
+}
+
+/**
+ * Add a single item to a planner week
+ */
+export const addPlannerItem = async (
+  weekId: string,
+  request: CreatePlannerItemRequest
+): Promise<PlannerItem> => {
+  const { data } = await api.post<PlannerItem>(`/planner/weeks/${weekId}/items`, request)
+  return data
+}
+
+/**
+ * Update a single planner item, e.g. after dragging it to another day or slot
+ */
+export const updatePlannerItem = async (
+  weekId: string,
+  itemId: string,
+  request: UpdatePlannerItemRequest
+): Promise<PlannerItem> => {
+  const { data } = await api.patch<PlannerItem>(
+    `/planner/weeks/${weekId}/items/${itemId}`,
+    request
+  )
+  return data
+}
+
+/**
+ * Remove a single item from a planner week
+ */
+export const deletePlannerItem = async (weekId: string, itemId: string): Promise<void> => {
+  await api.delete(`/planner/weeks/${weekId}/items/${itemId}`)
+}
+
 /**
  * Get the Monday of the current week
  */
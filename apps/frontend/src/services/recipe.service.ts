@@ -11,7 +11,7 @@
  */
 
 import api from '@/lib/api'
-import type { Recipe, RecipeItem } from '@/types/api'
+import type { Recipe, RecipeItem, SimilarRecipe } from '@/types/api'
 
 /**
  * Data Transfer Object for creating a recipe
@@ -69,6 +69,47 @@ export const getRecipes = async (
   return response.data
 }
 
+/**
+ * A recipe or global template that can be cooked (at least partly) from the pantry
+ */
+export interface RecipeSuggestion {
+  id: string
+  source: 'recipe' | 'template'
+  name: string
+  coverage: number                     // 0..1, share of the needed amounts on hand
+  matchedIngredients: number
+  totalIngredients: number
+  missingIngredientIds: string[]       // Not in the pantry at all
+  insufficientIngredientIds: string[]  // In the pantry, but not enough of it
+}
+
+/**
+ * Get recipes and templates to cook from what is in the pantry, best match first
+ * 
+ * @param limit - Maximum number of suggestions to return
+ * @returns Promise resolving to the ranked suggestions
+ */
+export const getRecipeSuggestions = async (limit?: number): Promise<RecipeSuggestion[]> => {
+  const response = await api.get<RecipeSuggestion[]>('/recipes/suggestions', {
+    params: limit !== undefined ? { limit } : undefined,
+  })
+  return response.data
+}
+
+/**
+ * Get the user's other recipes that share most of this recipe's ingredients, most similar first
+ * 
+ * @param id - Unique identifier of the recipe
+ * @param limit - Maximum number of recipes to return
+ * @returns Promise resolving to the similar recipes
+ */
+export const getSimilarRecipes = async (id: string, limit?: number): Promise<SimilarRecipe[]> => {
+  const response = await api.get<SimilarRecipe[]>(`/recipes/${id}/similar`, {
+    params: limit !== undefined ? { limit } : undefined,
+  })
+  return response.data
+}
+
 /**
  * Get a single recipe by ID
  * 
@@ -28,11 +28,20 @@ export interface GetRecipeTemplatesParams {
   limit?: number
   cursor?: string
   search?: string
+  tags?: string[]
+  dietaryTags?: string[]
+}
+
+/** Matching templates per tag name, across all pages */
+export interface RecipeTemplateFacets {
+  tags: Record<string, number>
+  dietaryTags: Record<string, number>
 }
 
 export interface PaginatedRecipeTemplatesResponse {
   data: RecipeTemplate[]
   nextCursor: string | null
+  facets?: RecipeTemplateFacets
 }
 
 export const getRecipeTemplates = async (
@@ -44,8 +53,12 @@ export const getRecipeTemplates = async (
           limit: params.limit,
           cursor: params.cursor,
           q: params.search,
+          tag: params.tags,
+          dietary: params.dietaryTags,
         }
       : undefined,
+    // Repeated keys (tag=a&tag=b) rather than tag[]=a, which Spring does not bind to a list
+    paramsSerializer: { indexes: null },
   })
   return response.data
 }
@@ -71,6 +71,13 @@ export interface Recipe {
   items: RecipeItem[]
   createdAt: string
   updatedAt: string
+  possibleDuplicates?: SimilarRecipe[] | null  // Only on create and template duplicate responses
+}
+
+export interface SimilarRecipe {
+  id: string
+  name: string
+  similarity: number  // 0..1, shared ingredients over all ingredients of the two
 }
 
 export interface PlannerItem {
@@ -90,6 +97,7 @@ export interface PlannerWeek {
   items: PlannerItem[]
   createdAt: string
   updatedAt: string
+  version: number
 }
 
 export interface PantryItem {
@@ -122,6 +130,7 @@ export interface GroceryList {
   trips: GroceryTrip[]
   createdAt: string
   updatedAt: string
+  version: number
 }
 
 export interface PaginatedResponse<T> {